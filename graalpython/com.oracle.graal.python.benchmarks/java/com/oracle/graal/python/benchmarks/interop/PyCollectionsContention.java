@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.interop;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Python threads hammering a shared dict and set and reading a shared list while also filling
+ * thread-local dicts and lists, and threads growing, shrinking and overwriting a shared list.
+ * Compares the cost of the thread-safe collections against the unsynchronized ones.
+ */
+public class PyCollectionsContention extends BenchRunner {
+
+    @Param({"200000"}) public int arg1;
+
+    @Param({"4"}) public int arg2;
+
+    @Param({"true"}) public boolean arg3;
+
+    private Value run;
+    private Value runList;
+
+    @Setup
+    public void setup() {
+        System.out.println("### setup ...");
+        this.context.close();
+        this.context = Context.newBuilder().allowIO(true).allowCreateThread(true).allowExperimentalOptions(true) //
+                        .option("python.WithThread", "true") //
+                        .option("python.ThreadSafeCollections", Boolean.toString(arg3)).build();
+        this.run = this.context.eval("python", //
+                        "import threading\n" + //
+                                        "def run(n, nthreads):\n" + //
+                                        "    shared = {}\n" + //
+                                        "    seen = set()\n" + //
+                                        "    values = list(range(1024))\n" + //
+                                        "    def worker(tid):\n" + //
+                                        "        local = {}\n" + //
+                                        "        local_values = []\n" + //
+                                        "        for i in range(n):\n" + //
+                                        "            k = i % 1024\n" + //
+                                        "            shared[k] = tid\n" + //
+                                        "            seen.add(k)\n" + //
+                                        "            local[k] = shared.get(k, tid)\n" + //
+                                        "            local_values.append(values[k])\n" + //
+                                        "    threads = [threading.Thread(target=worker, args=(t,)) for t in range(nthreads)]\n" + //
+                                        "    for t in threads:\n" + //
+                                        "        t.start()\n" + //
+                                        "    for t in threads:\n" + //
+                                        "        t.join()\n" + //
+                                        "    return len(shared) + len(seen)\n" + //
+                                        "run");
+        this.runList = this.context.eval("python", //
+                        "import threading\n" + //
+                                        "def run_list(n, nthreads):\n" + //
+                                        "    shared = list(range(64))\n" + //
+                                        "    def worker(tid):\n" + //
+                                        "        for i in range(n):\n" + //
+                                        "            shared.append(i)\n" + //
+                                        "            if i % 2 == 1:\n" + //
+                                        "                shared.pop()\n" + //
+                                        "            shared[i % 64] = tid\n" + //
+                                        "    threads = [threading.Thread(target=worker, args=(t,)) for t in range(nthreads)]\n" + //
+                                        "    for t in threads:\n" + //
+                                        "        t.start()\n" + //
+                                        "    for t in threads:\n" + //
+                                        "        t.join()\n" + //
+                                        "    return len(shared)\n" + //
+                                        "run_list");
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close(true);
+    }
+
+    @Benchmark
+    public void collectionsContention(Blackhole bh) {
+        bh.consume(run.execute(arg1, arg2).asInt());
+    }
+
+    @Benchmark
+    public void listContention(Blackhole bh) {
+        bh.consume(runList.execute(arg1, arg2).asInt());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.interop;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The meso {@code threadring} benchmark with real Python threads instead of generators: a token is
+ * passed around a ring of threads, each blocked on its own lock until its predecessor releases
+ * it. Compares platform threads with virtual threads for a large number of mostly parked threads.
+ */
+public class PyThreadRing extends BenchRunner {
+
+    @Param({"10000"}) public int arg1;
+
+    @Param({"200000"}) public int arg2;
+
+    @Param({"true"}) public boolean arg3;
+
+    private Value run;
+
+    @Setup
+    public void setup() {
+        System.out.println("### setup ...");
+        this.context.close();
+        this.context = Context.newBuilder().allowIO(true).allowCreateThread(true).allowExperimentalOptions(true) //
+                        .option("python.WithThread", "true") //
+                        .option("python.VirtualThreads", Boolean.toString(arg3)).build();
+        this.run = this.context.eval("python", //
+                        "import threading\n" + //
+                                        "def run(n_threads, n):\n" + //
+                                        "    locks = [threading.Lock() for _ in range(n_threads)]\n" + //
+                                        "    for lock in locks:\n" + //
+                                        "        lock.acquire()\n" + //
+                                        "    state = [n, 0]\n" + //
+                                        "    def worker(worker_id):\n" + //
+                                        "        mine = locks[worker_id - 1]\n" + //
+                                        "        succ = locks[worker_id % n_threads]\n" + //
+                                        "        while True:\n" + //
+                                        "            mine.acquire()\n" + //
+                                        "            if state[0] > 0:\n" + //
+                                        "                state[0] -= 1\n" + //
+                                        "                if state[0] == 0:\n" + //
+                                        "                    state[1] = worker_id\n" + //
+                                        "                succ.release()\n" + //
+                                        "            else:\n" + //
+                                        "                succ.release()\n" + //
+                                        "                return\n" + //
+                                        "    threads = [threading.Thread(target=worker, args=(w,)) for w in range(1, n_threads + 1)]\n" + //
+                                        "    for t in threads:\n" + //
+                                        "        t.start()\n" + //
+                                        "    locks[0].release()\n" + //
+                                        "    for t in threads:\n" + //
+                                        "        t.join()\n" + //
+                                        "    return state[1]\n" + //
+                                        "run");
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close(true);
+    }
+
+    @Benchmark
+    public void threadRing(Blackhole bh) {
+        bh.consume(run.execute(arg1, arg2).asInt());
+    }
+}
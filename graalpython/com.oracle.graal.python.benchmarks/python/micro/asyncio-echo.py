@@ -0,0 +1,90 @@
+# Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import asyncio
+import selectors
+
+MESSAGE = b"x" * 64
+
+
+async def handle_echo(reader, writer):
+    writer.write(await reader.readexactly(len(MESSAGE)))
+    await writer.drain()
+    writer.close()
+
+
+async def echo_client(port):
+    reader, writer = await asyncio.open_connection("127.0.0.1", port)
+    writer.write(MESSAGE)
+    data = await reader.readexactly(len(MESSAGE))
+    writer.close()
+    return data == MESSAGE
+
+
+async def serve(num):
+    # all clients connect before the first one is accepted
+    server = await asyncio.start_server(handle_echo, "127.0.0.1", 0, backlog=num)
+    port = server.sockets[0].getsockname()[1]
+    results = await asyncio.gather(*[echo_client(port) for _ in range(num)])
+    server.close()
+    await server.wait_closed()
+    assert all(results)
+
+
+def __process_args__(num=10000, selector="default"):
+    return [int(num), selector]
+
+
+def __setup__(num, selector):
+    try:
+        import resource
+        soft, hard = resource.getrlimit(resource.RLIMIT_NOFILE)
+        resource.setrlimit(resource.RLIMIT_NOFILE, (max(soft, min(hard, 4 * num)), hard))
+    except (ImportError, AttributeError, ValueError, OSError):
+        pass
+
+
+def __benchmark__(num=10000, selector="default"):
+    # 'select' measures asyncio on top of select.select for comparison
+    sel = selectors.SelectSelector() if selector == "select" else selectors.DefaultSelector()
+    loop = asyncio.SelectorEventLoop(sel)
+    try:
+        loop.run_until_complete(serve(num))
+    finally:
+        loop.close()
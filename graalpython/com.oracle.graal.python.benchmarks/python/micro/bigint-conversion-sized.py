@@ -1,4 +1,4 @@
-# Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -37,10 +37,22 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
+# parse, print and multiply integers with tens of thousands of digits
 
-class Empty(Exception):
-    'Exception raised by Queue.get(block=0)/get_nowait().'
-    pass
 
+def docompute(digits):
+    text = "7" * digits
+    value = int(text)
+    product = value * (value + 1)
+    text = str(product)
+    return len(text) + pow(value, 3, product) % 10
 
-SimpleQueue = None
+
+def measure(num):
+    for i in range(num):
+        result = docompute(20000)
+    print("result", result)
+
+
+def __benchmark__(num=5):
+    measure(num)
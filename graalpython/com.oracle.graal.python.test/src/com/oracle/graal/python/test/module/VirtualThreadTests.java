@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.module;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.oracle.graal.python.runtime.VirtualThreads;
+import com.oracle.graal.python.test.PythonTests;
+
+public class VirtualThreadTests {
+
+    @Test
+    public void cancelledOnClose() {
+        String source = "import _thread, time\n" +
+                        "started = []\n" +
+                        "def spin():\n" +
+                        "    started.append(1)\n" +
+                        "    while True:\n" +
+                        "        pass\n" +
+                        "\n" +
+                        "_thread.start_new_thread(spin, ())\n" +
+                        "while not started:\n" +
+                        "    time.sleep(0.01)\n" +
+                        "print(_thread._count())\n";
+        assertClosesQuickly(source);
+    }
+
+    @Test
+    public void blockedGetCancelledOnClose() {
+        String source = "import _thread, _queue, time\n" +
+                        "started = []\n" +
+                        "def block():\n" +
+                        "    q = _queue.SimpleQueue()\n" +
+                        "    started.append(1)\n" +
+                        "    q.get()\n" +
+                        "\n" +
+                        "_thread.start_new_thread(block, ())\n" +
+                        "while not started:\n" +
+                        "    time.sleep(0.01)\n" +
+                        "print(_thread._count())\n";
+        assertClosesQuickly(source);
+    }
+
+    private static void assertClosesQuickly(String source) {
+        // needs a JDK with virtual threads (21+), which the default build does not run on
+        Assume.assumeTrue(VirtualThreads.isSupported());
+        Map<String, String> options = new HashMap<>();
+        options.put("python.WithThread", "true");
+        options.put("python.VirtualThreads", "true");
+        final ByteArrayOutputStream byteArray = new ByteArrayOutputStream();
+        final PrintStream printStream = new PrintStream(byteArray);
+        long[] closeMillis = new long[1];
+        PythonTests.runScript(options, new String[0], source, printStream, System.err, () -> {
+            long start = System.currentTimeMillis();
+            PythonTests.closeContext();
+            closeMillis[0] = System.currentTimeMillis() - start;
+        });
+        String result = byteArray.toString().replaceAll("\r\n", "\n");
+        assertEquals("1\n", result);
+        // the thread stops instead of being abandoned after the timeout
+        assertTrue("closing took " + closeMillis[0] + "ms", closeMillis[0] < 1000);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.oracle.graal.python.test.PythonTests;
+
+public class GlobalInterpreterLockTests {
+
+    @Test
+    public void busyThreadGivesUpGil() {
+        String source = "import sys, threading, time\n" +
+                        "sys.setswitchinterval(0.005)\n" +
+                        "stop = []\n" +
+                        "counter = [0]\n" +
+                        "def spin():\n" +
+                        "    while not stop:\n" +
+                        "        counter[0] += 1\n" +
+                        "t = threading.Thread(target=spin)\n" +
+                        "t.start()\n" +
+                        "while counter[0] == 0:\n" +
+                        "    pass\n" +
+                        "switches = __graalpython__.gil_stats()['switches']\n" +
+                        "worst = 0\n" +
+                        "for i in range(20):\n" +
+                        "    start = time.monotonic()\n" +
+                        "    # the sleep releases the GIL, getting it back means the spinning thread yields it\n" +
+                        "    time.sleep(0.001)\n" +
+                        "    worst = max(worst, time.monotonic() - start)\n" +
+                        "before = counter[0]\n" +
+                        "time.sleep(0.05)\n" +
+                        "progressed = counter[0] > before\n" +
+                        "stop.append(1)\n" +
+                        "t.join()\n" +
+                        "print(worst < 0.5, progressed, __graalpython__.gil_stats()['switches'] > switches)\n";
+        assertEquals("True True True\n", run(source));
+    }
+
+    @Test
+    public void spinningThreadsTakeTurns() {
+        String source = "import sys, threading, time\n" +
+                        "sys.setswitchinterval(0.005)\n" +
+                        "counts = [0, 0]\n" +
+                        "def spin(i):\n" +
+                        "    deadline = time.monotonic() + 0.5\n" +
+                        "    while time.monotonic() < deadline:\n" +
+                        "        counts[i] += 1\n" +
+                        "threads = [threading.Thread(target=spin, args=(i,)) for i in range(2)]\n" +
+                        "for t in threads:\n" +
+                        "    t.start()\n" +
+                        "for t in threads:\n" +
+                        "    t.join()\n" +
+                        "print(counts[0] > 0 and counts[1] > 0)\n";
+        assertEquals("True\n", run(source));
+    }
+
+    private static String run(String source) {
+        Map<String, String> options = new HashMap<>();
+        options.put("python.WithThread", "true");
+        options.put("python.WithGIL", "true");
+        final ByteArrayOutputStream byteArray = new ByteArrayOutputStream();
+        final PrintStream printStream = new PrintStream(byteArray);
+        PythonTests.runScript(options, new String[0], source, printStream, System.err, () -> PythonTests.closeContext());
+        return byteArray.toString().replaceAll("\r\n", "\n");
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.oracle.graal.python.test.PythonTests;
+
+public class SharedGeneratorASTTests {
+
+    private static final String GENERATOR = "def gen(n):\n" +
+                    "    total = 0\n" +
+                    "    for i in range(n):\n" +
+                    "        try:\n" +
+                    "            received = yield ('loop', i)\n" +
+                    "            if received is not None:\n" +
+                    "                total += received\n" +
+                    "        finally:\n" +
+                    "            total += 1\n" +
+                    "    while total < 100:\n" +
+                    "        total = yield ('while', total)\n" +
+                    "    yield ('end', total)\n";
+
+    @Test
+    public void interleavedGenerators() {
+        String source = GENERATOR +
+                        "a = gen(2)\n" +
+                        "b = gen(3)\n" +
+                        "print(next(a), next(b))\n" +
+                        "print(a.send(10), next(b))\n" +
+                        "print(next(a), b.send(20))\n" +
+                        "print(a.send(100), next(b))\n" +
+                        "print(list(a), b.send(200), list(b))\n";
+        assertEquals("('loop', 0) ('loop', 0)\n" +
+                        "('loop', 1) ('loop', 1)\n" +
+                        "('while', 12) ('loop', 2)\n" +
+                        "('end', 100) ('while', 23)\n" +
+                        "[] ('end', 200) []\n", run(source));
+    }
+
+    @Test
+    public void framesAndLocals() {
+        String source = GENERATOR +
+                        "a = gen(2)\n" +
+                        "b = gen(2)\n" +
+                        "next(a)\n" +
+                        "next(b)\n" +
+                        "b.send(5)\n" +
+                        "print(a.gi_frame is not b.gi_frame)\n" +
+                        "la = a.gi_frame.f_locals\n" +
+                        "lb = b.gi_frame.f_locals\n" +
+                        "print(la['i'], la['total'], la['received'] if 'received' in la else None)\n" +
+                        "print(lb['i'], lb['total'], lb['received'])\n" +
+                        "print(a.gi_frame.f_code.co_name, b.gi_frame.f_code.co_name)\n" +
+                        "print(next(a), a.gi_frame.f_locals['i'], b.gi_frame.f_locals['i'])\n";
+        assertEquals("True\n" +
+                        "0 0 None\n" +
+                        "1 6 5\n" +
+                        "gen gen\n" +
+                        "('loop', 1) 1 1\n", run(source));
+    }
+
+    @Test
+    public void throwIntoSuspendedGenerator() {
+        String source = GENERATOR +
+                        "a = gen(3)\n" +
+                        "b = gen(3)\n" +
+                        "next(a)\n" +
+                        "next(b)\n" +
+                        "try:\n" +
+                        "    a.throw(ValueError('x'))\n" +
+                        "except ValueError as e:\n" +
+                        "    print('raised', e)\n" +
+                        "print(next(b), list(a))\n";
+        assertEquals("raised x\n" +
+                        "('loop', 1) []\n", run(source));
+    }
+
+    private static String run(String source) {
+        Map<String, String> options = new HashMap<>();
+        options.put("python.SharedGeneratorAST", "true");
+        final ByteArrayOutputStream byteArray = new ByteArrayOutputStream();
+        final PrintStream printStream = new PrintStream(byteArray);
+        PythonTests.runScript(options, new String[0], source, printStream, System.err, () -> PythonTests.closeContext());
+        return byteArray.toString().replaceAll("\r\n", "\n");
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.oracle.graal.python.test.PythonTests;
+
+public class ThreadSafeCollectionsTests {
+
+    @Test
+    public void sharedListKeepsAllUpdates() {
+        String source = "import threading\n" +
+                        "shared = []\n" +
+                        "def worker():\n" +
+                        "    for i in range(20000):\n" +
+                        "        shared.append(i)\n" +
+                        "        if i % 2 == 1:\n" +
+                        "            shared.pop()\n" +
+                        "    for i in range(10000):\n" +
+                        "        shared.insert(0, 1.5)\n" +
+                        "threads = [threading.Thread(target=worker) for t in range(4)]\n" +
+                        "for t in threads:\n" +
+                        "    t.start()\n" +
+                        "for t in threads:\n" +
+                        "    t.join()\n" +
+                        "print(len(shared), shared.count(1.5))\n";
+        assertEquals("80000 40000\n", run(source));
+    }
+
+    @Test
+    public void sharedListIteratedWhileGrowing() {
+        String source = "import threading\n" +
+                        "shared = [0]\n" +
+                        "done = []\n" +
+                        "def writer():\n" +
+                        "    for i in range(50000):\n" +
+                        "        shared.append(i)\n" +
+                        "        shared[0] = float(i)\n" +
+                        "    done.append(1)\n" +
+                        "t = threading.Thread(target=writer)\n" +
+                        "t.start()\n" +
+                        "while not done:\n" +
+                        "    for x in shared:\n" +
+                        "        assert x is not None\n" +
+                        "t.join()\n" +
+                        "print(len(shared))\n";
+        assertEquals("50001\n", run(source));
+    }
+
+    @Test
+    public void dictIteratorSurvivesWrite() {
+        String source = "import threading\n" +
+                        "t = threading.Thread(target=lambda: None)\n" +
+                        "t.start()\n" +
+                        "t.join()\n" +
+                        "d = {i: i for i in range(10)}\n" +
+                        "it = iter(d)\n" +
+                        "first = next(it)\n" +
+                        "d[first] = -1\n" +
+                        "print(sorted(d.values())[0], len(list(it)))\n" +
+                        "for k in d:\n" +
+                        "    pass\n" +
+                        "d[100] = 100\n" +
+                        "print(len(d))\n";
+        assertEquals("-1 9\n11\n", run(source));
+    }
+
+    private static String run(String source) {
+        Map<String, String> options = new HashMap<>();
+        options.put("python.WithThread", "true");
+        options.put("python.ThreadSafeCollections", "true");
+        final ByteArrayOutputStream byteArray = new ByteArrayOutputStream();
+        final PrintStream printStream = new PrintStream(byteArray);
+        PythonTests.runScript(options, new String[0], source, printStream, System.err, () -> PythonTests.closeContext());
+        return byteArray.toString().replaceAll("\r\n", "\n");
+    }
+}
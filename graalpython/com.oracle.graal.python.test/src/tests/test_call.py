@@ -324,3 +324,42 @@ def test_parse_args():
     assert_call_raises(TypeError, "f25(1,2,3,c=6)")  # TypeError: f25() missing 1 required keyword-only argument: 'a'
     assert_parses("f25(a=4,c=6)")
     assert_parses("f25(a=4)")
+
+
+def test_fixed_arity_builtins():
+    # the same call sites see unbound, bound, and module builtins of fixed arity
+    def call1(f, a):
+        return f(a)
+
+    def call2(f, a, b):
+        return f(a, b)
+
+    lst = []
+    for i in range(20):
+        assert call1(len, "abc") == 3
+        assert call1(abs, -i) == i
+        assert call2(divmod, 7, 2) == (3, 1)
+        assert call1(lst.append, i) is None
+        assert call2(list.__getitem__, lst, 0) == 0
+        assert call1(lst.__getitem__, -1) == i
+        assert call2(str.__add__, "a", "b") == "ab"
+    assert lst == list(range(20))
+    assert_raises(TypeError, call2, len, "a", "b")
+    assert_raises(TypeError, call1, divmod, 7)
+    assert_raises(TypeError, call2, lst.append, 1, 2)
+
+
+def test_keyword_permutation():
+    def f(a, b, c=3, *, d=4):
+        return (a, b, c, d)
+
+    def g(a, /, b, **kwargs):
+        return (a, b, kwargs)
+
+    for i in range(20):
+        assert f(1, c=i, b=2) == (1, 2, i, 4)
+        assert f(d=i, b=2, a=1) == (1, 2, 3, i)
+        assert g(1, b=i, x=2) == (1, i, {"x": 2})
+        assert g(1, a=i, b=2) == (1, 2, {"a": i})
+        assert_raises(TypeError, f, 1, a=i, b=2)
+        assert_raises(TypeError, f, 1, 2, e=i)
@@ -312,3 +312,57 @@ def test_generator_cell_confusion():
         ]
 
     assert len(illegal_state_expected_cell_got_list()) == 2
+
+
+def test_generator_consumed_by_builtin():
+    xs = [1, 2, 3, 4]
+    assert sum(x * x for x in xs) == 30
+    assert sum(x for x in []) == 0
+    assert sum(x / 2 for x in xs) == 5.0
+    assert list(x for x in xs if x % 2) == [1, 3]
+    assert tuple(x + y for x in xs for y in (10, 20)) == (11, 21, 12, 22, 13, 23, 14, 24)
+    assert [x * 2 for x in xs] == [2, 4, 6, 8]
+
+    def closure(n):
+        return sum(x * n for x in xs)
+
+    assert closure(3) == 90
+
+    def raising():
+        for i in range(3):
+            yield i
+        raise StopIteration
+
+    try:
+        sum(x for x in raising())
+    except RuntimeError:
+        pass
+    else:
+        assert False, "StopIteration in the generator must become a RuntimeError"
+
+    def shadowed():
+        def sum(gen):
+            return type(gen).__name__
+        return sum(x for x in xs)
+
+    assert shadowed() == "generator"
+
+
+def test_consumed_generator_frame_escapes():
+    import sys
+    xs = [1, 2, 3]
+    # the inlined generator frame still provides locals and frames when they are asked for
+    assert list(locals()["x"] for x in xs) == [1, 2, 3]
+    assert sum(sys._getframe().f_locals["x"] for x in xs) == 6
+
+    def gen():
+        a = 1
+        yield a
+        b = 2
+        yield b
+
+    g = gen()
+    next(g)
+    assert g.gi_frame.f_locals == {"a": 1}
+    next(g)
+    assert g.gi_frame.f_locals == {"a": 1, "b": 2}
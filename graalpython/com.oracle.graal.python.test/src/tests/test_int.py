@@ -356,6 +356,25 @@ def test_create_int_from_string():
         assert False, "expected TypeError"
 
 
+def test_create_int_from_long_string():
+    digits = "1234567890" * 1000
+    expected = 0
+    for c in digits:
+        expected = expected * 10 + (ord(c) - ord('0'))
+    assert int(digits) == expected
+    assert int("-" + digits) == -expected
+    assert int(" +" + digits + " ") == expected
+    assert int("f" * 5000, 16) == 16 ** 5000 - 1
+    assert str(int(digits)) == digits
+    for bad in [digits + "-1", digits[:3000] + "+" + digits[3000:], digits + "x"]:
+        try:
+            int(bad)
+        except ValueError:
+            pass
+        else:
+            assert False, "expected ValueError"
+
+
 def test_create_int_from_float():
     assert int(123.0) == 123
     assert int(123.4) == 123
@@ -148,3 +148,37 @@ def test_itertools_cycle():
             break
     assert r == [1,2,3,1,2,3,1,2,3,1,2], r
     assert [x for x in cycle([])] == []
+
+
+def test_exhausted_builtin_iterators():
+    import array
+    class GetItem:
+        def __getitem__(self, i):
+            if i >= 3:
+                raise IndexError
+            return i * 2
+    for seq, expected in [([1, 2, 3], [1, 2, 3]), ((1.5, 2.5), [1.5, 2.5]), ("ab", ["a", "b"]),
+                          (range(3), [0, 1, 2]), ({7}, [7]), (array.array('i', [4, 5]), [4, 5]),
+                          (GetItem(), [0, 2, 4])]:
+        it = iter(seq)
+        r = []
+        for x in it:
+            r.append(x)
+        assert r == expected, r
+        assert list(it) == []
+        assert next(it, "done") == "done"
+        assert list(iter(seq)) == expected
+        assert tuple(iter(seq)) == tuple(expected)
+
+    class Countdown:
+        def __init__(self, n):
+            self.n = n
+        def __iter__(self):
+            return self
+        def __next__(self):
+            if self.n == 0:
+                raise StopIteration
+            self.n -= 1
+            return self.n
+    assert [x for x in Countdown(3)] == [2, 1, 0]
+    assert list(Countdown(2)) == [1, 0]
@@ -446,6 +446,25 @@ class ListTest(list_tests.CommonTest):
         a[1:5] = [1.1, 2.2, 3.3]
         self.assertEqual([1, 1.1, 2.2, 3.3], a)
 
+    def test_set_slice_whole_list(self):
+        a = [1.5, 'x', 2.5]
+        b = [0.5, 1.5]
+        a[:] = b
+        self.assertEqual([0.5, 1.5], a)
+        b.append(7)
+        a.append(2.5)
+        self.assertEqual([0.5, 1.5, 2.5], a)
+        self.assertEqual([0.5, 1.5, 7], b)
+        a[:] = (1, 2, 'y')
+        self.assertEqual([1, 2, 'y'], a)
+        a[:] = a
+        self.assertEqual([1, 2, 'y'], a)
+        a[0:] = [3.0, 4.0]
+        a[1] = 'z'
+        self.assertEqual([3.0, 'z'], a)
+        a[::-1] = [5, 6]
+        self.assertEqual([6, 5], a)
+
     def test_extend_spec(self):
         a = [1, 2]
         a.extend(a)
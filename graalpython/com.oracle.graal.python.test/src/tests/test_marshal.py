@@ -120,6 +120,72 @@ class CodeTest(unittest.TestCase):
             if isinstance(obj, types.CodeType):
                 self.assertIs(co.co_filename, obj.co_filename)
 
+    def test_module_code_roundtrip(self):
+        s = """
+import sys
+class A:
+    x = 1
+    def m(self, *args, k=2, **kw):
+        return sum(a * k for a in args) + len(kw) + self.x
+def gen(n):
+    for i in range(n):
+        yield i * 2
+def outer():
+    y = 10
+    def inner(z, /, w=5):
+        nonlocal y
+        y += 1
+        return y + z + w
+    return inner
+squares = {i: [j for j in range(i)] for i in range(3)}
+lam = lambda a, *, b=3: a - b
+"""
+        co = marshal.loads(marshal.dumps(compile(s, "roundtrip", "exec")))
+        self.assertEqual(co.co_filename, "roundtrip")
+        ns = {}
+        exec(co, ns)
+        self.assertEqual(ns["A"]().m(1, 2, 3, k=3, q=1), 20)
+        self.assertEqual(list(ns["gen"](3)), [0, 2, 4])
+        self.assertEqual(ns["outer"]()(1), 17)
+        self.assertEqual(ns["squares"], {0: [], 1: [0], 2: [0, 1]})
+        self.assertEqual(ns["lam"](5), 2)
+        # the deserialized code can be marshalled again
+        co2 = marshal.loads(marshal.dumps(co))
+        ns2 = {}
+        exec(co2, ns2)
+        self.assertEqual(ns2["lam"](5, b=1), 4)
+
+    def test_module_code_cache(self):
+        import importlib
+        import importlib.util
+        import os
+        import tempfile
+        with tempfile.TemporaryDirectory() as tmp:
+            path = os.path.join(tmp, "cached_mod_for_marshal.py")
+            with open(path, "w") as f:
+                f.write("def f(x):\n    return [i * 2 for i in range(x)]\nVALUE = 'a'\n")
+            old_path, old_dont_write = sys.path[:], sys.dont_write_bytecode
+            sys.path.insert(0, tmp)
+            sys.dont_write_bytecode = False
+            try:
+                mod = importlib.import_module("cached_mod_for_marshal")
+                self.assertEqual(mod.f(3), [0, 2, 4])
+                cache = importlib.util.cache_from_source(path)
+                self.assertTrue(os.path.exists(cache))
+                # same size and mtime, so the import must use the cache instead of the source
+                stat = os.stat(path)
+                with open(path, "w") as f:
+                    f.write("def f(x):\n    return [i * 3 for i in range(x)]\nVALUE = 'b'\n")
+                os.utime(path, ns=(stat.st_atime_ns, stat.st_mtime_ns))
+                del sys.modules["cached_mod_for_marshal"]
+                mod = importlib.import_module("cached_mod_for_marshal")
+                self.assertEqual(mod.f(3), [0, 2, 4])
+                self.assertEqual(mod.VALUE, "a")
+            finally:
+                sys.path[:] = old_path
+                sys.dont_write_bytecode = old_dont_write
+                sys.modules.pop("cached_mod_for_marshal", None)
+
 class ContainerTest(unittest.TestCase, BaseMarshalUnmarshal):
     d = {'astring': 'foo@bar.baz.spam',
          'afloat': 7283.43,
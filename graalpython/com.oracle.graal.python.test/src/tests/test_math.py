@@ -1533,6 +1533,54 @@ class MathTests(unittest.TestCase):
         ]
         self.executeFnTest(values, math.lgamma, 'math.lgamma')
 
+    def testFsumStorages(self):
+        import array
+        values = [1e100, 1.0, -1e100, 1e-100, 1e50, -1.0, -1e50] * 10
+        self.assertEqual(math.fsum(values), math.fsum(iter(values)))
+        self.assertEqual(math.fsum(tuple(values)), math.fsum(iter(values)))
+        self.assertEqual(math.fsum(array.array('d', values)), math.fsum(iter(values)))
+        self.assertEqual(math.fsum([0.1] * 1000), 100.0)
+        self.assertEqual(math.fsum([1, 2, 3]), 6.0)
+        self.assertEqual(math.fsum([2 ** 40, 2 ** 40, 1]), 2.0 ** 41 + 1)
+        self.assertEqual(math.fsum(list(range(1, 1000))), 499500.0)
+        self.assertRaises(OverflowError, math.fsum, [1.7e308, 1.7e308])
+        self.assertRaises(ValueError, math.fsum, [INF, NINF])
+
+        class MyList(list):
+            def __iter__(self):
+                return iter([1.5])
+        self.assertEqual(math.fsum(MyList([1.0, 2.0])), 1.5)
+
+    def testDist(self):
+        if sys.version_info < (3, 8, 0):
+            return
+        self.assertEqual(math.dist((1.0, 2.0), (4.0, 6.0)), 5.0)
+        self.assertEqual(math.dist([1, 2], [4, 6]), 5.0)
+        self.assertEqual(math.dist(iter([1, 2, 2]), (0, 0, 0)), 3.0)
+        self.assertEqual(math.dist([], []), 0.0)
+        self.assertEqual(math.dist([0.0, INF], [1.0, 2.0]), INF)
+        self.assertTrue(math.isnan(math.dist([NAN, 1.0], [1.0, 2.0])))
+        self.assertRaises(ValueError, math.dist, [1.0], [1.0, 2.0])
+        self.assertRaises(TypeError, math.dist, [1.0, 'a'], [1.0, 2.0])
+
+    def testProd(self):
+        if sys.version_info < (3, 8, 0):
+            return
+        self.assertEqual(math.prod([]), 1)
+        self.assertEqual(math.prod([], start=5), 5)
+        self.assertEqual(math.prod([1, 2, 3, 4, 5]), 120)
+        self.assertEqual(math.prod(range(1, 30)), math.factorial(29))
+        self.assertEqual(math.prod([2.0, 3.5]), 7.0)
+        self.assertIs(type(math.prod([2.0, 3.5])), float)
+        emptied = [2.0]
+        emptied.pop()
+        self.assertIs(type(math.prod(emptied)), int)
+        self.assertEqual(math.prod((2.0, 3.5), start=2), 14.0)
+        self.assertEqual(math.prod([2, 3], start=0.5), 3.0)
+        self.assertEqual(math.prod([[1], 2]), [1, 1])
+        self.assertEqual(math.prod(x for x in [3, 4]), 12)
+        self.assertRaises(TypeError, math.prod, [1, 2], 3)
+
     def testFsum(self):
         # math.fsum relies on exact rounding for correct operation.
         # There's a known problem with IA32 floating-point that causes
@@ -206,3 +206,55 @@ def test_class_with_slots_assignment():
         assert True
     else:
         assert False
+
+
+def test_megamorphic_lookup_invalidation():
+    class Base:
+        def value(self):
+            return "base"
+
+    # more classes than the attribute access inline caches hold
+    classes = [type("C%d" % i, (Base,), {}) for i in range(20)]
+
+    def lookup_all():
+        return [c().value() for c in classes]
+
+    assert lookup_all() == ["base"] * 20
+
+    Base.value = lambda self: "patched"
+    assert lookup_all() == ["patched"] * 20
+
+    classes[3].value = lambda self: "own"
+    result = lookup_all()
+    assert result[3] == "own"
+    assert result[4] == "patched"
+
+    del classes[3].value
+    assert lookup_all() == ["patched"] * 20
+
+
+def test_megamorphic_lookup_grandparent_invalidation():
+    class Grandparent:
+        def value(self):
+            return "grandparent"
+
+    class Parent(Grandparent):
+        pass
+
+    classes = [type("C%d" % i, (Parent,), {}) for i in range(20)]
+
+    def lookup_all():
+        return [c().value() for c in classes]
+
+    # the subclasses get cached before their grandparent changes
+    assert lookup_all() == ["grandparent"] * 20
+
+    Grandparent.value = lambda self: "patched"
+    assert lookup_all() == ["patched"] * 20
+
+    Parent.value = lambda self: "parent"
+    assert lookup_all() == ["parent"] * 20
+
+    del Parent.value
+    Grandparent.value = lambda self: "patched again"
+    assert lookup_all() == ["patched again"] * 20
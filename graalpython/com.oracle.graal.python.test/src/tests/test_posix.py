@@ -105,3 +105,197 @@ class PosixTests(unittest.TestCase):
     def delete_file(self, new_file_path, cwd):
         os.remove(new_file_path)
         os.remove(cwd + '/test.txt')
+
+
+class TransferTests(unittest.TestCase):
+
+    def setUp(self):
+        import tempfile
+        self.tmpdir = tempfile.mkdtemp()
+        self.src = os.path.join(self.tmpdir, "src")
+        self.dst = os.path.join(self.tmpdir, "dst")
+        self.data = bytes(range(256)) * 512
+        with open(self.src, "wb") as f:
+            f.write(self.data)
+
+    def tearDown(self):
+        import shutil
+        shutil.rmtree(self.tmpdir)
+
+    def read_dst(self):
+        with open(self.dst, "rb") as f:
+            return f.read()
+
+    def test_sendfile_with_offset(self):
+        infd = os.open(self.src, os.O_RDONLY)
+        outfd = os.open(self.dst, os.O_WRONLY | os.O_CREAT)
+        try:
+            self.assertEqual(os.sendfile(outfd, infd, 10, 100), 100)
+            # an explicit offset does not move the input position
+            self.assertEqual(os.lseek(infd, 0, os.SEEK_CUR), 0)
+        finally:
+            os.close(infd)
+            os.close(outfd)
+        self.assertEqual(self.read_dst(), self.data[10:110])
+
+    def test_sendfile_from_position(self):
+        infd = os.open(self.src, os.O_RDONLY)
+        outfd = os.open(self.dst, os.O_WRONLY | os.O_CREAT)
+        try:
+            os.lseek(infd, 5, os.SEEK_SET)
+            self.assertEqual(os.sendfile(outfd, infd, None, 10), 10)
+            self.assertEqual(os.lseek(infd, 0, os.SEEK_CUR), 15)
+            total = 10
+            while True:
+                sent = os.sendfile(outfd, infd, None, 1 << 20)
+                if sent == 0:
+                    break
+                total += sent
+            self.assertEqual(total, len(self.data) - 5)
+        finally:
+            os.close(infd)
+            os.close(outfd)
+        self.assertEqual(self.read_dst(), self.data[5:])
+
+    @unittest.skipUnless(hasattr(os, "copy_file_range"), "needs os.copy_file_range")
+    def test_copy_file_range(self):
+        infd = os.open(self.src, os.O_RDONLY)
+        outfd = os.open(self.dst, os.O_RDWR | os.O_CREAT)
+        try:
+            self.assertEqual(os.copy_file_range(infd, outfd, 20), 20)
+            self.assertEqual(os.lseek(infd, 0, os.SEEK_CUR), 20)
+            self.assertEqual(os.copy_file_range(infd, outfd, 8, offset_src=100, offset_dst=20), 8)
+            self.assertEqual(os.lseek(infd, 0, os.SEEK_CUR), 20)
+            self.assertEqual(os.lseek(outfd, 0, os.SEEK_CUR), 20)
+        finally:
+            os.close(infd)
+            os.close(outfd)
+        self.assertEqual(self.read_dst(), self.data[:20] + self.data[100:108])
+
+    def test_shutil_copyfile(self):
+        import shutil
+        shutil.copyfile(self.src, self.dst)
+        self.assertEqual(self.read_dst(), self.data)
+
+
+class PositionalIOTests(unittest.TestCase):
+
+    def setUp(self):
+        import tempfile
+        fd, self.path = tempfile.mkstemp()
+        os.close(fd)
+        self.fd = os.open(self.path, os.O_RDWR)
+        os.write(self.fd, b"0123456789")
+
+    def tearDown(self):
+        os.close(self.fd)
+        os.remove(self.path)
+
+    def test_pread_pwrite(self):
+        os.lseek(self.fd, 3, os.SEEK_SET)
+        self.assertEqual(os.pread(self.fd, 4, 2), b"2345")
+        self.assertEqual(os.pread(self.fd, 100, 8), b"89")
+        self.assertEqual(os.pread(self.fd, 4, 100), b"")
+        self.assertEqual(os.pwrite(self.fd, b"ab", 0), 2)
+        self.assertEqual(os.pwrite(self.fd, bytearray(b"cd"), 8), 2)
+        # neither moves the file position
+        self.assertEqual(os.lseek(self.fd, 0, os.SEEK_CUR), 3)
+        self.assertEqual(os.pread(self.fd, 10, 0), b"ab234567cd")
+
+    def test_readv_writev(self):
+        os.lseek(self.fd, 0, os.SEEK_SET)
+        a, b = bytearray(3), bytearray(4)
+        self.assertEqual(os.readv(self.fd, [a, b]), 7)
+        self.assertEqual((a, b), (bytearray(b"012"), bytearray(b"3456")))
+        self.assertEqual(os.lseek(self.fd, 0, os.SEEK_CUR), 7)
+        self.assertEqual(os.writev(self.fd, [b"x", bytearray(b"yz"), b"!"]), 4)
+        self.assertEqual(os.pread(self.fd, 20, 0), b"0123456xyz!")
+
+    def test_readv_short(self):
+        os.lseek(self.fd, 8, os.SEEK_SET)
+        a, b = bytearray(3), bytearray(3)
+        self.assertEqual(os.readv(self.fd, [a, b]), 2)
+        self.assertEqual(a, bytearray(b"89\0"))
+
+    def test_readv_memoryview(self):
+        os.lseek(self.fd, 0, os.SEEK_SET)
+        a, b = bytearray(b"......"), bytearray(4)
+        # a view of the middle of a bytearray and a view of a whole one
+        self.assertEqual(os.readv(self.fd, [memoryview(a)[2:5], memoryview(b)]), 7)
+        self.assertEqual(a, bytearray(b"..012."))
+        self.assertEqual(b, bytearray(b"3456"))
+        # only partially filled
+        os.lseek(self.fd, 8, os.SEEK_SET)
+        c = bytearray(b"....")
+        self.assertEqual(os.readv(self.fd, [memoryview(c)]), 2)
+        self.assertEqual(c, bytearray(b"89.."))
+
+    @unittest.skipUnless(hasattr(os, "preadv"), "needs os.preadv")
+    def test_preadv_pwritev(self):
+        a, b = bytearray(2), bytearray(2)
+        self.assertEqual(os.preadv(self.fd, [a, b], 5), 4)
+        self.assertEqual((a, b), (bytearray(b"56"), bytearray(b"78")))
+        self.assertEqual(os.pwritev(self.fd, [b"AB", b"C"], 1), 3)
+        self.assertEqual(os.lseek(self.fd, 0, os.SEEK_CUR), 10)
+        self.assertEqual(os.pread(self.fd, 20, 0), b"0ABC456789")
+
+
+class ScandirTests(unittest.TestCase):
+
+    def setUp(self):
+        import tempfile
+        self.tmpdir = tempfile.mkdtemp()
+        os.mkdir(os.path.join(self.tmpdir, "dir"))
+        with open(os.path.join(self.tmpdir, "file"), "w") as f:
+            f.write("x")
+        os.symlink(os.path.join(self.tmpdir, "dir"), os.path.join(self.tmpdir, "dirlink"))
+        os.symlink(os.path.join(self.tmpdir, "missing"), os.path.join(self.tmpdir, "broken"))
+
+    def tearDown(self):
+        import shutil
+        shutil.rmtree(self.tmpdir)
+
+    def entries(self):
+        with os.scandir(self.tmpdir) as it:
+            return {entry.name: entry for entry in it}
+
+    def test_file_types(self):
+        entries = self.entries()
+        self.assertEqual(set(entries), {"dir", "file", "dirlink", "broken"})
+        self.assertTrue(entries["dir"].is_dir())
+        self.assertFalse(entries["dir"].is_file())
+        self.assertTrue(entries["file"].is_file())
+        self.assertFalse(entries["file"].is_dir())
+        self.assertTrue(entries["dirlink"].is_symlink())
+        self.assertTrue(entries["dirlink"].is_dir())
+        self.assertFalse(entries["dirlink"].is_dir(follow_symlinks=False))
+        self.assertTrue(entries["broken"].is_symlink())
+        self.assertFalse(entries["broken"].is_dir())
+        self.assertFalse(entries["broken"].is_file())
+        self.assertFalse(entries["broken"].is_file(follow_symlinks=False))
+
+    def test_stat_is_cached(self):
+        entry = self.entries()["file"]
+        st = entry.stat()
+        self.assertEqual(st.st_size, 1)
+        with open(entry.path, "a") as f:
+            f.write("more")
+        self.assertEqual(entry.stat().st_size, 1)
+        self.assertEqual(os.stat(entry.path).st_size, 5)
+
+    def test_stat_follow_symlinks(self):
+        entry = self.entries()["dirlink"]
+        self.assertTrue(stat.S_ISLNK(entry.stat(follow_symlinks=False).st_mode))
+        self.assertTrue(stat.S_ISDIR(entry.stat().st_mode))
+        self.assertTrue(stat.S_ISLNK(entry.stat(follow_symlinks=False).st_mode))
+
+    def test_walk(self):
+        os.mkdir(os.path.join(self.tmpdir, "dir", "sub"))
+        with open(os.path.join(self.tmpdir, "dir", "sub", "leaf"), "w"):
+            pass
+        result = {os.path.relpath(root, self.tmpdir): (sorted(dirs), sorted(files)) for root, dirs, files in os.walk(self.tmpdir)}
+        self.assertEqual(result, {
+            ".": (["dir", "dirlink"], ["broken", "file"]),
+            "dir": (["sub"], []),
+            os.path.join("dir", "sub"): ([], ["leaf"]),
+        })
@@ -0,0 +1,107 @@
+# Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import queue
+import threading
+import time
+import unittest
+
+
+class SimpleQueueTest(unittest.TestCase):
+
+    def test_fifo(self):
+        q = queue.SimpleQueue()
+        self.assertTrue(q.empty())
+        for i in range(10):
+            q.put(i)
+        q.put_nowait("x")
+        self.assertEqual(q.qsize(), 11)
+        self.assertFalse(q.empty())
+        self.assertEqual([q.get() for i in range(10)], list(range(10)))
+        self.assertEqual(q.get_nowait(), "x")
+        self.assertTrue(q.empty())
+
+    def test_empty(self):
+        q = queue.SimpleQueue()
+        self.assertRaises(queue.Empty, q.get_nowait)
+        self.assertRaises(queue.Empty, q.get, False)
+        self.assertRaises(queue.Empty, q.get, timeout=0.01)
+        self.assertRaises(ValueError, q.get, timeout=-1)
+        q.put(None)
+        self.assertRaises(ValueError, q.get, timeout=-1)
+        self.assertIsNone(q.get(False, -1))
+
+    def test_blocking_get(self):
+        q = queue.SimpleQueue()
+        results = []
+
+        def consumer():
+            for i in range(100):
+                results.append(q.get())
+
+        t = threading.Thread(target=consumer)
+        t.start()
+        time.sleep(0.01)
+        for i in range(100):
+            q.put(i)
+        t.join()
+        self.assertEqual(results, list(range(100)))
+
+    def test_many_threads(self):
+        q = queue.SimpleQueue()
+        out = queue.SimpleQueue()
+
+        def worker():
+            while True:
+                item = q.get()
+                if item is None:
+                    break
+                out.put(item * 2)
+
+        threads = [threading.Thread(target=worker) for i in range(4)]
+        for t in threads:
+            t.start()
+        for i in range(1000):
+            q.put(i)
+        for t in threads:
+            q.put(None)
+        for t in threads:
+            t.join()
+        self.assertEqual(sorted(out.get() for i in range(1000)), [i * 2 for i in range(1000)])
+        self.assertTrue(out.empty())
@@ -178,3 +178,37 @@ class TestBasicOps:
         randrange = self.gen.randrange
         k = sum(randrange(6755399441055744) % 3 == 2 for i in range(n))
         self.assertTrue(0.30 < k/n < .37, (k/n))
+
+
+class MersenneTwisterTest(unittest.TestCase):
+    # reference values are taken from CPython
+
+    def test_int_seed(self):
+        gen = random.Random(2020)
+        self.assertEqual(gen.random(), 0.6196692706606616)
+        self.assertEqual(gen.getrandbits(16), 11437)
+        self.assertEqual(gen.getrandbits(48), 216306022285788)
+        self.assertEqual(gen.getrandbits(100), 589654185633409842927446065383)
+        gen.seed(-7)
+        self.assertEqual(gen.random(), 0.32383276483316237)
+        gen.seed(123456789012345678901234567890)
+        self.assertEqual(gen.random(), 0.7275084571578186)
+
+    def test_str_and_bytes_seed(self):
+        gen = random.Random()
+        gen.seed('hello')
+        self.assertEqual(gen.random(), 0.3537754404730722)
+        gen.seed(b'hello')
+        self.assertEqual(gen.random(), 0.3537754404730722)
+
+    def test_state(self):
+        gen = random.Random(42)
+        state = gen.getstate()
+        self.assertEqual(len(state[1]), 625)
+        first = [gen.getrandbits(70) for i in range(700)]
+        gen.setstate(state)
+        self.assertEqual(first, [gen.getrandbits(70) for i in range(700)])
+        self.assertRaises(ValueError, gen.setstate, (3, state[1][:-1], None))
+        self.assertRaises(ValueError, gen.setstate, (3, state[1][:-1] + (625,), None))
+        self.assertRaises(OverflowError, gen.setstate, (3, (-1,) + state[1][1:], None))
+        self.assertRaises(ValueError, gen.getrandbits, -1)
@@ -56,6 +56,56 @@ class TestSlots(unittest.TestCase):
         obj.world = "world"
         self.assertEqual(obj.world, "world")
 
+    def test_inherited_slots(self):
+        class B(A):
+            __slots__ = ("extra",)
+
+        class C(B):
+            pass
+
+        for obj in [B(), C(), B()]:
+            self.assertEqual(obj.hello, "hello")
+            with self.assertRaises(AttributeError):
+                obj.extra
+            obj.extra = 1
+            obj.world = 2
+            self.assertEqual((obj.hello, obj.world, obj.extra), ("hello", 2, 1))
+        c = C()
+        c.other = 3
+        self.assertEqual(c.__dict__, {"other": 3})
+        self.assertFalse(hasattr(B(), "__dict__"))
+
+    def test_unset_slot_readers(self):
+        import copy
+
+        class B(A):
+            __slots__ = ("extra",)
+
+        class C(B):
+            pass
+
+        obj = C()
+        self.assertEqual(getattr(obj, "world", "default"), "default")
+        self.assertFalse(hasattr(obj, "extra"))
+        self.assertEqual(obj.__dict__, {})
+        self.assertEqual(vars(obj), {})
+        names = dir(obj)
+        for name in ("hello", "world", "extra"):
+            self.assertIn(name, names)
+        for value in names:
+            self.assertIsInstance(value, str)
+
+        copied = copy.copy(obj)
+        self.assertEqual(copied.hello, "hello")
+        self.assertFalse(hasattr(copied, "world"))
+        self.assertFalse(hasattr(copied, "extra"))
+        self.assertEqual(copied.__dict__, {})
+
+        obj.extra = 1.5
+        obj.world = 7
+        copied = copy.deepcopy(obj)
+        self.assertEqual((copied.hello, copied.world, copied.extra), ("hello", 7, 1.5))
+
 
 if __name__ == "__main__":
     unittest.main()
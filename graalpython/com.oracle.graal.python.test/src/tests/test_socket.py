@@ -0,0 +1,304 @@
+# Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import array
+import select
+import socket
+import threading
+import time
+import unittest
+
+
+class TcpIOTests(unittest.TestCase):
+
+    def setUp(self):
+        self.server = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        self.server.bind(("127.0.0.1", 0))
+        self.server.listen(1)
+        self.client = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        self.client.connect(self.server.getsockname())
+        self.conn, _ = self.server.accept()
+
+    def tearDown(self):
+        self.conn.close()
+        self.client.close()
+        self.server.close()
+
+    def recv_exactly(self, n):
+        data = b""
+        while len(data) < n:
+            chunk = self.conn.recv(n - len(data))
+            self.assertTrue(chunk)
+            data += chunk
+        return data
+
+    def test_send_recv(self):
+        self.assertEqual(self.client.send(b"hello"), 5)
+        self.assertEqual(self.recv_exactly(5), b"hello")
+
+    def test_sendall_large(self):
+        data = bytes(range(256)) * 1024
+        self.client.sendall(data)
+        self.assertEqual(self.recv_exactly(len(data)), data)
+
+    def test_sendall_bytearray(self):
+        self.client.sendall(bytearray(b"abc"))
+        self.assertEqual(self.recv_exactly(3), b"abc")
+
+    def test_sendall_nonblocking_full(self):
+        # nobody reads, so the send buffer fills up eventually
+        self.client.setblocking(False)
+        with self.assertRaises(BlockingIOError):
+            for _ in range(1024):
+                self.client.sendall(b"x" * 65536)
+
+    def test_recv_into_bytearray(self):
+        self.client.sendall(b"0123456789")
+        buf = bytearray(10)
+        n = self.conn.recv_into(buf)
+        self.assertTrue(1 <= n <= 10)
+        self.assertEqual(buf[:n], bytearray(b"0123456789"[:n]))
+
+    def test_recv_into_nbytes(self):
+        self.client.sendall(b"abcdef")
+        buf = bytearray(b"......")
+        n = self.conn.recv_into(buf, 3)
+        self.assertTrue(1 <= n <= 3)
+        self.assertEqual(buf[:n], bytearray(b"abc"[:n]))
+        self.assertEqual(buf[3:], bytearray(b"..."))
+        self.assertRaises(ValueError, self.conn.recv_into, buf, 7)
+        self.assertRaises(ValueError, self.conn.recv_into, buf, -1)
+
+    def test_recv_into_array(self):
+        self.client.sendall(b"xy")
+        buf = array.array("b", [0, 0])
+        n = self.conn.recv_into(buf)
+        self.assertTrue(n >= 1)
+        self.assertEqual(buf[0], ord("x"))
+
+    def test_recv_eof(self):
+        self.client.close()
+        self.assertEqual(self.conn.recv(16), b"")
+        self.assertEqual(self.conn.recv_into(bytearray(4)), 0)
+
+    def test_recv_negative(self):
+        self.assertRaises(ValueError, self.conn.recv, -1)
+
+
+class UdpTests(unittest.TestCase):
+
+    def setUp(self):
+        self.receiver = socket.socket(socket.AF_INET, socket.SOCK_DGRAM)
+        self.receiver.bind(("127.0.0.1", 0))
+        self.sender = socket.socket(socket.AF_INET, socket.SOCK_DGRAM)
+
+    def tearDown(self):
+        self.sender.close()
+        self.receiver.close()
+
+    def test_sendto_recvfrom(self):
+        addr = self.receiver.getsockname()
+        self.assertEqual(self.sender.sendto(b"ping", addr), 4)
+        data, peer = self.receiver.recvfrom(1024)
+        self.assertEqual(data, b"ping")
+        self.assertEqual(peer[0], "127.0.0.1")
+        self.assertEqual(peer[1], self.sender.getsockname()[1])
+
+    def test_sendto_with_flags(self):
+        self.assertEqual(self.sender.sendto(b"pong", 0, self.receiver.getsockname()), 4)
+        self.assertEqual(self.receiver.recv(1024), b"pong")
+
+    def test_datagram_boundaries(self):
+        addr = self.receiver.getsockname()
+        self.sender.sendto(b"one", addr)
+        self.sender.sendto(b"two", addr)
+        self.assertEqual(self.receiver.recvfrom(1024)[0], b"one")
+        self.assertEqual(self.receiver.recvfrom(1024)[0], b"two")
+
+    def test_connected_send(self):
+        self.sender.connect(self.receiver.getsockname())
+        self.assertEqual(self.sender.send(b"hi"), 2)
+        self.assertEqual(self.receiver.recv(16), b"hi")
+
+
+class NonBlockingTests(unittest.TestCase):
+
+    def setUp(self):
+        self.server = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        self.server.bind(("127.0.0.1", 0))
+        self.server.listen(16)
+        self.server.setblocking(False)
+        self.sockets = [self.server]
+
+    def tearDown(self):
+        for s in self.sockets:
+            s.close()
+
+    def connect(self):
+        client = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        self.sockets.append(client)
+        client.setblocking(False)
+        try:
+            client.connect(self.server.getsockname())
+        except BlockingIOError:
+            pass
+        return client
+
+    def accept(self, ep):
+        ep.register(self.server, select.EPOLLIN)
+        try:
+            self.assertIn((self.server.fileno(), select.EPOLLIN), ep.poll(5))
+        finally:
+            ep.unregister(self.server)
+        conn, _ = self.server.accept()
+        self.sockets.append(conn)
+        conn.setblocking(False)
+        return conn
+
+    def test_would_block(self):
+        self.assertRaises(BlockingIOError, self.server.accept)
+        with select.epoll() as ep:
+            client = self.connect()
+            conn = self.accept(ep)
+            self.assertRaises(BlockingIOError, conn.recv, 16)
+
+    def test_epoll_connect_and_echo(self):
+        with select.epoll() as ep:
+            client = self.connect()
+            ep.register(client, select.EPOLLOUT)
+            self.assertEqual(ep.poll(5), [(client.fileno(), select.EPOLLOUT)])
+            self.assertEqual(client.getsockopt(socket.SOL_SOCKET, socket.SO_ERROR), 0)
+            conn = self.accept(ep)
+
+            ep.modify(client, select.EPOLLIN)
+            self.assertEqual(ep.poll(0), [])
+            conn.send(b"ping")
+            self.assertEqual(ep.poll(5), [(client.fileno(), select.EPOLLIN)])
+            self.assertEqual(client.recv(16), b"ping")
+            ep.unregister(client)
+            self.assertRaises(FileNotFoundError, ep.unregister, client)
+
+    def test_epoll_register_twice(self):
+        with select.epoll() as ep:
+            ep.register(self.server, select.EPOLLIN)
+            self.assertRaises(FileExistsError, ep.register, self.server, select.EPOLLIN)
+            self.assertRaises(FileNotFoundError, ep.modify, self.connect(), select.EPOLLIN)
+        self.assertTrue(ep.closed)
+        self.assertRaises(ValueError, ep.poll)
+
+    def test_epoll_maxevents(self):
+        with select.epoll() as ep:
+            clients = [self.connect() for _ in range(3)]
+            for c in clients:
+                ep.register(c, select.EPOLLOUT)
+            self.assertEqual(len(ep.poll(5, 2)), 2)
+            # level triggered, so all of them are still ready
+            ready = ep.poll(5)
+            self.assertEqual(sorted(fd for fd, _ in ready), sorted(c.fileno() for c in clients))
+            self.assertRaises(ValueError, ep.poll, 0, 0)
+
+    def test_blocking_while_registered(self):
+        with select.epoll() as ep:
+            client = self.connect()
+            conn = self.accept(ep)
+            client.setblocking(True)
+            ep.register(client, select.EPOLLIN)
+            # a registered socket stays blocking on the Python level
+            client.setblocking(True)
+            client.settimeout(None)
+            self.assertTrue(client.getblocking())
+            self.assertIsNone(client.gettimeout())
+            timer = threading.Timer(0.2, conn.send, (b"late",))
+            timer.start()
+            try:
+                self.assertEqual(client.recv(16), b"late")
+            finally:
+                timer.join()
+            client.sendall(b"x" * 10000)
+            ep.unregister(client)
+
+    def test_epoll_register_while_polling(self):
+        with select.epoll() as ep:
+            client = self.connect()
+            conn = self.accept(ep)
+            conn.send(b"x")
+            result = []
+            poller = threading.Thread(target=lambda: result.append(ep.poll(10)))
+            poller.start()
+            time.sleep(0.1)
+            # must neither block until the poll times out nor be missed by it
+            start = time.monotonic()
+            ep.register(client, select.EPOLLIN)
+            poller.join()
+            self.assertLess(time.monotonic() - start, 5)
+            self.assertEqual(result, [[(client.fileno(), select.EPOLLIN)]])
+            ep.unregister(client)
+
+
+class AsyncioTests(unittest.TestCase):
+
+    def test_echo(self):
+        import asyncio
+
+        async def handle(reader, writer):
+            writer.write(await reader.readexactly(4))
+            await writer.drain()
+            writer.close()
+
+        async def client(port, i):
+            reader, writer = await asyncio.open_connection("127.0.0.1", port)
+            message = b"%04d" % i
+            writer.write(message)
+            data = await reader.readexactly(4)
+            writer.close()
+            return data == message
+
+        async def main(n):
+            server = await asyncio.start_server(handle, "127.0.0.1", 0)
+            port = server.sockets[0].getsockname()[1]
+            results = await asyncio.gather(*[client(port, i) for i in range(n)])
+            server.close()
+            await server.wait_closed()
+            return results
+
+        loop = asyncio.new_event_loop()
+        try:
+            self.assertEqual(loop.run_until_complete(main(50)), [True] * 50)
+        finally:
+            loop.close()
@@ -1138,3 +1138,29 @@ def test_replace_count():
     s = "1 2 3 1 2 3 1 2 3 1 2 3"
     s = s.replace("1", "1 _", s.count("1"))
     assert s == "1 _ 2 3 1 _ 2 3 1 _ 2 3 1 _ 2 3"
+
+
+def test_intern():
+    import sys
+    a = "".join(["inter", "ned_name"])
+    b = "".join(["intern", "ed_name"])
+    assert a is not b
+    assert sys.intern(a) is sys.intern(b)
+    assert sys.intern(a) is interned_name_attr.__name__
+
+    class S(str):
+        pass
+
+    try:
+        sys.intern(S("abc"))
+    except TypeError:
+        pass
+    else:
+        assert False, "interning a str subclass must fail"
+
+
+def interned_name_attr():
+    pass
+
+
+interned_name_attr.__name__ = "interned_name"
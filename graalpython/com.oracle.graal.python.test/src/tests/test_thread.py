@@ -513,3 +513,76 @@ if syscfg.get_config_var('WITH_THREAD'):
             lock.release()
             self.assertFalse(lock.locked())
             self.assertTrue(lock.acquire(blocking=False))
+
+
+    class SwitchIntervalTests(unittest.TestCase):
+
+        def test_switchinterval(self):
+            self.assertRaises(TypeError, sys.setswitchinterval)
+            self.assertRaises(TypeError, sys.setswitchinterval, "a")
+            self.assertRaises(ValueError, sys.setswitchinterval, -1.0)
+            self.assertRaises(ValueError, sys.setswitchinterval, 0.0)
+            orig = sys.getswitchinterval()
+            try:
+                sys.setswitchinterval(0.001)
+                self.assertAlmostEqual(sys.getswitchinterval(), 0.001)
+            finally:
+                sys.setswitchinterval(orig)
+            self.assertAlmostEqual(sys.getswitchinterval(), orig)
+
+        def test_blocking_calls_let_other_threads_run(self):
+            # a thread blocked on a lock or in sleep must not keep the others from running
+            lock = thread.allocate_lock()
+            lock.acquire()
+            results = []
+
+            def worker():
+                time.sleep(0.01)
+                results.append(sum(range(10000)))
+                lock.release()
+
+            start_new_thread(worker, ())
+            self.assertTrue(lock.acquire(timeout=10))
+            self.assertEqual(results, [sum(range(10000))])
+
+
+    class LockReleaseTests(unittest.TestCase):
+
+        def test_release_unlocked(self):
+            lock = thread.allocate_lock()
+            self.assertRaises(RuntimeError, lock.release)
+            lock.acquire()
+            lock.release()
+            self.assertRaises(RuntimeError, lock.release)
+            self.assertTrue(lock.acquire(blocking=False))
+            lock.release()
+
+        def test_release_unowned_rlock(self):
+            rlock = thread.RLock()
+            self.assertRaises(RuntimeError, rlock.release)
+            rlock.acquire()
+            rlock.acquire()
+            rlock.release()
+            rlock.release()
+            self.assertRaises(RuntimeError, rlock.release)
+
+        def test_contended_counter(self):
+            lock = thread.allocate_lock()
+            done = thread.allocate_lock()
+            done.acquire()
+            counter = [0, 0]
+            nthreads = 4
+
+            def worker():
+                for _ in range(1000):
+                    with lock:
+                        counter[0] += 1
+                with lock:
+                    counter[1] += 1
+                    if counter[1] == nthreads:
+                        done.release()
+
+            for _ in range(nthreads):
+                start_new_thread(worker, ())
+            self.assertTrue(done.acquire(timeout=30))
+            self.assertEqual(counter[0], 1000 * nthreads)
@@ -68,3 +68,29 @@ def test_import():
     except ImportError:
         imported = False
     assert imported
+
+
+def test_traceback_of_returned_exception():
+    def catch_and_return():
+        y = 7
+        try:
+            raise KeyError("k")
+        except KeyError as e:
+            return e
+
+    def catch_and_inspect():
+        x = 42
+        try:
+            raise KeyError("k")
+        except KeyError as e:
+            return e.__traceback__
+
+    for i in range(10):
+        tb = catch_and_return().__traceback__
+        assert tb.tb_frame.f_code.co_name == "catch_and_return"
+        assert isinstance(tb.tb_lineno, int)
+        assert tb.tb_frame.f_globals is globals()
+        assert tb.tb_lineno == catch_and_return.__code__.co_firstlineno + 3
+        tb = catch_and_inspect()
+        assert tb.tb_frame.f_code.co_name == "catch_and_inspect"
+        assert tb.tb_frame.f_locals["x"] == 42
@@ -3,7 +3,9 @@
 #
 # Licensed under the PYTHON SOFTWARE FOUNDATION LICENSE VERSION 2
 
+import mmap
 import os
+import tempfile
 import unittest
 import zlib
 import binascii
@@ -94,6 +96,26 @@ class ChecksumTests(unittest.TestCase):
         self.assertRaises(TypeError, zlib.adler32, 10)
         self.assertRaises(TypeError, zlib.adler32, 'ahoj')
 
+    def test_checksum_storages(self):
+        data = HAMLET_SCENE * 4
+        crc = zlib.crc32(data)
+        adler = zlib.adler32(data)
+        self.assertEqual(zlib.crc32(bytearray(data)), crc)
+        self.assertEqual(zlib.adler32(bytearray(data)), adler)
+        self.assertEqual(zlib.crc32(memoryview(data)), crc)
+        self.assertEqual(zlib.crc32(data[100:], zlib.crc32(data[:100])), crc)
+        self.assertEqual(zlib.adler32(data[100:], zlib.adler32(data[:100])), adler)
+        with tempfile.TemporaryFile() as f:
+            f.write(data)
+            f.flush()
+            m = mmap.mmap(f.fileno(), 0)
+            try:
+                self.assertEqual(zlib.crc32(m), crc)
+                self.assertEqual(zlib.adler32(m), adler)
+                self.assertEqual(zlib.crc32(m, 1), zlib.crc32(data, 1))
+            finally:
+                m.close()
+
 class BaseCompressTestCase(object):
     def check_big_compress_buffer(self, size, compress_func):
         _1M = 1024 * 1024
@@ -164,6 +186,66 @@ class CompressTests(BaseCompressTestCase, unittest.TestCase):
         compressed = zlib.compress(data, 1)
         self.assertEqual(zlib.decompress(compressed, 15, CustomInt()), data)
 
+class CompressObjectTests(unittest.TestCase):
+    # Test compression object
+    def test_pair(self):
+        data = HAMLET_SCENE * 16
+        for ob in data, bytearray(data):
+            co = zlib.compressobj()
+            x1 = co.compress(ob)
+            x2 = co.flush()
+            self.assertRaises(zlib.error, co.flush)
+            dco = zlib.decompressobj()
+            y1 = dco.decompress(x1 + x2)
+            y2 = dco.flush()
+            self.assertEqual(data, y1 + y2)
+            self.assertTrue(dco.eof)
+
+    def test_sync_flush(self):
+        co = zlib.compressobj(zlib.Z_BEST_COMPRESSION)
+        dco = zlib.decompressobj()
+        x = co.compress(HAMLET_SCENE) + co.flush(zlib.Z_SYNC_FLUSH)
+        self.assertEqual(dco.decompress(x), HAMLET_SCENE)
+        x = co.compress(HAMLET_SCENE) + co.flush()
+        self.assertEqual(dco.decompress(x), HAMLET_SCENE)
+        self.assertTrue(dco.eof)
+
+    def test_decompress_max_length(self):
+        data = HAMLET_SCENE * 16
+        dco = zlib.decompressobj()
+        bufs = []
+        cb = zlib.compress(data)
+        while cb:
+            chunk = dco.decompress(cb, 100)
+            self.assertLessEqual(len(chunk), 100)
+            bufs.append(chunk)
+            cb = dco.unconsumed_tail
+        bufs.append(dco.flush())
+        self.assertEqual(data, b''.join(bufs))
+        self.assertRaises(ValueError, dco.decompress, b'', -1)
+
+    def test_unused_data(self):
+        comp = zlib.compress(HAMLET_SCENE) + b'trailing'
+        dco = zlib.decompressobj()
+        self.assertEqual(dco.decompress(comp[:20]) + dco.decompress(comp[20:]), HAMLET_SCENE)
+        self.assertTrue(dco.eof)
+        self.assertEqual(dco.unused_data, b'trailing')
+        self.assertEqual(dco.unconsumed_tail, b'')
+
+    def test_raw_stream(self):
+        co = zlib.compressobj(wbits=-zlib.MAX_WBITS)
+        x = co.compress(HAMLET_SCENE) + co.flush()
+        dco = zlib.decompressobj(-zlib.MAX_WBITS)
+        self.assertEqual(dco.decompress(x), HAMLET_SCENE)
+
+    def test_dictionary(self):
+        zdict = b"LAERTES LORD POLONIUS OPHELIA Farewell blessing"
+        co = zlib.compressobj(zdict=zdict)
+        x = co.compress(HAMLET_SCENE) + co.flush()
+        self.assertEqual(zlib.decompressobj(zdict=zdict).decompress(x), HAMLET_SCENE)
+        self.assertRaises(zlib.error, zlib.decompressobj().decompress, x)
+
+
 HAMLET_SCENE = b"""
 LAERTES
 
@@ -170,9 +170,17 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
     protected void finalizeContext(PythonContext context) {
         context.shutdownThreads();
         context.runShutdownHooks();
+        // like CPython's daemon threads, the virtual threads that are still running are stopped
+        context.cancelVirtualThreads();
         super.finalizeContext(context);
     }
 
+    @Override
+    protected void disposeContext(PythonContext context) {
+        context.cancelVirtualThreads();
+        super.disposeContext(context);
+    }
+
     @Override
     protected boolean areOptionsCompatible(OptionValues firstOptions, OptionValues newOptions) {
         return PythonOptions.areOptionsCompatible(firstOptions, newOptions);
@@ -147,10 +147,12 @@ import com.oracle.graal.python.builtins.objects.object.ObjectBuiltins;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.posix.DirEntryBuiltins;
 import com.oracle.graal.python.builtins.objects.posix.ScandirIteratorBuiltins;
+import com.oracle.graal.python.builtins.objects.queue.SimpleQueueBuiltins;
 import com.oracle.graal.python.builtins.objects.random.RandomBuiltins;
 import com.oracle.graal.python.builtins.objects.range.RangeBuiltins;
 import com.oracle.graal.python.builtins.objects.referencetype.ReferenceTypeBuiltins;
 import com.oracle.graal.python.builtins.objects.reversed.ReversedBuiltins;
+import com.oracle.graal.python.builtins.objects.select.EpollBuiltins;
 import com.oracle.graal.python.builtins.objects.set.FrozenSetBuiltins;
 import com.oracle.graal.python.builtins.objects.set.SetBuiltins;
 import com.oracle.graal.python.builtins.objects.slice.SliceBuiltins;
@@ -167,6 +169,8 @@ import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
 import com.oracle.graal.python.builtins.objects.type.TypeBuiltins;
 import com.oracle.graal.python.builtins.objects.type.TypeNodes.GetNameNode;
 import com.oracle.graal.python.builtins.objects.zipimporter.ZipImporterBuiltins;
+import com.oracle.graal.python.builtins.objects.zlib.ZLibCompressBuiltins;
+import com.oracle.graal.python.builtins.objects.zlib.ZLibDecompressBuiltins;
 import com.oracle.graal.python.nodes.BuiltinNames;
 import com.oracle.graal.python.nodes.call.GenericInvokeNode;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -243,11 +247,9 @@ public final class Python3Core implements PythonCore {
                         "_sysconfig",
                         "_socket",
                         "ctypes",
-                        "zlib",
                         "termios",
                         "zipimport",
                         "mmap",
-                        "_queue",
                         "_ast",
                         "java",
                         "pyio_patches",
@@ -358,6 +360,7 @@ public final class Python3Core implements PythonCore {
                         new SREModuleBuiltins(),
                         new AstModuleBuiltins(),
                         new SelectModuleBuiltins(),
+                        new EpollBuiltins(),
                         new SocketModuleBuiltins(),
                         new SocketBuiltins(),
                         new SignalModuleBuiltins(),
@@ -381,10 +384,13 @@ public final class Python3Core implements PythonCore {
                         new ZipImporterBuiltins(),
                         new ZipImportModuleBuiltins(),
                         new ZLibModuleBuiltins(),
+                        new ZLibCompressBuiltins(),
+                        new ZLibDecompressBuiltins(),
                         new MMapModuleBuiltins(),
                         new FcntlModuleBuiltins(),
                         new MMapBuiltins(),
                         new QueueModuleBuiltins(),
+                        new SimpleQueueBuiltins(),
                         new ThreadModuleBuiltins(),
                         new ThreadBuiltins(),
                         new LockBuiltins(),
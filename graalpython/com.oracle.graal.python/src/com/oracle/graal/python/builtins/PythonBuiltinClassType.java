@@ -118,6 +118,10 @@ public enum PythonBuiltinClassType implements LazyPythonClass {
     PDirEntry("DirEntry", "posix"),
     PLZMACompressor("LZMACompressor", "_lzma"),
     PLZMADecompressor("LZMADecompressor", "_lzma"),
+    PZLibCompress("Compress", "zlib"),
+    PZLibDecompress("Decompress", "zlib"),
+    PSimpleQueue("SimpleQueue", "_queue"),
+    PEpoll("epoll", "select"),
     LsprofProfiler("Profiler", "_lsprof"),
 
     // Errors and exceptions:
@@ -164,6 +168,7 @@ public enum PythonBuiltinClassType implements LazyPythonClass {
     ZipImportError("ZipImportError", "zipimport"),
     ZLibError("error", "zlib"),
     LZMAError("LZMAError", "_lzma"),
+    QueueEmpty("Empty", "_queue"),
 
     // todo: all OS errors
 
@@ -306,6 +311,7 @@ public enum PythonBuiltinClassType implements LazyPythonClass {
         ZipImportError.base = ImportError;
         ZLibError.base = Exception;
         LZMAError.base = Exception;
+        QueueEmpty.base = Exception;
 
         ReferenceError.base = Exception;
         RuntimeError.base = Exception;
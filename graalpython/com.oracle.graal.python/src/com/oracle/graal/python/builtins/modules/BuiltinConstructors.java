@@ -1263,9 +1263,9 @@ public final class BuiltinConstructors extends PythonBuiltins {
 
             BigInteger bi;
             if (sign == '-') {
-                bi = new BigInteger("-" + s, base);
+                bi = PInt.parseBigInteger("-" + s, base);
             } else {
-                bi = new BigInteger(s, base);
+                bi = PInt.parseBigInteger(s, base);
             }
             return bi;
         }
@@ -2346,6 +2346,8 @@ public final class BuiltinConstructors extends PythonBuiltins {
                 }
             }
 
+            // lay out the slots of this class and its bases before any instance exists
+            pythonClass.preallocateSlots();
             return pythonClass;
         }
 
@@ -57,12 +57,14 @@ import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.code.PCode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.function.Signature;
 import com.oracle.graal.python.builtins.objects.generator.PGenerator;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.method.PMethod;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
+import com.oracle.graal.python.builtins.objects.thread.AbstractSpinningLock;
 import com.oracle.graal.python.nodes.BuiltinNames;
 import com.oracle.graal.python.nodes.argument.ReadIndexedArgumentNode;
 import com.oracle.graal.python.nodes.argument.ReadVarArgsNode;
@@ -75,6 +77,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.GlobalInterpreterLock;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonOptions;
@@ -327,6 +330,45 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Returns the number of acquisitions and forced switches of the global interpreter lock and
+     * the total time threads waited for it and held it, or {@code None} if there is no GIL.
+     */
+    @Builtin(name = "gil_stats", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    public abstract static class GilStatsNode extends PythonBuiltinNode {
+        @Specialization
+        Object doIt() {
+            GlobalInterpreterLock gil = getContext().getGil();
+            if (gil == null) {
+                return PNone.NONE;
+            }
+            long[] stats = gil.getStatistics();
+            return factory().createDict(new PKeyword[]{new PKeyword("acquisitions", stats[0]), new PKeyword("switches", stats[1]),
+                            new PKeyword("wait_ns", stats[2]), new PKeyword("hold_ns", stats[3])});
+        }
+    }
+
+    /**
+     * Returns how often a {@code _thread} lock was acquired, how many of these acquisitions were
+     * contended, and how many of the contended ones succeeded by spinning or had to park.
+     */
+    @Builtin(name = "lock_stats", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class LockStatsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object doIt(AbstractSpinningLock lock) {
+            long[] stats = lock.getStatistics();
+            return factory().createDict(new PKeyword[]{new PKeyword("acquisitions", stats[0]), new PKeyword("contended", stats[1]),
+                            new PKeyword("spun", stats[2]), new PKeyword("parked", stats[3])});
+        }
+
+        @Fallback
+        Object doOther(Object lock) {
+            throw raise(PythonBuiltinClassType.TypeError, "expected a lock, got %p", lock);
+        }
+    }
+
     @Builtin(name = "tdebug", takesVarArgs = true)
     @GenerateNodeFactory
     public abstract static class DebugNode extends PythonBuiltinNode {
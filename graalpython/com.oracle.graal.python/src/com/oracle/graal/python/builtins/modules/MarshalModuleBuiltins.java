@@ -458,8 +458,14 @@ public final class MarshalModuleBuiltins extends PythonBuiltins {
             writeInt(c.getStacksize(), version, buffer);
             writeInt(c.getFlags(), version, buffer);
             writeBytes(c.getCodestring() == null ? new byte[0] : c.getCodestring(), version, buffer);
-            getRecursiveNode().execute(frame, internStrings(c.getConstants()), version, buffer);
-            getRecursiveNode().execute(frame, internStrings(c.getNames()), version, buffer);
+            if (c.hasSerializedCodestring()) {
+                // recomputed from the serialized syntax tree when loading
+                getRecursiveNode().execute(frame, internStrings(null), version, buffer);
+                getRecursiveNode().execute(frame, internStrings(null), version, buffer);
+            } else {
+                getRecursiveNode().execute(frame, internStrings(c.getConstants()), version, buffer);
+                getRecursiveNode().execute(frame, internStrings(c.getNames()), version, buffer);
+            }
             getRecursiveNode().execute(frame, internStrings(c.getVarnames()), version, buffer);
             getRecursiveNode().execute(frame, internStrings(c.getFreeVars()), version, buffer);
             getRecursiveNode().execute(frame, internStrings(c.getCellVars()), version, buffer);
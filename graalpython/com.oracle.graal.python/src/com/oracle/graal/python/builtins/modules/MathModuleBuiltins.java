@@ -42,28 +42,41 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.array.PArray;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.floats.PFloat;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.iterator.IteratorNodes.GetNextOrSentinelNode;
+import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.builtins.TupleNodes.ConstructTupleNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.control.GetIteratorExpressionNode.GetIteratorNode;
+import com.oracle.graal.python.nodes.expression.BinaryArithmetic;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetLazyClassNode;
 import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CoerceToDoubleNode;
 import com.oracle.graal.python.nodes.util.CoerceToIntegerNode;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
+import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -77,6 +90,7 @@ import com.oracle.truffle.api.dsl.TypeSystemReference;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.profiles.ValueProfile;
 
 @CoreFunctions(defineModule = "math")
 public class MathModuleBuiltins extends PythonBuiltins {
@@ -95,6 +109,34 @@ public class MathModuleBuiltins extends PythonBuiltins {
         builtinConstants.put("nan", Double.NaN);
     }
 
+    /**
+     * Returns the storage of a builtin list, tuple or array that holds unboxed ints, longs or
+     * doubles, or {@code null}. Such storages can be processed with plain loops over the primitive
+     * array instead of going through the iteration protocol for every element.
+     */
+    static SequenceStorage getNumericStorage(Object obj, GetLazyClassNode getClassNode) {
+        if ((obj instanceof PList || obj instanceof PTuple || obj instanceof PArray) && PGuards.cannotBeOverridden(getClassNode.execute(obj))) {
+            SequenceStorage storage = ((PSequence) obj).getSequenceStorage();
+            if (storage instanceof DoubleSequenceStorage || storage instanceof IntSequenceStorage || storage instanceof LongSequenceStorage) {
+                return storage;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads element {@code i} of a storage returned by {@link #getNumericStorage} as a double.
+     */
+    static double getDouble(SequenceStorage storage, int i) {
+        if (storage instanceof DoubleSequenceStorage) {
+            return ((DoubleSequenceStorage) storage).getDoubleItemNormalized(i);
+        } else if (storage instanceof IntSequenceStorage) {
+            return ((IntSequenceStorage) storage).getIntItemNormalized(i);
+        } else {
+            return ((LongSequenceStorage) storage).getLongItemNormalized(i);
+        }
+    }
+
     public abstract static class MathUnaryBuiltinNode extends PythonUnaryBuiltinNode {
 
         public void checkMathRangeError(boolean con) {
@@ -1051,14 +1093,55 @@ public class MathModuleBuiltins extends PythonBuiltins {
     public abstract static class FsumNode extends PythonUnaryBuiltinNode {
 
         @Specialization
-        @SuppressWarnings("try")
         double doIt(VirtualFrame frame, Object iterable,
+                        @Cached GetLazyClassNode getClassNode,
+                        @Cached("createClassProfile()") ValueProfile storageProfile,
                         @Cached GetIteratorNode getIterator,
                         @Cached("create(__NEXT__)") LookupAndCallUnaryNode next,
                         @Cached CoerceToDoubleNode toFloat,
                         @Cached IsBuiltinClassProfile stopProfile) {
-            Object iterator = getIterator.executeWith(frame, iterable);
-            return fsum(frame, iterator, next, toFloat, stopProfile);
+            Partials partials = new Partials();
+            SequenceStorage storage = storageProfile.profile(getNumericStorage(iterable, getClassNode));
+            if (storage instanceof DoubleSequenceStorage) {
+                double[] values = ((DoubleSequenceStorage) storage).getInternalDoubleArray();
+                for (int i = 0; i < storage.length(); i++) {
+                    add(partials, values[i]);
+                }
+            } else if (storage instanceof IntSequenceStorage) {
+                int[] values = ((IntSequenceStorage) storage).getInternalIntArray();
+                for (int i = 0; i < storage.length(); i++) {
+                    add(partials, values[i]);
+                }
+            } else if (storage instanceof LongSequenceStorage) {
+                long[] values = ((LongSequenceStorage) storage).getInternalLongArray();
+                for (int i = 0; i < storage.length(); i++) {
+                    add(partials, values[i]);
+                }
+            } else {
+                Object iterator = getIterator.executeWith(frame, iterable);
+                while (true) {
+                    double x;
+                    try {
+                        x = toFloat.execute(frame, next.executeObject(frame, iterator));
+                    } catch (PException e) {
+                        e.expectStopIteration(stopProfile);
+                        break;
+                    }
+                    add(partials, x);
+                }
+            }
+            return sum(partials);
+        }
+
+        /**
+         * The exact partial sums of the values seen so far (Shewchuk's algorithm), kept in one
+         * scratch array that is only reallocated when it runs full.
+         */
+        private static final class Partials {
+            double[] p = new double[32];
+            int n;
+            double infSum;
+            double specialSum;
         }
 
         /*
@@ -1071,66 +1154,63 @@ public class MathModuleBuiltins extends PythonBuiltins {
          * is little bit faster. The testFSum in test_math.py takes in different implementations:
          * CPython ~0.6s CurrentImpl: ~14.3s Using BigDecimal: ~15.1
          */
-        private double fsum(VirtualFrame frame, Object iterator, LookupAndCallUnaryNode next, CoerceToDoubleNode toFloat, IsBuiltinClassProfile stopProfile) {
-            double x, y, t, hi, lo = 0, yr, inf_sum = 0, special_sum = 0, sum;
-            double xsave;
-            int i, j, n = 0, arayLength = 32;
-            double[] p = new double[arayLength];
-            while (true) {
-                try {
-                    x = toFloat.execute(frame, next.executeObject(frame, iterator));
-                } catch (PException e) {
-                    e.expectStopIteration(stopProfile);
-                    break;
+        private void add(Partials partials, double value) {
+            double x = value;
+            double y, t, hi, lo, yr;
+            double[] p = partials.p;
+            int i, j, n = partials.n;
+            for (i = j = 0; j < n; j++) { /* for y in partials */
+                y = p[j];
+                if (Math.abs(x) < Math.abs(y)) {
+                    t = x;
+                    x = y;
+                    y = t;
                 }
-                xsave = x;
-                for (i = j = 0; j < n; j++) { /* for y in partials */
-                    y = p[j];
-                    if (Math.abs(x) < Math.abs(y)) {
-                        t = x;
-                        x = y;
-                        y = t;
-                    }
-                    hi = x + y;
-                    yr = hi - x;
-                    lo = y - yr;
-                    if (lo != 0.0) {
-                        p[i++] = lo;
-                    }
-                    x = hi;
+                hi = x + y;
+                yr = hi - x;
+                lo = y - yr;
+                if (lo != 0.0) {
+                    p[i++] = lo;
                 }
+                x = hi;
+            }
 
-                n = i;
-                if (x != 0.0) {
-                    if (!Double.isFinite(x)) {
-                        /*
-                         * a nonfinite x could arise either as a result of intermediate overflow, or
-                         * as a result of a nan or inf in the summands
-                         */
-                        if (Double.isFinite(xsave)) {
-                            throw raise(OverflowError, "intermediate overflow in fsum");
-                        }
-                        if (Double.isInfinite(xsave)) {
-                            inf_sum += xsave;
-                        }
-                        special_sum += xsave;
-                        /* reset partials */
-                        n = 0;
-                    } else if (n >= arayLength) {
-                        arayLength += arayLength;
-                        p = Arrays.copyOf(p, arayLength);
-                    } else {
-                        p[n++] = x;
+            n = i;
+            if (x != 0.0) {
+                if (!Double.isFinite(x)) {
+                    /*
+                     * a nonfinite x could arise either as a result of intermediate overflow, or as a
+                     * result of a nan or inf in the summands
+                     */
+                    if (Double.isFinite(value)) {
+                        throw raise(OverflowError, "intermediate overflow in fsum");
                     }
+                    if (Double.isInfinite(value)) {
+                        partials.infSum += value;
+                    }
+                    partials.specialSum += value;
+                    /* reset partials */
+                    n = 0;
+                } else {
+                    if (n >= p.length) {
+                        p = Arrays.copyOf(p, p.length * 2);
+                        partials.p = p;
+                    }
+                    p[n++] = x;
                 }
             }
+            partials.n = n;
+        }
 
-            if (special_sum != 0.0) {
-                if (Double.isNaN(inf_sum)) {
+        private double sum(Partials partials) {
+            double x, y, hi, lo = 0, yr;
+            double[] p = partials.p;
+            int n = partials.n;
+            if (partials.specialSum != 0.0) {
+                if (Double.isNaN(partials.infSum)) {
                     throw raise(ValueError, "-inf + inf in fsum");
                 } else {
-                    sum = special_sum;
-                    return sum;
+                    return partials.specialSum;
                 }
             }
 
@@ -2016,29 +2096,145 @@ public class MathModuleBuiltins extends PythonBuiltins {
                 }
                 coordinates[i] = x;
             }
-            if (Double.isInfinite(max)) {
-                return max;
+            return vectorNorm(coordinates, max, foundNan);
+        }
+    }
+
+    /**
+     * The Euclidean norm of the given absolute coordinates, where {@code max} is their maximum.
+     * Like CPython's {@code vector_norm}, the sum of squares is scaled by {@code max} and carries a
+     * correction term so that the result is accurate and does not overflow.
+     */
+    static double vectorNorm(double[] coordinates, double max, boolean foundNan) {
+        if (Double.isInfinite(max)) {
+            return max;
+        }
+        if (foundNan) {
+            return Double.NaN;
+        }
+        if (max == 0.0 || coordinates.length <= 1) {
+            return max;
+        }
+
+        double csum = 1.0;
+        double oldcsum;
+        double frac = 0.0;
+
+        for (int i = 0; i < coordinates.length; i++) {
+            double x = coordinates[i];
+            x /= max;
+            x = x * x;
+            oldcsum = csum;
+            csum += x;
+            frac += (oldcsum - csum) + x;
+        }
+        return max * Math.sqrt(csum - 1.0 + frac);
+    }
+
+    @Builtin(name = "dist", minNumOfPositionalArgs = 2, parameterNames = {"p", "q"})
+    @GenerateNodeFactory
+    public abstract static class DistNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        double dist(VirtualFrame frame, Object p, Object q,
+                        @Cached GetLazyClassNode getClassNode,
+                        @Cached("createClassProfile()") ValueProfile pStorageProfile,
+                        @Cached("createClassProfile()") ValueProfile qStorageProfile,
+                        @Cached ConstructTupleNode constructTupleNode,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @Cached CoerceToDoubleNode toFloat) {
+            SequenceStorage pStorage = pStorageProfile.profile(getNumericStorage(p, getClassNode));
+            SequenceStorage qStorage = qStorageProfile.profile(getNumericStorage(q, getClassNode));
+            if (pStorage != null && qStorage != null) {
+                int n = checkDimensions(pStorage.length(), qStorage.length());
+                double[] diffs = new double[n];
+                for (int i = 0; i < n; i++) {
+                    diffs[i] = Math.abs(getDouble(pStorage, i) - getDouble(qStorage, i));
+                }
+                return norm(diffs);
+            }
+            Object[] pItems = getObjectArrayNode.execute(constructTupleNode.execute(frame, p));
+            Object[] qItems = getObjectArrayNode.execute(constructTupleNode.execute(frame, q));
+            int n = checkDimensions(pItems.length, qItems.length);
+            double[] diffs = new double[n];
+            for (int i = 0; i < n; i++) {
+                diffs[i] = Math.abs(toFloat.execute(frame, pItems[i]) - toFloat.execute(frame, qItems[i]));
             }
-            if (foundNan) {
-                return Double.NaN;
+            return norm(diffs);
+        }
+
+        private int checkDimensions(int pLength, int qLength) {
+            if (pLength != qLength) {
+                throw raise(ValueError, "both points must have the same number of dimensions");
             }
-            if (max == 0.0 || arguments.length <= 1) {
-                return max;
+            return pLength;
+        }
+
+        private static double norm(double[] diffs) {
+            double max = 0.0;
+            boolean foundNan = false;
+            for (int i = 0; i < diffs.length; i++) {
+                double x = diffs[i];
+                foundNan |= Double.isNaN(x);
+                if (x > max) {
+                    max = x;
+                }
             }
+            return vectorNorm(diffs, max, foundNan);
+        }
+    }
 
-            double csum = 1.0;
-            double oldcsum;
-            double frac = 0.0;
+    @Builtin(name = "prod", minNumOfPositionalArgs = 1, parameterNames = {"iterable"}, keywordOnlyNames = {"start"})
+    @GenerateNodeFactory
+    public abstract static class ProdNode extends PythonBinaryBuiltinNode {
 
-            for (int i = 0; i < arguments.length; i++) {
-                double x = coordinates[i];
-                x /= max;
-                x = x * x;
-                oldcsum = csum;
-                csum += x;
-                frac += (oldcsum - csum) + x;
-            }
-            return max * Math.sqrt(csum - 1.0 + frac);
+        @Specialization
+        Object prod(VirtualFrame frame, Object iterable, Object startArg,
+                        @Cached GetLazyClassNode getClassNode,
+                        @Cached("createClassProfile()") ValueProfile storageProfile,
+                        @Cached GetIteratorNode getIterator,
+                        @Cached GetNextOrSentinelNode next,
+                        @Cached("createMul()") LookupAndCallBinaryNode mul) {
+            Object start = startArg == PNone.NO_VALUE ? 1 : startArg;
+            SequenceStorage storage = storageProfile.profile(getNumericStorage(iterable, getClassNode));
+            if (storage instanceof DoubleSequenceStorage && storage.length() > 0 && (start instanceof Integer || start instanceof Double)) {
+                double[] values = ((DoubleSequenceStorage) storage).getInternalDoubleArray();
+                double result = start instanceof Integer ? (int) start : (double) start;
+                for (int i = 0; i < storage.length(); i++) {
+                    result *= values[i];
+                }
+                return result;
+            } else if (storage instanceof IntSequenceStorage && start instanceof Integer) {
+                int[] values = ((IntSequenceStorage) storage).getInternalIntArray();
+                long result = (int) start;
+                int i = 0;
+                try {
+                    for (; i < storage.length(); i++) {
+                        result = Math.multiplyExact(result, values[i]);
+                    }
+                    return result;
+                } catch (ArithmeticException e) {
+                    // continue with arbitrary precision from the element that overflowed
+                    Object bigResult = result;
+                    for (; i < storage.length(); i++) {
+                        bigResult = mul.executeObject(frame, bigResult, values[i]);
+                    }
+                    return bigResult;
+                }
+            }
+            Object result = start;
+            Object iterator = getIterator.executeWith(frame, iterable);
+            while (true) {
+                Object value = next.execute(frame, iterator);
+                if (value == PNone.NO_VALUE) {
+                    return result;
+                }
+                result = mul.executeObject(frame, result, value);
+            }
+        }
+
+        protected static LookupAndCallBinaryNode createMul() {
+            return BinaryArithmetic.Mul.create();
         }
     }
 
@@ -58,7 +58,10 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.LinkOption;
@@ -89,12 +92,15 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.modules.PosixModuleBuiltinsFactory.StatNodeFactory;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes.LenNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodesFactory.GetObjectArrayNodeGen;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetItemDynamicNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetItemNode;
@@ -107,6 +113,7 @@ import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.socket.PSocket;
@@ -114,6 +121,7 @@ import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallTernaryNode;
 import com.oracle.graal.python.nodes.expression.IsExpressionNode.IsNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
@@ -135,6 +143,7 @@ import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.exception.PythonExitException;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.FileDeleteShutdownHook;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
@@ -151,6 +160,7 @@ import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.dsl.TypeSystemReference;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
@@ -188,6 +198,9 @@ public class PosixModuleBuiltins extends PythonBuiltins {
     private static final int W_OK = 2;
     private static final int R_OK = 4;
 
+    /** Buffer size for copying between channels the OS cannot transfer directly. */
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
     private static PosixFilePermission[][] otherBitsToPermission = new PosixFilePermission[][]{
                     new PosixFilePermission[]{},
                     new PosixFilePermission[]{PosixFilePermission.OTHERS_EXECUTE},
@@ -1133,7 +1146,15 @@ public class PosixModuleBuiltins extends PythonBuiltins {
             Channel channel = getResources().getFileChannel(fd, channelClassProfile);
             if (channel instanceof WritableByteChannel) {
                 try {
-                    return doWriteOp(data, (WritableByteChannel) channel);
+                    PythonContext context = getContext();
+                    boolean released = context.releaseGil();
+                    try {
+                        return doWriteOp(data, (WritableByteChannel) channel);
+                    } finally {
+                        if (released) {
+                            context.acquireGil();
+                        }
+                    }
                 } catch (Exception e) {
                     gotException.enter();
                     throw raiseOSError(frame, e);
@@ -1192,6 +1213,565 @@ public class PosixModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "sendfile", minNumOfPositionalArgs = 4, parameterNames = {"out_fd", "in_fd", "offset", "count"})
+    @GenerateNodeFactory
+    public abstract static class SendfileNode extends PythonFileNode {
+        private final BranchProfile gotException = BranchProfile.create();
+
+        @Specialization
+        long sendfile(VirtualFrame frame, Object outFd, Object inFd, Object offset, Object count,
+                        @Cached CoerceToJavaLongNode castOutFdNode,
+                        @Cached CoerceToJavaLongNode castInFdNode,
+                        @Cached CoerceToJavaLongNode castOffsetNode,
+                        @Cached CoerceToJavaLongNode castCountNode) {
+            Channel in = getResources().getFileChannel((int) castInFdNode.execute(inFd));
+            Channel out = getResources().getFileChannel((int) castOutFdNode.execute(outFd));
+            long pos = offset instanceof PNone ? -1 : castOffsetNode.execute(offset);
+            long n = castCountNode.execute(count);
+            if (in == null || out == null) {
+                throw raiseOSError(frame, OSErrorEnum.EBADF);
+            }
+            if (!(in instanceof SeekableByteChannel) || pos < -1 || n < 0) {
+                // like Linux, the source must be a regular file
+                throw raiseOSError(frame, OSErrorEnum.EINVAL);
+            }
+            WritableByteChannel target = getWritableChannel(frame, out);
+            try {
+                return transfer(getContext(), (SeekableByteChannel) in, target, pos, n);
+            } catch (Exception e) {
+                gotException.enter();
+                throw raiseOSError(frame, e);
+            }
+        }
+
+        private WritableByteChannel getWritableChannel(VirtualFrame frame, Channel channel) {
+            if (channel instanceof PSocket) {
+                WritableByteChannel socketChannel = ((PSocket) channel).getSocket();
+                if (socketChannel == null) {
+                    throw raiseOSError(frame, OSErrorEnum.ENOTCONN);
+                }
+                return socketChannel;
+            } else if (channel instanceof WritableByteChannel) {
+                return (WritableByteChannel) channel;
+            }
+            throw raiseOSError(frame, OSErrorEnum.EBADF);
+        }
+    }
+
+    @Builtin(name = "copy_file_range", minNumOfPositionalArgs = 3, parameterNames = {"src", "dst", "count", "offset_src", "offset_dst"})
+    @GenerateNodeFactory
+    public abstract static class CopyFileRangeNode extends PythonFileNode {
+        private final BranchProfile gotException = BranchProfile.create();
+
+        @Specialization
+        long copyFileRange(VirtualFrame frame, Object src, Object dst, Object count, Object offsetSrc, Object offsetDst,
+                        @Cached CoerceToJavaLongNode castSrcNode,
+                        @Cached CoerceToJavaLongNode castDstNode,
+                        @Cached CoerceToJavaLongNode castCountNode,
+                        @Cached CoerceToJavaLongNode castOffsetSrcNode,
+                        @Cached CoerceToJavaLongNode castOffsetDstNode) {
+            Channel in = getResources().getFileChannel((int) castSrcNode.execute(src));
+            Channel out = getResources().getFileChannel((int) castDstNode.execute(dst));
+            long n = castCountNode.execute(count);
+            long inPos = offsetSrc instanceof PNone ? -1 : castOffsetSrcNode.execute(offsetSrc);
+            long outPos = offsetDst instanceof PNone ? -1 : castOffsetDstNode.execute(offsetDst);
+            if (in == null || out == null) {
+                throw raiseOSError(frame, OSErrorEnum.EBADF);
+            }
+            if (!(in instanceof SeekableByteChannel) || !(out instanceof SeekableByteChannel) || n < 0 || inPos < -1 || outPos < -1) {
+                // both ends must be regular files
+                throw raiseOSError(frame, OSErrorEnum.EINVAL);
+            }
+            try {
+                return copyRange(getContext(), (SeekableByteChannel) in, (SeekableByteChannel) out, n, inPos, outPos);
+            } catch (Exception e) {
+                gotException.enter();
+                throw raiseOSError(frame, e);
+            }
+        }
+
+        @TruffleBoundary
+        private static long copyRange(PythonContext context, SeekableByteChannel in, SeekableByteChannel out, long count, long inPos, long outPos) throws IOException {
+            if (outPos < 0) {
+                return transfer(context, in, out, inPos, count);
+            }
+            // write at 'outPos' without moving the position of 'out'
+            long oldPosition = out.position();
+            try {
+                out.position(outPos);
+                return transfer(context, in, out, inPos, count);
+            } finally {
+                out.position(oldPosition);
+            }
+        }
+    }
+
+    /**
+     * Transfers up to {@code count} bytes from {@code in}, starting at {@code offset}, to
+     * {@code out}. If {@code offset} is negative, the transfer starts at the current position of
+     * {@code in}, which is then advanced, otherwise the position is left alone. A
+     * {@link FileChannel} hands the transfer to the OS (sendfile and friends), so the data never
+     * goes through a Java byte array.
+     */
+    @TruffleBoundary
+    private static long transfer(PythonContext context, SeekableByteChannel in, WritableByteChannel out, long offset, long count) throws IOException {
+        long position = offset < 0 ? in.position() : offset;
+        long transferred;
+        boolean released = context.releaseGil();
+        try {
+            if (in instanceof FileChannel) {
+                transferred = ((FileChannel) in).transferTo(position, count, out);
+            } else {
+                transferred = copy(in, position, count, out);
+            }
+        } finally {
+            if (released) {
+                context.acquireGil();
+            }
+        }
+        if (offset < 0) {
+            in.position(position + transferred);
+        }
+        return transferred;
+    }
+
+    private static long copy(SeekableByteChannel in, long position, long count, WritableByteChannel out) throws IOException {
+        long oldPosition = in.position();
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(count, TRANSFER_BUFFER_SIZE));
+        long transferred = 0;
+        try {
+            in.position(position);
+            while (transferred < count) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), count - transferred));
+                if (in.read(buffer) <= 0) {
+                    break;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    transferred += out.write(buffer);
+                }
+            }
+        } finally {
+            in.position(oldPosition);
+        }
+        return transferred;
+    }
+
+    /**
+     * Base class for the positional and vectored I/O functions. Buffers backed by a Java byte array
+     * are handed to the channel directly; other buffers go through a temporary array.
+     */
+    abstract static class PositionalIONode extends PythonFileNode {
+        protected final BranchProfile gotException = BranchProfile.create();
+
+        @Child private PythonObjectLibrary bufferLib;
+        @Child private LookupAndCallTernaryNode setItemNode;
+        @Child private GetObjectArrayNode getObjectArrayNode;
+
+        protected Channel getChannel(VirtualFrame frame, long fd) {
+            Channel channel = getResources().getFileChannel((int) fd);
+            if (channel == null || channel instanceof PSocket) {
+                throw raiseOSError(frame, OSErrorEnum.EBADF);
+            }
+            return channel;
+        }
+
+        protected Channel getSeekableChannel(VirtualFrame frame, long fd) {
+            Channel channel = getChannel(frame, fd);
+            if (!(channel instanceof SeekableByteChannel)) {
+                throw raiseOSError(frame, OSErrorEnum.ESPIPE);
+            }
+            return channel;
+        }
+
+        protected Object[] getBuffers(Object buffers) {
+            if (!(buffers instanceof PList || buffers instanceof PTuple)) {
+                throw raise(TypeError, "%s() arg 2 must be a sequence", getName());
+            }
+            if (getObjectArrayNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getObjectArrayNode = insert(GetObjectArrayNodeGen.create());
+            }
+            return getObjectArrayNode.execute(buffers);
+        }
+
+        /**
+         * Returns views the channel can read into. Buffers that are not backed by a byte array get
+         * a temporary one which {@link #copyToBuffers} copies back.
+         */
+        protected ByteBuffer[] getWritableViews(Object[] buffers) {
+            ByteBuffer[] views = new ByteBuffer[buffers.length];
+            for (int i = 0; i < buffers.length; i++) {
+                Object buffer = buffers[i];
+                ByteSequenceStorage storage = getByteStorage(buffer, false);
+                if (storage != null) {
+                    views[i] = wrap(storage.getInternalByteArray(), storage.length());
+                } else if (buffer instanceof PMemoryView) {
+                    try {
+                        views[i] = allocate(getBufferLib().getBufferLength(buffer));
+                    } catch (UnsupportedMessageException e) {
+                        throw raise(TypeError, "a writable bytes-like object is required, not '%p'", buffer);
+                    }
+                } else {
+                    throw raise(TypeError, "a writable bytes-like object is required, not '%p'", buffer);
+                }
+            }
+            return views;
+        }
+
+        /**
+         * Stores what was read into the temporary arrays of memoryviews with a single slice
+         * assignment per buffer, which the memoryview implements as one copy.
+         */
+        protected void copyToBuffers(VirtualFrame frame, Object[] buffers, ByteBuffer[] views) {
+            for (int i = 0; i < buffers.length; i++) {
+                if (buffers[i] instanceof PMemoryView) {
+                    int len = views[i].position();
+                    if (len > 0) {
+                        PBytes data = factory().createBytes(new ByteSequenceStorage(views[i].array(), len));
+                        getSetItemNode().execute(frame, buffers[i], factory().createSlice(0, len, 1), data);
+                    }
+                }
+            }
+        }
+
+        protected ByteBuffer[] getReadableViews(Object[] buffers) {
+            ByteBuffer[] views = new ByteBuffer[buffers.length];
+            for (int i = 0; i < buffers.length; i++) {
+                views[i] = getReadableView(buffers[i]);
+            }
+            return views;
+        }
+
+        protected ByteBuffer getReadableView(Object buffer) {
+            ByteSequenceStorage storage = getByteStorage(buffer, true);
+            if (storage != null) {
+                return wrap(storage.getInternalByteArray(), storage.length());
+            }
+            PythonObjectLibrary lib = getBufferLib();
+            if (lib.isBuffer(buffer)) {
+                try {
+                    byte[] bytes = lib.getBufferBytes(buffer);
+                    return wrap(bytes, bytes.length);
+                } catch (UnsupportedMessageException e) {
+                    // fall through
+                }
+            }
+            throw raise(TypeError, "a bytes-like object is required, not '%p'", buffer);
+        }
+
+        private static ByteSequenceStorage getByteStorage(Object buffer, boolean allowBytes) {
+            if (buffer instanceof PByteArray || buffer instanceof PArray || (allowBytes && buffer instanceof PBytes)) {
+                SequenceStorage storage = ((PSequence) buffer).getSequenceStorage();
+                if (storage instanceof ByteSequenceStorage) {
+                    return (ByteSequenceStorage) storage;
+                }
+            }
+            return null;
+        }
+
+        private PythonObjectLibrary getBufferLib() {
+            if (bufferLib == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                bufferLib = insert(PythonObjectLibrary.getFactory().createDispatched(PythonOptions.getCallSiteInlineCacheMaxDepth()));
+            }
+            return bufferLib;
+        }
+
+        private LookupAndCallTernaryNode getSetItemNode() {
+            if (setItemNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                setItemNode = insert(LookupAndCallTernaryNode.create(SpecialMethodNames.__SETITEM__));
+            }
+            return setItemNode;
+        }
+
+        @TruffleBoundary
+        private static ByteBuffer wrap(byte[] array, int len) {
+            return ByteBuffer.wrap(array, 0, len);
+        }
+
+        @TruffleBoundary
+        private static ByteBuffer allocate(int len) {
+            return ByteBuffer.allocate(len);
+        }
+
+        /**
+         * Reads into {@code buffers} in order, starting at {@code position}, or at the current
+         * position of the channel if {@code position} is negative. Stops at the first buffer that
+         * could not be filled. A positional read does not change the channel's position, so
+         * several threads can use the same file descriptor without locking.
+         */
+        @TruffleBoundary
+        protected static long readVectored(PythonContext context, Channel channel, ByteBuffer[] buffers, long position) throws IOException {
+            boolean released = context.releaseGil();
+            try {
+                if (position < 0 && channel instanceof ScatteringByteChannel) {
+                    return Math.max(((ScatteringByteChannel) channel).read(buffers), 0);
+                }
+                long total = 0;
+                for (ByteBuffer buffer : buffers) {
+                    while (buffer.hasRemaining()) {
+                        int n = position < 0 ? ((ReadableByteChannel) channel).read(buffer) : readAt((SeekableByteChannel) channel, buffer, position + total);
+                        if (n <= 0) {
+                            return total;
+                        }
+                        total += n;
+                    }
+                }
+                return total;
+            } finally {
+                if (released) {
+                    context.acquireGil();
+                }
+            }
+        }
+
+        /**
+         * The counterpart of {@link #readVectored} for writing.
+         */
+        @TruffleBoundary
+        protected static long writeVectored(PythonContext context, Channel channel, ByteBuffer[] buffers, long position) throws IOException {
+            boolean released = context.releaseGil();
+            try {
+                if (position < 0 && channel instanceof GatheringByteChannel) {
+                    return ((GatheringByteChannel) channel).write(buffers);
+                }
+                long total = 0;
+                for (ByteBuffer buffer : buffers) {
+                    while (buffer.hasRemaining()) {
+                        int n = position < 0 ? ((WritableByteChannel) channel).write(buffer) : writeAt((SeekableByteChannel) channel, buffer, position + total);
+                        if (n <= 0) {
+                            return total;
+                        }
+                        total += n;
+                    }
+                }
+                return total;
+            } finally {
+                if (released) {
+                    context.acquireGil();
+                }
+            }
+        }
+
+        private static int readAt(SeekableByteChannel channel, ByteBuffer buffer, long position) throws IOException {
+            if (channel instanceof FileChannel) {
+                return ((FileChannel) channel).read(buffer, position);
+            }
+            synchronized (channel) {
+                long oldPosition = channel.position();
+                try {
+                    channel.position(position);
+                    return channel.read(buffer);
+                } finally {
+                    channel.position(oldPosition);
+                }
+            }
+        }
+
+        private static int writeAt(SeekableByteChannel channel, ByteBuffer buffer, long position) throws IOException {
+            if (channel instanceof FileChannel) {
+                return ((FileChannel) channel).write(buffer, position);
+            }
+            synchronized (channel) {
+                long oldPosition = channel.position();
+                try {
+                    channel.position(position);
+                    return channel.write(buffer);
+                } finally {
+                    channel.position(oldPosition);
+                }
+            }
+        }
+
+        protected abstract String getName();
+    }
+
+    @Builtin(name = "pread", minNumOfPositionalArgs = 3, parameterNames = {"fd", "n", "offset"})
+    @GenerateNodeFactory
+    public abstract static class PReadNode extends PositionalIONode {
+        @Specialization
+        PBytes pread(VirtualFrame frame, Object fd, Object n, Object offset,
+                        @Cached CoerceToJavaLongNode castFdNode,
+                        @Cached CoerceToJavaLongNode castSizeNode,
+                        @Cached CoerceToJavaLongNode castOffsetNode) {
+            Channel channel = getSeekableChannel(frame, castFdNode.execute(fd));
+            long size = castSizeNode.execute(n);
+            long position = castOffsetNode.execute(offset);
+            if (size < 0 || position < 0) {
+                throw raiseOSError(frame, OSErrorEnum.EINVAL);
+            }
+            try {
+                // like ReadFromChannelNode, do not allocate more than the file can provide
+                int length = (int) Math.min(Math.min(size, availableSize((SeekableByteChannel) channel, position)), ReadFromChannelNode.MAX_READ);
+                byte[] data = new byte[length];
+                int read = (int) readVectored(getContext(), channel, new ByteBuffer[]{PositionalIONode.wrap(data, length)}, position);
+                return factory().createBytes(read == length ? data : trim(data, read));
+            } catch (Exception e) {
+                gotException.enter();
+                throw raiseOSError(frame, e);
+            }
+        }
+
+        @TruffleBoundary
+        private static long availableSize(SeekableByteChannel channel, long position) throws IOException {
+            return Math.max(channel.size() - position, 0);
+        }
+
+        @TruffleBoundary
+        private static byte[] trim(byte[] data, int length) {
+            return Arrays.copyOf(data, Math.max(length, 0));
+        }
+
+        @Override
+        protected String getName() {
+            return "pread";
+        }
+    }
+
+    @Builtin(name = "pwrite", minNumOfPositionalArgs = 3, parameterNames = {"fd", "data", "offset"})
+    @GenerateNodeFactory
+    public abstract static class PWriteNode extends PositionalIONode {
+        @Specialization
+        long pwrite(VirtualFrame frame, Object fd, Object data, Object offset,
+                        @Cached CoerceToJavaLongNode castFdNode,
+                        @Cached CoerceToJavaLongNode castOffsetNode) {
+            Channel channel = getSeekableChannel(frame, castFdNode.execute(fd));
+            long position = castOffsetNode.execute(offset);
+            if (position < 0) {
+                throw raiseOSError(frame, OSErrorEnum.EINVAL);
+            }
+            ByteBuffer view = getReadableView(data);
+            try {
+                return writeVectored(getContext(), channel, new ByteBuffer[]{view}, position);
+            } catch (Exception e) {
+                gotException.enter();
+                throw raiseOSError(frame, e);
+            }
+        }
+
+        @Override
+        protected String getName() {
+            return "pwrite";
+        }
+    }
+
+    @Builtin(name = "readv", minNumOfPositionalArgs = 2, parameterNames = {"fd", "buffers"})
+    @GenerateNodeFactory
+    public abstract static class ReadvNode extends PositionalIONode {
+        @Specialization
+        long readv(VirtualFrame frame, Object fd, Object buffers,
+                        @Cached CoerceToJavaLongNode castFdNode) {
+            Channel channel = getChannel(frame, castFdNode.execute(fd));
+            if (!(channel instanceof ReadableByteChannel)) {
+                throw raiseOSError(frame, OSErrorEnum.EBADF);
+            }
+            Object[] targets = getBuffers(buffers);
+            ByteBuffer[] views = getWritableViews(targets);
+            long read;
+            try {
+                read = readVectored(getContext(), channel, views, -1);
+            } catch (Exception e) {
+                gotException.enter();
+                throw raiseOSError(frame, e);
+            }
+            copyToBuffers(frame, targets, views);
+            return read;
+        }
+
+        @Override
+        protected String getName() {
+            return "readv";
+        }
+    }
+
+    @Builtin(name = "preadv", minNumOfPositionalArgs = 3, parameterNames = {"fd", "buffers", "offset", "flags"})
+    @GenerateNodeFactory
+    public abstract static class PReadvNode extends PositionalIONode {
+        @Specialization
+        long preadv(VirtualFrame frame, Object fd, Object buffers, Object offset, @SuppressWarnings("unused") Object flags,
+                        @Cached CoerceToJavaLongNode castFdNode,
+                        @Cached CoerceToJavaLongNode castOffsetNode) {
+            // TODO: RWF_* flags are not supported
+            Channel channel = getSeekableChannel(frame, castFdNode.execute(fd));
+            long position = castOffsetNode.execute(offset);
+            if (position < 0) {
+                throw raiseOSError(frame, OSErrorEnum.EINVAL);
+            }
+            Object[] targets = getBuffers(buffers);
+            ByteBuffer[] views = getWritableViews(targets);
+            long read;
+            try {
+                read = readVectored(getContext(), channel, views, position);
+            } catch (Exception e) {
+                gotException.enter();
+                throw raiseOSError(frame, e);
+            }
+            copyToBuffers(frame, targets, views);
+            return read;
+        }
+
+        @Override
+        protected String getName() {
+            return "preadv";
+        }
+    }
+
+    @Builtin(name = "writev", minNumOfPositionalArgs = 2, parameterNames = {"fd", "buffers"})
+    @GenerateNodeFactory
+    public abstract static class WritevNode extends PositionalIONode {
+        @Specialization
+        long writev(VirtualFrame frame, Object fd, Object buffers,
+                        @Cached CoerceToJavaLongNode castFdNode) {
+            Channel channel = getChannel(frame, castFdNode.execute(fd));
+            if (!(channel instanceof WritableByteChannel)) {
+                throw raiseOSError(frame, OSErrorEnum.EBADF);
+            }
+            ByteBuffer[] views = getReadableViews(getBuffers(buffers));
+            try {
+                return writeVectored(getContext(), channel, views, -1);
+            } catch (Exception e) {
+                gotException.enter();
+                throw raiseOSError(frame, e);
+            }
+        }
+
+        @Override
+        protected String getName() {
+            return "writev";
+        }
+    }
+
+    @Builtin(name = "pwritev", minNumOfPositionalArgs = 3, parameterNames = {"fd", "buffers", "offset", "flags"})
+    @GenerateNodeFactory
+    public abstract static class PWritevNode extends PositionalIONode {
+        @Specialization
+        long pwritev(VirtualFrame frame, Object fd, Object buffers, Object offset, @SuppressWarnings("unused") Object flags,
+                        @Cached CoerceToJavaLongNode castFdNode,
+                        @Cached CoerceToJavaLongNode castOffsetNode) {
+            // TODO: RWF_* flags are not supported
+            Channel channel = getSeekableChannel(frame, castFdNode.execute(fd));
+            long position = castOffsetNode.execute(offset);
+            if (position < 0) {
+                throw raiseOSError(frame, OSErrorEnum.EINVAL);
+            }
+            ByteBuffer[] views = getReadableViews(getBuffers(buffers));
+            try {
+                return writeVectored(getContext(), channel, views, position);
+            } catch (Exception e) {
+                gotException.enter();
+                throw raiseOSError(frame, e);
+            }
+        }
+
+        @Override
+        protected String getName() {
+            return "pwritev";
+        }
+    }
+
     @Builtin(name = "read", minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
@@ -1211,7 +1791,16 @@ public class PosixModuleBuiltins extends PythonBuiltins {
                 size = ReadFromChannelNode.MAX_READ;
             }
             Channel channel = getResources().getFileChannel(fd, channelClassProfile);
-            ByteSequenceStorage array = readNode.execute(channel, size);
+            PythonContext context = getContext();
+            boolean released = context.releaseGil();
+            ByteSequenceStorage array;
+            try {
+                array = readNode.execute(channel, size);
+            } finally {
+                if (released) {
+                    context.acquireGil();
+                }
+            }
             return factory().createBytes(array);
         }
 
@@ -43,9 +43,12 @@ package com.oracle.graal.python.builtins.modules;
 import java.io.IOException;
 import java.nio.channels.Channel;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.IllegalBlockingModeException;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.oracle.graal.python.builtins.Builtin;
@@ -57,7 +60,10 @@ import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.select.PEpoll;
+import com.oracle.graal.python.builtins.objects.socket.PSocket;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.builtins.ListNodes.FastConstructListNode;
@@ -66,6 +72,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.util.CoerceToDoubleNode;
 import com.oracle.graal.python.nodes.util.CoerceToFileDescriptorNode;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -85,6 +92,46 @@ public class SelectModuleBuiltins extends PythonBuiltins {
         return SelectModuleBuiltinsFactory.getFactories();
     }
 
+    public SelectModuleBuiltins() {
+        builtinConstants.put("EPOLLIN", PEpoll.EPOLLIN);
+        builtinConstants.put("EPOLLPRI", PEpoll.EPOLLPRI);
+        builtinConstants.put("EPOLLOUT", PEpoll.EPOLLOUT);
+        builtinConstants.put("EPOLLERR", PEpoll.EPOLLERR);
+        builtinConstants.put("EPOLLHUP", PEpoll.EPOLLHUP);
+        builtinConstants.put("EPOLLRDNORM", PEpoll.EPOLLRDNORM);
+        builtinConstants.put("EPOLLRDBAND", PEpoll.EPOLLRDBAND);
+        builtinConstants.put("EPOLLWRNORM", PEpoll.EPOLLWRNORM);
+        builtinConstants.put("EPOLLWRBAND", PEpoll.EPOLLWRBAND);
+        builtinConstants.put("EPOLLMSG", PEpoll.EPOLLMSG);
+        builtinConstants.put("EPOLLRDHUP", PEpoll.EPOLLRDHUP);
+        builtinConstants.put("EPOLLEXCLUSIVE", PEpoll.EPOLLEXCLUSIVE);
+        builtinConstants.put("EPOLLONESHOT", PEpoll.EPOLLONESHOT);
+        // an unsigned int in CPython
+        builtinConstants.put("EPOLLET", PEpoll.EPOLLET & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The {@code sizehint} and {@code flags} arguments are accepted for compatibility only; the
+     * selector grows as needed and is never inherited by child processes.
+     */
+    @Builtin(name = "epoll", minNumOfPositionalArgs = 1, parameterNames = {"cls", "sizehint", "flags"}, constructsClass = PythonBuiltinClassType.PEpoll)
+    @GenerateNodeFactory
+    abstract static class EpollNode extends PythonBuiltinNode {
+        @Specialization
+        PEpoll create(VirtualFrame frame, LazyPythonClass cls, @SuppressWarnings("unused") Object sizehint, @SuppressWarnings("unused") Object flags) {
+            try {
+                return factory().createEpoll(cls, openSelector());
+            } catch (IOException e) {
+                throw raiseOSError(frame, e);
+            }
+        }
+
+        @TruffleBoundary
+        private static Selector openSelector() throws IOException {
+            return Selector.open();
+        }
+    }
+
     @Builtin(name = "select", minNumOfPositionalArgs = 3, parameterNames = {"rlist", "wlist", "xlist", "timeout"})
     @GenerateNodeFactory
     abstract static class SelectNode extends PythonBuiltinNode {
@@ -142,6 +189,8 @@ public class SelectModuleBuiltins extends PythonBuiltins {
                 throw raise(PythonBuiltinClassType.ValueError, "timeout must be non-negative");
             }
 
+            PythonContext context = getContext();
+            boolean released = context.releaseGil();
             try {
                 doSelect(readFDs, writeFDs, xFDs, timeoutMillis);
             } catch (ClosedChannelException e) {
@@ -153,6 +202,10 @@ public class SelectModuleBuiltins extends PythonBuiltins {
                 throw raiseOSError(frame, e);
             } catch (RuntimeException e) {
                 throw raise(PythonBuiltinClassType.SystemError, e);
+            } finally {
+                if (released) {
+                    context.acquireGil();
+                }
             }
 
             return factory().createTuple(new PList[]{toList(readFDs), toList(writeFDs), toList(xFDs)});
@@ -161,55 +214,77 @@ public class SelectModuleBuiltins extends PythonBuiltins {
         @TruffleBoundary
         private static void doSelect(ChannelFD[] readFDs, ChannelFD[] writeFDs, ChannelFD[] xFDs, long timeoutMillis) throws IOException {
             Selector selector = Selector.open();
+            ArrayList<SelectableChannel> blockingChannels = new ArrayList<>();
+            try {
+                for (ChannelFD readFD : readFDs) {
+                    register(selector, readFD, SelectionKey.OP_READ | SelectionKey.OP_ACCEPT, blockingChannels);
+                }
 
-            for (ChannelFD readFD : readFDs) {
-                readFD.channel.configureBlocking(false);
-                readFD.channel.register(selector, SelectionKey.OP_READ);
-            }
+                for (ChannelFD writeFD : writeFDs) {
+                    // a socket that is still connecting is writable as soon as it is connected
+                    boolean connecting = writeFD.channel instanceof SocketChannel && ((SocketChannel) writeFD.channel).isConnectionPending();
+                    register(selector, writeFD, connecting ? SelectionKey.OP_CONNECT : SelectionKey.OP_WRITE, blockingChannels);
+                }
 
-            for (ChannelFD writeFD : writeFDs) {
-                writeFD.channel.configureBlocking(false);
-                writeFD.channel.register(selector, SelectionKey.OP_WRITE);
-            }
+                for (ChannelFD xFD : xFDs) {
+                    // TODO(fa): not sure if these ops are representing
+                    // "exceptional condition pending"
+                    register(selector, xFD, SelectionKey.OP_ACCEPT | SelectionKey.OP_CONNECT, blockingChannels);
+                }
 
-            for (ChannelFD xFD : xFDs) {
-                // TODO(fa): not sure if these ops are representing
-                // "exceptional condition pending"
-                xFD.channel.configureBlocking(false);
-                xFD.channel.register(selector, SelectionKey.OP_ACCEPT | SelectionKey.OP_CONNECT);
-            }
+                selector.select(timeoutMillis);
 
-            int selected = selector.select(timeoutMillis);
+                // remove non-selected channels from given lists
+                for (int i = 0; i < readFDs.length; i++) {
+                    SelectionKey selectionKey = readFDs[i].channel.keyFor(selector);
+                    if (!(selectionKey.isReadable() || selectionKey.isAcceptable())) {
+                        readFDs[i] = null;
+                    }
+                }
 
-            // remove non-selected channels from given lists
-            int deleted = 0;
-            for (int i = 0; i < readFDs.length; i++) {
-                ChannelFD readFD = readFDs[i];
-                SelectionKey selectionKey = readFD.channel.keyFor(selector);
-                if (!selectionKey.isReadable()) {
-                    readFDs[i] = null;
-                    deleted++;
+                for (int i = 0; i < writeFDs.length; i++) {
+                    SelectionKey selectionKey = writeFDs[i].channel.keyFor(selector);
+                    if (!(selectionKey.isWritable() || selectionKey.isConnectable())) {
+                        writeFDs[i] = null;
+                    }
                 }
-            }
 
-            for (int i = 0; i < writeFDs.length; i++) {
-                ChannelFD writeFD = writeFDs[i];
-                SelectionKey selectionKey = writeFD.channel.keyFor(selector);
-                if (!selectionKey.isWritable()) {
-                    writeFDs[i] = null;
-                    deleted++;
+                for (int i = 0; i < xFDs.length; i++) {
+                    SelectionKey selectionKey = xFDs[i].channel.keyFor(selector);
+                    if (!(selectionKey.isAcceptable() || selectionKey.isConnectable())) {
+                        xFDs[i] = null;
+                    }
+                }
+            } finally {
+                // closing the selector deregisters the channels, so sockets that are blocking on
+                // the Python level can block again
+                selector.close();
+                for (SelectableChannel channel : blockingChannels) {
+                    if (channel.isOpen()) {
+                        try {
+                            channel.configureBlocking(true);
+                        } catch (IllegalBlockingModeException e) {
+                            // also registered with an epoll object
+                        }
+                    }
                 }
             }
+        }
 
-            for (int i = 0; i < xFDs.length; i++) {
-                ChannelFD xFD = xFDs[i];
-                SelectionKey selectionKey = xFD.channel.keyFor(selector);
-                if (!(selectionKey.isAcceptable() || selectionKey.isConnectable())) {
-                    xFDs[i] = null;
-                    deleted++;
-                }
+        private static void register(Selector selector, ChannelFD channelFD, int ops, List<SelectableChannel> blockingChannels) throws IOException {
+            SelectableChannel channel = channelFD.channel;
+            if (channelFD.blocking && channel.isBlocking()) {
+                blockingChannels.add(channel);
+            }
+            channel.configureBlocking(false);
+            int validOps = ops & channel.validOps();
+            SelectionKey key = channel.keyFor(selector);
+            if (key == null) {
+                channel.register(selector, validOps);
+            } else {
+                // the same descriptor may be in several lists
+                key.interestOps(key.interestOps() | validOps);
             }
-            assert selected == (readFDs.length + writeFDs.length + xFDs.length) - deleted;
         }
 
         private ChannelFD[] seq2set(VirtualFrame frame, Object sequence, PythonObjectLibrary lib, CoerceToFileDescriptorNode coerceToFDNode, LookupAndCallBinaryNode callGetItemNode,
@@ -222,10 +297,11 @@ public class SelectModuleBuiltins extends PythonBuiltins {
             for (int i = 0; i < len; i++) {
                 int fd = coerceToFDNode.execute(frame, callGetItemNode.executeObject(frame, pSequence, i));
                 Channel fileChannel = getContext().getResources().getFileChannel(fd);
-                if (!(fileChannel instanceof SelectableChannel)) {
+                SelectableChannel channel = PEpoll.getSelectableChannel(fileChannel);
+                if (channel == null) {
                     throw NonSelectableChannel.INSTANCE;
                 }
-                result[i] = new ChannelFD(fd, (SelectableChannel) fileChannel);
+                result[i] = new ChannelFD(fd, channel, fileChannel instanceof PSocket && ((PSocket) fileChannel).isBlocking());
             }
             return result;
         }
@@ -254,10 +330,12 @@ public class SelectModuleBuiltins extends PythonBuiltins {
         private static final class ChannelFD {
             private final int fd;
             private final SelectableChannel channel;
+            private final boolean blocking;
 
-            private ChannelFD(int fd, SelectableChannel channel) {
+            private ChannelFD(int fd, SelectableChannel channel, boolean blocking) {
                 this.fd = fd;
                 this.channel = channel;
+                this.blocking = blocking;
             }
         }
 
@@ -282,7 +282,10 @@ public class SocketModuleBuiltins extends PythonBuiltins {
                     newSocket.setSocket(oldSocket.getSocket());
                 } else if (oldSocket.getServerSocket() != null) {
                     newSocket.setServerSocket(oldSocket.getServerSocket());
+                } else if (oldSocket.getDatagramSocket() != null) {
+                    newSocket.setDatagramSocket(oldSocket.getDatagramSocket());
                 }
+                newSocket.setBlocking(oldSocket.isBlocking());
                 getContext().getResources().reopenSocket(newSocket, fileno);
                 return newSocket;
             } else {
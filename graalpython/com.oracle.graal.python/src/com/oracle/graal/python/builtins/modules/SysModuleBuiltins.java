@@ -66,13 +66,18 @@ import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.traceback.PTraceback;
+import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode.NoAttributeHandler;
 import com.oracle.graal.python.nodes.frame.ReadCallerFrameNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.GetLazyClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CoerceToDoubleNode;
 import com.oracle.graal.python.nodes.util.CoerceToIntegerNode;
 import com.oracle.graal.python.nodes.util.ExceptionStateNodes.GetCaughtExceptionNode;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -85,6 +90,7 @@ import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -124,7 +130,6 @@ public class SysModuleBuiltins extends PythonBuiltins {
         builtinConstants.put("abiflags", "");
         builtinConstants.put("byteorder", ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? "little" : "big");
         builtinConstants.put("copyright", LICENSE);
-        builtinConstants.put("dont_write_bytecode", true);
         builtinConstants.put("modules", core.factory().createDict());
         builtinConstants.put("path", core.factory().createList());
         builtinConstants.put("builtin_module_names", core.factory().createTuple(core.builtinModuleNames()));
@@ -188,10 +193,11 @@ public class SysModuleBuiltins extends PythonBuiltins {
             sys.setAttribute("executable", context.getOption(PythonOptions.Executable));
             sys.setAttribute("_base_executable", context.getOption(PythonOptions.Executable));
         }
+        sys.setAttribute("dont_write_bytecode", context.getOption(PythonOptions.DontWriteBytecodeFlag));
         sys.setAttribute("__flags__", core.factory().createTuple(new Object[]{
                         false, // bytes_warning
                         !context.getOption(PythonOptions.PythonOptimizeFlag), // debug
-                        true,  // dont_write_bytecode
+                        context.getOption(PythonOptions.DontWriteBytecodeFlag), // dont_write_bytecode
                         false, // hash_randomization
                         context.getOption(PythonOptions.IgnoreEnvironmentFlag), // ignore_environment
                         context.getOption(PythonOptions.InspectFlag), // inspect
@@ -425,16 +431,28 @@ public class SysModuleBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class InternNode extends PythonBuiltinNode {
         @Specialization
-        @TruffleBoundary
-        String doBytes(String s) {
-            return s.intern();
+        String doString(String s) {
+            return intern(s);
         }
 
         @Specialization
+        String doPString(PString ps,
+                        @Cached GetLazyClassNode getClassNode,
+                        @Cached IsBuiltinClassProfile isBuiltinClassProfile) {
+            if (!PGuards.isBuiltinString(ps, isBuiltinClassProfile, getClassNode)) {
+                throw raise(TypeError, "can't intern %p", ps);
+            }
+            return intern(ps.getValue());
+        }
+
         @TruffleBoundary
-        PString doBytes(PString ps) {
-            String s = ps.getValue();
-            return factory().createString(s.intern());
+        private static String intern(String s) {
+            return s.intern();
+        }
+
+        @Fallback
+        Object doOther(Object obj) {
+            throw raise(TypeError, "intern() argument 1 must be str, not %p", obj);
         }
     }
 
@@ -448,6 +466,30 @@ public class SysModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "getswitchinterval", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    public abstract static class GetSwitchIntervalNode extends PythonBuiltinNode {
+        @Specialization
+        double getSwitchInterval() {
+            return getContext().getSwitchInterval();
+        }
+    }
+
+    @Builtin(name = "setswitchinterval", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class SetSwitchIntervalNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object setSwitchInterval(VirtualFrame frame, Object interval,
+                        @Cached CoerceToDoubleNode coerceToDoubleNode) {
+            double seconds = coerceToDoubleNode.execute(frame, interval);
+            if (seconds <= 0.0) {
+                throw raise(ValueError, "switch interval must be strictly positive");
+            }
+            getContext().setSwitchInterval(seconds);
+            return PNone.NONE;
+        }
+    }
+
     @Builtin(name = "getsizeof", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2)
     @GenerateNodeFactory
     public abstract static class GetsizeofNode extends PythonBinaryBuiltinNode {
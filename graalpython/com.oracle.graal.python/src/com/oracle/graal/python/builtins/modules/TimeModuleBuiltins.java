@@ -54,6 +54,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CoerceToIntegerNode;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -298,18 +299,26 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
             long secs = seconds;
 
             long deadline = (long) timeSeconds() + secs;
-            do {
-                try {
-                    Thread.sleep(seconds * 1000);
-                } catch (InterruptedException ignored) {
-                    Thread.currentThread().interrupt();
-                }
-
-                secs = deadline - (long) timeSeconds();
-                if (secs < 0) {
-                    break;
+            PythonContext context = getContext();
+            boolean released = context.releaseGil();
+            try {
+                do {
+                    try {
+                        Thread.sleep(seconds * 1000);
+                    } catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    secs = deadline - (long) timeSeconds();
+                    if (secs < 0) {
+                        break;
+                    }
+                } while (true);
+            } finally {
+                if (released) {
+                    context.acquireGil();
                 }
-            } while (true);
+            }
 
             return PNone.NONE;
         }
@@ -320,21 +329,29 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
             double secs = seconds;
 
             double deadline = timeSeconds() + secs;
-            do {
-                double milliseconds = secs * 1000;
-                long millis = Math.round(Math.floor(milliseconds));
-                int nanos = ((Long) Math.round((milliseconds - millis) * 1000)).intValue();
-                nanos = (millis == 0 && nanos == 0) ? DELAY_NANOS : nanos;
-                try {
-                    Thread.sleep(millis, nanos);
-                } catch (InterruptedException ignored) {
-                    Thread.currentThread().interrupt();
-                }
-                secs = deadline - timeSeconds();
-                if (secs < 0) {
-                    break;
+            PythonContext context = getContext();
+            boolean released = context.releaseGil();
+            try {
+                do {
+                    double milliseconds = secs * 1000;
+                    long millis = Math.round(Math.floor(milliseconds));
+                    int nanos = ((Long) Math.round((milliseconds - millis) * 1000)).intValue();
+                    nanos = (millis == 0 && nanos == 0) ? DELAY_NANOS : nanos;
+                    try {
+                        Thread.sleep(millis, nanos);
+                    } catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                    }
+                    secs = deadline - timeSeconds();
+                    if (secs < 0) {
+                        break;
+                    }
+                } while (true);
+            } finally {
+                if (released) {
+                    context.acquireGil();
                 }
-            } while (true);
+            }
 
             return PNone.NONE;
         }
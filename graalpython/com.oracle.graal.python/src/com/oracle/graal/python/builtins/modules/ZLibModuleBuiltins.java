@@ -44,6 +44,9 @@ package com.oracle.graal.python.builtins.modules;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ZLibError;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.util.List;
 import java.util.zip.Adler32;
 import java.util.zip.CRC32;
@@ -61,55 +64,66 @@ import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodesFactory.ToByteArrayNodeGen;
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.zlib.PZLibCompress;
+import com.oracle.graal.python.builtins.objects.zlib.PZLibDecompress;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PRaiseOSErrorNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CoerceToIntegerNode;
-import com.oracle.graal.python.nodes.util.CastToJavaIntNode;
 import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.dsl.TypeSystemReference;
 import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(defineModule = ZLibModuleBuiltins.MODULE_NAME)
 public class ZLibModuleBuiltins extends PythonBuiltins {
 
-    protected static final int MAX_WBITS = 15;
-    protected static final int DEFLATED = 8;
-    protected static final int DEF_MEM_LEVEL = 8;
-    protected static final int DEF_BUF_SIZE = 16 * 1024;
+    public static final int MAX_WBITS = 15;
+    public static final int DEFLATED = 8;
+    public static final int DEF_MEM_LEVEL = 8;
+    public static final int DEF_BUF_SIZE = 16 * 1024;
     // compression levels
-    protected static final int Z_NO_COMPRESSION = 0;
-    protected static final int Z_BEST_SPEED = 1;
-    protected static final int Z_BEST_COMPRESSION = 9;
-    protected static final int Z_DEFAULT_COMPRESSION = -1;
+    public static final int Z_NO_COMPRESSION = 0;
+    public static final int Z_BEST_SPEED = 1;
+    public static final int Z_BEST_COMPRESSION = 9;
+    public static final int Z_DEFAULT_COMPRESSION = -1;
     // compression strategies
-    protected static final int Z_FILTERED = 1;
-    protected static final int Z_HUFFMAN_ONLY = 2;
-    protected static final int Z_RLE = 3;
-    protected static final int Z_FIXED = 4;
-    protected static final int Z_DEFAULT_STRATEGY = 0;
+    public static final int Z_FILTERED = 1;
+    public static final int Z_HUFFMAN_ONLY = 2;
+    public static final int Z_RLE = 3;
+    public static final int Z_FIXED = 4;
+    public static final int Z_DEFAULT_STRATEGY = 0;
     // allowed flush values
-    protected static final int Z_NO_FLUSH = 0;
-    protected static final int Z_PARTIAL_FLUSH = 1;
-    protected static final int Z_SYNC_FLUSH = 2;
-    protected static final int Z_FULL_FLUSH = 3;
-    protected static final int Z_FINISH = 4;
-    protected static final int Z_BLOCK = 5;
-    protected static final int Z_TREES = 6;
+    public static final int Z_NO_FLUSH = 0;
+    public static final int Z_PARTIAL_FLUSH = 1;
+    public static final int Z_SYNC_FLUSH = 2;
+    public static final int Z_FULL_FLUSH = 3;
+    public static final int Z_FINISH = 4;
+    public static final int Z_BLOCK = 5;
+    public static final int Z_TREES = 6;
 
     // errors
-    protected static final int Z_BUF_ERROR = -5;
+    public static final int Z_BUF_ERROR = -5;
 
     protected static final String MODULE_NAME = "zlib";
 
@@ -118,6 +132,14 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
         return ZLibModuleBuiltinsFactory.getFactories();
     }
 
+    /**
+     * Whether {@code data} is a {@code bytes} or {@code bytearray} whose contents can be passed to
+     * the JDK without copying.
+     */
+    public static boolean hasByteStorage(Object data) {
+        return data instanceof PIBytesLike && ((PIBytesLike) data).getSequenceStorage() instanceof ByteSequenceStorage;
+    }
+
     @Override
     public void initialize(PythonCore core) {
         super.initialize(core);
@@ -211,10 +233,10 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
                         0x2d02ef8d
         };
 
-        private static int computeCRC32(byte[] bytes, int value) {
+        static int computeCRC32(byte[] bytes, int off, int len, int value) {
             int result = value ^ 0xffffffff;
-            for (byte bite : bytes) {
-                result = (result >>> 8) ^ CRC32_TABLE[(result ^ bite) & 0xff];
+            for (int i = off; i < off + len; i++) {
+                result = (result >>> 8) ^ CRC32_TABLE[(result ^ bytes[i]) & 0xff];
             }
 
             result = result ^ 0xffffffff;
@@ -233,33 +255,22 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
 
         @Specialization
         public long doitNone(VirtualFrame frame, Object data, @SuppressWarnings("unused") PNone value,
-                        @Cached ToBytesNode toBytesNode) {
-            return doCRC32(toBytesNode.execute(frame, data));
-        }
-
-        @TruffleBoundary
-        private static long doCRC32(byte[] data) {
-            CRC32 crc32 = new CRC32();
-            crc32.update(data);
-            return crc32.getValue();
+                        @Shared("checksum") @Cached("createCRC32()") ChecksumNode checksumNode) {
+            return checksumNode.execute(frame, data, 0) & 0xFFFFFFFFL;
         }
 
         @Specialization
         public long doitLong(VirtualFrame frame, Object data, long value,
-                        @Cached ToBytesNode toBytesNode) {
+                        @Shared("checksum") @Cached("createCRC32()") ChecksumNode checksumNode) {
             // lost magnitude is ok here.
-            int initValue = (int) value;
-            byte[] array = toBytesNode.execute(frame, data);
-            return computeCRC32(array, initValue) & 0xFFFFFFFFL;
+            return checksumNode.execute(frame, data, (int) value) & 0xFFFFFFFFL;
         }
 
         @Specialization
         public long doPInt(VirtualFrame frame, Object data, PInt value,
-                        @Cached ToBytesNode toBytesNode) {
+                        @Shared("checksum") @Cached("createCRC32()") ChecksumNode checksumNode) {
             // lost magnitude is ok here.
-            int initValue = value.intValue();
-            byte[] array = toBytesNode.execute(frame, data);
-            return computeCRC32(array, initValue) & 0xFFFFFFFFL;
+            return checksumNode.execute(frame, data, value.intValue()) & 0xFFFFFFFFL;
         }
 
         @Specialization
@@ -268,6 +279,10 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
             return (long) recursiveNode.execute(frame, data, getCastToIntNode().execute(value));
         }
 
+        protected static ChecksumNode createCRC32() {
+            return ZLibModuleBuiltinsFactory.ChecksumNodeGen.create(false);
+        }
+
         protected static Crc32Node create() {
             return ZLibModuleBuiltinsFactory.Crc32NodeFactory.create();
         }
@@ -284,14 +299,14 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
         private static final int DEFER = 3850;
         private static final int BASE = 65521;
 
-        private static int computeAdler32(byte[] bytes, int value) {
-            int index = 0;
-            int len = bytes.length;
+        static int computeAdler32(byte[] bytes, int off, int len, int value) {
+            int index = off;
+            int end = off + len;
             int result = value;
             int s1 = result & 0xffff;
             int s2 = result >>> 16;
-            while (index < len) {
-                int max = Math.min(index + DEFER, index + len);
+            while (index < end) {
+                int max = Math.min(index + DEFER, end);
                 while (index < max) {
                     s1 = (bytes[index++] & 0xff) + s1;
                     s2 += s1;
@@ -313,35 +328,24 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
             return castToIntNode;
         }
 
-        @TruffleBoundary
-        private static long doAdler32(byte[] data) {
-            Adler32 adler32 = new Adler32();
-            adler32.update(data);
-            return adler32.getValue();
-        }
-
         @Specialization
         public long doitNone(VirtualFrame frame, Object data, @SuppressWarnings("unused") PNone value,
-                        @Cached ToBytesNode toBytesNode) {
-            return doAdler32(toBytesNode.execute(frame, data));
+                        @Shared("checksum") @Cached("createAdler32()") ChecksumNode checksumNode) {
+            return checksumNode.execute(frame, data, 1) & 0xFFFFFFFFL;
         }
 
         @Specialization
         public long doitLong(VirtualFrame frame, Object data, long value,
-                        @Cached ToBytesNode toBytesNode) {
+                        @Shared("checksum") @Cached("createAdler32()") ChecksumNode checksumNode) {
             // lost magnitude is ok here.
-            int initValue = (int) value;
-            byte[] array = toBytesNode.execute(frame, data);
-            return computeAdler32(array, initValue) & 0xFFFFFFFFL;
+            return checksumNode.execute(frame, data, (int) value) & 0xFFFFFFFFL;
         }
 
         @Specialization
         public long doPInt(VirtualFrame frame, Object data, PInt value,
-                        @Cached ToBytesNode toBytesNode) {
+                        @Shared("checksum") @Cached("createAdler32()") ChecksumNode checksumNode) {
             // lost magnitude is ok here.
-            int initValue = value.intValue();
-            byte[] array = toBytesNode.execute(frame, data);
-            return computeAdler32(array, initValue) & 0xFFFFFFFFL;
+            return checksumNode.execute(frame, data, value.intValue()) & 0xFFFFFFFFL;
         }
 
         @Specialization
@@ -350,182 +354,177 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
             return (long) recursiveNode.execute(frame, data, getCastToIntNode().execute(value));
         }
 
+        protected static ChecksumNode createAdler32() {
+            return ZLibModuleBuiltinsFactory.ChecksumNodeGen.create(true);
+        }
+
         protected static Adler32Node create() {
             return ZLibModuleBuiltinsFactory.Adler32NodeFactory.create();
         }
     }
 
-    @Builtin(name = "zlib_deflateInit", minNumOfPositionalArgs = 6)
-    @GenerateNodeFactory
-    abstract static class DeflateInitNode extends PythonBuiltinNode {
-        /**
-         * @param memLevel is ignored - it mostly affects performance and compression rate, we trust
-         *            that the Deflater implementation will work well
-         */
-        @Specialization
-        @TruffleBoundary
-        Object deflateInit(int level, int method, int wbits, int memLevel, int strategy, Object zdict) {
-            Deflater deflater;
-            if (wbits < 0) {
-                // generate a RAW stream, i.e., no wrapping
-                deflater = new Deflater(level, true);
-            } else if (wbits >= 25) {
-                // include gzip container
-                throw raise(PythonBuiltinClassType.NotImplementedError, "gzip containers");
-            } else {
-                // wrap stream with zlib header and trailer
-                deflater = new Deflater(level, false);
-            }
-
-            if (method != DEFLATED) {
-                throw raise(PythonBuiltinClassType.ValueError, "only DEFLATED (%d) allowed as method, got %d", DEFLATED, method);
-            }
-            deflater.setStrategy(strategy);
-            if (zdict instanceof String) {
-                deflater.setDictionary(((String) zdict).getBytes());
-            } else if (!(zdict instanceof PNone)) {
-                throw raise(PythonBuiltinClassType.ValueError, "zdict must be a str, not %p", zdict);
-            }
-            return new DeflaterWrapper(deflater);
-        }
-    }
+    /**
+     * Updates a CRC-32 or Adler-32 checksum directly over the storage of {@code bytes},
+     * {@code bytearray} and {@code mmap} objects. Other bytes-like objects are converted first.
+     */
+    @ImportStatic(ZLibModuleBuiltins.class)
+    abstract static class ChecksumNode extends PNodeWithContext {
 
-    static class DeflaterWrapper implements TruffleObject {
-        private final Deflater deflater;
+        private final boolean adler;
 
-        public DeflaterWrapper(Deflater deflater) {
-            this.deflater = deflater;
+        ChecksumNode(boolean adler) {
+            this.adler = adler;
         }
-    }
 
-    @Builtin(name = "zlib_deflateCompress", minNumOfPositionalArgs = 3)
-    @GenerateNodeFactory
-    abstract static class DeflateCompress extends PythonTernaryBuiltinNode {
-        @Child private ToBytesNode toBytes = ToBytesNode.create();
+        public abstract int execute(VirtualFrame frame, Object data, int value);
 
-        @Specialization
-        Object deflateCompress(VirtualFrame frame, DeflaterWrapper stream, Object pb, int mode) {
-            byte[] data = toBytes.execute(frame, pb);
-            byte[] result = new byte[DEF_BUF_SIZE];
-
-            ByteArrayOutputStream baos = deflate(stream, mode, data, result);
-
-            return factory().createBytes(baos.toByteArray());
+        @Specialization(guards = "hasByteStorage(data)")
+        int doBytesLike(PIBytesLike data, int value) {
+            ByteSequenceStorage storage = (ByteSequenceStorage) data.getSequenceStorage();
+            return update((byte[]) storage.getInternalArrayObject(), 0, storage.length(), value);
         }
 
-        @TruffleBoundary
-        private static ByteArrayOutputStream deflate(DeflaterWrapper stream, int mode, byte[] data, byte[] result) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            stream.deflater.setInput(data);
-            int deflateMode = mode;
-            if (mode == Z_FINISH) {
-                deflateMode = Z_SYNC_FLUSH;
-                stream.deflater.finish();
-            }
-
-            int bytesWritten = result.length;
-            while (bytesWritten == result.length) {
-                bytesWritten = stream.deflater.deflate(result, 0, result.length, deflateMode);
-                baos.write(result, 0, bytesWritten);
-            }
-
-            if (mode == Z_FINISH) {
-                stream.deflater.end();
+        @Specialization
+        int doMMap(VirtualFrame frame, PMMap data, int value,
+                        @Cached PRaiseOSErrorNode raiseNode) {
+            try {
+                return updateMMap(data, value);
+            } catch (IOException e) {
+                throw raiseNode.raiseOSError(frame, OSErrorEnum.EIO, e);
             }
-            return baos;
         }
-    }
 
-    @Builtin(name = "zlib_inflateInit", minNumOfPositionalArgs = 2)
-    @GenerateNodeFactory
-    abstract static class InflateInitNode extends PythonBinaryBuiltinNode {
-        @Child private ToBytesNode toBytes = ToBytesNode.create();
+        @Specialization(guards = {"!hasByteStorage(data)", "!isMMap(data)"})
+        int doGeneric(VirtualFrame frame, Object data, int value,
+                        @Cached ToBytesNode toBytesNode) {
+            byte[] bytes = toBytesNode.execute(frame, data);
+            return update(bytes, 0, bytes.length, value);
+        }
 
-        @Specialization
-        Object init(VirtualFrame frame, int wbits, PBytes zdict) {
-            byte[] bytes = toBytes.execute(frame, zdict);
-            return new InflaterWrapper(inflate(wbits, bytes));
+        protected static boolean isMMap(Object data) {
+            return data instanceof PMMap;
         }
 
-        @TruffleBoundary
-        private Inflater inflate(int wbits, byte[] bytes) {
-            Inflater inflater;
-            if (wbits < 0) {
-                // generate a RAW stream, i.e., no wrapping
-                inflater = new Inflater(true);
-            } else if (wbits >= 25) {
-                // include gzip container
-                throw raise(PythonBuiltinClassType.NotImplementedError, "gzip containers");
+        private int update(byte[] data, int off, int len, int value) {
+            if (adler) {
+                // the JDK's implementations are intrinsified but cannot start from an arbitrary value
+                if (value == 1) {
+                    return doAdler32(data, off, len);
+                }
+                return Adler32Node.computeAdler32(data, off, len, value);
             } else {
-                // wrap stream with zlib header and trailer
-                inflater = new Inflater(false);
+                if (value == 0) {
+                    return doCRC32(data, off, len);
+                }
+                return Crc32Node.computeCRC32(data, off, len, value);
             }
-
-            inflater.setDictionary(bytes);
-            return inflater;
         }
-    }
-
-    static class InflaterWrapper implements TruffleObject {
-        private final Inflater inflater;
 
-        public InflaterWrapper(Inflater inflater) {
-            this.inflater = inflater;
+        @TruffleBoundary
+        private static int doCRC32(byte[] data, int off, int len) {
+            CRC32 crc32 = new CRC32();
+            crc32.update(data, off, len);
+            return (int) crc32.getValue();
         }
 
-        @TruffleBoundary(allowInlining = true)
-        private boolean needsInput() {
-            return inflater.needsInput();
+        @TruffleBoundary
+        private static int doAdler32(byte[] data, int off, int len) {
+            Adler32 adler32 = new Adler32();
+            adler32.update(data, off, len);
+            return (int) adler32.getValue();
         }
 
-        @TruffleBoundary(allowInlining = true)
-        private int getRemaining() {
-            return inflater.getRemaining();
+        /**
+         * Reads the mapped region chunk by chunk instead of materializing it as a whole.
+         */
+        @TruffleBoundary
+        private int updateMMap(PMMap mmap, int value) throws IOException {
+            SeekableByteChannel channel = mmap.getChannel();
+            long remaining = mmap.getLength() > 0 ? mmap.getLength() : channel.size() - mmap.getOffset();
+            byte[] chunk = new byte[(int) Math.min(remaining, DEF_BUF_SIZE)];
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            long oldPos = channel.position();
+            try {
+                channel.position(mmap.getOffset());
+                int result = value;
+                while (remaining > 0) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(remaining, chunk.length));
+                    int n = channel.read(buffer);
+                    if (n <= 0) {
+                        break;
+                    }
+                    result = update(chunk, 0, n, result);
+                    remaining -= n;
+                }
+                return result;
+            } finally {
+                channel.position(oldPos);
+            }
         }
     }
 
-    @Builtin(name = "zlib_inflateDecompress", minNumOfPositionalArgs = 3)
+    // zlib.compressobj(level=-1, method=DEFLATED, wbits=MAX_WBITS, memLevel=DEF_MEM_LEVEL,
+    // strategy=Z_DEFAULT_STRATEGY[, zdict])
+    @Builtin(name = "compressobj", parameterNames = {"level", "method", "wbits", "memLevel", "strategy", "zdict"})
     @GenerateNodeFactory
-    abstract static class InflaterDecompress extends PythonTernaryBuiltinNode {
-        @Child private ToBytesNode toBytes = ToBytesNode.create();
-
+    abstract static class CompressObjNode extends PythonBuiltinNode {
+        /**
+         * @param memLevelObj is ignored - it mostly affects performance and compression rate, we
+         *            trust that the Deflater implementation will work well
+         */
         @Specialization
-        Object decompress(VirtualFrame frame, InflaterWrapper stream, PIBytesLike pb, int maxLen) {
-            int maxLength = maxLen == 0 ? Integer.MAX_VALUE : maxLen;
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            byte[] data = toBytes.execute(frame, pb);
-            byte[] result = new byte[Math.min(maxLen, DEF_BUF_SIZE)];
-            byte[] decompressed = decompress(stream, maxLength, baos, data, result);
-
-            return factory().createTuple(new Object[]{
-                            factory().createBytes(decompressed),
-                            stream.inflater.finished(),
-                            stream.getRemaining()
-            });
+        PZLibCompress doCreate(VirtualFrame frame, Object levelObj, Object methodObj, Object wbitsObj, @SuppressWarnings("unused") Object memLevelObj, Object strategyObj, Object zdictObj,
+                        @CachedLibrary(limit = "4") PythonObjectLibrary lib,
+                        @Cached ToBytesNode toBytesNode) {
+            int level = asInt(frame, levelObj, Z_DEFAULT_COMPRESSION, lib);
+            int method = asInt(frame, methodObj, DEFLATED, lib);
+            int wbits = asInt(frame, wbitsObj, MAX_WBITS, lib);
+            int strategy = asInt(frame, strategyObj, Z_DEFAULT_STRATEGY, lib);
+            if (method != DEFLATED) {
+                throw raise(PythonBuiltinClassType.ValueError, "only DEFLATED (%d) allowed as method, got %d", DEFLATED, method);
+            }
+            if (level < Z_DEFAULT_COMPRESSION || level > Z_BEST_COMPRESSION) {
+                throw raise(PythonBuiltinClassType.ValueError, "Invalid initialization option");
+            }
+            if (wbits >= 25) {
+                // include gzip container
+                throw raise(PythonBuiltinClassType.NotImplementedError, "gzip containers");
+            }
+            byte[] zdict = PGuards.isPNone(zdictObj) ? null : toBytesNode.execute(frame, zdictObj);
+            return factory().createZLibCompress(PZLibCompress.createDeflater(level, wbits, strategy, zdict), level, wbits, strategy, zdict);
         }
+    }
 
+    // zlib.decompressobj(wbits=MAX_WBITS, zdict=b'')
+    @Builtin(name = "decompressobj", parameterNames = {"wbits", "zdict"})
+    @GenerateNodeFactory
+    abstract static class DecompressObjNode extends PythonBinaryBuiltinNode {
         @Specialization
-        Object decompress(VirtualFrame frame, InflaterWrapper stream, PIBytesLike pb, long maxLen,
-                        @Cached CastToJavaIntNode castInt) {
-            return decompress(frame, stream, pb, castInt.execute(maxLen));
-        }
-
-        @TruffleBoundary
-        private byte[] decompress(InflaterWrapper stream, int maxLength, ByteArrayOutputStream baos, byte[] data, byte[] result) {
-            stream.inflater.setInput(data);
-            int bytesWritten = result.length;
-            while (baos.size() < maxLength && bytesWritten == result.length) {
-                try {
-                    bytesWritten = stream.inflater.inflate(result, 0, result.length);
-                } catch (DataFormatException e) {
-                    throw raise(ZLibError, e);
+        PZLibDecompress doCreate(VirtualFrame frame, Object wbitsObj, Object zdictObj,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib,
+                        @Cached ToBytesNode toBytesNode) {
+            int wbits = asInt(frame, wbitsObj, MAX_WBITS, lib);
+            if (wbits >= 25) {
+                // include gzip container
+                throw raise(PythonBuiltinClassType.NotImplementedError, "gzip containers");
+            }
+            byte[] zdict = null;
+            if (!PGuards.isPNone(zdictObj)) {
+                zdict = toBytesNode.execute(frame, zdictObj);
+                if (zdict.length == 0) {
+                    zdict = null;
                 }
-                baos.write(result, 0, bytesWritten);
             }
-            byte[] decompressed = baos.toByteArray();
-            return decompressed;
+            return factory().createZLibDecompress(PZLibDecompress.createInflater(wbits, zdict), zdict);
+        }
+    }
+
+    private static int asInt(VirtualFrame frame, Object obj, int defaultValue, PythonObjectLibrary lib) {
+        if (PGuards.isNoValue(obj)) {
+            return defaultValue;
         }
+        return lib.asSizeWithState(obj, PArguments.getThreadState(frame));
     }
 
     // zlib.compress(data, level=-1)
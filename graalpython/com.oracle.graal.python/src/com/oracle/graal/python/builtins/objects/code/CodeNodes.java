@@ -122,12 +122,20 @@ public abstract class CodeNodes {
 
             // Derive a new call target from the code string, if we can
             RootNode rootNode = null;
+            Object[] codeConstants = constants;
+            Object[] codeNames = names;
             if (codestring.length > 0) {
                 PythonCore core = PythonLanguage.getCore();
                 if ((flags & PCode.FLAG_MODULE) == 0) {
                     String funcdef = createFuncdef(argcount, kwonlyargcount, flags, codestring, varnames, freevars, name);
                     rootNode = getFunctionFromCode(core, factory, name, funcdef).getFunctionRootNode();
                     rootNode = patchConstantsAndGlobalNames(rootNode, constants, names);
+                } else if (core.getParser().isSerialized(codestring)) {
+                    rootNode = core.getParser().deserialize(core, codestring);
+                    // constants and names are not marshalled for serialized modules, they are
+                    // extracted from the deserialized tree on demand
+                    codeConstants = null;
+                    codeNames = null;
                 } else {
                     rootNode = (RootNode) core.getParser().parse(ParserMode.File, core, Source.newBuilder(PythonLanguage.ID, new String(codestring), name).build(), null);
                     assert rootNode instanceof ModuleRootNode;
@@ -154,7 +162,7 @@ public abstract class CodeNodes {
 
             Signature signature = createSignature(flags, argcount, posonlyargcount, kwonlyargcount, varnames);
 
-            return factory.createCode(cls, callTarget, signature, nlocals, stacksize, flags, codestring, constants, names, varnames, freevars, cellvars, filename, name, firstlineno, lnotab);
+            return factory.createCode(cls, callTarget, signature, nlocals, stacksize, flags, codestring, codeConstants, codeNames, varnames, freevars, cellvars, filename, name, firstlineno, lnotab);
         }
 
         private static RootNode patchConstantsAndGlobalNames(RootNode rootNode, Object[] constants, Object[] names) {
@@ -64,6 +64,7 @@ import com.oracle.graal.python.nodes.function.FunctionRootNode;
 import com.oracle.graal.python.nodes.function.GeneratorExpressionNode;
 import com.oracle.graal.python.nodes.generator.GeneratorFunctionRootNode;
 import com.oracle.graal.python.nodes.literal.SimpleLiteralNode;
+import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
@@ -318,6 +319,17 @@ public final class PCode extends PythonBuiltinObject {
         if (rootNode instanceof GeneratorFunctionRootNode) {
             funcRootNode = ((GeneratorFunctionRootNode) rootNode).getFunctionRootNode();
         }
+        if (funcRootNode instanceof ModuleRootNode) {
+            // modules carry their serialized syntax tree, so that unmarshalling them does not
+            // need to parse the source again. The import cache only stores module code, and the
+            // functions and classes in it are part of that tree. A function's code object that is
+            // marshalled on its own still carries its source and is parsed when it is loaded.
+            SourceSection sourceSection = funcRootNode.getSourceSection();
+            if (sourceSection != null && sourceSection.isAvailable()) {
+                PythonCore core = PythonLanguage.getCore();
+                return core.getParser().serialize(core, sourceSection.getSource());
+            }
+        }
         if (funcRootNode instanceof PClosureRootNode) {
             SourceSection sourceSection = funcRootNode.getSourceSection();
             if (sourceSection != null) {
@@ -439,6 +451,15 @@ public final class PCode extends PythonBuiltinObject {
         return lnotab;
     }
 
+    /**
+     * Module code objects use a serialized syntax tree as their code string. Their constants and
+     * names are recomputed from the deserialized tree and need not be marshalled.
+     */
+    @TruffleBoundary
+    public boolean hasSerializedCodestring() {
+        return (getFlags() & FLAG_MODULE) != 0 && PythonLanguage.getCore().getParser().isSerialized(getCodestring());
+    }
+
     public boolean isGenerator() {
         return (getFlags() & FLAG_GENERATOR) > 0;
     }
@@ -59,6 +59,7 @@ import java.util.function.Supplier;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.cext.CExtNodes;
 import com.oracle.graal.python.builtins.objects.cext.CExtNodes.PCallCapiFunction;
 import com.oracle.graal.python.builtins.objects.cext.CExtNodes.ToSulongNode;
@@ -101,6 +102,7 @@ import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodesFacto
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodesFactory.VerifyNativeItemNodeGen;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.iterator.IteratorNodes.GetNextOrSentinelNode;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.range.PRange;
@@ -165,6 +167,7 @@ import com.oracle.truffle.api.interop.InvalidArrayIndexException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.ControlFlowException;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
@@ -3620,6 +3623,15 @@ public abstract class SequenceStorageNodes {
 
         private static final int START_SIZE = 2;
 
+        /**
+         * Thrown by the {@code next*} methods of iterators that signal exhaustion without a
+         * {@code StopIteration}.
+         */
+        protected static final class IteratorExhaustedException extends ControlFlowException {
+            private static final long serialVersionUID = 1L;
+            static final IteratorExhaustedException INSTANCE = new IteratorExhaustedException();
+        }
+
         protected abstract boolean nextBoolean(VirtualFrame frame, T nextNode, Object iterator) throws UnexpectedResultException;
 
         protected abstract int nextInt(VirtualFrame frame, T nextNode, Object iterator) throws UnexpectedResultException;
@@ -3631,9 +3643,17 @@ public abstract class SequenceStorageNodes {
         protected abstract Object nextObject(VirtualFrame frame, T nextNode, Object iterator);
 
         protected SequenceStorage doIt(VirtualFrame frame, Object iterator, ListStorageType type, T nextNode, IsBuiltinClassProfile errorProfile) {
+            return doIt(frame, iterator, type, nextNode, errorProfile, START_SIZE);
+        }
+
+        /**
+         * @param size the initial capacity, which avoids growing and trimming the array if it is
+         *            the exact number of elements
+         */
+        protected SequenceStorage doIt(VirtualFrame frame, Object iterator, ListStorageType type, T nextNode, IsBuiltinClassProfile errorProfile, int size) {
             SequenceStorage storage;
             if (type == Uninitialized || type == Empty) {
-                Object[] elements = new Object[START_SIZE];
+                Object[] elements = new Object[size];
                 int i = 0;
                 while (true) {
                     try {
@@ -3645,16 +3665,18 @@ public abstract class SequenceStorageNodes {
                     } catch (PException e) {
                         e.expectStopIteration(errorProfile);
                         break;
+                    } catch (IteratorExhaustedException e) {
+                        break;
                     }
                 }
-                storage = SequenceStorageFactory.createStorage(Arrays.copyOf(elements, i));
+                storage = SequenceStorageFactory.createStorage(i == elements.length ? elements : Arrays.copyOf(elements, i));
             } else {
                 int i = 0;
                 Object array = null;
                 try {
                     switch (type) {
                         case Boolean: {
-                            boolean[] elements = new boolean[START_SIZE];
+                            boolean[] elements = new boolean[size];
                             array = elements;
                             while (true) {
                                 try {
@@ -3667,13 +3689,15 @@ public abstract class SequenceStorageNodes {
                                 } catch (PException e) {
                                     e.expectStopIteration(errorProfile);
                                     break;
+                                } catch (IteratorExhaustedException e) {
+                                    break;
                                 }
                             }
                             storage = new BoolSequenceStorage(elements, i);
                             break;
                         }
                         case Byte: {
-                            byte[] elements = new byte[START_SIZE];
+                            byte[] elements = new byte[size];
                             array = elements;
                             while (true) {
                                 try {
@@ -3692,13 +3716,15 @@ public abstract class SequenceStorageNodes {
                                 } catch (PException e) {
                                     e.expectStopIteration(errorProfile);
                                     break;
+                                } catch (IteratorExhaustedException e) {
+                                    break;
                                 }
                             }
                             storage = new ByteSequenceStorage(elements, i);
                             break;
                         }
                         case Int: {
-                            int[] elements = new int[START_SIZE];
+                            int[] elements = new int[size];
                             array = elements;
                             while (true) {
                                 try {
@@ -3711,13 +3737,15 @@ public abstract class SequenceStorageNodes {
                                 } catch (PException e) {
                                     e.expectStopIteration(errorProfile);
                                     break;
+                                } catch (IteratorExhaustedException e) {
+                                    break;
                                 }
                             }
                             storage = new IntSequenceStorage(elements, i);
                             break;
                         }
                         case Long: {
-                            long[] elements = new long[START_SIZE];
+                            long[] elements = new long[size];
                             array = elements;
                             while (true) {
                                 try {
@@ -3730,13 +3758,15 @@ public abstract class SequenceStorageNodes {
                                 } catch (PException e) {
                                     e.expectStopIteration(errorProfile);
                                     break;
+                                } catch (IteratorExhaustedException e) {
+                                    break;
                                 }
                             }
                             storage = new LongSequenceStorage(elements, i);
                             break;
                         }
                         case Double: {
-                            double[] elements = new double[START_SIZE];
+                            double[] elements = new double[size];
                             array = elements;
                             while (true) {
                                 try {
@@ -3749,13 +3779,15 @@ public abstract class SequenceStorageNodes {
                                 } catch (PException e) {
                                     e.expectStopIteration(errorProfile);
                                     break;
+                                } catch (IteratorExhaustedException e) {
+                                    break;
                                 }
                             }
                             storage = new DoubleSequenceStorage(elements, i);
                             break;
                         }
                         case List: {
-                            PList[] elements = new PList[START_SIZE];
+                            PList[] elements = new PList[size];
                             array = elements;
                             while (true) {
                                 try {
@@ -3768,13 +3800,15 @@ public abstract class SequenceStorageNodes {
                                 } catch (PException e) {
                                     e.expectStopIteration(errorProfile);
                                     break;
+                                } catch (IteratorExhaustedException e) {
+                                    break;
                                 }
                             }
                             storage = new ListSequenceStorage(elements, i);
                             break;
                         }
                         case Tuple: {
-                            PTuple[] elements = new PTuple[START_SIZE];
+                            PTuple[] elements = new PTuple[size];
                             array = elements;
                             while (true) {
                                 try {
@@ -3787,13 +3821,15 @@ public abstract class SequenceStorageNodes {
                                 } catch (PException e) {
                                     e.expectStopIteration(errorProfile);
                                     break;
+                                } catch (IteratorExhaustedException e) {
+                                    break;
                                 }
                             }
                             storage = new TupleSequenceStorage(elements, i);
                             break;
                         }
                         case Generic: {
-                            Object[] elements = new Object[START_SIZE];
+                            Object[] elements = new Object[size];
                             while (true) {
                                 try {
                                     Object value = nextObject(frame, nextNode, iterator);
@@ -3804,6 +3840,8 @@ public abstract class SequenceStorageNodes {
                                 } catch (PException e) {
                                     e.expectStopIteration(errorProfile);
                                     break;
+                                } catch (IteratorExhaustedException e) {
+                                    break;
                                 }
                             }
                             storage = new ObjectSequenceStorage(elements, i);
@@ -3836,6 +3874,8 @@ public abstract class SequenceStorageNodes {
                 } catch (PException e) {
                     e.expectStopIteration(errorProfile);
                     break;
+                } catch (IteratorExhaustedException e) {
+                    break;
                 }
             }
             return new ObjectSequenceStorage(elements, i);
@@ -3872,17 +3912,74 @@ public abstract class SequenceStorageNodes {
 
     }
 
+    private static final class CreateStorageFromBuiltinIteratorHelper extends CreateStorageFromIteratorHelper<GetNextOrSentinelNode> {
+
+        @Override
+        protected boolean nextBoolean(VirtualFrame frame, GetNextOrSentinelNode nextNode, Object iterator) throws UnexpectedResultException {
+            Object value = nextObject(frame, nextNode, iterator);
+            if (value instanceof Boolean) {
+                return (boolean) value;
+            }
+            throw new UnexpectedResultException(value);
+        }
+
+        @Override
+        protected int nextInt(VirtualFrame frame, GetNextOrSentinelNode nextNode, Object iterator) throws UnexpectedResultException {
+            Object value = nextObject(frame, nextNode, iterator);
+            if (value instanceof Integer) {
+                return (int) value;
+            }
+            throw new UnexpectedResultException(value);
+        }
+
+        @Override
+        protected long nextLong(VirtualFrame frame, GetNextOrSentinelNode nextNode, Object iterator) throws UnexpectedResultException {
+            Object value = nextObject(frame, nextNode, iterator);
+            if (value instanceof Long) {
+                return (long) value;
+            }
+            throw new UnexpectedResultException(value);
+        }
+
+        @Override
+        protected double nextDouble(VirtualFrame frame, GetNextOrSentinelNode nextNode, Object iterator) throws UnexpectedResultException {
+            Object value = nextObject(frame, nextNode, iterator);
+            if (value instanceof Double) {
+                return (double) value;
+            }
+            throw new UnexpectedResultException(value);
+        }
+
+        @Override
+        protected Object nextObject(VirtualFrame frame, GetNextOrSentinelNode nextNode, Object iterator) {
+            Object value = nextNode.execute(frame, iterator);
+            if (value == PNone.NO_VALUE) {
+                throw IteratorExhaustedException.INSTANCE;
+            }
+            return value;
+        }
+
+    }
+
     public static final class CreateStorageFromIteratorNode extends Node {
         private static final CreateStorageFromIteratorInternalNode HELPER = new CreateStorageFromIteratorInternalNode();
+        private static final CreateStorageFromBuiltinIteratorHelper BUILTIN_HELPER = new CreateStorageFromBuiltinIteratorHelper();
 
         @Child private GetNextNode getNextNode = GetNextNode.create();
+        @Child private GetNextOrSentinelNode getNextOrSentinelNode;
 
         private final IsBuiltinClassProfile errorProfile = IsBuiltinClassProfile.create();
+        private final ConditionProfile builtinIteratorProfile = ConditionProfile.createBinaryProfile();
 
         @CompilationFinal private ListStorageType expectedElementType = Uninitialized;
 
         public SequenceStorage execute(VirtualFrame frame, Object iterator) {
-            SequenceStorage doIt = HELPER.doIt(frame, iterator, expectedElementType, getNextNode, errorProfile);
+            SequenceStorage doIt;
+            if (builtinIteratorProfile.profile(GetNextOrSentinelNode.isBuiltinIterator(iterator))) {
+                doIt = collectBuiltin(frame, iterator);
+            } else {
+                doIt = HELPER.doIt(frame, iterator, expectedElementType, getNextNode, errorProfile);
+            }
             ListStorageType actualElementType = doIt.getElementType();
             if (expectedElementType != actualElementType) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -3891,6 +3988,20 @@ public abstract class SequenceStorageNodes {
             return doIt;
         }
 
+        /**
+         * Builtin iterators signal exhaustion with a sentinel, so collecting them does not need to
+         * allocate and catch a {@code StopIteration}. The buffer is presized if the iterator tells
+         * its length.
+         */
+        private SequenceStorage collectBuiltin(VirtualFrame frame, Object iterator) {
+            if (getNextOrSentinelNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getNextOrSentinelNode = insert(GetNextOrSentinelNode.create());
+            }
+            int lengthHint = GetNextOrSentinelNode.getLengthHint(iterator);
+            return BUILTIN_HELPER.doIt(frame, iterator, expectedElementType, getNextOrSentinelNode, errorProfile, lengthHint > 0 ? lengthHint : CreateStorageFromIteratorHelper.START_SIZE);
+        }
+
         public static CreateStorageFromIteratorNode create() {
             return new CreateStorageFromIteratorNode();
         }
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.ForEachNode;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.HashingStorageIterable;
+import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * A storage that serializes all accesses to another storage with a lock. Hashing collections
+ * switch to this storage lazily on their first access after a second thread entered a context
+ * running with {@code --python.ThreadSafeCollections}. Until then, the only cost is a check of
+ * {@link #isActive()}, which folds away in compiled code. The switch is per context, so other
+ * contexts in the same process are not affected.
+ *
+ * The lock is reentrant because {@code __hash__} and {@code __eq__} of keys may access the same
+ * collection again. Iterators work on the current storage without copying it. Instead, the first
+ * write while an iterator is still running copies the storage, so a concurrent writer can never
+ * invalidate it. An iterator stops counting as running once it is exhausted.
+ */
+@ExportLibrary(HashingStorageLibrary.class)
+public final class SynchronizedStorage extends HashingStorage {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile HashingStorage delegate;
+
+    /**
+     * How many iterators may still be reading {@link #delegate}. Iterators that are abandoned
+     * before they are exhausted are only forgotten when the delegate is replaced, which bumps the
+     * {@link #generation}. Both fields are only accessed under the lock.
+     */
+    private int activeIterators;
+    private int generation;
+
+    private SynchronizedStorage(HashingStorage delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Whether the current context enabled thread-safe collections. From then on, collections wrap
+     * their storage on the next access.
+     */
+    public static boolean isActive() {
+        return !PythonLanguage.getContext().getNoThreadSafeCollectionsAssumption().isValid();
+    }
+
+    /**
+     * Determines if the given storage needs to be wrapped. Locals storages are bound to a frame
+     * and never shared, so they are left alone.
+     */
+    public static boolean needsWrapping(HashingStorage storage) {
+        return !(storage instanceof SynchronizedStorage || storage instanceof LocalsStorage);
+    }
+
+    public static HashingStorage wrap(HashingStorage storage) {
+        return needsWrapping(storage) ? new SynchronizedStorage(storage) : storage;
+    }
+
+    /**
+     * Computes the storage a collection should hold after its {@code current} storage was replaced
+     * with {@code newStorage}. An existing wrapper is kept, so threads that already hold it keep
+     * using the same lock.
+     */
+    public static HashingStorage replace(HashingStorage current, HashingStorage newStorage) {
+        if (current instanceof SynchronizedStorage && current != newStorage) {
+            ((SynchronizedStorage) current).setDelegate(newStorage);
+            return current;
+        }
+        return wrap(newStorage);
+    }
+
+    private void setDelegate(HashingStorage newDelegate) {
+        lock();
+        try {
+            delegate = newDelegate;
+            forgetIterators();
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Returns the storage to modify in place. Must be called under the lock. If an iterator may
+     * still be reading the current storage, it is left to that iterator and a copy is used instead.
+     */
+    private HashingStorage writableDelegate(HashingStorageLibrary lib) {
+        if (activeIterators > 0) {
+            forgetIterators();
+            delegate = lib.copy(delegate);
+        }
+        return delegate;
+    }
+
+    private void forgetIterators() {
+        activeIterators = 0;
+        generation++;
+    }
+
+    private <T> HashingStorageIterable<T> track(HashingStorageIterable<T> iterable) {
+        activeIterators++;
+        return new HashingStorageIterable<>(new TrackingIterator<>(iterable.iterator(), generation));
+    }
+
+    private void iteratorExhausted(int iteratorGeneration) {
+        lock();
+        try {
+            if (iteratorGeneration == generation) {
+                activeIterators--;
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    private final class TrackingIterator<T> implements Iterator<T> {
+        private final Iterator<T> iterator;
+        private final int iteratorGeneration;
+        private boolean exhausted;
+
+        TrackingIterator(Iterator<T> iterator, int iteratorGeneration) {
+            this.iterator = iterator;
+            this.iteratorGeneration = iteratorGeneration;
+        }
+
+        public boolean hasNext() {
+            boolean hasNext = iterator.hasNext();
+            if (!hasNext && !exhausted) {
+                exhausted = true;
+                iteratorExhausted(iteratorGeneration);
+            }
+            return hasNext;
+        }
+
+        public T next() {
+            return iterator.next();
+        }
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private void lock() {
+        acquire(lock);
+    }
+
+    /**
+     * Takes a lock that guards a collection. If another thread holds it, the global interpreter
+     * lock is released while waiting, since the owner may need it to finish a callback like
+     * {@code __eq__} before it can let go of the collection.
+     */
+    @TruffleBoundary
+    public static void acquire(ReentrantLock collectionLock) {
+        if (!collectionLock.tryLock()) {
+            PythonContext context = PythonLanguage.getContext();
+            boolean released = context.releaseGil();
+            try {
+                collectionLock.lock();
+            } finally {
+                if (released) {
+                    context.acquireGil();
+                }
+            }
+        }
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private void unlock() {
+        lock.unlock();
+    }
+
+    @ExportMessage
+    public int length(@CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            return lib.length(delegate);
+        } finally {
+            unlock();
+        }
+    }
+
+    @ExportMessage
+    public Object getItemWithState(Object key, ThreadState state,
+                    @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            return lib.getItemWithState(delegate, key, state);
+        } finally {
+            unlock();
+        }
+    }
+
+    @ExportMessage
+    public HashingStorage setItemWithState(Object key, Object value, ThreadState state,
+                    @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            delegate = lib.setItemWithState(writableDelegate(lib), key, value, state);
+            return this;
+        } finally {
+            unlock();
+        }
+    }
+
+    @ExportMessage
+    public HashingStorage delItemWithState(Object key, ThreadState state,
+                    @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            delegate = lib.delItemWithState(writableDelegate(lib), key, state);
+            return this;
+        } finally {
+            unlock();
+        }
+    }
+
+    @ExportMessage
+    public Object forEachUntyped(ForEachNode<Object> node, Object arg,
+                    @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            return lib.forEachUntyped(delegate, node, arg);
+        } finally {
+            unlock();
+        }
+    }
+
+    @ExportMessage
+    public HashingStorage clear(@CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            if (activeIterators > 0) {
+                // no need to copy what is thrown away anyway
+                forgetIterators();
+                delegate = new EmptyStorage();
+            } else {
+                delegate = lib.clear(delegate);
+            }
+            return this;
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * The copy is a fresh, unshared storage and is therefore not wrapped.
+     */
+    @ExportMessage
+    public HashingStorage copy(@CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            return lib.copy(delegate);
+        } finally {
+            unlock();
+        }
+    }
+
+    @ExportMessage
+    public HashingStorage addAllToOther(HashingStorage other,
+                    @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            return lib.addAllToOther(delegate, other);
+        } finally {
+            unlock();
+        }
+    }
+
+    @ExportMessage
+    public HashingStorageIterable<Object> keys(@CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            return track(lib.keys(delegate));
+        } finally {
+            unlock();
+        }
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> values(@CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            return track(lib.values(delegate));
+        } finally {
+            unlock();
+        }
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<DictEntry> entries(@CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+        lock();
+        try {
+            return track(lib.entries(delegate));
+        } finally {
+            unlock();
+        }
+    }
+}
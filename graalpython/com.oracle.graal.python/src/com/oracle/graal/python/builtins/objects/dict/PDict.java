@@ -32,9 +32,11 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.common.KeywordsStorage;
 import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
+import com.oracle.graal.python.builtins.objects.common.SynchronizedStorage;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 public final class PDict extends PHashingCollection {
 
@@ -56,11 +58,11 @@ public final class PDict extends PHashingCollection {
     }
 
     public Object getItem(Object key) {
-        return HashingStorageLibrary.getUncached().getItem(dictStorage, key);
+        return HashingStorageLibrary.getUncached().getItem(getDictStorage(), key);
     }
 
     public void setItem(Object key, Object value) {
-        dictStorage = HashingStorageLibrary.getUncached().setItem(dictStorage, key, value);
+        setDictStorage(HashingStorageLibrary.getUncached().setItem(getDictStorage(), key, value));
     }
 
     public static HashingStorage createNewStorage(boolean isStringKey, int expectedSize) {
@@ -76,16 +78,35 @@ public final class PDict extends PHashingCollection {
     }
 
     public void update(PDict other) {
-        dictStorage = HashingStorageLibrary.getUncached().addAllToOther(other.getDictStorage(), dictStorage);
+        setDictStorage(HashingStorageLibrary.getUncached().addAllToOther(other.getDictStorage(), getDictStorage()));
     }
 
     @Override
     public void setDictStorage(HashingStorage newStorage) {
-        dictStorage = newStorage;
+        if (newStorage != dictStorage && SynchronizedStorage.isActive()) {
+            setSynchronizedStorage(newStorage);
+        } else {
+            dictStorage = newStorage;
+        }
     }
 
     @Override
     public HashingStorage getDictStorage() {
+        HashingStorage storage = dictStorage;
+        if (SynchronizedStorage.isActive() && SynchronizedStorage.needsWrapping(storage)) {
+            return synchronizeStorage();
+        }
+        return storage;
+    }
+
+    @TruffleBoundary
+    private synchronized void setSynchronizedStorage(HashingStorage newStorage) {
+        dictStorage = SynchronizedStorage.replace(dictStorage, newStorage);
+    }
+
+    @TruffleBoundary
+    private synchronized HashingStorage synchronizeStorage() {
+        dictStorage = SynchronizedStorage.wrap(dictStorage);
         return dictStorage;
     }
 
@@ -94,10 +115,11 @@ public final class PDict extends PHashingCollection {
         CompilerAsserts.neverPartOfCompilation();
         StringBuilder buf = new StringBuilder("{");
         HashingStorageLibrary lib = HashingStorageLibrary.getUncached();
-        int length = lib.length(dictStorage);
+        HashingStorage storage = getDictStorage();
+        int length = lib.length(storage);
         int i = 0;
 
-        for (HashingStorage.DictEntry entry : lib.entries(dictStorage)) {
+        for (HashingStorage.DictEntry entry : lib.entries(storage)) {
             buf.append(entry.getKey() + ": " + entry.getValue());
             if (i < length - 1) {
                 buf.append(", ");
@@ -111,6 +133,6 @@ public final class PDict extends PHashingCollection {
 
     @Override
     public int size() {
-        return HashingStorageLibrary.getUncached().length(dictStorage);
+        return HashingStorageLibrary.getUncached().length(getDictStorage());
     }
 }
@@ -40,17 +40,25 @@
  */
 package com.oracle.graal.python.builtins.objects.exception;
 
+import java.util.List;
+
 import com.oracle.graal.python.builtins.objects.frame.PFrame;
 import com.oracle.graal.python.builtins.objects.frame.PFrame.Reference;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.traceback.PTraceback;
 import com.oracle.graal.python.nodes.frame.MaterializeFrameNode;
 import com.oracle.graal.python.nodes.frame.ReadCallerFrameNode;
+import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleStackTrace;
+import com.oracle.truffle.api.TruffleStackTraceElement;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
 /**
@@ -72,34 +80,44 @@ public abstract class GetTracebackNode extends Node {
     static PTraceback doMaterializedFrame(PBaseException e,
                     @Cached PythonObjectFactory factory) {
         Reference frameInfo = e.getFrameInfo();
-        assert frameInfo.isEscaped() : "cannot create traceback for non-escaped frame";
+        assert frameInfo.isEscaped() || e.getCaughtLocation() != null : "cannot create traceback for non-escaped frame";
 
         PFrame escapedFrame = frameInfo.getPyFrame();
         assert escapedFrame != null;
+        // if the exception was caught lazily, the frame may still be running and must now sync its
+        // values when it returns
+        frameInfo.markAsEscaped();
 
         PTraceback result = factory.createTraceback(escapedFrame, e.getException());
         e.setTraceback(result);
         return result;
     }
 
-    // case 2: on stack: the PFrame is not yet available so the frame must still be on the stack
+    // case 2: on stack: the PFrame is not yet available so the frame must still be on the stack,
+    // unless the exception was caught without forcing the frame to escape
     @Specialization(guards = {"hasLazyTraceback(e)", "!isMaterialized(e.getFrameInfo())"})
     PTraceback doOnStack(VirtualFrame frame, PBaseException e,
                     @Cached PythonObjectFactory factory,
                     @Cached MaterializeFrameNode materializeNode,
                     @Cached ReadCallerFrameNode readCallerFrame,
-                    @Cached("createBinaryProfile()") ConditionProfile isCurFrameProfile) {
+                    @Cached("createBinaryProfile()") ConditionProfile isCurFrameProfile,
+                    @Cached("createBinaryProfile()") ConditionProfile isLazyProfile) {
         Reference frameInfo = e.getFrameInfo();
-        assert frameInfo.isEscaped() : "cannot create traceback for non-escaped frame";
+        Node caughtLocation = e.getCaughtLocation();
+        assert frameInfo.isEscaped() || caughtLocation != null : "cannot create traceback for non-escaped frame";
 
         PFrame escapedFrame = null;
 
         // case 2.1: the frame info refers to the current frame
         if (isCurFrameProfile.profile(PArguments.getCurrentFrameInfo(frame) == frameInfo)) {
-            // materialize the current frame; marking is not necessary (already done); refreshing
-            // values is also not necessary (will be done on access to the locals or when returning
-            // from the frame)
-            escapedFrame = materializeNode.execute(frame, false);
+            // materialize the current frame; refreshing values is not necessary (will be done on
+            // access to the locals or when returning from the frame)
+            if (isLazyProfile.profile(caughtLocation != null)) {
+                // the exception was caught lazily, so the frame must escape now
+                escapedFrame = materializeNode.execute(frame, getRaiseLocation(e), true, false);
+            } else {
+                escapedFrame = materializeNode.execute(frame, false);
+            }
         } else {
             // case 2.2: the frame info does not refer to the current frame
             for (int i = 0;; i++) {
@@ -108,6 +126,11 @@ public abstract class GetTracebackNode extends Node {
                     break;
                 }
             }
+            if (escapedFrame == null) {
+                // case 2.3: the frame that lazily caught the exception has already returned
+                assert caughtLocation != null;
+                escapedFrame = createDetachedFrame(e, factory);
+            }
         }
 
         PTraceback result = factory.createTraceback(escapedFrame, e.getException());
@@ -115,6 +138,50 @@ public abstract class GetTracebackNode extends Node {
         return result;
     }
 
+    /**
+     * Creates a frame for an exception whose catching frame returned without escaping. The frame
+     * has the correct code, line, and globals, but its locals are gone.
+     */
+    private static PFrame createDetachedFrame(PBaseException e, PythonObjectFactory factory) {
+        Reference frameInfo = e.getFrameInfo();
+        PFrame detachedFrame = factory.createPFrame(frameInfo, getRaiseLocation(e), factory.createDict(), false);
+        Object[] arguments = PArguments.create();
+        PArguments.setGlobals(arguments, e.getCaughtGlobals());
+        detachedFrame.setArguments(arguments);
+        frameInfo.setPyFrame(detachedFrame);
+        return detachedFrame;
+    }
+
+    /**
+     * Determines the location in the frame that lazily caught the exception at which it was raised,
+     * i.e., the {@code raise} statement or the call that propagated it. Falls back to the handler
+     * if the stack trace does not tell.
+     */
+    @TruffleBoundary
+    private static Node getRaiseLocation(PBaseException e) {
+        Node caughtLocation = e.getCaughtLocation();
+        RootNode rootNode = caughtLocation.getRootNode();
+        PException exception = e.getException();
+        if (exception != null) {
+            Node location = exception.getLocation();
+            if (location != null && location.getRootNode() == rootNode) {
+                return location;
+            }
+            List<TruffleStackTraceElement> stackTrace = TruffleStackTrace.getStackTrace(exception);
+            if (stackTrace != null) {
+                for (TruffleStackTraceElement element : stackTrace) {
+                    Frame elementFrame = element.getFrame();
+                    // a recursive call of the same function must not be taken for the caller
+                    if (element.getLocation() != null && element.getTarget().getRootNode() == rootNode &&
+                                    (elementFrame == null || PArguments.getCurrentFrameInfo(elementFrame) == e.getFrameInfo())) {
+                        return element.getLocation();
+                    }
+                }
+            }
+        }
+        return caughtLocation;
+    }
+
     protected static boolean hasLazyTraceback(PBaseException e) {
         return e.getTraceback() == null && e.getFrameInfo() != null;
     }
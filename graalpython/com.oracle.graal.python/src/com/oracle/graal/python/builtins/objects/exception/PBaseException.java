@@ -58,6 +58,7 @@ import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
 public final class PBaseException extends PythonObject {
@@ -76,6 +77,14 @@ public final class PBaseException extends PythonObject {
     /** The frame info of the Python frame that first caught the exception. */
     private PFrame.Reference frameInfo;
 
+    /**
+     * If the exception was caught without forcing the frame to escape, the location of the handler
+     * (which also identifies the root node) and the globals of the catching frame; together with
+     * the frame info, enough to create a frame for the traceback later.
+     */
+    private Node caughtLocation;
+    private PythonObject caughtGlobals;
+
     public PBaseException(LazyPythonClass cls, PTuple args) {
         super(cls);
         this.args = args;
@@ -110,6 +119,8 @@ public final class PBaseException extends PythonObject {
         // Explicitly setting the traceback also makes the frame info for creating a lazy traceback
         // obsolete or even incorrect. So it is cleared.
         this.frameInfo = null;
+        this.caughtLocation = null;
+        this.caughtGlobals = null;
     }
 
     public void clearTraceback() {
@@ -129,6 +140,14 @@ public final class PBaseException extends PythonObject {
         return frameInfo;
     }
 
+    public Node getCaughtLocation() {
+        return caughtLocation;
+    }
+
+    public PythonObject getCaughtGlobals() {
+        return caughtGlobals;
+    }
+
     /**
      * Can be null in case of lazily formatted arguments.
      */
@@ -187,6 +206,21 @@ public final class PBaseException extends PythonObject {
         reifyException(info);
     }
 
+    /**
+     * Associate this exception with the frame info of the frame that caught it, but in contrast to
+     * {@link #reifyException(PFrame.Reference, ExceptNode)}, do not mark that frame as escaped. So
+     * catching an exception does not force a {@link PFrame} to be created and synced when the frame
+     * returns. Only the location and the globals are recorded, the Truffle frame is not kept alive.
+     * {@link GetTracebackNode} materializes the frame if it is still on the stack when the traceback
+     * is requested, and otherwise creates a detached frame without locals from the recorded data.
+     */
+    public void reifyExceptionLazily(PFrame.Reference info, Node location, PythonObject globals) {
+        traceback = null;
+        frameInfo = info;
+        caughtLocation = location;
+        caughtGlobals = globals;
+    }
+
     /**
      * Create the traceback for this exception using the provided {@link PFrame} instance (which
      * usually is the frame of the function that caught the exception).
@@ -199,6 +233,8 @@ public final class PBaseException extends PythonObject {
     public void reifyException(PFrame pyFrame, PythonObjectFactory factory) {
         traceback = factory.createTraceback(pyFrame, exception);
         frameInfo = pyFrame.getRef();
+        caughtLocation = null;
+        caughtGlobals = null;
 
         // TODO: frames: provide legacy stack walk method via Python option
         // TruffleStackTrace.fillIn(exception);
@@ -226,6 +262,8 @@ public final class PBaseException extends PythonObject {
         traceback = null;
         curFrameInfo.markAsEscaped();
         this.frameInfo = curFrameInfo;
+        this.caughtLocation = null;
+        this.caughtGlobals = null;
 
         // TODO: frames: provide legacy stack walk method via Python option
         // TruffleStackTrace.fillIn(exception);
@@ -33,7 +33,6 @@ import com.oracle.graal.python.builtins.objects.iterator.PRangeIterator;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
 import com.oracle.graal.python.parser.ExecutionCellSlots;
-import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
@@ -51,7 +50,9 @@ public final class PGenerator extends PythonBuiltinObject {
      * entry point into the generator: the first call, and continuation for each yield. Each AST can
      * then specialize towards which nodes are executed when starting from that particular entry
      * point. When yielding, the next index to the next call target to continue from is updated via
-     * {@link #setNextCallTarget()}.
+     * {@link #setNextCallTarget()}. With {@code PythonOptions#SharedGeneratorAST}, there is only
+     * a single call target, and the AST itself dispatches to the resume point using the active
+     * flags and block indices stored in the generator's control data.
      */
     @CompilationFinal(dimensions = 1) protected final RootCallTarget[] callTargets;
     protected final FrameDescriptor frameDescriptor;
@@ -64,10 +65,18 @@ public final class PGenerator extends PythonBuiltinObject {
     private final boolean isPRangeIterator;
 
     public static PGenerator create(LazyPythonClass clazz, String name, RootCallTarget[] callTargets, FrameDescriptor frameDescriptor, Object[] arguments, PCell[] closure,
-                    ExecutionCellSlots cellSlots, int numOfActiveFlags, int numOfGeneratorBlockNode, int numOfGeneratorForNode, PythonObjectFactory factory, Object iterator) {
-        /*
-         * Setting up the persistent frame in {@link #arguments}.
-         */
+                    ExecutionCellSlots cellSlots, int numOfActiveFlags, int numOfGeneratorBlockNode, int numOfGeneratorForNode, Object iterator) {
+        initializeArguments(arguments, frameDescriptor, closure, cellSlots, numOfActiveFlags, numOfGeneratorBlockNode, numOfGeneratorForNode);
+        return new PGenerator(clazz, name, callTargets, frameDescriptor, arguments, closure, iterator);
+    }
+
+    /**
+     * Sets up the persistent generator frame and the control data in the given arguments. The
+     * generator's call targets can then be called with these arguments, either through a
+     * {@link PGenerator} or directly by a consumer that drives the generator itself.
+     */
+    public static void initializeArguments(Object[] arguments, FrameDescriptor frameDescriptor, PCell[] closure, ExecutionCellSlots cellSlots, int numOfActiveFlags, int numOfGeneratorBlockNode,
+                    int numOfGeneratorForNode) {
         GeneratorControlData generatorArgs = new GeneratorControlData(numOfActiveFlags, numOfGeneratorBlockNode, numOfGeneratorForNode);
         Object[] generatorFrameArguments = PArguments.create();
         MaterializedFrame generatorFrame = Truffle.getRuntime().createMaterializedFrame(generatorFrameArguments, frameDescriptor);
@@ -92,8 +101,8 @@ public final class PGenerator extends PythonBuiltinObject {
         for (int i = 0; i < cellVarSlots.length; i++) {
             generatorFrame.setObject(cellVarSlots[i], new PCell(cellVarAssumptions[i]));
         }
-        PArguments.setGeneratorFrameLocals(generatorFrameArguments, factory.createDictLocals(generatorFrame));
-        return new PGenerator(clazz, name, callTargets, frameDescriptor, arguments, closure, iterator);
+        // the locals dict is only created when the generator frame escapes, see
+        // MaterializeFrameNode
     }
 
     private PGenerator(LazyPythonClass clazz, String name, RootCallTarget[] callTargets, FrameDescriptor frameDescriptor, Object[] arguments, PCell[] closure, Object iterator) {
@@ -114,6 +123,9 @@ public final class PGenerator extends PythonBuiltinObject {
     }
 
     public void setNextCallTarget() {
+        if (callTargets.length == 1) {
+            return;
+        }
         currentCallTarget = PArguments.getControlDataFromGeneratorArguments(getArguments()).getLastYieldIndex();
     }
 
@@ -26,6 +26,7 @@
 package com.oracle.graal.python.builtins.objects.ints;
 
 import java.math.BigInteger;
+import java.util.HashMap;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.cext.PythonNativeWrapperLibrary;
@@ -386,6 +387,48 @@ public final class PInt extends PythonBuiltinObject {
         return val == (int) val;
     }
 
+    /**
+     * Number of digits below which {@link #parseBigInteger} uses {@code new BigInteger(String)}
+     * directly. The JDK parser is quadratic in the number of digits, so longer strings are split in
+     * halves, parsed recursively and combined with a single multiplication by a power of the base.
+     */
+    private static final int PARSE_SPLIT_THRESHOLD = 2048;
+
+    /**
+     * Parses the given digits (with an optional leading sign) like
+     * {@link BigInteger#BigInteger(String, int)}, but in subquadratic time for very long strings.
+     */
+    @TruffleBoundary
+    public static BigInteger parseBigInteger(String digits, int radix) throws NumberFormatException {
+        int start = 0;
+        if (!digits.isEmpty() && (digits.charAt(0) == '-' || digits.charAt(0) == '+')) {
+            start = 1;
+        }
+        if (digits.length() - start <= PARSE_SPLIT_THRESHOLD || digits.indexOf('-', start) >= 0 || digits.indexOf('+', start) >= 0) {
+            // short strings and malformed input take the JDK path, which also produces the error
+            return new BigInteger(digits, radix);
+        }
+        BigInteger result = parseDigits(digits, start, digits.length(), radix, new HashMap<>());
+        return digits.charAt(0) == '-' ? result.negate() : result;
+    }
+
+    private static BigInteger parseDigits(String digits, int from, int to, int radix, HashMap<Integer, BigInteger> powers) {
+        int length = to - from;
+        if (length <= PARSE_SPLIT_THRESHOLD) {
+            return new BigInteger(digits.substring(from, to), radix);
+        }
+        int lowLength = length / 2;
+        int split = to - lowLength;
+        BigInteger high = parseDigits(digits, from, split, radix, powers);
+        BigInteger low = parseDigits(digits, split, to, radix, powers);
+        BigInteger scale = powers.get(lowLength);
+        if (scale == null) {
+            scale = BigInteger.valueOf(radix).pow(lowLength);
+            powers.put(lowLength, scale);
+        }
+        return high.multiply(scale).add(low);
+    }
+
     public boolean isNative() {
         return getNativeWrapper() != null && PythonNativeWrapperLibrary.getUncached().isNative(getNativeWrapper());
     }
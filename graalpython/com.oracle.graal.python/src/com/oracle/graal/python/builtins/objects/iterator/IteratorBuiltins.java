@@ -30,32 +30,26 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.__LENGTH_HINT__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
-import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.iterator.IteratorNodes.GetNextOrSentinelNode;
 import com.oracle.graal.python.builtins.objects.iterator.PRangeIterator.PRangeReverseIterator;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
-import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
-import com.oracle.graal.python.runtime.exception.PException;
-import com.oracle.graal.python.runtime.sequence.PSequence;
-import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.profiles.ValueProfile;
 
 @CoreFunctions(extendClasses = {PythonBuiltinClassType.PIterator, PythonBuiltinClassType.PArrayIterator})
 public class IteratorBuiltins extends PythonBuiltins {
@@ -74,20 +68,6 @@ public class IteratorBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class NextNode extends PythonUnaryBuiltinNode {
 
-        @Specialization
-        Object next(VirtualFrame frame, PArrayIterator self,
-                        @Cached("createClassProfile()") ValueProfile itemTypeProfile,
-                        @Cached("createNotNormalized()") SequenceStorageNodes.GetItemNode getItemNode,
-                        @Cached SequenceStorageNodes.LenNode lenNode) {
-            SequenceStorage sequenceStorage = self.array.getSequenceStorage();
-            if (self.index < lenNode.execute(sequenceStorage)) {
-                // TODO avoid boxing by getting the array's typecode and using primitive return
-                // types
-                return itemTypeProfile.profile(getItemNode.execute(frame, sequenceStorage, self.index++));
-            }
-            throw raise(StopIteration);
-        }
-
         @Specialization
         int next(PIntegerSequenceIterator self) {
             if (!self.isExhausted() && self.index < self.sequence.length()) {
@@ -135,57 +115,18 @@ public class IteratorBuiltins extends PythonBuiltins {
             throw raise(StopIteration);
         }
 
-        @Specialization
-        public Object next(PBaseSetIterator self) {
-            Iterator<Object> iterator = self.getIterator();
-            if (hasNext(iterator)) {
-                return getNext(iterator);
-            }
-            throw raise(StopIteration);
-        }
-
-        @TruffleBoundary
-        private static Object getNext(Iterator<Object> iterator) {
-            return iterator.next();
-        }
-
-        @TruffleBoundary
-        private static boolean hasNext(Iterator<Object> iterator) {
-            return iterator.hasNext();
-        }
-
-        @Specialization(guards = "self.isPSequence()")
-        public Object next(VirtualFrame frame, PSequenceIterator self,
-                        @Cached("createClassProfile()") ValueProfile sequenceProfile,
-                        @Cached("create()") SequenceStorageNodes.LenNode lenNode,
-                        @Cached("createNotNormalized()") SequenceStorageNodes.GetItemNode getItemNode) {
-            PSequence sequence = sequenceProfile.profile(self.getPSequence());
-            SequenceStorage s = sequence.getSequenceStorage();
-            if (!self.isExhausted() && self.index < lenNode.execute(s)) {
-                return getItemNode.execute(frame, s, self.index++);
-            }
-            self.setExhausted();
-            throw raise(StopIteration);
-        }
-
-        @Specialization
-        public Object next(PStringIterator self) {
-            if (self.index < self.value.length()) {
-                return Character.toString(self.value.charAt(self.index++));
+        @Specialization(guards = "isBuiltinIterator(self)")
+        Object next(VirtualFrame frame, PBuiltinIterator self,
+                        @Cached GetNextOrSentinelNode nextNode) {
+            Object result = nextNode.execute(frame, self);
+            if (result == PNone.NO_VALUE) {
+                throw raise(StopIteration);
             }
-            throw raise(StopIteration);
+            return result;
         }
 
-        @Specialization(guards = "!self.isPSequence()")
-        public Object next(VirtualFrame frame, PSequenceIterator self,
-                        @Cached("create(__GETITEM__)") LookupAndCallBinaryNode callGetItem,
-                        @Cached("create()") IsBuiltinClassProfile profile) {
-            try {
-                return callGetItem.executeObject(frame, self.getObject(), self.index++);
-            } catch (PException e) {
-                e.expectIndexError(profile);
-                throw raise(StopIteration);
-            }
+        static boolean isBuiltinIterator(Object iterator) {
+            return GetNextOrSentinelNode.isBuiltinIterator(iterator);
         }
     }
 
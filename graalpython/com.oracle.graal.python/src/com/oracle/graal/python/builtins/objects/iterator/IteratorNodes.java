@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.iterator;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+
+import java.util.Iterator;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.range.PRange;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.ValueProfile;
+
+public abstract class IteratorNodes {
+
+    /**
+     * Advances an iterator and returns {@link PNone#NO_VALUE} instead of raising
+     * {@code StopIteration} when it is exhausted. Builtin iterators are stepped directly, so the
+     * common end of a loop does not allocate an exception. Any other object goes through its
+     * {@code __next__} method and the {@code StopIteration} it raises is translated here.
+     */
+    public abstract static class GetNextOrSentinelNode extends PNodeWithContext {
+
+        public abstract Object execute(VirtualFrame frame, Object iterator);
+
+        @Specialization(guards = "iterator.getClass() == clazz", limit = "99")
+        static Object doIntegerIterator(PIntegerIterator iterator,
+                        @Cached("iterator.getClass()") Class<? extends PIntegerIterator> clazz) {
+            PIntegerIterator profiledIterator = clazz.cast(iterator);
+            if (!profiledIterator.hasNext()) {
+                profiledIterator.setExhausted();
+                return PNone.NO_VALUE;
+            }
+            return profiledIterator.next();
+        }
+
+        @Specialization(guards = "iterator.getClass() == clazz", limit = "99")
+        static Object doLongIterator(PLongIterator iterator,
+                        @Cached("iterator.getClass()") Class<? extends PLongIterator> clazz) {
+            PLongIterator profiledIterator = clazz.cast(iterator);
+            if (!profiledIterator.hasNext()) {
+                profiledIterator.setExhausted();
+                return PNone.NO_VALUE;
+            }
+            return profiledIterator.next();
+        }
+
+        @Specialization(guards = "iterator.getClass() == clazz", limit = "99")
+        static Object doDoubleIterator(PDoubleIterator iterator,
+                        @Cached("iterator.getClass()") Class<? extends PDoubleIterator> clazz) {
+            PDoubleIterator profiledIterator = clazz.cast(iterator);
+            if (!profiledIterator.hasNext()) {
+                profiledIterator.setExhausted();
+                return PNone.NO_VALUE;
+            }
+            return profiledIterator.next();
+        }
+
+        @Specialization
+        static Object doArray(VirtualFrame frame, PArrayIterator self,
+                        @Cached("createClassProfile()") ValueProfile itemTypeProfile,
+                        @Cached("createNotNormalized()") SequenceStorageNodes.GetItemNode getItemNode,
+                        @Cached SequenceStorageNodes.LenNode lenNode) {
+            SequenceStorage sequenceStorage = self.array.getSequenceStorage();
+            if (self.index < lenNode.execute(sequenceStorage)) {
+                return itemTypeProfile.profile(getItemNode.execute(frame, sequenceStorage, self.index++));
+            }
+            return PNone.NO_VALUE;
+        }
+
+        @Specialization
+        static Object doSet(PBaseSetIterator self) {
+            Iterator<Object> iterator = self.getIterator();
+            if (hasNext(iterator)) {
+                return getNext(iterator);
+            }
+            return PNone.NO_VALUE;
+        }
+
+        @TruffleBoundary
+        private static Object getNext(Iterator<Object> iterator) {
+            return iterator.next();
+        }
+
+        @TruffleBoundary
+        private static boolean hasNext(Iterator<Object> iterator) {
+            return iterator.hasNext();
+        }
+
+        @Specialization(guards = "self.isPSequence()")
+        static Object doSequence(VirtualFrame frame, PSequenceIterator self,
+                        @Cached("createClassProfile()") ValueProfile sequenceProfile,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached("createNotNormalized()") SequenceStorageNodes.GetItemNode getItemNode) {
+            PSequence sequence = sequenceProfile.profile(self.getPSequence());
+            boolean locked = sequence instanceof PList && ((PList) sequence).lock();
+            try {
+                SequenceStorage s = sequence.getSequenceStorage();
+                if (!self.isExhausted() && self.index < lenNode.execute(s)) {
+                    return getItemNode.execute(frame, s, self.index++);
+                }
+            } finally {
+                if (locked) {
+                    ((PList) sequence).unlock(true);
+                }
+            }
+            self.setExhausted();
+            return PNone.NO_VALUE;
+        }
+
+        @Specialization
+        static Object doString(PStringIterator self) {
+            if (self.index < self.value.length()) {
+                return Character.toString(self.value.charAt(self.index++));
+            }
+            return PNone.NO_VALUE;
+        }
+
+        @Specialization(guards = "!self.isPSequence()")
+        static Object doGetItem(VirtualFrame frame, PSequenceIterator self,
+                        @Cached("create(__GETITEM__)") LookupAndCallBinaryNode callGetItem,
+                        @Cached IsBuiltinClassProfile profile) {
+            try {
+                return callGetItem.executeObject(frame, self.getObject(), self.index++);
+            } catch (PException e) {
+                e.expectIndexError(profile);
+                return PNone.NO_VALUE;
+            }
+        }
+
+        @Specialization(guards = "!isBuiltinIterator(iterator)")
+        static Object doGeneric(VirtualFrame frame, Object iterator,
+                        @Cached GetNextNode getNextNode,
+                        @Cached IsBuiltinClassProfile errorProfile) {
+            try {
+                return getNextNode.execute(frame, iterator);
+            } catch (PException e) {
+                e.expectStopIteration(errorProfile);
+                return PNone.NO_VALUE;
+            }
+        }
+
+        public static boolean isBuiltinIterator(Object iterator) {
+            return iterator instanceof PIntegerIterator || iterator instanceof PLongIterator || iterator instanceof PDoubleIterator || iterator instanceof PArrayIterator ||
+                            iterator instanceof PBaseSetIterator || iterator instanceof PSequenceIterator || iterator instanceof PStringIterator;
+        }
+
+        /**
+         * Returns how many elements a builtin iterator will still produce if that is cheap to tell,
+         * or {@code -1}. This is only meant for presizing buffers.
+         */
+        public static int getLengthHint(Object iterator) {
+            if (iterator instanceof PBuiltinIterator && ((PBuiltinIterator) iterator).isExhausted()) {
+                return 0;
+            } else if (iterator instanceof PRangeIterator) {
+                PRangeIterator range = (PRangeIterator) iterator;
+                return range.step > 0 && range.index < range.stop ? PRange.getLenOfRange(range.index, range.stop, range.step) : -1;
+            } else if (iterator instanceof PIntegerSequenceIterator) {
+                return ((PIntegerSequenceIterator) iterator).sequence.length() - ((PIntegerSequenceIterator) iterator).index;
+            } else if (iterator instanceof PLongSequenceIterator) {
+                return ((PLongSequenceIterator) iterator).sequence.length() - ((PLongSequenceIterator) iterator).index;
+            } else if (iterator instanceof PDoubleSequenceIterator) {
+                return ((PDoubleSequenceIterator) iterator).sequence.length() - ((PDoubleSequenceIterator) iterator).index;
+            } else if (iterator instanceof PArrayIterator) {
+                return ((PArrayIterator) iterator).array.len() - ((PArrayIterator) iterator).index;
+            } else if (iterator instanceof PSequenceIterator && ((PSequenceIterator) iterator).isPSequence()) {
+                PSequenceIterator sequenceIterator = (PSequenceIterator) iterator;
+                return sequenceIterator.getPSequence().getSequenceStorage().length() - sequenceIterator.index;
+            } else if (iterator instanceof PStringIterator) {
+                return ((PStringIterator) iterator).value.length() - ((PStringIterator) iterator).index;
+            }
+            return -1;
+        }
+
+        public static GetNextOrSentinelNode create() {
+            return IteratorNodesFactory.GetNextOrSentinelNodeGen.create();
+        }
+    }
+}
@@ -62,6 +62,7 @@ import com.oracle.graal.python.builtins.objects.common.IndexNodes.NormalizeIndex
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.CreateStorageFromIteratorNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.common.SynchronizedStorage;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
 import com.oracle.graal.python.builtins.objects.generator.PGenerator;
@@ -74,6 +75,8 @@ import com.oracle.graal.python.builtins.objects.iterator.PSequenceIterator;
 import com.oracle.graal.python.builtins.objects.list.ListBuiltinsFactory.ListReverseNodeFactory;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.range.PRange;
+import com.oracle.graal.python.builtins.objects.slice.PSlice;
+import com.oracle.graal.python.builtins.objects.slice.PSlice.SliceInfo;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.PGuards;
@@ -100,6 +103,8 @@ import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.EmptySequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.NativeSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorageFactory;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -137,12 +142,21 @@ public class ListBuiltins extends PythonBuiltins {
                         @Cached("create(__REPR__)") LookupAndCallUnaryNode repr) {
             StringBuilder result = new StringBuilder();
             sbAppend(result, "[");
-            SequenceStorage storage = self.getSequenceStorage();
             boolean initial = true;
             Object value;
             Object reprString;
-            for (int index = 0; index < storage.length(); index++) {
-                value = storage.getItemNormalized(index);
+            for (int index = 0;; index++) {
+                // the lock is not held while the elements run their __repr__
+                boolean locked = self.lock();
+                try {
+                    SequenceStorage storage = self.getSequenceStorage();
+                    if (index >= storage.length()) {
+                        break;
+                    }
+                    value = storage.getItemNormalized(index);
+                } finally {
+                    self.unlock(locked);
+                }
                 if (self != value) {
                     reprString = repr.executeObject(frame, value);
                     if (reprString instanceof PString) {
@@ -213,7 +227,7 @@ public class ListBuiltins extends PythonBuiltins {
                 ary[idx] = i;
                 idx++;
             }
-            list.setSequenceStorage(new IntSequenceStorage(ary));
+            setStorage(list, new IntSequenceStorage(ary));
             return PNone.NONE;
         }
 
@@ -245,7 +259,7 @@ public class ListBuiltins extends PythonBuiltins {
                 }
             }
 
-            list.setSequenceStorage(storage);
+            setStorage(list, storage);
             return PNone.NONE;
         }
 
@@ -255,13 +269,27 @@ public class ListBuiltins extends PythonBuiltins {
                         @Cached("create()") CreateStorageFromIteratorNode storageNode) {
             clearStorage(list);
             Object iterObj = getIteratorNode.executeWith(frame, iterable);
-            list.setSequenceStorage(storageNode.execute(frame, iterObj));
+            setStorage(list, storageNode.execute(frame, iterObj));
             return PNone.NONE;
         }
 
+        /*
+         * The new contents are computed without holding the lock of the list, because that may run
+         * arbitrary Python code. Only replacing the storage is done under the lock, so it does not
+         * interleave with a concurrent update of the list.
+         */
         private static void clearStorage(PList list) {
-            if (EmptySequenceStorage.INSTANCE != list.getSequenceStorage()) {
-                list.setSequenceStorage(EmptySequenceStorage.INSTANCE);
+            setStorage(list, EmptySequenceStorage.INSTANCE);
+        }
+
+        private static void setStorage(PList list, SequenceStorage storage) {
+            boolean locked = list.lock();
+            try {
+                if (storage != list.getSequenceStorage()) {
+                    list.setSequenceStorage(storage);
+                }
+            } finally {
+                list.unlock(locked);
             }
         }
     }
@@ -274,7 +302,12 @@ public class ListBuiltins extends PythonBuiltins {
         @Specialization
         protected Object doGeneric(VirtualFrame frame, PList self, Object key,
                         @Cached("create()") SequenceStorageNodes.DeleteNode deleteNode) {
-            deleteNode.execute(frame, self.getSequenceStorage(), key);
+            boolean locked = self.lock();
+            try {
+                deleteNode.execute(frame, self.getSequenceStorage(), key);
+            } finally {
+                self.unlock(locked);
+            }
             return PNone.NONE;
         }
 
@@ -292,7 +325,12 @@ public class ListBuiltins extends PythonBuiltins {
         @Specialization
         protected Object doScalar(VirtualFrame frame, PList self, Object key,
                         @Cached("createGetItemNode()") SequenceStorageNodes.GetItemNode getItemNode) {
-            return getItemNode.execute(frame, self.getSequenceStorage(), key);
+            boolean locked = self.lock();
+            try {
+                return getItemNode.execute(frame, self.getSequenceStorage(), key);
+            } finally {
+                self.unlock(locked);
+            }
         }
 
         protected static SequenceStorageNodes.GetItemNode createGetItemNode() {
@@ -316,10 +354,40 @@ public class ListBuiltins extends PythonBuiltins {
 
         private final ConditionProfile generalizedProfile = ConditionProfile.createBinaryProfile();
 
+        /**
+         * Assigning a whole list or tuple to {@code l[:]} replaces every element, so the list can
+         * take over a copy of the source storage. Object storages are re-specialized on the way, so
+         * a list that was generalized to object storage gets a primitive storage again after a
+         * homogeneous bulk update.
+         */
+        @Specialization(guards = {"isWholeList(primary, slice)", "canAdoptStorage(primary, value)"})
+        public Object doReplaceAll(PList primary, @SuppressWarnings("unused") PSlice slice, PSequence value,
+                        @Cached("createBinaryProfile()") ConditionProfile objectStorageProfile) {
+            SequenceStorage source = value.getSequenceStorage();
+            SequenceStorage newStorage;
+            if (objectStorageProfile.profile(source instanceof ObjectSequenceStorage)) {
+                newStorage = SequenceStorageFactory.createStorage(((ObjectSequenceStorage) source).getCopyOfInternalArray());
+            } else {
+                newStorage = source.copy();
+            }
+            boolean locked = primary.lock();
+            try {
+                primary.setSequenceStorage(newStorage);
+            } finally {
+                primary.unlock(locked);
+            }
+            return PNone.NONE;
+        }
+
         @Specialization
         public Object doGeneric(VirtualFrame frame, PList primary, Object key, Object value,
                         @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItemNode) {
-            updateStorage(primary, setItemNode.execute(frame, primary.getSequenceStorage(), key, value));
+            boolean locked = primary.lock();
+            try {
+                updateStorage(primary, setItemNode.execute(frame, primary.getSequenceStorage(), key, value));
+            } finally {
+                primary.unlock(locked);
+            }
             return PNone.NONE;
         }
 
@@ -335,6 +403,17 @@ public class ListBuiltins extends PythonBuiltins {
             }
         }
 
+        protected static boolean isWholeList(PList primary, PSlice slice) {
+            int len = primary.getSequenceStorage().length();
+            SliceInfo info = slice.computeIndices(len);
+            return info.step == 1 && info.start == 0 && info.length == len;
+        }
+
+        protected static boolean canAdoptStorage(PList primary, PSequence value) {
+            return (value instanceof PList || value instanceof PTuple) && !(primary.getSequenceStorage() instanceof NativeSequenceStorage) &&
+                            !(value.getSequenceStorage() instanceof NativeSequenceStorage);
+        }
+
         protected static SequenceStorageNodes.SetItemNode createSetItem() {
             return SequenceStorageNodes.SetItemNode.create(NormalizeIndexNode.forListAssign(), () -> ListGeneralizationNode.create());
         }
@@ -367,7 +446,12 @@ public class ListBuiltins extends PythonBuiltins {
         @Specialization
         PNone extendSequence(VirtualFrame frame, PList list, Object iterable,
                         @Cached("createExtend()") SequenceStorageNodes.ExtendNode extendNode) {
-            updateSequenceStorage(list, extendNode.execute(frame, list.getSequenceStorage(), iterable));
+            boolean locked = list.lock();
+            try {
+                updateSequenceStorage(list, extendNode.execute(frame, list.getSequenceStorage(), iterable));
+            } finally {
+                list.unlock(locked);
+            }
             return PNone.NONE;
         }
 
@@ -396,6 +480,21 @@ public class ListBuiltins extends PythonBuiltins {
 
         public abstract PNone execute(VirtualFrame frame, PList list, Object index, Object value);
 
+        /**
+         * The other specializations pick an implementation by the type of the storage, so with
+         * thread-safe collections that choice is made again under the lock of the list.
+         */
+        @Specialization(guards = "list.needsLock()")
+        PNone insertLocked(VirtualFrame frame, PList list, Object index, Object value,
+                        @Cached("createListInsertNode()") ListInsertNode insertNode) {
+            boolean locked = list.lock();
+            try {
+                return insertNode.execute(frame, list, index, value);
+            } finally {
+                list.unlock(locked);
+            }
+        }
+
         @Specialization(guards = "isIntStorage(list)")
         PNone insertIntInt(PList list, int index, int value) {
             IntSequenceStorage target = (IntSequenceStorage) list.getSequenceStorage();
@@ -519,24 +618,29 @@ public class ListBuiltins extends PythonBuiltins {
                         @Cached("create()") SequenceStorageNodes.DeleteNode deleteNode,
                         @Cached("create()") SequenceStorageNodes.LenNode lenNode,
                         @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib) {
-            SequenceStorage listStore = list.getSequenceStorage();
-            int len = lenNode.execute(listStore);
-            ThreadState threadState = null;
-            if (hasFrame.profile(frame != null)) {
-                threadState = PArguments.getThreadState(frame);
-            }
-            for (int i = 0; i < len; i++) {
-                Object object = getItemNode.execute(frame, listStore, i);
-                final boolean hasItem;
+            boolean locked = list.lock();
+            try {
+                SequenceStorage listStore = list.getSequenceStorage();
+                int len = lenNode.execute(listStore);
+                ThreadState threadState = null;
                 if (hasFrame.profile(frame != null)) {
-                    hasItem = lib.equalsWithState(object, value, lib, threadState);
-                } else {
-                    hasItem = lib.equals(object, value, lib);
+                    threadState = PArguments.getThreadState(frame);
                 }
-                if (hasItem) {
-                    deleteNode.execute(frame, listStore, i);
-                    return PNone.NONE;
+                for (int i = 0; i < len; i++) {
+                    Object object = getItemNode.execute(frame, listStore, i);
+                    final boolean hasItem;
+                    if (hasFrame.profile(frame != null)) {
+                        hasItem = lib.equalsWithState(object, value, lib, threadState);
+                    } else {
+                        hasItem = lib.equals(object, value, lib);
+                    }
+                    if (hasItem) {
+                        deleteNode.execute(frame, listStore, i);
+                        return PNone.NONE;
+                    }
                 }
+            } finally {
+                list.unlock(locked);
             }
             throw raise(PythonErrorType.ValueError, NOT_IN_LIST_MESSAGE);
         }
@@ -554,19 +658,29 @@ public class ListBuiltins extends PythonBuiltins {
         @Specialization
         public Object popLast(VirtualFrame frame, PList list, @SuppressWarnings("unused") PNone none,
                         @Cached("createDelete()") SequenceStorageNodes.DeleteNode deleteNode) {
-            SequenceStorage store = list.getSequenceStorage();
-            Object ret = getGetItemNode().execute(frame, store, -1);
-            deleteNode.execute(frame, store, -1);
-            return ret;
+            boolean locked = list.lock();
+            try {
+                SequenceStorage store = list.getSequenceStorage();
+                Object ret = getGetItemNode().execute(frame, store, -1);
+                deleteNode.execute(frame, store, -1);
+                return ret;
+            } finally {
+                list.unlock(locked);
+            }
         }
 
         @Specialization(guards = {"!isNoValue(idx)", "!isPSlice(idx)"})
         public Object doIndex(VirtualFrame frame, PList list, Object idx,
                         @Cached("createDelete()") SequenceStorageNodes.DeleteNode deleteNode) {
-            SequenceStorage store = list.getSequenceStorage();
-            Object ret = getGetItemNode().execute(frame, store, idx);
-            deleteNode.execute(frame, store, idx);
-            return ret;
+            boolean locked = list.lock();
+            try {
+                SequenceStorage store = list.getSequenceStorage();
+                Object ret = getGetItemNode().execute(frame, store, idx);
+                deleteNode.execute(frame, store, idx);
+                return ret;
+            } finally {
+                list.unlock(locked);
+            }
         }
 
         @Fallback
@@ -638,44 +752,79 @@ public class ListBuiltins extends PythonBuiltins {
 
         @Specialization
         int index(VirtualFrame frame, PList self, Object value, @SuppressWarnings("unused") PNone start, @SuppressWarnings("unused") PNone end) {
-            SequenceStorage s = self.getSequenceStorage();
-            return findIndex(frame, s, value, 0, getLength(s));
+            boolean locked = self.lock();
+            try {
+                SequenceStorage s = self.getSequenceStorage();
+                return findIndex(frame, s, value, 0, getLength(s));
+            } finally {
+                self.unlock(locked);
+            }
         }
 
         @Specialization
         int index(VirtualFrame frame, PList self, Object value, long start, @SuppressWarnings("unused") PNone end) {
-            SequenceStorage s = self.getSequenceStorage();
-            return findIndex(frame, s, value, correctIndex(s, start), getLength(s));
+            boolean locked = self.lock();
+            try {
+                SequenceStorage s = self.getSequenceStorage();
+                return findIndex(frame, s, value, correctIndex(s, start), getLength(s));
+            } finally {
+                self.unlock(locked);
+            }
         }
 
         @Specialization
         int index(VirtualFrame frame, PList self, Object value, long start, long end) {
-            SequenceStorage s = self.getSequenceStorage();
-            return findIndex(frame, s, value, correctIndex(s, start), correctIndex(s, end));
+            boolean locked = self.lock();
+            try {
+                SequenceStorage s = self.getSequenceStorage();
+                return findIndex(frame, s, value, correctIndex(s, start), correctIndex(s, end));
+            } finally {
+                self.unlock(locked);
+            }
         }
 
         @Specialization
         int indexPI(VirtualFrame frame, PList self, Object value, PInt start, @SuppressWarnings("unused") PNone end) {
-            SequenceStorage s = self.getSequenceStorage();
-            return findIndex(frame, s, value, correctIndex(s, start), getLength(s));
+            boolean locked = self.lock();
+            try {
+                SequenceStorage s = self.getSequenceStorage();
+                return findIndex(frame, s, value, correctIndex(s, start), getLength(s));
+            } finally {
+                self.unlock(locked);
+            }
         }
 
         @Specialization
         int indexPIPI(VirtualFrame frame, PList self, Object value, PInt start, PInt end) {
-            SequenceStorage s = self.getSequenceStorage();
-            return findIndex(frame, s, value, correctIndex(s, start), correctIndex(s, end));
+            boolean locked = self.lock();
+            try {
+                SequenceStorage s = self.getSequenceStorage();
+                return findIndex(frame, s, value, correctIndex(s, start), correctIndex(s, end));
+            } finally {
+                self.unlock(locked);
+            }
         }
 
         @Specialization
         int indexLPI(VirtualFrame frame, PList self, Object value, long start, PInt end) {
-            SequenceStorage s = self.getSequenceStorage();
-            return findIndex(frame, s, value, correctIndex(s, start), correctIndex(s, end));
+            boolean locked = self.lock();
+            try {
+                SequenceStorage s = self.getSequenceStorage();
+                return findIndex(frame, s, value, correctIndex(s, start), correctIndex(s, end));
+            } finally {
+                self.unlock(locked);
+            }
         }
 
         @Specialization
         int indexPIL(VirtualFrame frame, PList self, Object value, PInt start, Long end) {
-            SequenceStorage s = self.getSequenceStorage();
-            return findIndex(frame, s, value, correctIndex(s, start), correctIndex(s, end));
+            boolean locked = self.lock();
+            try {
+                SequenceStorage s = self.getSequenceStorage();
+                return findIndex(frame, s, value, correctIndex(s, start), correctIndex(s, end));
+            } finally {
+                self.unlock(locked);
+            }
         }
 
         @Specialization
@@ -750,12 +899,17 @@ public class ListBuiltins extends PythonBuiltins {
                         @CachedLibrary("value") PythonObjectLibrary valueLib,
                         @CachedLibrary(limit = "16") PythonObjectLibrary otherLib) {
             long count = 0;
-            SequenceStorage s = self.getSequenceStorage();
-            for (int i = 0; i < lenNode.execute(s); i++) {
-                Object object = getItemNode.execute(frame, s, i);
-                if (valueLib.equals(value, object, otherLib)) {
-                    count++;
+            boolean locked = self.lock();
+            try {
+                SequenceStorage s = self.getSequenceStorage();
+                for (int i = 0; i < lenNode.execute(s); i++) {
+                    Object object = getItemNode.execute(frame, s, i);
+                    if (valueLib.equals(value, object, otherLib)) {
+                        count++;
+                    }
                 }
+            } finally {
+                self.unlock(locked);
             }
             return count;
         }
@@ -769,7 +923,12 @@ public class ListBuiltins extends PythonBuiltins {
 
         @Specialization
         public PNone clear(PList list) {
-            list.setSequenceStorage(EmptySequenceStorage.INSTANCE);
+            boolean locked = list.lock();
+            try {
+                list.setSequenceStorage(EmptySequenceStorage.INSTANCE);
+            } finally {
+                list.unlock(locked);
+            }
             return PNone.NONE;
         }
 
@@ -782,7 +941,12 @@ public class ListBuiltins extends PythonBuiltins {
 
         @Specialization
         PList reverse(PList list) {
-            list.reverse();
+            boolean locked = list.lock();
+            try {
+                list.reverse();
+            } finally {
+                list.unlock(locked);
+            }
             return list;
         }
 
@@ -829,7 +993,12 @@ public class ListBuiltins extends PythonBuiltins {
         @Specialization
         PList extendSequence(VirtualFrame frame, PList list, Object iterable,
                         @Cached("createExtend()") SequenceStorageNodes.ExtendNode extendNode) {
-            updateSequenceStorage(list, extendNode.execute(frame, list.getSequenceStorage(), iterable));
+            boolean locked = list.lock();
+            try {
+                updateSequenceStorage(list, extendNode.execute(frame, list.getSequenceStorage(), iterable));
+            } finally {
+                list.unlock(locked);
+            }
             return list;
         }
 
@@ -877,10 +1046,15 @@ public class ListBuiltins extends PythonBuiltins {
                         @Cached("createBinaryProfile()") ConditionProfile updatedProfile,
                         @Cached("create()") SequenceStorageNodes.RepeatNode repeatNode) {
 
-            SequenceStorage store = list.getSequenceStorage();
-            SequenceStorage updated = repeatNode.execute(frame, store, right);
-            if (updatedProfile.profile(store != updated)) {
-                list.setSequenceStorage(updated);
+            boolean locked = list.lock();
+            try {
+                SequenceStorage store = list.getSequenceStorage();
+                SequenceStorage updated = repeatNode.execute(frame, store, right);
+                if (updatedProfile.profile(store != updated)) {
+                    list.setSequenceStorage(updated);
+                }
+            } finally {
+                list.unlock(locked);
             }
             return list;
         }
@@ -1002,13 +1176,30 @@ public class ListBuiltins extends PythonBuiltins {
         @Specialization
         boolean contains(VirtualFrame frame, PSequence self, Object other,
                         @Cached("create()") SequenceStorageNodes.ContainsNode containsNode) {
-            return containsNode.execute(frame, self.getSequenceStorage(), other);
+            boolean locked = self instanceof PList && ((PList) self).lock();
+            try {
+                return containsNode.execute(frame, self.getSequenceStorage(), other);
+            } finally {
+                if (locked) {
+                    ((PList) self).unlock(true);
+                }
+            }
         }
     }
 
     @Builtin(name = __ITER__, minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
     public abstract static class IterNode extends PythonUnaryBuiltinNode {
+        /**
+         * The primitive iterators hold on to the storage they were created for, which a concurrent
+         * writer may replace or grow underneath them. With thread-safe collections, lists are
+         * therefore iterated by index under the lock of the list.
+         */
+        @Specialization(guards = {"isThreadSafe()"})
+        public PSequenceIterator doPListLocked(PList primary) {
+            return factory().createSequenceIterator(primary);
+        }
+
         @Specialization(guards = {"isIntStorage(primary)"})
         public PIntegerSequenceIterator doPListInt(PList primary) {
             return factory().createIntegerSequenceIterator((IntSequenceStorage) primary.getSequenceStorage());
@@ -1033,5 +1224,9 @@ public class ListBuiltins extends PythonBuiltins {
         Object doGeneric(@SuppressWarnings("unused") Object self) {
             return PNone.NONE;
         }
+
+        protected static boolean isThreadSafe() {
+            return SynchronizedStorage.isActive();
+        }
     }
 }
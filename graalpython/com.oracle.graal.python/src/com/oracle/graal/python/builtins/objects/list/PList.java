@@ -25,12 +25,16 @@
  */
 package com.oracle.graal.python.builtins.objects.list;
 
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.oracle.graal.python.builtins.objects.common.SynchronizedStorage;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
 import com.oracle.graal.python.nodes.literal.ListLiteralNode;
 import com.oracle.graal.python.runtime.sequence.PMutableSequence;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStoreException;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.library.ExportMessage.Ignore;
@@ -41,6 +45,12 @@ public final class PList extends PMutableSequence {
     private final ListLiteralNode origin;
     private SequenceStorage store;
 
+    /**
+     * Serializes accesses to {@link #store} in contexts running with thread-safe collections.
+     * Created on first use, so lists in other contexts do not pay for it.
+     */
+    private volatile ReentrantLock lock;
+
     public PList(LazyPythonClass cls, SequenceStorage store) {
         super(cls);
         this.origin = null;
@@ -80,6 +90,72 @@ public final class PList extends PMutableSequence {
         return buf.toString();
     }
 
+    /**
+     * Takes the lock of this list if the context uses thread-safe collections (see
+     * {@link SynchronizedStorage#isActive()}). Otherwise this does nothing and folds away in
+     * compiled code. Use it like this:
+     *
+     * <pre>
+     * boolean locked = list.lock();
+     * try {
+     *     // access the storage
+     * } finally {
+     *     list.unlock(locked);
+     * }
+     * </pre>
+     *
+     * The lock is reentrant, so callbacks like {@code __eq__} may access the list again.
+     *
+     * @return whether the lock was taken and must be released with {@link #unlock(boolean)}
+     */
+    public final boolean lock() {
+        if (SynchronizedStorage.isActive()) {
+            SynchronizedStorage.acquire(getLock());
+            return true;
+        }
+        return false;
+    }
+
+    public final void unlock(boolean locked) {
+        if (locked) {
+            releaseLock();
+        }
+    }
+
+    /**
+     * Whether the current thread must still {@link #lock()} this list before it may decide
+     * anything based on the type of its storage.
+     */
+    public final boolean needsLock() {
+        return SynchronizedStorage.isActive() && !isLockHeld();
+    }
+
+    @TruffleBoundary
+    private boolean isLockHeld() {
+        return getLock().isHeldByCurrentThread();
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private void releaseLock() {
+        lock.unlock();
+    }
+
+    private ReentrantLock getLock() {
+        ReentrantLock l = lock;
+        if (l == null) {
+            l = createLock();
+        }
+        return l;
+    }
+
+    @TruffleBoundary
+    private synchronized ReentrantLock createLock() {
+        if (lock == null) {
+            lock = new ReentrantLock();
+        }
+        return lock;
+    }
+
     public final void reverse() {
         store.reverse();
     }
@@ -127,7 +127,8 @@ public class PythonObject extends PythonAbstractObject {
 
     @TruffleBoundary
     public final Object getAttribute(Object key) {
-        return getStorage().get(key, PNone.NO_VALUE);
+        Object value = getStorage().get(key, PNone.NO_VALUE);
+        return value == null ? PNone.NO_VALUE : value;
     }
 
     @TruffleBoundary
@@ -252,6 +253,30 @@ public class PythonObject extends PythonAbstractObject {
         return emptyShape;
     }
 
+    /**
+     * Extends the given instance shape with object locations for all given slot keys. Instances
+     * created from the resulting shape already have room for every slot, so writing a slot never
+     * triggers a shape transition. Unwritten locations read as {@code null}, which the attribute
+     * read nodes report as {@link PNone#NO_VALUE}. Slot keys are hidden keys, so the locations are
+     * never seen by {@code __dict__}, {@code dir()} or other readers that list string keys.
+     *
+     * The locations are not specialized to a primitive type, because nothing tells us what a slot
+     * will hold before the first write, so {@code int} and {@code float} slot values are boxed. A
+     * declared location would pick the type on the first write, but it gets there with exactly the
+     * shape transition this is meant to avoid.
+     */
+    @TruffleBoundary
+    public static Shape preallocatedShape(Shape base, HiddenKey[] slotKeys) {
+        Shape shape = base;
+        Shape.Allocator allocator = base.allocator();
+        for (HiddenKey key : slotKeys) {
+            if (!shape.hasProperty(key)) {
+                shape = shape.addProperty(Property.create(key, allocator.locationForType(Object.class), 0));
+            }
+        }
+        return shape;
+    }
+
     public static LazyPythonClass getLazyClassFromObjectType(ObjectType type) {
         return PythonObjectLayoutImpl.INSTANCE.getLazyPythonClass(type);
     }
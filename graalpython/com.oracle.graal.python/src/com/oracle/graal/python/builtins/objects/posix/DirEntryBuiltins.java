@@ -40,7 +40,6 @@
  */
 package com.oracle.graal.python.builtins.objects.posix;
 
-import java.nio.file.LinkOption;
 import java.util.List;
 
 import com.oracle.graal.python.builtins.Builtin;
@@ -66,9 +65,6 @@ import com.oracle.truffle.api.library.CachedLibrary;
 @CoreFunctions(extendClasses = PythonBuiltinClassType.PDirEntry)
 public class DirEntryBuiltins extends PythonBuiltins {
 
-    private static final LinkOption[] NOFOLLOW_LINKS_OPTIONS = new LinkOption[]{LinkOption.NOFOLLOW_LINKS};
-    private static final LinkOption[] NO_LINK_OPTIONS = new LinkOption[0];
-
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
         return DirEntryBuiltinsFactory.getFactories();
@@ -102,16 +98,12 @@ public class DirEntryBuiltins extends PythonBuiltins {
         }
     }
 
-    private static LinkOption[] getLinkOption(boolean followSymlinks) {
-        return followSymlinks ? NO_LINK_OPTIONS : NOFOLLOW_LINKS_OPTIONS;
-    }
-
     @Builtin(name = "is_symlink", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
     abstract static class IsSymNode extends PythonUnaryBuiltinNode {
         @Specialization
         boolean test(PDirEntry self) {
-            return self.getFile().isSymbolicLink();
+            return self.isSymlink();
         }
     }
 
@@ -120,7 +112,7 @@ public class DirEntryBuiltins extends PythonBuiltins {
     abstract static class IsDirNode extends PythonBinaryBuiltinNode {
         @Specialization
         boolean testBool(PDirEntry self, boolean followSymlinks) {
-            return self.getFile().isDirectory(getLinkOption(followSymlinks));
+            return (self.getType(followSymlinks) & PDirEntry.TYPE_DIRECTORY) != 0;
         }
 
         @Specialization
@@ -139,12 +131,27 @@ public class DirEntryBuiltins extends PythonBuiltins {
         }
     }
 
-    @Builtin(name = "is_file", minNumOfPositionalArgs = 1)
+    @Builtin(name = "is_file", minNumOfPositionalArgs = 1, keywordOnlyNames = {"follow_symlinks"}, needsFrame = true)
     @GenerateNodeFactory
-    abstract static class IsFileNode extends PythonUnaryBuiltinNode {
+    abstract static class IsFileNode extends PythonBinaryBuiltinNode {
         @Specialization
-        boolean test(PDirEntry self) {
-            return self.getFile().isRegularFile();
+        boolean testBool(PDirEntry self, boolean followSymlinks) {
+            return (self.getType(followSymlinks) & PDirEntry.TYPE_REGULAR_FILE) != 0;
+        }
+
+        @Specialization
+        boolean testNone(PDirEntry self, @SuppressWarnings("unused") PNone followSymlinks) {
+            return testBool(self, true);
+        }
+
+        @Specialization(limit = "1")
+        boolean testAny(VirtualFrame frame, Object self, Object followSymlinks,
+                        @CachedLibrary("followSymlinks") PythonObjectLibrary lib) {
+            if (self instanceof PDirEntry) {
+                return testBool((PDirEntry) self, lib.isTrueWithState(followSymlinks, PArguments.getThreadState(frame)));
+            } else {
+                throw raise(PythonBuiltinClassType.TypeError, "descriptor 'is_file' requires a 'posix.DirEntry' object but received a '%p'", self);
+            }
         }
     }
 
@@ -153,15 +160,29 @@ public class DirEntryBuiltins extends PythonBuiltins {
     abstract static class StatNode extends PythonBinaryBuiltinNode {
 
         @Specialization
-        Object test(VirtualFrame frame, PDirEntry self, Object followSymlinks,
+        Object statBool(VirtualFrame frame, PDirEntry self, boolean followSymlinks,
                         @Cached("create()") PosixModuleBuiltins.StatNode statNode) {
-            Object statResult = self.getCachedStatResult();
+            Object statResult = self.getCachedStatResult(followSymlinks);
             if (statResult == null) {
                 statResult = statNode.execute(frame, self.getFile().getAbsoluteFile().getPath(), followSymlinks);
-                self.setCachedStatResult(statResult);
+                self.setCachedStatResult(followSymlinks, statResult);
             }
             return statResult;
         }
+
+        @Specialization(guards = "isNoValue(followSymlinks)")
+        Object statNone(VirtualFrame frame, PDirEntry self, @SuppressWarnings("unused") PNone followSymlinks,
+                        @Cached("create()") PosixModuleBuiltins.StatNode statNode) {
+            return statBool(frame, self, true, statNode);
+        }
+
+        @Specialization(replaces = {"statBool", "statNone"}, limit = "1")
+        Object statAny(VirtualFrame frame, PDirEntry self, Object followSymlinks,
+                        @CachedLibrary("followSymlinks") PythonObjectLibrary lib,
+                        @Cached("create()") PosixModuleBuiltins.StatNode statNode) {
+            boolean follow = followSymlinks == PNone.NO_VALUE || lib.isTrueWithState(followSymlinks, PArguments.getThreadState(frame));
+            return statBool(frame, self, follow, statNode);
+        }
     }
 
     @Builtin(name = "path", minNumOfPositionalArgs = 1, isGetter = true)
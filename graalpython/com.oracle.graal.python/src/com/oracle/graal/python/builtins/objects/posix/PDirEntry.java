@@ -40,14 +40,41 @@
  */
 package com.oracle.graal.python.builtins.objects.posix;
 
+import java.io.IOException;
+import java.nio.file.LinkOption;
+import java.util.Arrays;
+import java.util.List;
+
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleFile;
 
 public class PDirEntry extends PythonBuiltinObject {
+    /** The entry does not exist (e.g. a dangling symlink that is followed). */
+    public static final int TYPE_NONE = 0;
+    public static final int TYPE_DIRECTORY = 1;
+    public static final int TYPE_REGULAR_FILE = 2;
+    public static final int TYPE_SYMLINK = 4;
+    private static final int TYPE_UNKNOWN = -1;
+
+    private static final List<TruffleFile.AttributeDescriptor<?>> TYPE_ATTRIBUTES = Arrays.asList(
+                    TruffleFile.IS_DIRECTORY, TruffleFile.IS_REGULAR_FILE, TruffleFile.IS_SYMBOLIC_LINK);
+    private static final LinkOption[] NOFOLLOW_LINKS_OPTIONS = new LinkOption[]{LinkOption.NOFOLLOW_LINKS};
+    private static final LinkOption[] NO_LINK_OPTIONS = new LinkOption[0];
+
     private final TruffleFile file;
     private final String name;
     private Object cachedStatResult;
+    private Object cachedLStatResult;
+
+    /*
+     * The file type of the entry itself (like lstat) and of the symlink target (like stat). Both
+     * are read at most once: is_dir, is_file and is_symlink share a single attribute read and only
+     * symlinks need a second one when following them.
+     */
+    private int linkType = TYPE_UNKNOWN;
+    private int targetType = TYPE_UNKNOWN;
 
     public PDirEntry(LazyPythonClass cls, String name, TruffleFile file) {
         super(cls);
@@ -63,11 +90,65 @@ public class PDirEntry extends PythonBuiltinObject {
         return name;
     }
 
-    public Object getCachedStatResult() {
-        return cachedStatResult;
+    /**
+     * Returns a combination of the {@code TYPE_*} flags for this entry, following a symlink if
+     * {@code followSymlinks} is set. The result is cached.
+     */
+    public int getType(boolean followSymlinks) {
+        int type = linkType;
+        if (type == TYPE_UNKNOWN) {
+            type = linkType = readType(file, NOFOLLOW_LINKS_OPTIONS);
+        }
+        if (!followSymlinks || (type & TYPE_SYMLINK) == 0) {
+            return type;
+        }
+        type = targetType;
+        if (type == TYPE_UNKNOWN) {
+            type = targetType = readType(file, NO_LINK_OPTIONS);
+        }
+        return type;
+    }
+
+    public boolean isSymlink() {
+        return (getType(false) & TYPE_SYMLINK) != 0;
+    }
+
+    @TruffleBoundary
+    private static int readType(TruffleFile file, LinkOption... linkOptions) {
+        TruffleFile.Attributes attributes;
+        try {
+            attributes = file.getAttributes(TYPE_ATTRIBUTES, linkOptions);
+        } catch (IOException | SecurityException e) {
+            // like CPython, an entry that cannot be examined is neither a file nor a directory
+            return TYPE_NONE;
+        }
+        int type = TYPE_NONE;
+        if (attributes.get(TruffleFile.IS_DIRECTORY)) {
+            type |= TYPE_DIRECTORY;
+        }
+        if (attributes.get(TruffleFile.IS_REGULAR_FILE)) {
+            type |= TYPE_REGULAR_FILE;
+        }
+        if (attributes.get(TruffleFile.IS_SYMBOLIC_LINK)) {
+            type |= TYPE_SYMLINK;
+        }
+        return type;
+    }
+
+    public Object getCachedStatResult(boolean followSymlinks) {
+        Object result = followSymlinks ? cachedStatResult : cachedLStatResult;
+        if (result == null && linkType != TYPE_UNKNOWN && (linkType & TYPE_SYMLINK) == 0) {
+            // for anything but a symlink, following it or not makes no difference
+            result = followSymlinks ? cachedLStatResult : cachedStatResult;
+        }
+        return result;
     }
 
-    public void setCachedStatResult(Object cachedStatResult) {
-        this.cachedStatResult = cachedStatResult;
+    public void setCachedStatResult(boolean followSymlinks, Object statResult) {
+        if (followSymlinks) {
+            this.cachedStatResult = statResult;
+        } else {
+            this.cachedLStatResult = statResult;
+        }
     }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.queue;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.nodes.expression.CoerceToBooleanNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CoerceToDoubleNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PSimpleQueue)
+public class SimpleQueueBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SimpleQueueBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "empty", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EmptyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean doEmpty(PSimpleQueue self) {
+            return self.isEmpty();
+        }
+    }
+
+    @Builtin(name = "qsize", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class QSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int doQSize(PSimpleQueue self) {
+            return self.size();
+        }
+    }
+
+    // SimpleQueue.put(item, block=True, timeout=None)
+    @Builtin(name = "put", minNumOfPositionalArgs = 2, parameterNames = {"self", "item", "block", "timeout"})
+    @GenerateNodeFactory
+    abstract static class PutNode extends PythonQuaternaryBuiltinNode {
+        /**
+         * The queue is unbounded, so 'block' and 'timeout' are ignored like in CPython.
+         */
+        @Specialization
+        PNone doPut(PSimpleQueue self, Object item, @SuppressWarnings("unused") Object block, @SuppressWarnings("unused") Object timeout) {
+            self.put(item);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "put_nowait", minNumOfPositionalArgs = 2, parameterNames = {"self", "item"})
+    @GenerateNodeFactory
+    abstract static class PutNoWaitNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone doPut(PSimpleQueue self, Object item) {
+            self.put(item);
+            return PNone.NONE;
+        }
+    }
+
+    // SimpleQueue.get(block=True, timeout=None)
+    @Builtin(name = "get", minNumOfPositionalArgs = 1, parameterNames = {"self", "block", "timeout"})
+    @GenerateNodeFactory
+    abstract static class GetNode extends PythonTernaryBuiltinNode {
+        private static final double MAX_TIMEOUT_SECONDS = Long.MAX_VALUE / 1_000_000.0;
+
+        @Specialization
+        Object doGet(VirtualFrame frame, PSimpleQueue self, Object block, Object timeout,
+                        @Cached("createIfTrueNode()") CoerceToBooleanNode castToBooleanNode,
+                        @Cached CoerceToDoubleNode coerceToDoubleNode,
+                        @Cached("createBinaryProfile()") ConditionProfile fastPathProfile,
+                        @Cached("createBinaryProfile()") ConditionProfile interruptedProfile) {
+            boolean isBlocking = block instanceof PNone || castToBooleanNode.executeBoolean(frame, block);
+            long timeoutMicros = -1;
+            if (isBlocking && !(timeout instanceof PNone)) {
+                double timeoutSeconds = coerceToDoubleNode.execute(frame, timeout);
+                if (timeoutSeconds < 0) {
+                    throw raise(ValueError, "'timeout' must be a non-negative number");
+                } else if (timeoutSeconds > MAX_TIMEOUT_SECONDS) {
+                    throw raise(OverflowError, "timeout value is too large");
+                }
+                timeoutMicros = (long) (timeoutSeconds * 1_000_000);
+            }
+            // try without waiting first, this is the common case of a busy queue
+            Object item = self.poll();
+            if (fastPathProfile.profile(item != null)) {
+                return item;
+            }
+            if (!isBlocking) {
+                throw raise(PythonBuiltinClassType.QueueEmpty);
+            }
+            PythonContext context = getContext();
+            long deadline = timeoutMicros < 0 ? 0 : System.nanoTime() + timeoutMicros * 1000;
+            while (true) {
+                boolean released = context.releaseGil();
+                try {
+                    if (timeoutMicros < 0) {
+                        item = self.take();
+                    } else {
+                        item = self.poll(timeoutMicros);
+                    }
+                } finally {
+                    if (released) {
+                        context.acquireGil();
+                    }
+                }
+                if (item != null) {
+                    return item;
+                }
+                if (!interruptedProfile.profile(PSimpleQueue.isInterrupted())) {
+                    // the timeout elapsed
+                    throw raise(PythonBuiltinClassType.QueueEmpty);
+                }
+                // an interrupt does not mean the queue is empty; the interrupt stays set unless we
+                // wait again
+                if (!context.hasPendingAsyncActions()) {
+                    throw raise(PythonBuiltinClassType.KeyboardInterrupt);
+                }
+                // run the pending actions (e.g. signal handlers, which may raise KeyboardInterrupt);
+                // this also stops the thread if it is cancelled because the context is closed
+                context.triggerAsyncActions(frame, this);
+                PSimpleQueue.clearInterrupted();
+                if (timeoutMicros >= 0) {
+                    timeoutMicros = (deadline - System.nanoTime()) / 1000;
+                    if (timeoutMicros <= 0) {
+                        throw raise(PythonBuiltinClassType.QueueEmpty);
+                    }
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "get_nowait", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetNoWaitNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object doGet(PSimpleQueue self) {
+            Object item = self.poll();
+            if (item == null) {
+                throw raise(PythonBuiltinClassType.QueueEmpty);
+            }
+            return item;
+        }
+    }
+}
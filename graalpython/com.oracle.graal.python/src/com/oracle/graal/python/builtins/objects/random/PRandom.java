@@ -40,54 +40,160 @@
  */
 package com.oracle.graal.python.builtins.objects.random;
 
-import java.util.Random;
+import java.math.BigInteger;
 
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
+/**
+ * A Mersenne Twister (MT19937) generator that produces the same sequences as CPython's
+ * {@code _random.Random} for the same seed. The whole state block is regenerated at once every
+ * {@value #N} outputs; single outputs are only a tempering step on the current block.
+ */
 public class PRandom extends PythonBuiltinObject {
-    private static class PythonRandom extends Random {
-        private static final long serialVersionUID = 1L;
+    public static final int N = 624;
+    private static final int M = 397;
+    private static final int MATRIX_A = 0x9908b0df;
+    private static final int UPPER_MASK = 0x80000000;
+    private static final int LOWER_MASK = 0x7fffffff;
+
+    private final int[] state = new int[N];
+    private int index = N + 1;
+
+    public PRandom(LazyPythonClass cls) {
+        super(cls);
+        seed(System.currentTimeMillis() ^ System.nanoTime());
+    }
 
-        long getSeed() {
-            int nextseed = this.next(48); // 48 magic number of bits shifted away in superclass
-            this.setSeed(nextseed);
-            return nextseed;
+    private void initGenrand(int s) {
+        state[0] = s;
+        for (int i = 1; i < N; i++) {
+            state[i] = 1812433253 * (state[i - 1] ^ (state[i - 1] >>> 30)) + i;
         }
+        index = N;
     }
 
-    private PythonRandom javaRandom;
+    /**
+     * Initializes the state from the given key of 32-bit words, least significant word first.
+     */
+    @TruffleBoundary
+    public void seed(int[] key) {
+        initGenrand(19650218);
+        int i = 1;
+        int j = 0;
+        for (int k = Math.max(N, key.length); k > 0; k--) {
+            state[i] = (state[i] ^ ((state[i - 1] ^ (state[i - 1] >>> 30)) * 1664525)) + key[j] + j;
+            i++;
+            j++;
+            if (i >= N) {
+                state[0] = state[N - 1];
+                i = 1;
+            }
+            if (j >= key.length) {
+                j = 0;
+            }
+        }
+        for (int k = N - 1; k > 0; k--) {
+            state[i] = (state[i] ^ ((state[i - 1] ^ (state[i - 1] >>> 30)) * 1566083941)) - i;
+            i++;
+            if (i >= N) {
+                state[0] = state[N - 1];
+                i = 1;
+            }
+        }
+        state[0] = UPPER_MASK;
+    }
 
-    public PRandom(LazyPythonClass cls) {
-        super(cls);
-        resetJavaRandom();
+    /**
+     * Seeds from the given value interpreted as an unsigned 64-bit integer.
+     */
+    public void seed(long unsignedSeed) {
+        if ((unsignedSeed >>> 32) == 0) {
+            seed(new int[]{(int) unsignedSeed});
+        } else {
+            seed(new int[]{(int) unsignedSeed, (int) (unsignedSeed >>> 32)});
+        }
     }
 
+    /**
+     * Seeds from the given non-negative integer, using all of its bits.
+     */
     @TruffleBoundary
-    public void setSeed(long seed) {
-        javaRandom.setSeed(seed);
+    public void seed(BigInteger nonNegativeSeed) {
+        assert nonNegativeSeed.signum() >= 0;
+        int bits = nonNegativeSeed.bitLength();
+        int[] key = new int[bits == 0 ? 1 : (bits - 1) / 32 + 1];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = nonNegativeSeed.shiftRight(i * 32).intValue();
+        }
+        seed(key);
     }
 
     @TruffleBoundary
-    public long getSeed() {
-        return javaRandom.getSeed();
+    private void generate() {
+        int kk = 0;
+        for (; kk < N - M; kk++) {
+            int y = (state[kk] & UPPER_MASK) | (state[kk + 1] & LOWER_MASK);
+            state[kk] = state[kk + M] ^ (y >>> 1) ^ ((y & 1) * MATRIX_A);
+        }
+        for (; kk < N - 1; kk++) {
+            int y = (state[kk] & UPPER_MASK) | (state[kk + 1] & LOWER_MASK);
+            state[kk] = state[kk + (M - N)] ^ (y >>> 1) ^ ((y & 1) * MATRIX_A);
+        }
+        int y = (state[N - 1] & UPPER_MASK) | (state[0] & LOWER_MASK);
+        state[N - 1] = state[M - 1] ^ (y >>> 1) ^ ((y & 1) * MATRIX_A);
+        index = 0;
     }
 
-    public long nextLong() {
-        return javaRandom.nextLong();
+    /**
+     * Returns the next 32 random bits.
+     */
+    public int nextInt() {
+        if (index >= N) {
+            generate();
+        }
+        int y = state[index++];
+        y ^= y >>> 11;
+        y ^= (y << 7) & 0x9d2c5680;
+        y ^= (y << 15) & 0xefc60000;
+        y ^= y >>> 18;
+        return y;
     }
 
+    /**
+     * Returns a double in [0, 1) with 53 random bits, like CPython's {@code random_random}.
+     */
     public double nextDouble() {
-        return javaRandom.nextDouble();
+        int a = nextInt() >>> 5;
+        int b = nextInt() >>> 6;
+        return (a * 67108864.0 + b) * (1.0 / 9007199254740992.0);
     }
 
-    public Random getJavaRandom() {
-        return javaRandom;
+    /**
+     * Fills {@code words} with random 32-bit words, least significant first, and drops the
+     * surplus high bits of the last word so that the result has exactly {@code k} random bits.
+     */
+    public void nextWords(int[] words, int k) {
+        int remaining = k;
+        for (int i = 0; i < words.length; i++, remaining -= 32) {
+            int r = nextInt();
+            if (remaining < 32) {
+                r >>>= 32 - remaining;
+            }
+            words[i] = r;
+        }
     }
 
-    @TruffleBoundary
-    public void resetJavaRandom() {
-        javaRandom = new PythonRandom();
+    public int[] getState() {
+        return state;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
     }
 }
@@ -74,7 +74,7 @@ public class RandomBuiltins extends PythonBuiltins {
         return RandomBuiltinsFactory.getFactories();
     }
 
-    @Builtin(name = "seed", minNumOfPositionalArgs = 2)
+    @Builtin(name = "seed", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
     public abstract static class SeedNode extends PythonBuiltinNode {
@@ -82,26 +82,26 @@ public class RandomBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         PNone seed(PRandom random, @SuppressWarnings("unused") PNone none) {
-            random.setSeed(System.currentTimeMillis());
+            random.seed(System.currentTimeMillis() ^ System.nanoTime());
             return PNone.NONE;
         }
 
         @Specialization
         PNone seed(PRandom random, long inputSeed) {
-            random.setSeed(inputSeed);
+            // the absolute value of Long.MIN_VALUE is still correct when read as unsigned
+            random.seed(Math.abs(inputSeed));
             return PNone.NONE;
         }
 
         @Specialization
         PNone seed(PRandom random, PInt inputSeed) {
-            random.setSeed(inputSeed.longValue());
+            random.seed(abs(inputSeed.getValue()));
             return PNone.NONE;
         }
 
-        @Specialization
-        PNone seed(PRandom random, double inputSeed) {
-            random.setSeed((long) ((Long.MAX_VALUE - inputSeed) * 412316924));
-            return PNone.NONE;
+        @TruffleBoundary
+        private static BigInteger abs(BigInteger value) {
+            return value.abs();
         }
 
         @Child PythonObjectLibrary objectLib;
@@ -113,8 +113,9 @@ public class RandomBuiltins extends PythonBuiltins {
                     CompilerDirectives.transferToInterpreterAndInvalidate();
                     objectLib = insert(PythonObjectLibrary.getFactory().createDispatched(PythonOptions.getCallSiteInlineCacheMaxDepth()));
                 }
+                // like CPython, other objects are seeded with their hash read as unsigned
                 long hash = objectLib.hashWithState(inputSeed, PArguments.getThreadState(frame));
-                ((PRandom) random).setSeed(hash);
+                ((PRandom) random).seed(hash);
                 return PNone.NONE;
             } else {
                 throw raise(PythonErrorType.TypeError, "descriptor 'seed' requires a '_random.Random' object but received a '%p'", random);
@@ -130,15 +131,61 @@ public class RandomBuiltins extends PythonBuiltins {
         public PNone setstate(PRandom random, PTuple tuple,
                         @Cached GetObjectArrayNode getObjectArrayNode) {
             Object[] arr = getObjectArrayNode.execute(tuple);
-            if (arr.length == 1) {
-                Object object = arr[0];
-                if (object instanceof Long) {
-                    random.resetJavaRandom();
-                    random.setSeed((Long) object);
-                    return PNone.NONE;
+            if (arr.length != PRandom.N + 1) {
+                throw raise(PythonErrorType.ValueError, "state vector is the wrong size");
+            }
+            int[] state = random.getState();
+            int[] newState = new int[PRandom.N];
+            for (int i = 0; i < PRandom.N; i++) {
+                // like CPython, elements are read as C unsigned longs and truncated to 32 bits
+                newState[i] = (int) asUnsignedLong(arr[i]);
+            }
+            long index = asUnsignedLong(arr[PRandom.N]);
+            if (index < 0 || index > PRandom.N) {
+                throw raise(PythonErrorType.ValueError, "invalid state");
+            }
+            System.arraycopy(newState, 0, state, 0, PRandom.N);
+            random.setIndex((int) index);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        public PNone setstate(Object random, Object state) {
+            throw raise(PythonErrorType.TypeError, "state vector must be a tuple");
+        }
+
+        private long asUnsignedLong(Object value) {
+            long result;
+            if (value instanceof Integer) {
+                result = (int) value;
+            } else if (value instanceof Long) {
+                result = (long) value;
+            } else if (value instanceof PInt) {
+                BigInteger bigValue = ((PInt) value).getValue();
+                if (signum(bigValue) < 0) {
+                    throw raise(PythonErrorType.OverflowError, "can't convert negative value to unsigned int");
+                } else if (bitLength(bigValue) > 64) {
+                    throw raise(PythonErrorType.OverflowError, "Python int too large to convert to C unsigned long");
                 }
+                return ((PInt) value).longValue();
+            } else {
+                throw raise(PythonErrorType.TypeError, "state vector items must be integers");
             }
-            throw raise(PythonErrorType.SystemError, "state vector invalid.");
+            if (result < 0) {
+                throw raise(PythonErrorType.OverflowError, "can't convert negative value to unsigned int");
+            }
+            return result;
+        }
+
+        @TruffleBoundary
+        private static int signum(BigInteger value) {
+            return value.signum();
+        }
+
+        @TruffleBoundary
+        private static int bitLength(BigInteger value) {
+            return value.bitLength();
         }
     }
 
@@ -147,9 +194,14 @@ public class RandomBuiltins extends PythonBuiltins {
     public abstract static class GetStateNode extends PythonBuiltinNode {
 
         @Specialization
-        @TruffleBoundary
         public PTuple getstate(PRandom random) {
-            return factory().createTuple(new Object[]{random.getSeed()});
+            int[] state = random.getState();
+            Object[] items = new Object[PRandom.N + 1];
+            for (int i = 0; i < PRandom.N; i++) {
+                items[i] = state[i] & 0xFFFFFFFFL;
+            }
+            items[PRandom.N] = random.getIndex();
+            return factory().createTuple(items);
         }
     }
 
@@ -158,7 +210,6 @@ public class RandomBuiltins extends PythonBuiltins {
     public abstract static class RandomNode extends PythonBuiltinNode {
 
         @Specialization
-        @TruffleBoundary
         public double random(PRandom random) {
             return random.nextDouble();
         }
@@ -168,14 +219,42 @@ public class RandomBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class GetRandBitsNode extends PythonBuiltinNode {
 
-        @TruffleBoundary
-        private static BigInteger createRandomBits(PRandom random, int k) {
-            return new BigInteger(k, random.getJavaRandom());
+        @Specialization(guards = {"k > 0", "k <= 32"})
+        public long getrandbitsWord(PRandom random, int k) {
+            return (random.nextInt() & 0xFFFFFFFFL) >>> (32 - k);
         }
 
-        @Specialization
+        @Specialization(guards = {"k > 32", "k < 64"})
+        public long getrandbitsLong(PRandom random, int k) {
+            long low = random.nextInt() & 0xFFFFFFFFL;
+            long high = (random.nextInt() & 0xFFFFFFFFL) >>> (64 - k);
+            return (high << 32) | low;
+        }
+
+        @Specialization(guards = "k >= 64")
         public PInt getrandbits(PRandom random, int k) {
-            return factory().createInt(createRandomBits(random, k));
+            int[] words = new int[(k - 1) / 32 + 1];
+            random.nextWords(words, k);
+            return factory().createInt(toBigInteger(words));
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "k <= 0")
+        public PInt getrandbitsNonPositive(PRandom random, int k) {
+            throw raise(PythonErrorType.ValueError, "number of bits must be greater than zero");
+        }
+
+        @TruffleBoundary
+        private static BigInteger toBigInteger(int[] words) {
+            byte[] bytes = new byte[words.length * 4];
+            for (int i = 0; i < words.length; i++) {
+                int word = words[words.length - 1 - i];
+                bytes[4 * i] = (byte) (word >>> 24);
+                bytes[4 * i + 1] = (byte) (word >>> 16);
+                bytes[4 * i + 2] = (byte) (word >>> 8);
+                bytes[4 * i + 3] = (byte) word;
+            }
+            return new BigInteger(1, bytes);
         }
     }
 }
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.select;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CoerceToDoubleNode;
+import com.oracle.graal.python.nodes.util.CoerceToFileDescriptorNode;
+import com.oracle.graal.python.nodes.util.CoerceToJavaLongNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PEpoll)
+public class EpollBuiltins extends PythonBuiltins {
+
+    private static final int DEFAULT_EVENT_MASK = PEpoll.EPOLLIN | PEpoll.EPOLLPRI | PEpoll.EPOLLOUT;
+    private static final String CLOSED_MESSAGE = "I/O operation on closed epoll object";
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return EpollBuiltinsFactory.getFactories();
+    }
+
+    private static int getEventMask(Object eventMask, CoerceToJavaLongNode castEventMask) {
+        // the mask is an unsigned int, EPOLLET is the sign bit
+        return eventMask == PNone.NO_VALUE ? DEFAULT_EVENT_MASK : (int) castEventMask.execute(eventMask);
+    }
+
+    // epoll.register(fd, eventmask=EPOLLIN | EPOLLPRI | EPOLLOUT)
+    @Builtin(name = "register", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd", "eventmask"})
+    @GenerateNodeFactory
+    abstract static class RegisterNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PNone register(VirtualFrame frame, PEpoll self, Object fdObj, Object eventMask,
+                        @Cached CoerceToFileDescriptorNode coerceToFD,
+                        @Cached CoerceToJavaLongNode castEventMask) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, CLOSED_MESSAGE);
+            }
+            int fd = coerceToFD.execute(frame, fdObj);
+            int mask = getEventMask(eventMask, castEventMask);
+            boolean registered;
+            try {
+                registered = self.register(fd, getContext().getResources().getFileChannel(fd), mask);
+            } catch (IOException e) {
+                throw raiseOSError(frame, e);
+            }
+            if (!registered) {
+                throw raiseOSError(frame, OSErrorEnum.EEXIST);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    // epoll.modify(fd, eventmask)
+    @Builtin(name = "modify", minNumOfPositionalArgs = 3, parameterNames = {"$self", "fd", "eventmask"})
+    @GenerateNodeFactory
+    abstract static class ModifyNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PNone modify(VirtualFrame frame, PEpoll self, Object fdObj, Object eventMask,
+                        @Cached CoerceToFileDescriptorNode coerceToFD,
+                        @Cached CoerceToJavaLongNode castEventMask) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, CLOSED_MESSAGE);
+            }
+            int fd = coerceToFD.execute(frame, fdObj);
+            if (!self.modify(fd, getEventMask(eventMask, castEventMask))) {
+                throw raiseOSError(frame, OSErrorEnum.ENOENT);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    // epoll.unregister(fd)
+    @Builtin(name = "unregister", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd"})
+    @GenerateNodeFactory
+    abstract static class UnregisterNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone unregister(VirtualFrame frame, PEpoll self, Object fdObj,
+                        @Cached CoerceToFileDescriptorNode coerceToFD) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, CLOSED_MESSAGE);
+            }
+            int fd = coerceToFD.execute(frame, fdObj);
+            boolean unregistered;
+            try {
+                unregistered = self.unregister(fd, getContext().getResources().getFileChannel(fd));
+            } catch (IOException e) {
+                throw raiseOSError(frame, e);
+            }
+            if (!unregistered) {
+                throw raiseOSError(frame, OSErrorEnum.ENOENT);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    // epoll.poll(timeout=None, maxevents=-1)
+    @Builtin(name = "poll", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout", "maxevents"})
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PList poll(VirtualFrame frame, PEpoll self, Object timeout, Object maxEvents,
+                        @Cached CoerceToDoubleNode coerceToDouble,
+                        @Cached CoerceToJavaLongNode castMaxEvents) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, CLOSED_MESSAGE);
+            }
+            long timeoutMillis = -1;
+            if (!(timeout instanceof PNone)) {
+                double seconds = coerceToDouble.execute(frame, timeout);
+                if (seconds >= 0) {
+                    timeoutMillis = (long) Math.ceil(seconds * 1000.0);
+                }
+            }
+            int max = Integer.MAX_VALUE;
+            if (!(maxEvents instanceof PNone)) {
+                long value = castMaxEvents.execute(maxEvents);
+                if (value == 0 || value < -1) {
+                    throw raise(PythonBuiltinClassType.ValueError, "maxevents must be greater than 0, got %d", value);
+                } else if (value > 0) {
+                    max = (int) Math.min(value, Integer.MAX_VALUE);
+                }
+            }
+
+            PythonContext context = getContext();
+            int[] events;
+            try {
+                int[] ready = self.prepare(context.getResources());
+                boolean released = context.releaseGil();
+                try {
+                    // descriptors that are always ready do not wait for the others
+                    self.select(ready.length > 0 ? 0 : timeoutMillis);
+                } finally {
+                    if (released) {
+                        context.acquireGil();
+                    }
+                }
+                events = self.collect(ready, max);
+            } catch (IOException e) {
+                throw raiseOSError(frame, e);
+            }
+
+            Object[] result = new Object[events.length / 2];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = factory().createTuple(new Object[]{events[2 * i], events[2 * i + 1]});
+            }
+            return factory().createList(result);
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PNone close(VirtualFrame frame, PEpoll self) {
+            try {
+                self.close();
+            } catch (IOException e) {
+                throw raiseOSError(frame, e);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean closed(PEpoll self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = __ENTER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EnterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object enter(PEpoll self) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, CLOSED_MESSAGE);
+            }
+            return self;
+        }
+    }
+
+    @Builtin(name = __EXIT__, minNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    abstract static class ExitNode extends PythonBuiltinNode {
+        @Specialization
+        Object exit(VirtualFrame frame, PEpoll self, @SuppressWarnings("unused") Object typ, @SuppressWarnings("unused") Object val, @SuppressWarnings("unused") Object tb) {
+            try {
+                self.close();
+            } catch (IOException e) {
+                throw raiseOSError(frame, e);
+            }
+            return PNone.NONE;
+        }
+    }
+}
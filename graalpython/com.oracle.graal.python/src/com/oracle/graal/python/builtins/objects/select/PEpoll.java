@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.select;
+
+import java.io.IOException;
+import java.nio.channels.Channel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.socket.PSocket;
+import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
+import com.oracle.graal.python.runtime.PosixResources;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * An {@code epoll} object backed by a persistent {@link Selector}. Channels stay registered
+ * between calls to {@link #select}, so waiting on many sockets costs only the ready ones, whereas
+ * {@code select.select} has to build a new selector every time. Like epoll, the selector is level
+ * triggered and a closed channel silently drops out of the interest set.
+ * <p>
+ * Registering a channel, and the selection that deregisters a cancelled key, block while another
+ * thread is in {@link Selector#select()}. Such changes are therefore queued while a thread waits and
+ * applied by the waiting thread, which is woken up for them and then keeps waiting.
+ */
+public final class PEpoll extends PythonBuiltinObject {
+    // the values on Linux
+    public static final int EPOLLIN = 0x001;
+    public static final int EPOLLPRI = 0x002;
+    public static final int EPOLLOUT = 0x004;
+    public static final int EPOLLERR = 0x008;
+    public static final int EPOLLHUP = 0x010;
+    public static final int EPOLLRDNORM = 0x040;
+    public static final int EPOLLRDBAND = 0x080;
+    public static final int EPOLLWRNORM = 0x100;
+    public static final int EPOLLWRBAND = 0x200;
+    public static final int EPOLLMSG = 0x400;
+    public static final int EPOLLRDHUP = 0x2000;
+    public static final int EPOLLEXCLUSIVE = 1 << 28;
+    public static final int EPOLLONESHOT = 1 << 30;
+    public static final int EPOLLET = 1 << 31;
+
+    private static final int READ_EVENTS = EPOLLIN | EPOLLPRI | EPOLLRDNORM | EPOLLRDBAND;
+    private static final int WRITE_EVENTS = EPOLLOUT | EPOLLWRNORM | EPOLLWRBAND;
+
+    private static final int[] NO_EVENTS = new int[0];
+
+    private static final class Registration {
+        private final int fd;
+        private final Channel owner;
+        private int eventMask;
+
+        Registration(int fd, Channel owner, int eventMask) {
+            this.fd = fd;
+            this.owner = owner;
+            this.eventMask = eventMask;
+        }
+    }
+
+    private final Selector selector;
+
+    /** Descriptors whose channel is registered with the selector. */
+    private final HashMap<Integer, SelectionKey> keys = new HashMap<>();
+
+    /**
+     * Descriptors that cannot be selected: files, which are always ready, and sockets that are not
+     * yet connected or listening, which are registered as soon as they have a channel.
+     */
+    private final HashMap<Integer, Registration> unselectable = new HashMap<>();
+
+    /** Descriptors to register with the selector once no thread waits on it. */
+    private final HashMap<Integer, Registration> pending = new HashMap<>();
+
+    /**
+     * Unregistered channels of sockets that are blocking on the Python level, which are made
+     * blocking again once no thread waits on the selector.
+     */
+    private final ArrayList<SelectableChannel> restoreBlocking = new ArrayList<>();
+
+    /** Whether keys were cancelled since the last selection, which still blocks registering them. */
+    private boolean cancelled;
+
+    /** The number of threads in {@link #select}. */
+    private int selecting;
+    private boolean closed;
+
+    public PEpoll(LazyPythonClass cls, Selector selector) {
+        super(cls);
+        this.selector = selector;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @TruffleBoundary
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            keys.clear();
+            unselectable.clear();
+            pending.clear();
+            restoreBlocking.clear();
+            cancelled = false;
+            selector.close();
+        }
+    }
+
+    /**
+     * @return {@code false} if {@code fd} is already registered
+     */
+    @TruffleBoundary
+    public synchronized boolean register(int fd, Channel channel, int eventMask) throws IOException {
+        if (isRegistered(fd)) {
+            return false;
+        }
+        Registration registration = new Registration(fd, channel, eventMask);
+        if (getSelectableChannel(channel) == null) {
+            unselectable.put(fd, registration);
+        } else {
+            pending.put(fd, registration);
+            if (selecting == 0) {
+                applyChanges();
+            } else {
+                wakeup();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code false} if {@code fd} is not registered
+     */
+    @TruffleBoundary
+    public synchronized boolean modify(int fd, int eventMask) {
+        if (!isRegistered(fd)) {
+            return false;
+        }
+        SelectionKey key = keys.get(fd);
+        if (key != null) {
+            ((Registration) key.attachment()).eventMask = eventMask;
+            key.interestOps(toInterestOps(key.channel(), eventMask));
+            wakeup();
+        } else if (pending.containsKey(fd)) {
+            pending.get(fd).eventMask = eventMask;
+        } else {
+            unselectable.get(fd).eventMask = eventMask;
+        }
+        return true;
+    }
+
+    /**
+     * Removes {@code fd} from the interest set. A socket that is blocking on the Python level is
+     * made blocking again, which requires the channel to be deregistered from the selector first.
+     * If another thread waits on the selector meanwhile, that thread does it when it stops waiting;
+     * until then, the socket waits with {@link PSocket#awaitReady}.
+     *
+     * @return {@code false} if {@code fd} is not registered
+     */
+    @TruffleBoundary
+    public synchronized boolean unregister(int fd, Channel channel) throws IOException {
+        if (!isRegistered(fd)) {
+            return false;
+        }
+        SelectionKey key = keys.remove(fd);
+        if (key == null) {
+            if (pending.remove(fd) == null) {
+                unselectable.remove(fd);
+            }
+            return true;
+        }
+        key.cancel();
+        cancelled = true;
+        if (channel instanceof PSocket && ((PSocket) channel).isBlocking()) {
+            restoreBlocking.add(key.channel());
+        }
+        if (selecting == 0) {
+            applyChanges();
+        } else {
+            wakeup();
+        }
+        return true;
+    }
+
+    /**
+     * Deregisters the cancelled keys, makes the unregistered blocking channels blocking again and
+     * registers the pending channels. Must only be called while no thread waits on the selector.
+     *
+     * @return whether anything changed
+     */
+    private boolean applyChanges() throws IOException {
+        assert Thread.holdsLock(this) && selecting == 0;
+        if (closed || (!cancelled && pending.isEmpty())) {
+            return false;
+        }
+        if (cancelled) {
+            // a selection deregisters the cancelled keys
+            selector.selectNow();
+            cancelled = false;
+            for (SelectableChannel channel : restoreBlocking) {
+                try {
+                    channel.configureBlocking(true);
+                } catch (IllegalBlockingModeException e) {
+                    // still registered with another selector
+                }
+            }
+            restoreBlocking.clear();
+        }
+        for (Registration registration : pending.values()) {
+            SelectableChannel channel = getSelectableChannel(registration.owner);
+            if (channel.isOpen()) {
+                keys.put(registration.fd, registerChannel(channel, registration));
+            }
+        }
+        pending.clear();
+        return true;
+    }
+
+    private boolean isRegistered(int fd) {
+        SelectionKey key = keys.get(fd);
+        if (key != null && !key.isValid()) {
+            // the channel was closed
+            keys.remove(fd);
+            return false;
+        }
+        return key != null || pending.containsKey(fd) || unselectable.containsKey(fd);
+    }
+
+    /**
+     * Registers the sockets that got a channel since they were registered and returns the events
+     * of the descriptors that are always ready as pairs of descriptor and event mask. Must be
+     * called before {@link #select} while holding the GIL.
+     */
+    @TruffleBoundary
+    public synchronized int[] prepare(PosixResources resources) throws IOException {
+        if (unselectable.isEmpty()) {
+            return NO_EVENTS;
+        }
+        int[] ready = new int[unselectable.size() * 2];
+        int n = 0;
+        Iterator<Map.Entry<Integer, Registration>> it = unselectable.entrySet().iterator();
+        while (it.hasNext()) {
+            Registration registration = it.next().getValue();
+            Channel channel = resources.getFileChannel(registration.fd);
+            if (channel instanceof PSocket) {
+                SelectableChannel selectable = ((PSocket) channel).getSelectableChannel();
+                if (selectable != null) {
+                    it.remove();
+                    // registered by select
+                    pending.put(registration.fd, new Registration(registration.fd, channel, registration.eventMask));
+                    wakeup();
+                }
+            } else if (channel != null) {
+                // like epoll, regular files are always ready
+                int events = registration.eventMask & (EPOLLIN | EPOLLOUT);
+                if (events != 0) {
+                    ready[n++] = registration.fd;
+                    ready[n++] = events;
+                }
+            }
+        }
+        return Arrays.copyOf(ready, n);
+    }
+
+    /**
+     * Waits for at most {@code timeoutMillis} milliseconds, or forever if it is negative, until a
+     * registered channel is ready. This may be called without holding the GIL. A wait that was
+     * woken up to apply queued changes goes on with the remaining time.
+     */
+    @TruffleBoundary
+    public void select(long timeoutMillis) throws IOException {
+        long deadline = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+        long remaining = timeoutMillis;
+        while (true) {
+            int selected;
+            boolean applied;
+            enterSelect();
+            try {
+                if (remaining < 0) {
+                    selected = selector.select();
+                } else if (remaining == 0) {
+                    selected = selector.selectNow();
+                } else {
+                    selected = selector.select(remaining);
+                }
+            } finally {
+                applied = exitSelect();
+            }
+            if (!applied || selected > 0 || remaining == 0) {
+                return;
+            }
+            if (remaining > 0) {
+                remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private synchronized void enterSelect() throws IOException {
+        if (selecting == 0) {
+            applyChanges();
+        }
+        selecting++;
+    }
+
+    /**
+     * @return whether queued changes were applied
+     */
+    private synchronized boolean exitSelect() throws IOException {
+        selecting--;
+        if (selecting > 0) {
+            if (cancelled || !pending.isEmpty()) {
+                // pass the wakeup on to the next waiting thread, the last one applies the changes
+                selector.wakeup();
+            }
+            return false;
+        }
+        return applyChanges();
+    }
+
+    /**
+     * Returns the events found by {@link #select} together with the already {@code ready} ones as
+     * pairs of descriptor and event mask. At most {@code maxEvents} descriptors are reported; the
+     * others stay selected for the next call.
+     */
+    @TruffleBoundary
+    public synchronized int[] collect(int[] ready, int maxEvents) {
+        int max = Math.min(maxEvents, selector.selectedKeys().size() + ready.length / 2);
+        int n = Math.min(ready.length, max * 2);
+        int[] result = Arrays.copyOf(ready, max * 2);
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+        while (n < result.length && it.hasNext()) {
+            SelectionKey key = it.next();
+            it.remove();
+            if (!key.isValid()) {
+                continue;
+            }
+            Registration registration = (Registration) key.attachment();
+            int events = toEvents(key.readyOps()) & registration.eventMask;
+            if (key.isConnectable() && registration.owner instanceof PSocket) {
+                // the socket becomes writable once the connection is completed
+                ((PSocket) registration.owner).finishConnect();
+                if (!key.isValid()) {
+                    // a failed connection closes the channel
+                    result[n++] = registration.fd;
+                    result[n++] = events | EPOLLERR;
+                    continue;
+                }
+                key.interestOps(toInterestOps(key.channel(), registration.eventMask));
+            }
+            if (events == 0) {
+                continue;
+            }
+            if ((registration.eventMask & EPOLLONESHOT) != 0) {
+                key.interestOps(0);
+            }
+            result[n++] = registration.fd;
+            result[n++] = events;
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private void wakeup() {
+        if (selecting > 0) {
+            // like epoll, let a concurrent wait see the change
+            selector.wakeup();
+        }
+    }
+
+    private SelectionKey registerChannel(SelectableChannel channel, Registration registration) throws IOException {
+        // sockets that are blocking on the Python level wait with PSocket.awaitReady meanwhile
+        channel.configureBlocking(false);
+        return channel.register(selector, toInterestOps(channel, registration.eventMask), registration);
+    }
+
+    private static int toInterestOps(SelectableChannel channel, int eventMask) {
+        int ops = 0;
+        if ((eventMask & READ_EVENTS) != 0) {
+            ops |= SelectionKey.OP_READ | SelectionKey.OP_ACCEPT;
+        }
+        if ((eventMask & WRITE_EVENTS) != 0) {
+            // a socket that is still connecting is writable as soon as it is connected
+            boolean connecting = channel instanceof SocketChannel && ((SocketChannel) channel).isConnectionPending();
+            ops |= connecting ? SelectionKey.OP_CONNECT : SelectionKey.OP_WRITE;
+        }
+        return ops & channel.validOps();
+    }
+
+    private static int toEvents(int readyOps) {
+        int events = 0;
+        if ((readyOps & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0) {
+            events |= EPOLLIN | EPOLLRDNORM;
+        }
+        if ((readyOps & (SelectionKey.OP_WRITE | SelectionKey.OP_CONNECT)) != 0) {
+            events |= EPOLLOUT | EPOLLWRNORM;
+        }
+        return events;
+    }
+
+    /**
+     * Returns the channel to register for a channel from {@link PosixResources}, or {@code null}
+     * if it cannot be selected.
+     */
+    public static SelectableChannel getSelectableChannel(Channel channel) {
+        if (channel instanceof PSocket) {
+            return ((PSocket) channel).getSelectableChannel();
+        } else if (channel instanceof SelectableChannel) {
+            return (SelectableChannel) channel;
+        }
+        return null;
+    }
+}
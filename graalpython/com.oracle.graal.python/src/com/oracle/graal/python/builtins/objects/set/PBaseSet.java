@@ -29,11 +29,13 @@ import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
+import com.oracle.graal.python.builtins.objects.common.SynchronizedStorage;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 public abstract class PBaseSet extends PHashingCollection {
 
-    protected final HashingStorage set;
+    protected HashingStorage set;
 
     public PBaseSet(LazyPythonClass clazz) {
         super(clazz);
@@ -46,16 +48,26 @@ public abstract class PBaseSet extends PHashingCollection {
     }
 
     public final boolean contains(Object key) {
-        return HashingStorageLibrary.getUncached().hasKey(set, key);
+        return HashingStorageLibrary.getUncached().hasKey(getDictStorage(), key);
     }
 
     @Override
     public int size() {
-        return HashingStorageLibrary.getUncached().length(set);
+        return HashingStorageLibrary.getUncached().length(getDictStorage());
     }
 
     @Override
     public HashingStorage getDictStorage() {
+        HashingStorage storage = set;
+        if (SynchronizedStorage.isActive() && SynchronizedStorage.needsWrapping(storage)) {
+            return synchronizeStorage();
+        }
+        return storage;
+    }
+
+    @TruffleBoundary
+    private synchronized HashingStorage synchronizeStorage() {
+        set = SynchronizedStorage.wrap(set);
         return set;
     }
 }
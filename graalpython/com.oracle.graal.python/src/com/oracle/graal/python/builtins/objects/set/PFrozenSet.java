@@ -45,6 +45,12 @@ public class PFrozenSet extends PBaseSet {
         return "frozenset(" + super.toString() + ")";
     }
 
+    @Override
+    public HashingStorage getDictStorage() {
+        // a frozen set is never modified, so it can be shared without synchronization
+        return set;
+    }
+
     @Override
     public void setDictStorage(HashingStorage newStorage) {
         // ignore if storage stays unchanged
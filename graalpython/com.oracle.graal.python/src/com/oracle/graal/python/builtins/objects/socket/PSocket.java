@@ -41,13 +41,19 @@
 package com.oracle.graal.python.builtins.objects.socket;
 
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.HashMap;
 
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -59,8 +65,9 @@ public class PSocket extends PythonBuiltinObject implements Channel {
     public static final int AF_INET = 2;
     public static final int AF_INET6 = 23;
 
-    public static final int SOCK_DGRAM = 1;
-    public static final int SOCK_STREAM = 2;
+    // must match the values in _socket.py
+    public static final int SOCK_STREAM = 1;
+    public static final int SOCK_DGRAM = 2;
 
     public static final int AI_PASSIVE = 1;
     public static final int AI_CANONNAME = 2;
@@ -83,6 +90,15 @@ public class PSocket extends PythonBuiltinObject implements Channel {
 
     public static final int IPPROTO_TCP = 6;
 
+    // must match the value in _socket.py
+    public static final int SO_ERROR = 4;
+
+    /**
+     * The size of the direct buffer each socket keeps for {@code recv}. Larger reads use a
+     * temporary heap buffer.
+     */
+    private static final int RECV_BUFFER_SIZE = 64 * 1024;
+
     @CompilationFinal private static InetSocketAddress EPHEMERAL_ADDRESS;
 
     private static InetSocketAddress getEphemeralAddress() {
@@ -109,7 +125,14 @@ public class PSocket extends PythonBuiltinObject implements Channel {
     private SocketChannel socket;
 
     private ServerSocketChannel serverSocket;
-    private boolean blocking;
+
+    private DatagramChannel datagramSocket;
+
+    private boolean blocking = true;
+
+    private int connectError;
+
+    private ByteBuffer recvBuffer;
 
     private HashMap<Object, Object> options;
 
@@ -169,6 +192,21 @@ public class PSocket extends PythonBuiltinObject implements Channel {
         return socket;
     }
 
+    public DatagramChannel getDatagramSocket() {
+        return datagramSocket;
+    }
+
+    public void setDatagramSocket(DatagramChannel datagramSocket) {
+        if (this.getSocket() != null || this.getServerSocket() != null) {
+            throw new Error();
+        }
+        this.datagramSocket = datagramSocket;
+    }
+
+    public boolean isDatagram() {
+        return type == SOCK_DGRAM;
+    }
+
     public void setServerSocket(ServerSocketChannel serverSocket) {
         if (this.getSocket() != null) {
             throw new Error();
@@ -183,6 +221,58 @@ public class PSocket extends PythonBuiltinObject implements Channel {
         this.socket = socket;
     }
 
+    /**
+     * Returns the channel that currently backs this socket, or {@code null} if the socket is
+     * neither connected, listening nor bound.
+     */
+    public SelectableChannel getSelectableChannel() {
+        if (socket != null) {
+            return socket;
+        } else if (serverSocket != null) {
+            return serverSocket;
+        }
+        return datagramSocket;
+    }
+
+    /**
+     * Whether a non-blocking {@code connect} was started but not yet completed with
+     * {@link #finishConnect}.
+     */
+    @TruffleBoundary
+    public boolean isConnectionPending() {
+        return socket != null && socket.isConnectionPending();
+    }
+
+    /**
+     * Completes a pending connect. In blocking mode, this waits for the connection. A failure is
+     * kept for {@code getsockopt(SOL_SOCKET, SO_ERROR)}.
+     *
+     * @return {@code false} if the connection is still in progress
+     */
+    @TruffleBoundary
+    public boolean finishConnect() {
+        try {
+            return socket.finishConnect();
+        } catch (IOException e) {
+            connectError = (e instanceof ConnectException ? OSErrorEnum.ECONNREFUSED : OSErrorEnum.EIO).getNumber();
+            return true;
+        }
+    }
+
+    /**
+     * Returns and clears the error of the last connect like {@code SO_ERROR} does. A connection
+     * that is still in progress reports no error.
+     */
+    @TruffleBoundary
+    public int takeConnectError() {
+        if (isConnectionPending() && !finishConnect()) {
+            return 0;
+        }
+        int error = connectError;
+        connectError = 0;
+        return error;
+    }
+
     public boolean isBlocking() {
         return blocking;
     }
@@ -191,9 +281,52 @@ public class PSocket extends PythonBuiltinObject implements Channel {
         this.blocking = blocking;
     }
 
+    /**
+     * Switches the channels of this socket to the mode set with {@link #setBlocking}. A channel
+     * that is registered with a selector, e.g. by {@code select.epoll}, cannot be made blocking and
+     * stays non-blocking; blocking operations on it wait with {@link #awaitReady} instead.
+     */
+    @TruffleBoundary
+    public void configureChannels() throws IOException {
+        configureChannel(socket);
+        configureChannel(serverSocket);
+        configureChannel(datagramSocket);
+    }
+
+    private void configureChannel(SelectableChannel channel) throws IOException {
+        if (channel != null) {
+            // registering also takes this lock, so the check cannot be outdated
+            synchronized (channel.blockingLock()) {
+                if (!blocking || !channel.isRegistered()) {
+                    channel.configureBlocking(blocking);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether an operation on {@code channel} that would block must wait with {@link #awaitReady}
+     * because the socket is blocking but the channel is not.
+     */
+    public boolean mustAwait(SelectableChannel channel) {
+        return blocking && !channel.isBlocking();
+    }
+
+    /**
+     * Waits until {@code channel} is ready for the given operations. A temporary selector is used,
+     * since a channel may be registered with several selectors at once.
+     */
+    @TruffleBoundary
+    public static void awaitReady(SelectableChannel channel, int ops) throws IOException {
+        try (Selector selector = Selector.open()) {
+            channel.register(selector, ops & channel.validOps());
+            selector.select();
+        }
+    }
+
     @TruffleBoundary
     public boolean isOpen() {
-        return (getSocket() != null && getSocket().isOpen()) || (getServerSocket() != null && getServerSocket().isOpen());
+        return (getSocket() != null && getSocket().isOpen()) || (getServerSocket() != null && getServerSocket().isOpen()) || (getDatagramSocket() != null && getDatagramSocket().isOpen());
     }
 
     @TruffleBoundary
@@ -202,6 +335,36 @@ public class PSocket extends PythonBuiltinObject implements Channel {
             getSocket().close();
         } else if (getServerSocket() != null) {
             getServerSocket().close();
+        } else if (getDatagramSocket() != null) {
+            getDatagramSocket().close();
+        }
+    }
+
+    /**
+     * Takes this socket's receive buffer, cleared and limited to {@code size} bytes. It must be
+     * handed back with {@link #returnRecvBuffer} when the received bytes have been copied out. If
+     * another thread currently uses the buffer, or {@code size} is too large, a temporary buffer is
+     * returned instead.
+     */
+    @TruffleBoundary
+    public synchronized ByteBuffer takeRecvBuffer(int size) {
+        if (size > RECV_BUFFER_SIZE) {
+            return ByteBuffer.allocate(size);
+        }
+        ByteBuffer buffer = recvBuffer;
+        recvBuffer = null;
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(RECV_BUFFER_SIZE);
+        }
+        buffer.clear();
+        buffer.limit(size);
+        return buffer;
+    }
+
+    @TruffleBoundary
+    public synchronized void returnRecvBuffer(ByteBuffer buffer) {
+        if (buffer.isDirect()) {
+            recvBuffer = buffer;
         }
     }
 
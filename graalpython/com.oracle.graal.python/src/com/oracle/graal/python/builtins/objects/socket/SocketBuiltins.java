@@ -46,10 +46,15 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.NotYetBoundException;
 import java.nio.channels.NotYetConnectedException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.util.Arrays;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
 import com.oracle.graal.python.builtins.Builtin;
@@ -58,6 +63,7 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
@@ -65,7 +71,6 @@ import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectAr
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
-import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallTernaryNode;
@@ -73,8 +78,12 @@ import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -103,9 +112,24 @@ public class SocketBuiltins extends PythonBuiltins {
         @TruffleBoundary
         Object accept(PSocket socket) {
             try {
-                SocketChannel acceptSocket = socket.getServerSocket().accept();
+                SocketChannel acceptSocket;
+                PythonContext context = getContext();
+                ServerSocketChannel serverSocket = socket.getServerSocket();
+                boolean released = context.releaseGil();
+                try {
+                    acceptSocket = serverSocket.accept();
+                    while (acceptSocket == null && socket.mustAwait(serverSocket)) {
+                        PSocket.awaitReady(serverSocket, SelectionKey.OP_ACCEPT);
+                        acceptSocket = serverSocket.accept();
+                    }
+                } finally {
+                    if (released) {
+                        context.acquireGil();
+                    }
+                }
                 if (acceptSocket == null) {
-                    throw raise(PythonBuiltinClassType.OSError);
+                    // a non-blocking socket without pending connections
+                    throw raiseOSError(null, OSErrorEnum.EAGAIN);
                 }
                 SocketAddress addr = acceptSocket.getLocalAddress();
                 if (!acceptSocket.socket().isBound() || addr == null) {
@@ -128,7 +152,7 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class BindNode extends PythonBinaryBuiltinNode {
         @Specialization
-        Object bind(PSocket socket, PTuple address,
+        Object bind(VirtualFrame frame, PSocket socket, PTuple address,
                         @Cached GetObjectArrayNode getObjectArrayNode) {
             Object[] hostAndPort = getObjectArrayNode.execute(address);
 
@@ -140,8 +164,23 @@ public class SocketBuiltins extends PythonBuiltins {
 
             socket.serverHost = (String) hostAndPort[0];
             socket.serverPort = port;
+            if (socket.isDatagram()) {
+                // there is no 'listen' for UDP, so we bind right away
+                try {
+                    bindDatagram(socket);
+                } catch (IOException e) {
+                    throw raiseOSError(frame, OSErrorEnum.EINVAL, e);
+                }
+            }
             return PNone.NONE;
         }
+
+        @TruffleBoundary
+        private static void bindDatagram(PSocket socket) throws IOException {
+            DatagramChannel channel = DatagramChannel.open();
+            channel.bind(createAddress(socket.serverHost, socket.serverPort));
+            socket.setDatagramSocket(channel);
+        }
     }
 
     // close()
@@ -171,6 +210,16 @@ public class SocketBuiltins extends PythonBuiltins {
                 } catch (IOException e) {
                     throw raise(PythonBuiltinClassType.OSError, "Bad file descriptor");
                 }
+            } else if (socket.getDatagramSocket() != null) {
+                if (!socket.getDatagramSocket().isOpen()) {
+                    throw raise(PythonBuiltinClassType.OSError, "Bad file descriptor");
+                }
+
+                try {
+                    socket.getDatagramSocket().close();
+                } catch (IOException e) {
+                    throw raise(PythonBuiltinClassType.OSError, "Bad file descriptor");
+                }
             }
             getContext().getResources().close(socket.getFileno());
             return PNone.NONE;
@@ -182,23 +231,54 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class ConnectNode extends PythonBinaryBuiltinNode {
         @Specialization
-        Object connect(PSocket socket, PTuple address,
+        Object connect(VirtualFrame frame, PSocket socket, PTuple address,
                         @Cached GetObjectArrayNode getObjectArrayNode) {
             Object[] hostAndPort = getObjectArrayNode.execute(address);
+            boolean connected;
             try {
-                doConnect(socket, hostAndPort);
-                return PNone.NONE;
+                connected = doConnect(getContext(), socket, hostAndPort);
             } catch (IOException e) {
                 throw raise(PythonBuiltinClassType.OSError);
             }
+            if (!connected) {
+                throw raiseOSError(frame, OSErrorEnum.EINPROGRESS);
+            }
+            return PNone.NONE;
         }
 
+        /**
+         * @return {@code false} if the socket is non-blocking and the connection is still in
+         *         progress
+         */
         @TruffleBoundary
-        private static void doConnect(PSocket socket, Object[] hostAndPort) throws IOException {
+        private static boolean doConnect(PythonContext context, PSocket socket, Object[] hostAndPort) throws IOException {
             InetSocketAddress socketAddress = new InetSocketAddress((String) hostAndPort[0], (Integer) hostAndPort[1]);
+            if (socket.isDatagram()) {
+                // connecting a UDP socket only fixes the peer for 'send' and 'recv'
+                DatagramChannel datagramChannel = socket.getDatagramSocket();
+                if (datagramChannel == null) {
+                    datagramChannel = DatagramChannel.open();
+                    socket.setDatagramSocket(datagramChannel);
+                }
+                datagramChannel.connect(socketAddress);
+                return true;
+            }
             SocketChannel channel = SocketChannel.open();
-            channel.connect(socketAddress);
+            if (!socket.isBlocking()) {
+                channel.configureBlocking(false);
+                socket.setSocket(channel);
+                return channel.connect(socketAddress);
+            }
+            boolean released = context.releaseGil();
+            try {
+                channel.connect(socketAddress);
+            } finally {
+                if (released) {
+                    context.acquireGil();
+                }
+            }
             socket.setSocket(channel);
+            return true;
         }
     }
 
@@ -247,6 +327,15 @@ public class SocketBuiltins extends PythonBuiltins {
                 }
             }
 
+            if (socket.getDatagramSocket() != null) {
+                try {
+                    InetSocketAddress addr = (InetSocketAddress) socket.getDatagramSocket().getLocalAddress();
+                    return factory().createTuple(new Object[]{addr.getAddress().getHostAddress(), addr.getPort()});
+                } catch (IOException e) {
+                    throw raise(PythonBuiltinClassType.OSError);
+                }
+            }
+
             if (socket.serverHost != null) {
                 return factory().createTuple(new Object[]{socket.serverHost, socket.serverPort});
             }
@@ -269,31 +358,42 @@ public class SocketBuiltins extends PythonBuiltins {
     @Builtin(name = "gettimeout", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
     abstract static class GetTimeoutNode extends PythonUnaryBuiltinNode {
+        // the channel may be non-blocking only because it is registered with a selector, so the
+        // mode is taken from the socket
         @TruffleBoundary
-        private static int getSoTimeout(SocketChannel channel) throws SocketException {
-            return channel.socket().getSoTimeout();
+        private static Object getTimeout(PSocket socket, SocketChannel channel) throws SocketException {
+            return toTimeout(socket.isBlocking(), channel.socket().getSoTimeout());
         }
 
         @TruffleBoundary
-        private static int getSoTimeout(ServerSocketChannel channel) throws IOException {
-            return channel.socket().getSoTimeout();
+        private static Object getTimeout(PSocket socket, ServerSocketChannel channel) throws IOException {
+            return toTimeout(socket.isBlocking(), channel.socket().getSoTimeout());
         }
 
         @Specialization
         Object get(PSocket socket) {
             try {
                 if (socket.getSocket() != null) {
-                    return getSoTimeout(socket.getSocket());
+                    return getTimeout(socket, socket.getSocket());
                 }
 
                 if (socket.getServerSocket() != null) {
-                    return getSoTimeout(socket.getServerSocket());
+                    return getTimeout(socket, socket.getServerSocket());
                 }
             } catch (IOException e) {
                 throw raise(PythonBuiltinClassType.OSError);
             }
             return PNone.NONE;
         }
+
+        private static Object toTimeout(boolean blocking, int soTimeout) {
+            // like CPython, a blocking socket without a timeout reports None and a non-blocking
+            // one 0.0
+            if (!blocking) {
+                return 0.0;
+            }
+            return soTimeout == 0 ? PNone.NONE : soTimeout;
+        }
     }
 
     // listen
@@ -333,20 +433,23 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class RecvNode extends PythonTernaryBuiltinNode {
         @Specialization
-        Object recv(PSocket socket, int bufsize, int flags) {
-            return recv(socket, bufsize, PNone.NONE);
-        }
-
-        @Specialization
-        @TruffleBoundary
-        PBytes recv(PSocket socket, int bufsize, PNone flags) {
-            SocketChannel nativeSocket = socket.getSocket();
-            ByteBuffer readBytes = ByteBuffer.allocate(bufsize);
+        PBytes recv(VirtualFrame frame, PSocket socket, int bufsize, Object flags) {
+            // TODO: do not ignore flags
+            if (bufsize < 0) {
+                throw raise(PythonBuiltinClassType.ValueError, "negative buffersize in recv");
+            }
+            ByteBuffer buffer = socket.takeRecvBuffer(bufsize);
             try {
-                int length = nativeSocket.read(readBytes);
-                return factory().createBytes(Arrays.copyOfRange(readBytes.array(), 0, length));
-            } catch (IOException | NullPointerException e) {
-                throw raise(PythonBuiltinClassType.OSError);
+                if (doRead(getContext(), socket, buffer) == WOULD_BLOCK) {
+                    throw raiseOSError(frame, OSErrorEnum.EAGAIN);
+                }
+                return factory().createBytes(getReceivedBytes(buffer));
+            } catch (NotYetConnectedException e) {
+                throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
+            } catch (IOException e) {
+                throw raiseOSError(frame, OSErrorEnum.EBADF, e);
+            } finally {
+                socket.returnRecvBuffer(buffer);
             }
         }
     }
@@ -356,91 +459,244 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class RecvFromNode extends PythonTernaryBuiltinNode {
         @Specialization
-        Object recvFrom(PSocket socket, int bufsize, int flags) {
-            return PNotImplemented.NOT_IMPLEMENTED;
-        }
-
-        @Specialization
-        Object recvFrom(PSocket socket, int bufsize, PNone flags) {
-            return PNotImplemented.NOT_IMPLEMENTED;
+        PTuple recvFrom(VirtualFrame frame, PSocket socket, int bufsize, Object flags) {
+            // TODO: do not ignore flags
+            if (bufsize < 0) {
+                throw raise(PythonBuiltinClassType.ValueError, "negative buffersize in recvfrom");
+            }
+            ByteBuffer buffer = socket.takeRecvBuffer(bufsize);
+            try {
+                Object address;
+                if (socket.isDatagram()) {
+                    InetSocketAddress from = doReceive(getContext(), socket, buffer);
+                    if (from == null) {
+                        throw raiseOSError(frame, OSErrorEnum.EAGAIN);
+                    }
+                    address = factory().createTuple(new Object[]{getHostAddress(from), getPort(from)});
+                } else {
+                    // like CPython on Linux, a stream socket does not report the peer
+                    if (doRead(getContext(), socket, buffer) == WOULD_BLOCK) {
+                        throw raiseOSError(frame, OSErrorEnum.EAGAIN);
+                    }
+                    address = PNone.NONE;
+                }
+                return factory().createTuple(new Object[]{factory().createBytes(getReceivedBytes(buffer)), address});
+            } catch (NotYetBoundException e) {
+                throw raiseOSError(frame, OSErrorEnum.EINVAL, e);
+            } catch (NotYetConnectedException e) {
+                throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
+            } catch (IOException e) {
+                throw raiseOSError(frame, OSErrorEnum.EBADF, e);
+            } finally {
+                socket.returnRecvBuffer(buffer);
+            }
         }
     }
 
-    // recv_into(bufsize[, flags])
-    @Builtin(name = "recv_into", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 3, needsFrame = true)
+    // recv_into(buffer[, nbytes[, flags]])
+    @Builtin(name = "recv_into", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 4, needsFrame = true)
     @GenerateNodeFactory
-    abstract static class RecvIntoNode extends PythonTernaryBuiltinNode {
-        protected static SequenceStorageNodes.SetItemNode createSetItem() {
-            return SequenceStorageNodes.SetItemNode.create("cannot happen: non-byte store in socket.recv_into");
+    abstract static class RecvIntoNode extends PythonQuaternaryBuiltinNode {
+
+        @Specialization(guards = "isByteStorage(buffer)")
+        int recvIntoByteArray(VirtualFrame frame, PSocket socket, PByteArray buffer, Object nbytes, Object flags,
+                        @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib) {
+            return recvIntoSequence(frame, socket, buffer, nbytes, lib);
+        }
+
+        @Specialization(guards = "isByteStorage(buffer)")
+        int recvIntoArray(VirtualFrame frame, PSocket socket, PArray buffer, Object nbytes, Object flags,
+                        @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib) {
+            return recvIntoSequence(frame, socket, buffer, nbytes, lib);
         }
 
+        /**
+         * Memoryviews and byte arrays that are not backed by a Java byte array. The bytes are
+         * received into the socket's receive buffer and stored item by item.
+         */
         @Specialization
-        Object recvInto(VirtualFrame frame, PSocket socket, PMemoryView buffer, Object flags,
-                        @Cached("createBinaryProfile()") ConditionProfile byteStorage,
+        int recvIntoGeneric(VirtualFrame frame, PSocket socket, Object buffer, Object nbytes, Object flags,
                         @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib,
                         @Cached("create(__LEN__)") LookupAndCallUnaryNode callLen,
                         @Cached("create(__SETITEM__)") LookupAndCallTernaryNode setItem) {
             int bufferLen = lib.asSizeWithState(callLen.executeObject(frame, buffer), PArguments.getThreadState(frame));
-            byte[] targetBuffer = new byte[bufferLen];
-            ByteBuffer byteBuffer = ByteBuffer.wrap(targetBuffer);
-            int length;
+            int len = getRequestedLength(frame, nbytes, bufferLen, lib);
+            ByteBuffer byteBuffer = socket.takeRecvBuffer(len);
+            byte[] received;
             try {
-                length = fillBuffer(socket, byteBuffer);
+                if (doRead(getContext(), socket, byteBuffer) == WOULD_BLOCK) {
+                    throw raiseOSError(frame, OSErrorEnum.EAGAIN);
+                }
+                received = getReceivedBytes(byteBuffer);
             } catch (NotYetConnectedException e) {
                 throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
             } catch (IOException e) {
                 throw raiseOSError(frame, OSErrorEnum.EBADF, e);
+            } finally {
+                socket.returnRecvBuffer(byteBuffer);
             }
-            for (int i = 0; i < length; i++) {
-                int b = targetBuffer[i];
-                if (b < 0) {
-                    b += 256;
-                }
-                setItem.execute(frame, buffer, i, (Object) b);
+            for (int i = 0; i < received.length; i++) {
+                setItem.execute(frame, buffer, i, (Object) (received[i] & 0xff));
             }
-            return length;
+            return received.length;
         }
 
-        @Specialization
-        Object recvInto(VirtualFrame frame, PSocket socket, PByteArray buffer, Object flags,
-                        @Cached("createBinaryProfile()") ConditionProfile byteStorage,
-                        @Cached SequenceStorageNodes.LenNode lenNode,
-                        @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItem) {
-            SequenceStorage storage = buffer.getSequenceStorage();
-            int bufferLen = lenNode.execute(storage);
-            if (byteStorage.profile(storage instanceof ByteSequenceStorage)) {
-                ByteBuffer byteBuffer = ((ByteSequenceStorage) storage).getBufferView();
-                try {
-                    return fillBuffer(socket, byteBuffer);
-                } catch (NotYetConnectedException e) {
-                    throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
-                } catch (IOException e) {
-                    throw raiseOSError(frame, OSErrorEnum.EBADF, e);
+        /**
+         * The bytes are received into the socket's receive buffer with the GIL released and copied
+         * into the storage once the GIL is held again, since another thread may resize the sequence
+         * in the meantime.
+         */
+        private int recvIntoSequence(VirtualFrame frame, PSocket socket, PSequence buffer, Object nbytes, PythonObjectLibrary lib) {
+            int len = getRequestedLength(frame, nbytes, buffer.getSequenceStorage().length(), lib);
+            ByteBuffer byteBuffer = socket.takeRecvBuffer(len);
+            try {
+                if (doRead(getContext(), socket, byteBuffer) == WOULD_BLOCK) {
+                    throw raiseOSError(frame, OSErrorEnum.EAGAIN);
                 }
-            } else {
-                byte[] targetBuffer = new byte[bufferLen];
-                ByteBuffer byteBuffer = ByteBuffer.wrap(targetBuffer);
-                int length;
-                try {
-                    length = fillBuffer(socket, byteBuffer);
-                } catch (NotYetConnectedException e) {
-                    throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
-                } catch (IOException e) {
-                    throw raiseOSError(frame, OSErrorEnum.EBADF, e);
+                SequenceStorage storage = buffer.getSequenceStorage();
+                if (!(storage instanceof ByteSequenceStorage)) {
+                    throw raise(PythonBuiltinClassType.BufferError, "buffer changed size during recv_into");
                 }
-                for (int i = 0; i < length; i++) {
-                    // we don't allow generalization
-                    setItem.execute(frame, storage, i, targetBuffer[i]);
+                int copied = copyReceived(byteBuffer, (ByteSequenceStorage) storage);
+                if (copied < byteBuffer.limit()) {
+                    throw raise(PythonBuiltinClassType.BufferError, "buffer changed size during recv_into");
                 }
-                return length;
+                return copied;
+            } catch (NotYetConnectedException e) {
+                throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
+            } catch (IOException e) {
+                throw raiseOSError(frame, OSErrorEnum.EBADF, e);
+            } finally {
+                socket.returnRecvBuffer(byteBuffer);
             }
         }
 
+        /**
+         * Copies the received bytes into {@code storage}, but never beyond its current length.
+         */
         @TruffleBoundary
-        private static int fillBuffer(PSocket socket, ByteBuffer byteBuffer) throws IOException {
-            SocketChannel nativeSocket = socket.getSocket();
-            return nativeSocket.read(byteBuffer);
+        private static int copyReceived(ByteBuffer received, ByteSequenceStorage storage) {
+            received.flip();
+            int count = Math.min(received.remaining(), storage.length());
+            received.get(storage.getInternalByteArray(), 0, count);
+            return count;
+        }
+
+        private int getRequestedLength(VirtualFrame frame, Object nbytes, int bufferLen, PythonObjectLibrary lib) {
+            if (nbytes instanceof PNone) {
+                return bufferLen;
+            }
+            int len = lib.asSizeWithState(nbytes, PArguments.getThreadState(frame));
+            if (len < 0) {
+                throw raise(PythonBuiltinClassType.ValueError, "negative buffersize in recv_into");
+            } else if (len > bufferLen) {
+                throw raise(PythonBuiltinClassType.ValueError, "buffer too small for requested bytes");
+            }
+            return len == 0 ? bufferLen : len;
+        }
+
+        static boolean isByteStorage(PSequence buffer) {
+            return buffer.getSequenceStorage() instanceof ByteSequenceStorage;
+        }
+    }
+
+    /**
+     * Returned by {@link #doRead} and {@link #doWrite} if a non-blocking socket is not ready.
+     */
+    private static final int WOULD_BLOCK = -1;
+
+    /**
+     * Reads from a stream socket or a datagram socket into {@code buffer} and returns the number of
+     * bytes read. The end of the stream is reported as {@code 0} like CPython does.
+     */
+    @TruffleBoundary
+    private static int doRead(PythonContext context, PSocket socket, ByteBuffer buffer) throws IOException {
+        ReadableByteChannel channel = socket.isDatagram() ? socket.getDatagramSocket() : socket.getSocket();
+        if (channel == null) {
+            throw new NotYetConnectedException();
+        }
+        boolean released = context.releaseGil();
+        try {
+            if (socket.isConnectionPending() && !finishConnect(socket)) {
+                return WOULD_BLOCK;
+            }
+            int read = readOnce(channel, buffer);
+            while (read == WOULD_BLOCK && socket.mustAwait((SelectableChannel) channel)) {
+                PSocket.awaitReady((SelectableChannel) channel, SelectionKey.OP_READ);
+                read = readOnce(channel, buffer);
+            }
+            return read;
+        } finally {
+            if (released) {
+                context.acquireGil();
+            }
+        }
+    }
+
+    /**
+     * Receives a datagram into {@code buffer} and returns the sender, or {@code null} if the socket
+     * is non-blocking and there is no datagram.
+     */
+    @TruffleBoundary
+    private static InetSocketAddress doReceive(PythonContext context, PSocket socket, ByteBuffer buffer) throws IOException {
+        DatagramChannel channel = socket.getDatagramSocket();
+        if (channel == null) {
+            throw new NotYetBoundException();
         }
+        boolean released = context.releaseGil();
+        try {
+            InetSocketAddress from = (InetSocketAddress) channel.receive(buffer);
+            while (from == null && socket.mustAwait(channel)) {
+                PSocket.awaitReady(channel, SelectionKey.OP_READ);
+                from = (InetSocketAddress) channel.receive(buffer);
+            }
+            return from;
+        } finally {
+            if (released) {
+                context.acquireGil();
+            }
+        }
+    }
+
+    @TruffleBoundary
+    private static byte[] getReceivedBytes(ByteBuffer buffer) {
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @TruffleBoundary
+    private static ByteBuffer wrap(byte[] array, int len) {
+        return ByteBuffer.wrap(array, 0, len);
+    }
+
+    /**
+     * Returns a buffer over the bytes in {@code storage}. That is a view of the storage's own array
+     * whenever possible, so the data is not copied before handing it to the channel.
+     */
+    private static ByteBuffer getBufferView(SequenceStorage storage, ConditionProfile byteStorage, SequenceStorageNodes.ToByteArrayNode toBytes) {
+        if (byteStorage.profile(storage instanceof ByteSequenceStorage)) {
+            return wrap(((ByteSequenceStorage) storage).getInternalByteArray(), storage.length());
+        }
+        byte[] bytes = toBytes.execute(storage);
+        return wrap(bytes, bytes.length);
+    }
+
+    @TruffleBoundary
+    private static String getHostAddress(InetSocketAddress address) {
+        return address.getAddress().getHostAddress();
+    }
+
+    @TruffleBoundary
+    private static int getPort(InetSocketAddress address) {
+        return address.getPort();
+    }
+
+    @TruffleBoundary
+    private static InetSocketAddress createAddress(String host, int port) {
+        // an empty host means INADDR_ANY
+        return host.isEmpty() ? new InetSocketAddress(port) : new InetSocketAddress(host, port);
     }
 
     // recvmsg(bufsize[, ancbufsize[, flags]])
@@ -468,31 +724,99 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class SendNode extends PythonTernaryBuiltinNode {
         @Specialization
-        Object send(VirtualFrame frame, PSocket socket, PBytes bytes, Object flags,
+        int send(VirtualFrame frame, PSocket socket, PIBytesLike bytes, Object flags,
+                        @Cached("createBinaryProfile()") ConditionProfile byteStorage,
                         @Cached SequenceStorageNodes.ToByteArrayNode toBytes) {
             // TODO: do not ignore flags
-            if (socket.getSocket() == null) {
-                throw raise(PythonBuiltinClassType.OSError);
-            }
-
             if (!socket.isOpen()) {
                 throw raise(PythonBuiltinClassType.OSError);
             }
 
+            int written;
             try {
-                byte[] storageArray = toBytes.execute(bytes.getSequenceStorage());
-                ByteBuffer buffer = ByteBuffer.wrap(storageArray);
-                doWrite(socket, buffer);
-                return PNone.NONE;
+                written = doWrite(getContext(), socket, getBufferView(bytes.getSequenceStorage(), byteStorage, toBytes));
+            } catch (NotYetConnectedException e) {
+                throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
             } catch (IOException e) {
                 throw raise(PythonBuiltinClassType.OSError);
             }
+            if (written == WOULD_BLOCK) {
+                throw raiseOSError(frame, OSErrorEnum.EAGAIN);
+            }
+            return written;
+        }
+    }
+
+    private static int readOnce(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        if (channel instanceof DatagramChannel && !((DatagramChannel) channel).isConnected()) {
+            int start = buffer.position();
+            if (((DatagramChannel) channel).receive(buffer) == null) {
+                return WOULD_BLOCK;
+            }
+            return buffer.position() - start;
+        }
+        int read = channel.read(buffer);
+        if (read == 0 && buffer.hasRemaining() && !((SelectableChannel) channel).isBlocking()) {
+            return WOULD_BLOCK;
+        }
+        return Math.max(read, 0);
+    }
+
+    /**
+     * Completes a pending connect. A blocking socket waits for the connection even if its channel
+     * is registered with a selector.
+     *
+     * @return {@code false} if the socket is non-blocking and the connection is still in progress
+     */
+    private static boolean finishConnect(PSocket socket) throws IOException {
+        while (!socket.finishConnect()) {
+            if (!socket.mustAwait(socket.getSocket())) {
+                return false;
+            }
+            PSocket.awaitReady(socket.getSocket(), SelectionKey.OP_CONNECT);
         }
+        return true;
     }
 
     @TruffleBoundary
-    private static void doWrite(PSocket socket, ByteBuffer buffer) throws IOException {
-        socket.getSocket().write(buffer);
+    private static int doWrite(PythonContext context, PSocket socket, ByteBuffer buffer) throws IOException {
+        WritableByteChannel channel = socket.isDatagram() ? socket.getDatagramSocket() : socket.getSocket();
+        if (channel == null) {
+            throw new NotYetConnectedException();
+        }
+        boolean released = context.releaseGil();
+        try {
+            if (socket.isConnectionPending() && !finishConnect(socket)) {
+                return WOULD_BLOCK;
+            }
+            int written = channel.write(buffer);
+            while (written == 0 && buffer.hasRemaining() && socket.mustAwait((SelectableChannel) channel)) {
+                PSocket.awaitReady((SelectableChannel) channel, SelectionKey.OP_WRITE);
+                written = channel.write(buffer);
+            }
+            return written == 0 && buffer.hasRemaining() ? WOULD_BLOCK : written;
+        } finally {
+            if (released) {
+                context.acquireGil();
+            }
+        }
+    }
+
+    /**
+     * Writes all of {@code buffer}. A blocking socket waits in {@link #doWrite} with the GIL
+     * released until it is writable again.
+     *
+     * @return {@code false} if the socket is non-blocking and its send buffer is full, in which case
+     *         some of the data may have been sent already, like in CPython
+     */
+    @TruffleBoundary
+    private static boolean doWriteAll(PythonContext context, PSocket socket, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (doWrite(context, socket, buffer) == WOULD_BLOCK) {
+                return false;
+            }
+        }
+        return true;
     }
 
     // sendall(bytes[, flags])
@@ -501,12 +825,16 @@ public class SocketBuiltins extends PythonBuiltins {
     abstract static class SendAllNode extends PythonTernaryBuiltinNode {
         @Specialization
         Object sendAll(VirtualFrame frame, PSocket socket, PIBytesLike bytes, Object flags,
+                        @Cached("createBinaryProfile()") ConditionProfile byteStorage,
                         @Cached SequenceStorageNodes.ToByteArrayNode toBytes) {
             // TODO: do not ignore flags
             try {
-                ByteBuffer buffer = ByteBuffer.wrap(toBytes.execute(bytes.getSequenceStorage()));
-                doWrite(socket, buffer);
+                if (!doWriteAll(getContext(), socket, getBufferView(bytes.getSequenceStorage(), byteStorage, toBytes))) {
+                    throw raiseOSError(frame, OSErrorEnum.EAGAIN);
+                }
                 return PNone.NONE;
+            } catch (NotYetConnectedException e) {
+                throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
             } catch (IOException e) {
                 throw raise(PythonBuiltinClassType.OSError);
             }
@@ -517,15 +845,68 @@ public class SocketBuiltins extends PythonBuiltins {
     // sendto(bytes, flags, address)
     @Builtin(name = "sendto", minNumOfPositionalArgs = 3, maxNumOfPositionalArgs = 4)
     @GenerateNodeFactory
-    abstract static class SendToNode extends PythonBuiltinNode {
+    abstract static class SendToNode extends PythonQuaternaryBuiltinNode {
         @Specialization
-        Object sendTo(PSocket socket, Object bytes, int flags, Object address) {
-            return PNotImplemented.NOT_IMPLEMENTED;
+        int sendTo(VirtualFrame frame, PSocket socket, PIBytesLike bytes, PTuple address, PNone noAddress,
+                        @Cached("createBinaryProfile()") ConditionProfile byteStorage,
+                        @Cached SequenceStorageNodes.ToByteArrayNode toBytes,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @Cached CastToJavaStringNode castToString,
+                        @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib) {
+            return sendTo(frame, socket, bytes, PNone.NO_VALUE, address, byteStorage, toBytes, getObjectArrayNode, castToString, lib);
         }
 
         @Specialization
-        Object sendTo(PSocket socket, Object bytes, PNone flags, Object address) {
-            return PNotImplemented.NOT_IMPLEMENTED;
+        int sendTo(VirtualFrame frame, PSocket socket, PIBytesLike bytes, Object flags, PTuple address,
+                        @Cached("createBinaryProfile()") ConditionProfile byteStorage,
+                        @Cached SequenceStorageNodes.ToByteArrayNode toBytes,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @Cached CastToJavaStringNode castToString,
+                        @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib) {
+            // TODO: do not ignore flags
+            if (!socket.isDatagram()) {
+                throw raiseOSError(frame, OSErrorEnum.EISCONN);
+            }
+            Object[] hostAndPort = getObjectArrayNode.execute(address);
+            if (hostAndPort.length != 2) {
+                throw raise(PythonBuiltinClassType.TypeError, "AF_INET address must be a pair (host, port)");
+            }
+            String host = castToString.execute(hostAndPort[0]);
+            if (host == null) {
+                throw raise(PythonBuiltinClassType.TypeError, "str, bytes or bytearray expected, not %p", hostAndPort[0]);
+            }
+            int port = lib.asSizeWithState(hostAndPort[1], PArguments.getThreadState(frame));
+            if (port >= 65536 || port < 0) {
+                throw raise(PythonBuiltinClassType.OverflowError, "getsockaddrarg: port must be 0-65535.");
+            }
+            try {
+                return doSendTo(getContext(), socket, getBufferView(bytes.getSequenceStorage(), byteStorage, toBytes), createAddress(host, port));
+            } catch (IOException e) {
+                throw raiseOSError(frame, OSErrorEnum.EBADF, e);
+            }
+        }
+
+        @TruffleBoundary
+        private static int doSendTo(PythonContext context, PSocket socket, ByteBuffer buffer, InetSocketAddress address) throws IOException {
+            DatagramChannel channel = socket.getDatagramSocket();
+            if (channel == null) {
+                // like an unbound UDP socket in C, which the first send binds to an ephemeral port
+                channel = DatagramChannel.open();
+                socket.setDatagramSocket(channel);
+            }
+            boolean released = context.releaseGil();
+            try {
+                int sent = channel.send(buffer, address);
+                while (sent == 0 && buffer.hasRemaining() && socket.mustAwait(channel)) {
+                    PSocket.awaitReady(channel, SelectionKey.OP_WRITE);
+                    sent = channel.send(buffer, address);
+                }
+                return sent;
+            } finally {
+                if (released) {
+                    context.acquireGil();
+                }
+            }
         }
     }
 
@@ -546,19 +927,15 @@ public class SocketBuiltins extends PythonBuiltins {
         @TruffleBoundary
         Object setBlocking(PSocket socket, boolean blocking) {
             socket.setBlocking(blocking);
-
             try {
-                if (socket.getSocket() != null) {
-                    socket.getSocket().configureBlocking(socket.isBlocking());
-                }
-
-                if (socket.getServerSocket() != null) {
-                    socket.getServerSocket().configureBlocking(socket.isBlocking());
+                socket.configureChannels();
+                if (blocking && socket.isConnectionPending()) {
+                    // a blocking socket is connected once 'connect' returned
+                    finishConnect(socket);
                 }
             } catch (IOException e) {
                 throw raise(PythonBuiltinClassType.OSError);
             }
-
             return PNone.NONE;
         }
     }
@@ -568,28 +945,40 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class SetTimeoutNode extends PythonBinaryBuiltinNode {
         @Specialization
-        @TruffleBoundary
         Object setTimeout(PSocket socket, Integer value) {
+            // like in CPython, a timeout of zero makes the socket non-blocking
+            return setTimeout(socket, value != 0, value);
+        }
+
+        @Specialization
+        Object setTimeout(PSocket socket, double value) {
+            return setTimeout(socket, value != 0.0, (int) value);
+        }
+
+        @Specialization
+        Object setTimeout(PSocket socket, PNone value) {
+            // no timeout
+            return setTimeout(socket, true, 0);
+        }
+
+        @TruffleBoundary
+        private Object setTimeout(PSocket socket, boolean blocking, int soTimeout) {
             try {
+                socket.setBlocking(blocking);
+                socket.configureChannels();
                 if (socket.getSocket() != null) {
-                    socket.getSocket().socket().setSoTimeout(value);
+                    socket.getSocket().socket().setSoTimeout(soTimeout);
                 }
 
                 if (socket.getServerSocket() != null) {
-                    socket.getServerSocket().socket().setSoTimeout(value);
+                    socket.getServerSocket().socket().setSoTimeout(soTimeout);
                 }
-            } catch (SocketException e) {
+            } catch (IOException e) {
                 throw raise(PythonBuiltinClassType.OSError);
             }
 
             return PNone.NONE;
         }
-
-        @Specialization
-        Object setTimeout(PSocket socket, double value) {
-            Integer intValue = (int) value;
-            return setTimeout(socket, intValue);
-        }
     }
 
     // shutdown(how)
@@ -691,7 +1080,18 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class GetSockOptionNode extends PythonBuiltinNode {
         @Specialization
-        Object setSockOpt(PSocket socket, @SuppressWarnings("unused") Object level, Object option) {
+        Object getSockOpt(PSocket socket, @SuppressWarnings("unused") Object level, int option) {
+            if (option == PSocket.SO_ERROR) {
+                return socket.takeConnectError();
+            }
+            return socket.getSockOpt(option);
+        }
+
+        @Specialization(replaces = "getSockOpt")
+        Object getSockOptGeneric(PSocket socket, Object level, Object option) {
+            if (option instanceof Integer) {
+                return getSockOpt(socket, level, (int) option);
+            }
             return socket.getSockOpt(option);
         }
     }
@@ -42,6 +42,7 @@ package com.oracle.graal.python.builtins.objects.thread;
 
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 public abstract class AbstractPythonLock extends PythonBuiltinObject {
 
@@ -64,15 +65,39 @@ public abstract class AbstractPythonLock extends PythonBuiltinObject {
 
     protected abstract boolean acquireNonBlocking();
 
+    /**
+     * @return {@code false} only if the thread was interrupted while waiting, in which case its
+     *         interrupt flag is set
+     */
     protected abstract boolean acquireBlocking();
 
+    /**
+     * @return {@code false} if the timeout elapsed or the thread was interrupted while waiting, in
+     *         which case its interrupt flag is set
+     */
     protected abstract boolean acquireTimeout(long timeout);
 
     protected boolean acquireTimeout(double timeout) {
         return acquireTimeout(getTimeoutInMillis(timeout));
     }
 
-    public abstract void release();
+    /**
+     * Clears the interrupt flag of the current thread and returns whether it was set.
+     */
+    @TruffleBoundary
+    static boolean clearInterrupted() {
+        return Thread.interrupted();
+    }
+
+    @TruffleBoundary
+    static void interruptCurrentThread() {
+        Thread.currentThread().interrupt();
+    }
+
+    /**
+     * @return {@code false} if the lock was not held (by the current thread, for reentrant locks)
+     */
+    public abstract boolean release();
 
     public abstract boolean locked();
 }
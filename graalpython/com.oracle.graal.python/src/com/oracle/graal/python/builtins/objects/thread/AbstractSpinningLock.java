@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.thread;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Base class for locks that are acquired with a single compare-and-set in the uncontended case.
+ * Subclasses implement that in {@link #tryAcquire()}, which is small enough to be inlined into
+ * compiled code. Only a contended acquire leaves compiled code: it spins for a while, adapting the
+ * number of spins to how often spinning was successful before, and then parks on a condition until
+ * the holder releases the lock. We use a {@link ReentrantLock} rather than a Java monitor for that
+ * because waiting on a monitor pins a virtual thread to its carrier.
+ */
+public abstract class AbstractSpinningLock extends AbstractPythonLock {
+
+    private static final int MIN_SPINS = 16;
+    private static final int MAX_SPINS = 1 << 12;
+
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition released = waitLock.newCondition();
+
+    /** Only modified while holding {@link #waitLock}. */
+    private volatile int waiters;
+
+    /** A heuristic, so races are harmless. */
+    private int spinLimit = MIN_SPINS * 4;
+
+    // statistics; only updated by the thread that just acquired the lock
+    private long acquisitions;
+    private long contended;
+    private long spinAcquisitions;
+    private long parks;
+
+    AbstractSpinningLock(LazyPythonClass cls) {
+        super(cls);
+    }
+
+    /**
+     * Tries to acquire the lock without blocking. Must be cheap, this is the fast path.
+     */
+    protected abstract boolean tryAcquire();
+
+    @Override
+    protected final boolean acquireNonBlocking() {
+        if (tryAcquire()) {
+            acquisitions++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected final boolean acquireBlocking() {
+        return acquireNonBlocking() || acquireContended(-1);
+    }
+
+    @Override
+    protected final boolean acquireTimeout(long timeout) {
+        return acquireNonBlocking() || acquireContended(timeout);
+    }
+
+    /**
+     * Must be called by subclasses after releasing the lock such that a parked thread can take it.
+     */
+    protected final void wakeWaiter() {
+        if (waiters > 0) {
+            signal();
+        }
+    }
+
+    @TruffleBoundary
+    private void signal() {
+        waitLock.lock();
+        try {
+            released.signal();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    @TruffleBoundary
+    private boolean acquireContended(long timeoutMillis) {
+        long deadline = timeoutMillis < 0 ? 0 : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int limit = spinLimit;
+        for (int i = 0; i < limit; i++) {
+            if (tryAcquire()) {
+                // spinning paid off, try a bit longer next time
+                spinLimit = Math.min(MAX_SPINS, limit * 2);
+                acquisitions++;
+                contended++;
+                spinAcquisitions++;
+                return true;
+            }
+            if ((i & 0xff) == 0xff) {
+                Thread.yield();
+            }
+        }
+        spinLimit = Math.max(MIN_SPINS, limit / 2);
+        return park(deadline, timeoutMillis >= 0);
+    }
+
+    private boolean park(long deadline, boolean timed) {
+        waitLock.lock();
+        try {
+            waiters++;
+            try {
+                // the releasing thread first frees the lock and then checks 'waiters', so we
+                // cannot miss a wakeup after incrementing it
+                while (!tryAcquire()) {
+                    long remaining = 0;
+                    if (timed) {
+                        remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                    }
+                    try {
+                        if (timed) {
+                            released.awaitNanos(remaining);
+                        } else {
+                            released.await();
+                        }
+                    } catch (InterruptedException e) {
+                        // we may have consumed a wakeup meant for someone else
+                        released.signal();
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+                acquisitions++;
+                contended++;
+                parks++;
+                return true;
+            } finally {
+                waiters--;
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of acquisitions, how many of them were contended, and how many of the
+     * contended ones succeeded by spinning or had to park, respectively.
+     */
+    public final long[] getStatistics() {
+        return new long[]{acquisitions, contended, spinAcquisitions, parks};
+    }
+}
@@ -47,9 +47,11 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
@@ -64,6 +66,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.util.CoerceToDoubleNode;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -129,11 +132,66 @@ public class LockBuiltins extends PythonBuiltins {
             // acquire lock
             if (isBlockingProfile.profile(!isBlocking)) {
                 return self.acquireNonBlocking();
+            }
+            if (self.acquireNonBlocking()) {
+                // uncontended, no need to give up the GIL
+                return true;
+            }
+            if (defaultTimeoutProfile.profile(timeoutSeconds == UNSET_TIMEOUT)) {
+                return acquireWaiting(frame, self, -1);
             } else {
-                if (defaultTimeoutProfile.profile(timeoutSeconds == UNSET_TIMEOUT)) {
-                    return self.acquireBlocking();
-                } else {
-                    return self.acquireTimeout(timeoutSeconds);
+                return acquireWaiting(frame, self, (long) (timeoutSeconds * 1_000_000_000));
+            }
+        }
+
+        /**
+         * Waits for the lock with the GIL released. An interrupt does not end the wait, so an
+         * untimed acquire only returns once it holds the lock. If the interrupt was meant to run
+         * async actions, like signal handlers or the cancellation of the thread, they are run and
+         * may raise. Any other interrupt is passed on by setting the flag again once we are done.
+         */
+        private boolean acquireWaiting(VirtualFrame frame, AbstractPythonLock self, long timeoutNanos) {
+            PythonContext context = getContext();
+            long deadline = timeoutNanos < 0 ? 0 : System.nanoTime() + timeoutNanos;
+            long remainingNanos = timeoutNanos;
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    boolean acquired;
+                    boolean released = context.releaseGil();
+                    try {
+                        if (remainingNanos < 0) {
+                            acquired = self.acquireBlocking();
+                        } else {
+                            acquired = self.acquireTimeout(TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+                        }
+                    } finally {
+                        if (released) {
+                            context.acquireGil();
+                        }
+                    }
+                    if (acquired) {
+                        return true;
+                    }
+                    if (!AbstractPythonLock.clearInterrupted()) {
+                        // the timeout elapsed
+                        return false;
+                    }
+                    if (context.hasPendingAsyncActions()) {
+                        context.triggerAsyncActions(frame, this);
+                    } else {
+                        interrupted = true;
+                    }
+                    if (remainingNanos >= 0) {
+                        remainingNanos = deadline - System.nanoTime();
+                        if (remainingNanos <= 0) {
+                            return false;
+                        }
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    AbstractPythonLock.interruptCurrentThread();
                 }
             }
         }
@@ -168,18 +226,26 @@ public class LockBuiltins extends PythonBuiltins {
     abstract static class ReleaseLockNode extends PythonUnaryBuiltinNode {
         @Specialization
         Object doRelease(AbstractPythonLock self) {
-            self.release();
+            if (!self.release()) {
+                throw raise(RuntimeError, getUnlockedMessage(self));
+            }
             return PNone.NONE;
         }
     }
 
+    static String getUnlockedMessage(AbstractPythonLock lock) {
+        return lock instanceof PRLock ? "cannot release un-acquired lock" : "release unlocked lock";
+    }
+
     @Builtin(name = __EXIT__, minNumOfPositionalArgs = 4)
     @GenerateNodeFactory
     abstract static class ExitLockNode extends PythonBuiltinNode {
         @Specialization
         @TruffleBoundary
         Object exit(AbstractPythonLock self, @SuppressWarnings("unused") Object type, @SuppressWarnings("unused") Object value, @SuppressWarnings("unused") Object traceback) {
-            self.release();
+            if (!self.release()) {
+                throw raise(RuntimeError, getUnlockedMessage(self));
+            }
             return PNone.NONE;
         }
     }
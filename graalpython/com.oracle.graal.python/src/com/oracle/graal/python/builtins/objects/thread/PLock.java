@@ -40,59 +40,37 @@
  */
 package com.oracle.graal.python.builtins.objects.thread;
 
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
-public final class PLock extends AbstractPythonLock {
-    private final Semaphore semaphore;
+public final class PLock extends AbstractSpinningLock {
+    private static final int UNLOCKED = 0;
+    private static final int LOCKED = 1;
+
+    private final AtomicInteger state = new AtomicInteger(UNLOCKED);
 
-    @TruffleBoundary
     public PLock(LazyPythonClass cls) {
         super(cls);
-        semaphore = new Semaphore(1);
     }
 
     @Override
-    @TruffleBoundary
-    protected boolean acquireNonBlocking() {
-        return semaphore.tryAcquire();
+    protected boolean tryAcquire() {
+        return state.get() == UNLOCKED && state.compareAndSet(UNLOCKED, LOCKED);
     }
 
     @Override
-    @TruffleBoundary
-    protected boolean acquireBlocking() {
-        try {
-            semaphore.acquire();
-            return true;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    public boolean release() {
+        // a lock may be released by any thread
+        if (!state.compareAndSet(LOCKED, UNLOCKED)) {
             return false;
         }
+        wakeWaiter();
+        return true;
     }
 
     @Override
-    @TruffleBoundary
-    protected boolean acquireTimeout(long timeout) {
-        try {
-            return semaphore.tryAcquire(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return false;
-        }
-    }
-
-    @Override
-    @TruffleBoundary
-    public void release() {
-        semaphore.release();
-    }
-
-    @Override
-    @TruffleBoundary
     public boolean locked() {
-        return semaphore.availablePermits() == 0;
+        return state.get() == LOCKED;
     }
 }
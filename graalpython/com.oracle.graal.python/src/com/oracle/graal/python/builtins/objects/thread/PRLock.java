@@ -40,83 +40,76 @@
  */
 package com.oracle.graal.python.builtins.objects.thread;
 
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
-public final class PRLock extends AbstractPythonLock {
-    private class InternalReentrantLock extends ReentrantLock {
-        private static final long serialVersionUID = 2531000884985514112L;
+public final class PRLock extends AbstractSpinningLock {
+    private final AtomicReference<Thread> owner = new AtomicReference<>();
 
-        @TruffleBoundary
-        long getOwnerId() {
-            Thread owner = getOwner();
-            if (owner != null) {
-                return owner.getId();
-            }
-            return 0;
-        }
-    }
-
-    private final InternalReentrantLock lock;
+    /** Only accessed by the owning thread. */
+    private int count;
 
     public PRLock(LazyPythonClass cls) {
         super(cls);
-        this.lock = new InternalReentrantLock();
     }
 
     public boolean isOwned() {
-        return lock.isHeldByCurrentThread();
+        return owner.get() == Thread.currentThread();
     }
 
     public int getCount() {
-        return lock.getHoldCount();
+        return isOwned() ? count : 0;
     }
 
+    @TruffleBoundary
     public long getOwnerId() {
-        return lock.getOwnerId();
+        Thread thread = owner.get();
+        if (thread != null) {
+            return thread.getId();
+        }
+        return 0;
     }
 
     public void releaseAll() {
-        while (lock.getHoldCount() > 0) {
-            lock.unlock();
+        if (isOwned()) {
+            count = 0;
+            owner.set(null);
+            wakeWaiter();
         }
     }
 
     @Override
-    @TruffleBoundary
-    protected boolean acquireNonBlocking() {
-        return lock.tryLock();
-    }
-
-    @Override
-    @TruffleBoundary
-    protected boolean acquireBlocking() {
-        lock.lock();
-        return true;
+    protected boolean tryAcquire() {
+        Thread current = Thread.currentThread();
+        Thread holder = owner.get();
+        if (holder == current) {
+            // reentrant acquire by the owner does not need any atomic operation
+            count++;
+            return true;
+        }
+        if (holder == null && owner.compareAndSet(null, current)) {
+            count = 1;
+            return true;
+        }
+        return false;
     }
 
     @Override
-    @TruffleBoundary
-    protected boolean acquireTimeout(long timeout) {
-        try {
-            return lock.tryLock(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    public boolean release() {
+        if (!isOwned()) {
             return false;
         }
-    }
-
-    @Override
-    @TruffleBoundary
-    public void release() {
-        lock.unlock();
+        if (--count == 0) {
+            owner.set(null);
+            wakeWaiter();
+        }
+        return true;
     }
 
     @Override
     public boolean locked() {
-        return lock.isLocked();
+        return owner.get() != null;
     }
 }
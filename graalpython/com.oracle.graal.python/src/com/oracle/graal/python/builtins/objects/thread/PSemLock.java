@@ -95,8 +95,9 @@ public final class PSemLock extends AbstractPythonLock {
 
     @Override
     @TruffleBoundary
-    public void release() {
+    public boolean release() {
         semaphore.release();
+        return true;
     }
 
     @Override
@@ -47,6 +47,7 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.thread.LockBuiltins.AcquireLockNode;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
@@ -55,6 +56,7 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PythonBuiltinClassType.PRLock)
@@ -77,10 +79,9 @@ public class RLockBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class AcquireRestoreRLockNode extends PythonUnaryBuiltinNode {
         @Specialization
-        Object acquireRestore(PRLock self) {
-            if (!self.acquireNonBlocking()) {
-                self.acquireBlocking();
-            }
+        Object acquireRestore(VirtualFrame frame, PRLock self,
+                        @Cached AcquireLockNode acquireLockNode) {
+            acquireLockNode.execute(frame, self, PNone.NO_VALUE, PNone.NO_VALUE);
             return PNone.NONE;
         }
     }
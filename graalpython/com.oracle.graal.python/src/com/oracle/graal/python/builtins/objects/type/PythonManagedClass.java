@@ -29,6 +29,7 @@ import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DOC__;
 import static com.oracle.graal.python.nodes.SpecialAttributeNames.__NAME__;
 import static com.oracle.graal.python.nodes.SpecialAttributeNames.__QUALNAME__;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Set;
 import java.util.WeakHashMap;
@@ -36,6 +37,7 @@ import java.util.WeakHashMap;
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.cext.PythonClassNativeWrapper;
+import com.oracle.graal.python.builtins.objects.getsetdescriptor.HiddenKeyDescriptor;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.type.TypeNodes.ComputeMroNode;
 import com.oracle.graal.python.builtins.objects.type.TypeNodes.GetSubclassesNode;
@@ -45,6 +47,7 @@ import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.HiddenKey;
 import com.oracle.truffle.api.object.Shape;
 
 public abstract class PythonManagedClass extends PythonObject implements PythonAbstractClass {
@@ -56,7 +59,7 @@ public abstract class PythonManagedClass extends PythonObject implements PythonA
     private final MroSequenceStorage methodResolutionOrder;
 
     private final Set<PythonAbstractClass> subClasses = Collections.newSetFromMap(new WeakHashMap<PythonAbstractClass, Boolean>());
-    private final Shape instanceShape;
+    @CompilationFinal private Shape instanceShape;
     private final FlagsContainer flags;
 
     /** {@code true} if the MRO contains a native class. */
@@ -122,6 +125,38 @@ public abstract class PythonManagedClass extends PythonObject implements PythonA
         return instanceShape;
     }
 
+    /**
+     * Gives instances of this class a shape that already contains the storage locations of all
+     * {@code __slots__} declared along the MRO. Base class slots come first, so the instance shape
+     * of a subclass extends the layout of its bases. Must be called before the first instance is
+     * created.
+     *
+     * Classes without slots get no predicted shape. Their attributes are string keys, and a
+     * preallocated but unset string key would show up in {@code __dict__} and {@code dir()} until
+     * every reader filters out unset locations, so allocating at a shape observed after
+     * {@code __init__} is not done.
+     */
+    @TruffleBoundary
+    public void preallocateSlots() {
+        ArrayList<HiddenKey> slotKeys = new ArrayList<>();
+        MroSequenceStorage mro = getMethodResolutionOrder();
+        for (int i = mro.length() - 1; i >= 0; i--) {
+            PythonAbstractClass cls = mro.getItemNormalized(i);
+            if (cls instanceof PythonManagedClass) {
+                PythonManagedClass managedClass = (PythonManagedClass) cls;
+                for (String name : managedClass.getAttributeNames()) {
+                    Object value = managedClass.getAttribute(name);
+                    if (value instanceof HiddenKeyDescriptor && ((HiddenKeyDescriptor) value).getType() == managedClass) {
+                        slotKeys.add(((HiddenKeyDescriptor) value).getKey());
+                    }
+                }
+            }
+        }
+        if (!slotKeys.isEmpty()) {
+            instanceShape = PythonObject.preallocatedShape(instanceShape, slotKeys.toArray(new HiddenKey[0]));
+        }
+    }
+
     PythonAbstractClass getSuperClass() {
         return getBaseClasses().length > 0 ? getBaseClasses()[0] : null;
     }
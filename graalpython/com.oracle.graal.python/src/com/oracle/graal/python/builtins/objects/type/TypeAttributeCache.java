@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.type;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.oracle.graal.python.runtime.sequence.storage.MroSequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A global cache for attribute lookups in the MRO of a type, like CPython's method cache. It is
+ * used by the generic lookup paths, when inline caches are exhausted.
+ *
+ * Entries are keyed by the version tag of the type's {@link MroSequenceStorage} and the attribute
+ * name. A type only gets a version tag if all classes in its MRO have one, too. Whenever the MRO or
+ * the attributes of a class change, its tag and the tags of all its subclasses are reset, which
+ * makes all entries for these types unreachable.
+ *
+ * Lookups may run concurrently. A result is therefore only stored if the version tag of the MRO,
+ * as returned by {@link #getOrAssignVersionTag} before the lookup, did not change in between.
+ * Assigning and resetting tags is serialized by one lock shared by all caches, because both walk
+ * the class hierarchy. Otherwise a class could get a tag while a base class in its MRO is being
+ * reset, and then keep it after the base was modified.
+ */
+public final class TypeAttributeCache {
+
+    private static final int SIZE_BITS = 12;
+    private static final int SIZE = 1 << SIZE_BITS;
+
+    private static final class Entry {
+        final long versionTag;
+        final String key;
+        final Object value;
+
+        Entry(long versionTag, String key, Object value) {
+            this.versionTag = versionTag;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final Object TAG_LOCK = new Object();
+
+    private final Entry[] entries = new Entry[SIZE];
+    private final AtomicLong nextVersionTag = new AtomicLong(1);
+
+    private static int index(long versionTag, String key) {
+        return (int) (versionTag * 31 + key.hashCode()) & (SIZE - 1);
+    }
+
+    /**
+     * Returns the cached result of looking up {@code key} in the given MRO, or {@code null} if
+     * there is none.
+     */
+    public Object get(MroSequenceStorage mro, String key) {
+        long versionTag = mro.getVersionTag();
+        if (versionTag == 0) {
+            return null;
+        }
+        Entry entry = entries[index(versionTag, key)];
+        if (entry != null && entry.versionTag == versionTag && entry.key.equals(key)) {
+            return entry.value;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the version tag of the given MRO, assigning a new one if necessary, or {@code 0} if
+     * the MRO cannot have one. Must be called before looking up the value passed to {@link #put}.
+     */
+    @TruffleBoundary
+    public long getOrAssignVersionTag(MroSequenceStorage mro) {
+        synchronized (TAG_LOCK) {
+            return assignVersionTag(mro) ? mro.getVersionTag() : 0;
+        }
+    }
+
+    /**
+     * Stores the result of looking up {@code key} in the given MRO, unless the MRO was modified
+     * since {@code versionTag} was obtained from {@link #getOrAssignVersionTag}.
+     */
+    @TruffleBoundary
+    public void put(MroSequenceStorage mro, long versionTag, String key, Object value) {
+        if (versionTag != 0 && mro.getVersionTag() == versionTag) {
+            entries[index(versionTag, key)] = new Entry(versionTag, key, value);
+        }
+    }
+
+    private boolean assignVersionTag(MroSequenceStorage mro) {
+        if (mro.getVersionTag() != 0) {
+            return true;
+        }
+        if (mro.length() == 0) {
+            return false;
+        }
+        // only managed classes track their subclasses, which is needed for invalidation
+        for (int i = 0; i < mro.length(); i++) {
+            PythonAbstractClass cls = mro.getItemNormalized(i);
+            if (!(cls instanceof PythonManagedClass)) {
+                return false;
+            }
+            if (i > 0 && !assignVersionTag(((PythonManagedClass) cls).getMethodResolutionOrder())) {
+                return false;
+            }
+        }
+        mro.setVersionTag(nextVersionTag.getAndIncrement());
+        return true;
+    }
+
+    /**
+     * Resets the version tag of the given MRO and of the MROs of all subclasses of its class.
+     */
+    @TruffleBoundary
+    public static void invalidate(MroSequenceStorage mro) {
+        synchronized (TAG_LOCK) {
+            invalidateLocked(mro);
+        }
+    }
+
+    private static void invalidateLocked(MroSequenceStorage mro) {
+        // a class without a tag has no subclasses with tags, since they are assigned base first
+        if (mro.getVersionTag() != 0) {
+            mro.setVersionTag(0);
+            // if this class had a tag, its subclasses can only have tags if they are managed
+            PythonAbstractClass cls = mro.length() > 0 ? mro.getItemNormalized(0) : null;
+            if (cls instanceof PythonManagedClass) {
+                for (PythonAbstractClass subclass : ((PythonManagedClass) cls).getSubClasses()) {
+                    if (subclass instanceof PythonManagedClass) {
+                        invalidateLocked(((PythonManagedClass) subclass).getMethodResolutionOrder());
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.zlib;
+
+import java.util.zip.Deflater;
+
+import com.oracle.graal.python.builtins.modules.ZLibModuleBuiltins;
+import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+public final class PZLibCompress extends PZLibStream {
+
+    private final Deflater deflater;
+    // the initialization arguments; kept for 'copy'
+    private final int level;
+    private final int wbits;
+    private final int strategy;
+    private final byte[] zdict;
+    private boolean flushed;
+
+    public PZLibCompress(LazyPythonClass clazz, Deflater deflater, int level, int wbits, int strategy, byte[] zdict) {
+        super(clazz);
+        this.deflater = deflater;
+        this.level = level;
+        this.wbits = wbits;
+        this.strategy = strategy;
+        this.zdict = zdict;
+    }
+
+    @TruffleBoundary
+    public static Deflater createDeflater(int level, int wbits, int strategy, byte[] zdict) {
+        // a negative 'wbits' generates a RAW stream, i.e., no zlib header and trailer
+        Deflater deflater = new Deflater(level, wbits < 0);
+        if (strategy == Deflater.FILTERED || strategy == Deflater.HUFFMAN_ONLY) {
+            deflater.setStrategy(strategy);
+        }
+        if (zdict != null) {
+            deflater.setDictionary(zdict);
+        }
+        return deflater;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getWbits() {
+        return wbits;
+    }
+
+    public int getStrategy() {
+        return strategy;
+    }
+
+    public byte[] getZdict() {
+        return zdict;
+    }
+
+    public boolean isFlushed() {
+        return flushed;
+    }
+
+    /**
+     * Compresses the first {@code len} bytes of {@code data}. The input array is consumed
+     * completely before this method returns, so it may be the internal array of a mutable object.
+     */
+    @TruffleBoundary
+    public ByteSequenceStorage compress(byte[] data, int len, int mode) {
+        assert !flushed;
+        deflater.setInput(data, 0, len);
+        boolean finish = mode == ZLibModuleBuiltins.Z_FINISH;
+        int flush;
+        if (finish) {
+            deflater.finish();
+            flush = Deflater.NO_FLUSH;
+        } else if (mode == ZLibModuleBuiltins.Z_NO_FLUSH) {
+            flush = Deflater.NO_FLUSH;
+        } else if (mode == ZLibModuleBuiltins.Z_FULL_FLUSH) {
+            flush = Deflater.FULL_FLUSH;
+        } else {
+            // Z_PARTIAL_FLUSH and Z_BLOCK are not available in Java; a sync flush is the closest
+            flush = Deflater.SYNC_FLUSH;
+        }
+
+        byte[] out = getBuffer();
+        int size = 0;
+        while (true) {
+            if (size == out.length) {
+                out = grow(out, Integer.MAX_VALUE);
+            }
+            size += deflater.deflate(out, size, out.length - size, flush);
+            if (finish ? deflater.finished() : size < out.length && deflater.needsInput()) {
+                break;
+            }
+        }
+
+        if (finish) {
+            deflater.end();
+            flushed = true;
+        }
+        return toStorage(out, size);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.zlib;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+public final class PZLibDecompress extends PZLibStream {
+
+    private final Inflater inflater;
+    private final byte[] zdict;
+    private boolean eof;
+    private byte[] unusedData = EMPTY;
+    private byte[] unconsumedTail = EMPTY;
+
+    public PZLibDecompress(LazyPythonClass clazz, Inflater inflater, byte[] zdict) {
+        super(clazz);
+        this.inflater = inflater;
+        this.zdict = zdict;
+    }
+
+    @TruffleBoundary
+    public static Inflater createInflater(int wbits, byte[] zdict) {
+        // a negative 'wbits' means a RAW stream, i.e., no zlib header and trailer
+        boolean raw = wbits < 0;
+        Inflater inflater = new Inflater(raw);
+        if (raw && zdict != null) {
+            // a zlib stream asks for its dictionary, a raw one must be given it up front
+            inflater.setDictionary(zdict);
+        }
+        return inflater;
+    }
+
+    public boolean isEof() {
+        return eof;
+    }
+
+    public byte[] getUnusedData() {
+        return unusedData;
+    }
+
+    public byte[] getUnconsumedTail() {
+        return unconsumedTail;
+    }
+
+    /**
+     * Decompresses the first {@code len} bytes of {@code data} producing at most {@code maxLength}
+     * bytes (no limit if {@code maxLength == 0}). The input is not copied; only the part the
+     * inflater did not consume is kept as {@code unconsumed_tail} or {@code unused_data}.
+     */
+    @TruffleBoundary
+    public ByteSequenceStorage decompress(byte[] data, int len, int maxLength) throws DataFormatException {
+        inflater.setInput(data, 0, len);
+        ByteSequenceStorage result = inflate(maxLength == 0 ? Integer.MAX_VALUE : maxLength);
+        int remaining = inflater.getRemaining();
+        if (inflater.finished()) {
+            eof = true;
+            if (remaining > 0) {
+                byte[] newUnusedData = Arrays.copyOf(unusedData, unusedData.length + remaining);
+                System.arraycopy(data, len - remaining, newUnusedData, unusedData.length, remaining);
+                unusedData = newUnusedData;
+            }
+            unconsumedTail = EMPTY;
+        } else if (remaining > 0) {
+            unconsumedTail = data == unconsumedTail && remaining == len ? data : Arrays.copyOfRange(data, len - remaining, len);
+        } else {
+            unconsumedTail = EMPTY;
+        }
+        return result;
+    }
+
+    /**
+     * Decompresses whatever is left in {@code unconsumed_tail} without an output limit.
+     */
+    public ByteSequenceStorage flush() throws DataFormatException {
+        byte[] tail = unconsumedTail;
+        return decompress(tail, tail.length, 0);
+    }
+
+    private ByteSequenceStorage inflate(int limit) throws DataFormatException {
+        byte[] out = getBuffer();
+        int size = 0;
+        while (size < limit) {
+            if (size == out.length) {
+                out = grow(out, limit);
+            }
+            int n = inflater.inflate(out, size, Math.min(out.length, limit) - size);
+            size += n;
+            if (n == 0 && inflater.needsDictionary()) {
+                if (zdict == null) {
+                    throw new DataFormatException("Error 2 while decompressing data");
+                }
+                try {
+                    inflater.setDictionary(zdict);
+                } catch (IllegalArgumentException e) {
+                    throw new DataFormatException("Error 2 while decompressing data");
+                }
+            } else if (n == 0 || inflater.finished()) {
+                break;
+            }
+        }
+        return toStorage(out, size);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.zlib;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ZLibError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.ZLibModuleBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes.ToBytesNode;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PZLibCompress)
+public class ZLibCompressBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return ZLibCompressBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "compress", minNumOfPositionalArgs = 2, parameterNames = {"self", "data"})
+    @GenerateNodeFactory
+    @ImportStatic(ZLibModuleBuiltins.class)
+    abstract static class CompressNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "hasByteStorage(data)")
+        PBytes doBytesLike(PZLibCompress self, PIBytesLike data) {
+            // no copy of the input, it is completely consumed by the deflater
+            ByteSequenceStorage storage = (ByteSequenceStorage) data.getSequenceStorage();
+            return compress(self, (byte[]) storage.getInternalArrayObject(), storage.length());
+        }
+
+        @Specialization(guards = "!hasByteStorage(data)")
+        PBytes doGeneric(VirtualFrame frame, PZLibCompress self, Object data,
+                        @Cached ToBytesNode toBytesNode) {
+            byte[] bytes = toBytesNode.execute(frame, data);
+            return compress(self, bytes, bytes.length);
+        }
+
+        private PBytes compress(PZLibCompress self, byte[] data, int len) {
+            if (self.isFlushed()) {
+                throw raise(ZLibError, "compressor object already flushed");
+            }
+            return factory().createBytes(self.compress(data, len, ZLibModuleBuiltins.Z_NO_FLUSH));
+        }
+    }
+
+    @Builtin(name = "flush", minNumOfPositionalArgs = 1, parameterNames = {"self", "mode"})
+    @GenerateNodeFactory
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    abstract static class FlushNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PBytes doDefault(PZLibCompress self, @SuppressWarnings("unused") PNone mode) {
+            return doMode(self, ZLibModuleBuiltins.Z_FINISH);
+        }
+
+        @Specialization
+        PBytes doMode(PZLibCompress self, int mode) {
+            if (self.isFlushed()) {
+                throw raise(ZLibError, "compressor object already flushed");
+            }
+            if (mode == ZLibModuleBuiltins.Z_NO_FLUSH) {
+                return factory().createBytes(PZLibStream.EMPTY);
+            }
+            return factory().createBytes(self.compress(PZLibStream.EMPTY, 0, mode));
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+
+        /**
+         * The Java {@link java.util.zip.Deflater} cannot be cloned, so the copy starts a new stream
+         * with the same parameters.
+         */
+        @Specialization
+        PZLibCompress doCopy(PZLibCompress self) {
+            if (self.isFlushed()) {
+                throw raise(PythonBuiltinClassType.ValueError, "Inconsistent stream state");
+            }
+            return factory().createZLibCompress(PZLibCompress.createDeflater(self.getLevel(), self.getWbits(), self.getStrategy(), self.getZdict()),
+                            self.getLevel(), self.getWbits(), self.getStrategy(), self.getZdict());
+        }
+    }
+}
@@ -239,7 +239,18 @@ public class NodeFactory {
     }
 
     public ExpressionNode createStringLiteral(String value) {
-        return new StringLiteralNode(value);
+        // like CPython, intern constants that look like names, e.g. for getattr(obj, "name")
+        return new StringLiteralNode(isNameLike(value) ? value.intern() : value);
+    }
+
+    private static boolean isNameLike(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public ExpressionNode createFormatStringLiteral(FormatStringLiteralNode.StringPart[] values) {
@@ -225,10 +225,26 @@ public abstract class CreateArgumentsNode extends PNodeWithContext {
                         @Shared("applyPositional") @Cached ApplyPositionalArguments applyPositional,
                         @Shared("fillDefaultsNode") @Cached FillDefaultsNode fillDefaultsNode,
                         @Shared("fillKwDefaultsNode") @Cached FillKwDefaultsNode fillKwDefaultsNode) {
+            if (keywords.length == 0 && signature.takesPositionalOnly() && signature.getMaxNumOfPositionalArgs() == userArguments.length + (self != null ? 1 : 0)) {
+                // exact positional match: nothing to check, fill, or collect
+                return createPositionalOnlyArguments(userArguments, self);
+            }
             return createAndCheckArguments(callable, userArguments, userArguments.length, keywords, signature, self, defaults, kwdefaults, methodcall, signature.getMaxNumOfPositionalArgs(),
                             signature.getNumOfRequiredKeywords(), applyPositional, applyKeywords, handleTooManyArgumentsNode, fillDefaultsNode, fillKwDefaultsNode);
         }
 
+        private static Object[] createPositionalOnlyArguments(Object[] args_w, Object self) {
+            if (self != null) {
+                Object[] scope_w = PArguments.create(args_w.length + 1);
+                PArguments.setArgument(scope_w, 0, self);
+                System.arraycopy(args_w, 0, scope_w, PArguments.USER_ARGUMENTS_OFFSET + 1, args_w.length);
+                return scope_w;
+            }
+            Object[] scope_w = PArguments.create(args_w.length);
+            System.arraycopy(args_w, 0, scope_w, PArguments.USER_ARGUMENTS_OFFSET, args_w.length);
+            return scope_w;
+        }
+
         private static Object[] createAndCheckArguments(PythonObject callable, Object[] args_w, int num_args, PKeyword[] keywords, Signature signature, Object self, Object[] defaults,
                         PKeyword[] kwdefaults,
                         boolean methodcall, int co_argcount, int co_kwonlyargcount, ApplyPositionalArguments applyPositional, ApplyKeywordsNode applyKeywords, HandleTooManyArgumentsNode handleTooMany,
@@ -449,6 +465,7 @@ public abstract class CreateArgumentsNode extends PNodeWithContext {
      */
     // TODO qualified name is a workaround for a DSL bug
     @com.oracle.truffle.api.dsl.GenerateUncached
+    @ImportStatic(PythonOptions.class)
     protected abstract static class ApplyKeywordsNode extends PNodeWithContext {
         public abstract Object[] execute(Object callee, Signature calleeSignature, Object[] arguments, PKeyword[] keywords);
 
@@ -460,6 +477,113 @@ public abstract class CreateArgumentsNode extends PNodeWithContext {
             return PArguments.getUserArgumentLength(arguments);
         }
 
+        /**
+         * Keyword names at a call site are constant in the source, so for a given callee the mapping
+         * of keywords to parameter slots is precomputed once. {@code permutation[i]} is the slot of
+         * the i-th keyword, or {@code -1} if the keyword goes into {@code **kwargs}.
+         */
+        @Specialization(guards = {"calleeSignature == cachedSignature", "permutation != null", "namesMatch(keywords, cachedNames)"}, limit = "getVariableArgumentInlineCacheLimit()")
+        @ExplodeLoop
+        Object[] applyPermutation(Object callee, @SuppressWarnings("unused") Signature calleeSignature, Object[] arguments, PKeyword[] keywords,
+                        @Cached PRaiseNode raise,
+                        @SuppressWarnings("unused") @Cached("calleeSignature") Signature cachedSignature,
+                        @Cached(value = "getNames(keywords)", dimensions = 1) String[] cachedNames,
+                        @Cached(value = "computePermutation(cachedSignature, cachedNames)", dimensions = 1) int[] permutation,
+                        @Cached("countUnused(permutation)") int unusedCount) {
+            PKeyword[] unusedKeywords = unusedCount > 0 ? new PKeyword[unusedCount] : null;
+            int k = 0;
+            for (int i = 0; i < permutation.length; i++) {
+                int kwIdx = permutation[i];
+                if (kwIdx == -1) {
+                    unusedKeywords[k++] = keywords[i];
+                } else {
+                    if (PArguments.getArgument(arguments, kwIdx) != null) {
+                        throw raise.raise(PythonBuiltinClassType.TypeError, "%s() got multiple values for argument '%s'", CreateArgumentsNode.getName(callee), cachedNames[i]);
+                    }
+                    PArguments.setArgument(arguments, kwIdx, keywords[i].getValue());
+                }
+            }
+            if (unusedKeywords != null) {
+                PArguments.setKeywordArguments(arguments, unusedKeywords);
+            }
+            return arguments;
+        }
+
+        @ExplodeLoop
+        static boolean namesMatch(PKeyword[] keywords, String[] cachedNames) {
+            if (keywords.length != cachedNames.length) {
+                return false;
+            }
+            for (int i = 0; i < cachedNames.length; i++) {
+                String name = keywords[i].getName();
+                if (name != cachedNames[i] && !name.equals(cachedNames[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        static String[] getNames(PKeyword[] keywords) {
+            String[] names = new String[keywords.length];
+            for (int i = 0; i < keywords.length; i++) {
+                names[i] = keywords[i].getName();
+            }
+            return names;
+        }
+
+        /**
+         * Returns {@code null} if the keywords cannot be applied without raising an error, so that
+         * the error is reported by the generic specializations.
+         */
+        static int[] computePermutation(Signature signature, String[] names) {
+            String[] parameters = signature.getParameterIds();
+            String[] kwNames = signature.getKeywordNames();
+            int positionalOnlyArgIndex = signature.getPositionalOnlyArgIndex();
+            int[] permutation = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                int kwIdx = indexOf(parameters, names[i]);
+                if (kwIdx == -1) {
+                    int kwOnlyIdx = indexOf(kwNames, names[i]);
+                    if (kwOnlyIdx != -1) {
+                        kwIdx = kwOnlyIdx + parameters.length;
+                    }
+                }
+                if (kwIdx != -1 && positionalOnlyArgIndex > -1 && kwIdx < positionalOnlyArgIndex) {
+                    // positional-only parameters cannot be passed by keyword
+                    kwIdx = -1;
+                }
+                if (kwIdx == -1 && !signature.takesVarKeywordArgs()) {
+                    return null;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (names[j].equals(names[i])) {
+                        return null;
+                    }
+                }
+                permutation[i] = kwIdx;
+            }
+            return permutation;
+        }
+
+        private static int indexOf(String[] names, String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        static int countUnused(int[] permutation) {
+            int count = 0;
+            for (int idx : permutation) {
+                if (idx == -1) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
         @Specialization(guards = {"kwLen == keywords.length", "calleeSignature == cachedSignature"})
         @ExplodeLoop
         Object[] applyCached(Object callee, @SuppressWarnings("unused") Signature calleeSignature, Object[] arguments, PKeyword[] keywords,
@@ -513,7 +637,7 @@ public abstract class CreateArgumentsNode extends PNodeWithContext {
             return arguments;
         }
 
-        @Specialization(replaces = "applyCached")
+        @Specialization(replaces = {"applyPermutation", "applyCached"})
         Object[] applyUncached(Object callee, Signature calleeSignature, Object[] arguments, PKeyword[] keywords,
                         @Cached PRaiseNode raise,
                         @Exclusive @Cached SearchNamedParameterNode searchParamNode,
@@ -86,7 +86,12 @@ public abstract class ExecutePositionalStarargsNode extends Node {
     @Specialization
     static Object[] doList(PList starargs,
                     @Exclusive @Cached SequenceStorageNodes.ToArrayNode toArray) {
-        return toArray.execute(starargs.getSequenceStorage());
+        boolean locked = starargs.lock();
+        try {
+            return toArray.execute(starargs.getSequenceStorage());
+        } finally {
+            starargs.unlock(locked);
+        }
     }
 
     @Specialization(limit = "1")
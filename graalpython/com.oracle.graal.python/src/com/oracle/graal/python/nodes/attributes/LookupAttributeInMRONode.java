@@ -45,6 +45,7 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
 import com.oracle.graal.python.builtins.objects.type.PythonAbstractClass;
+import com.oracle.graal.python.builtins.objects.type.TypeAttributeCache;
 import com.oracle.graal.python.builtins.objects.type.TypeNodes;
 import com.oracle.graal.python.builtins.objects.type.TypeNodes.GetMroStorageNode;
 import com.oracle.graal.python.builtins.objects.type.TypeNodesFactory.IsSameTypeNodeGen;
@@ -107,7 +108,11 @@ public abstract class LookupAttributeInMRONode extends PNodeWithContext {
         protected Object lookup(PythonAbstractClass klass, Object key,
                         @Cached("create()") GetMroStorageNode getMroNode,
                         @Cached("createForceType()") ReadAttributeFromObjectNode readAttrNode) {
-            return lookupSlow(klass, key, getMroNode, readAttrNode);
+            if (contextRef == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                contextRef = lookupContextReference(PythonLanguage.class);
+            }
+            return lookupSlow(klass, key, getMroNode, readAttrNode, contextRef.get().getTypeAttributeCache());
         }
     }
 
@@ -120,7 +125,7 @@ public abstract class LookupAttributeInMRONode extends PNodeWithContext {
             if (klass instanceof PythonBuiltinClassType) {
                 return findAttr(PythonLanguage.getCore(), (PythonBuiltinClassType) klass, key);
             } else if (klass instanceof PythonAbstractClass) {
-                return lookupSlow((PythonAbstractClass) klass, key, getMroNode, readAttrNode);
+                return lookupSlow((PythonAbstractClass) klass, key, getMroNode, readAttrNode, PythonLanguage.getContext().getTypeAttributeCache());
             } else {
                 CompilerDirectives.transferToInterpreter();
                 throw new RuntimeException("not implemented: lookup inherited attribute from non-PythonClass");
@@ -134,11 +139,15 @@ public abstract class LookupAttributeInMRONode extends PNodeWithContext {
     @Child private GetMroStorageNode getMroNode;
 
     protected PythonCore getCore() {
+        return getContext().getCore();
+    }
+
+    private PythonContext getContext() {
         if (contextRef == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             contextRef = lookupContextReference(PythonLanguage.class);
         }
-        return contextRef.get().getCore();
+        return contextRef.get();
     }
 
     public LookupAttributeInMRONode(String key) {
@@ -251,7 +260,7 @@ public abstract class LookupAttributeInMRONode extends PNodeWithContext {
     @Specialization(replaces = {"lookupConstantMROCached", "lookupConstantMRO"})
     protected Object lookup(PythonAbstractClass klass,
                     @Cached("createForceType()") ReadAttributeFromObjectNode readAttrNode) {
-        return lookupSlow(klass, key, getMroNode, readAttrNode);
+        return lookupSlow(klass, key, ensureGetMroNode(), readAttrNode, getContext().getTypeAttributeCache());
     }
 
     protected GetMroStorageNode ensureGetMroNode() {
@@ -266,16 +275,30 @@ public abstract class LookupAttributeInMRONode extends PNodeWithContext {
         return ensureGetMroNode().execute(clazz);
     }
 
-    private static Object lookupSlow(PythonAbstractClass klass, Object key, GetMroStorageNode getMroNode, ReadAttributeFromObjectNode readAttrNode) {
+    private static Object lookupSlow(PythonAbstractClass klass, Object key, GetMroStorageNode getMroNode, ReadAttributeFromObjectNode readAttrNode, TypeAttributeCache cache) {
         MroSequenceStorage mro = getMroNode.execute(klass);
+        long versionTag = 0;
+        if (key instanceof String) {
+            Object cached = cache.get(mro, (String) key);
+            if (cached != null) {
+                return cached;
+            }
+            // the tag must be taken before the lookup, so a concurrent change is noticed in 'put'
+            versionTag = cache.getOrAssignVersionTag(mro);
+        }
+        Object result = PNone.NO_VALUE;
         for (int i = 0; i < mro.length(); i++) {
             PythonAbstractClass kls = mro.getItemNormalized(i);
             Object value = readAttrNode.execute(kls, key);
             if (value != PNone.NO_VALUE) {
-                return value;
+                result = value;
+                break;
             }
         }
-        return PNone.NO_VALUE;
+        if (key instanceof String) {
+            cache.put(mro, versionTag, (String) key, result);
+        }
+        return result;
     }
 
     protected boolean isSameType(PythonAbstractClass cachedKlass, PythonAbstractClass klass) {
@@ -295,22 +295,27 @@ public abstract class ListNodes {
                         @Cached SequenceStorageNodes.AppendNode appendNode,
                         @Cached(value = "flagContainer(false)", uncached = "flagContainer(true)", dimensions = 1) boolean[] triedToCompile,
                         @Cached BranchProfile updateStoreProfile) {
-            if (CompilerDirectives.inInterpreter() && !triedToCompile[0] && list.getOrigin() != null) {
-                SequenceStorage newStore = appendInInterpreterNode.execute(list.getSequenceStorage(), value, ListGeneralizationNode.SUPPLIER);
-                list.setSequenceStorage(newStore);
-                if (list.getOrigin() != null && newStore instanceof BasicSequenceStorage) {
-                    list.getOrigin().reportUpdatedCapacity((BasicSequenceStorage) newStore);
-                }
-            } else {
-                if (!triedToCompile[0]) {
-                    CompilerDirectives.transferToInterpreterAndInvalidate();
-                    triedToCompile[0] = true;
-                }
-                SequenceStorage newStore = appendNode.execute(list.getSequenceStorage(), value, ListGeneralizationNode.SUPPLIER);
-                if (list.getSequenceStorage() != newStore) {
-                    updateStoreProfile.enter();
+            boolean locked = list.lock();
+            try {
+                if (CompilerDirectives.inInterpreter() && !triedToCompile[0] && list.getOrigin() != null) {
+                    SequenceStorage newStore = appendInInterpreterNode.execute(list.getSequenceStorage(), value, ListGeneralizationNode.SUPPLIER);
                     list.setSequenceStorage(newStore);
+                    if (list.getOrigin() != null && newStore instanceof BasicSequenceStorage) {
+                        list.getOrigin().reportUpdatedCapacity((BasicSequenceStorage) newStore);
+                    }
+                } else {
+                    if (!triedToCompile[0]) {
+                        CompilerDirectives.transferToInterpreterAndInvalidate();
+                        triedToCompile[0] = true;
+                    }
+                    SequenceStorage newStore = appendNode.execute(list.getSequenceStorage(), value, ListGeneralizationNode.SUPPLIER);
+                    if (list.getSequenceStorage() != newStore) {
+                        updateStoreProfile.enter();
+                        list.setSequenceStorage(newStore);
+                    }
                 }
+            } finally {
+                list.unlock(locked);
             }
         }
 
@@ -55,6 +55,7 @@ import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.argument.CreateArgumentsNode;
 import com.oracle.graal.python.nodes.argument.positional.PositionalArgumentsNode;
 import com.oracle.graal.python.nodes.attributes.LookupInheritedAttributeNode;
+import com.oracle.graal.python.nodes.call.special.CallFixedArityBuiltinNode;
 import com.oracle.graal.python.nodes.call.special.CallVarargsMethodNode;
 import com.oracle.graal.python.nodes.truffle.PythonTypes;
 import com.oracle.truffle.api.dsl.Cached;
@@ -155,6 +156,12 @@ public abstract class CallNode extends PNodeWithContext {
         return dispatch.executeCall(frame, (PFunction) callable.getFunction(), createArgs.execute(callable, arguments, keywords));
     }
 
+    @Specialization(guards = {"keywords.length == 0", "isPBuiltinFunction(callable.getFunction())", "isFixedArityMethod(callable, arguments.length)"})
+    protected Object builtinMethodCallFixedArity(VirtualFrame frame, PBuiltinMethod callable, Object[] arguments, @SuppressWarnings("unused") PKeyword[] keywords,
+                    @Shared("fixedArityNode") @Cached CallFixedArityBuiltinNode callFixedArity) {
+        return callFixedArity.execute(frame, callable, arguments);
+    }
+
     @Specialization(limit = "1", guards = {"callable == cachedCallable", "isPBuiltinFunction(cachedCallable.getFunction())"}, assumptions = "singleContextAssumption()")
     protected Object builtinMethodCallBuiltinDirectCached(VirtualFrame frame, @SuppressWarnings("unused") PBuiltinMethod callable, Object[] arguments, PKeyword[] keywords,
                     @Cached("callable") PBuiltinMethod cachedCallable,
@@ -195,6 +202,12 @@ public abstract class CallNode extends PNodeWithContext {
         return dispatch.executeCall(frame, callable, createArgs.execute(callable, arguments, keywords));
     }
 
+    @Specialization(guards = {"keywords.length == 0", "isFixedArity(callable, arguments.length)"})
+    protected Object builtinFunctionCallFixedArity(VirtualFrame frame, PBuiltinFunction callable, Object[] arguments, @SuppressWarnings("unused") PKeyword[] keywords,
+                    @Shared("fixedArityNode") @Cached CallFixedArityBuiltinNode callFixedArity) {
+        return callFixedArity.execute(frame, callable, arguments);
+    }
+
     @Specialization
     protected Object builtinFunctionCall(VirtualFrame frame, PBuiltinFunction callable, Object[] arguments, PKeyword[] keywords,
                     @Shared("dispatchNode") @Cached CallDispatchNode dispatch,
@@ -202,8 +215,8 @@ public abstract class CallNode extends PNodeWithContext {
         return dispatch.executeCall(frame, callable, createArgs.execute(callable, arguments, keywords));
     }
 
-    @Specialization(replaces = {"doObjectAndType", "decoratedMethodCall", "methodCallBuiltinDirect", "methodCallDirect", "builtinMethodCallDirect", "builtinMethodCallBuiltinDirectCached",
-                    "builtinMethodCallBuiltinDirect", "methodCall", "builtinMethodCall", "functionCall", "builtinFunctionCall"})
+    @Specialization(replaces = {"doObjectAndType", "decoratedMethodCall", "methodCallBuiltinDirect", "methodCallDirect", "builtinMethodCallDirect", "builtinMethodCallFixedArity",
+                    "builtinMethodCallBuiltinDirectCached", "builtinMethodCallBuiltinDirect", "methodCall", "builtinMethodCall", "functionCall", "builtinFunctionCallFixedArity", "builtinFunctionCall"})
     protected Object doGeneric(VirtualFrame frame, Object callableObject, Object[] arguments, PKeyword[] keywords,
                     @Shared("dispatchNode") @Cached CallDispatchNode dispatch,
                     @Shared("argsNode") @Cached CreateArgumentsNode createArgs,
@@ -234,6 +247,15 @@ public abstract class CallNode extends PNodeWithContext {
         return callCall(frame, callableObject, arguments, keywords, raise, callCallNode, callAttrGetterNode.execute(callableObject, SpecialMethodNames.__CALL__));
     }
 
+    protected static boolean isFixedArity(PBuiltinFunction callable, int nargs) {
+        return CallFixedArityBuiltinNode.isFixedArity(callable, nargs);
+    }
+
+    protected static boolean isFixedArityMethod(PBuiltinMethod callable, int nargs) {
+        // the bound 'self' is passed as first argument
+        return CallFixedArityBuiltinNode.isFixedArity((PBuiltinFunction) callable.getFunction(), nargs + 1);
+    }
+
     @Override
     public Node copy() {
         if (isAdoptable()) {
@@ -137,6 +137,14 @@ public abstract class CallTargetInvokeNode extends DirectInvokeNode {
         return doNoClosure(frame, null, null, arguments, classBodyProfile, context);
     }
 
+    /**
+     * Requests that the call target is always inlined into the caller, e.g., so that objects
+     * passed in the arguments can stay virtual.
+     */
+    public final void forceInlining() {
+        callNode.forceInlining();
+    }
+
     public final CallTarget getCallTarget() {
         return callNode.getCallTarget();
     }
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.call.special;
+
+import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.function.Signature;
+import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
+import com.oracle.graal.python.nodes.argument.CreateArgumentsNode;
+import com.oracle.graal.python.nodes.call.CallDispatchNode;
+import com.oracle.graal.python.nodes.call.special.CallFixedArityBuiltinNodeFactory.CachedNodeGen;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeCost;
+
+/**
+ * Calls a {@link PBuiltinFunction} or a {@link PBuiltinMethod} with positional arguments only. If
+ * the builtin has a fixed arity of at most three arguments (including a bound {@code self}), the
+ * builtin node is inlined and the arguments are passed directly to its {@code execute} method, so
+ * neither a {@code PArguments} array nor the signature matching of {@link CreateArgumentsNode} is
+ * needed. Builtins that need the frame are never inlined, because they would observe the frame of
+ * the caller instead of their own. All other cases go through the regular call protocol.
+ */
+public abstract class CallFixedArityBuiltinNode extends CallSpecialMethodNode {
+    private static final int MAX_ARITY = 3;
+
+    public static CallFixedArityBuiltinNode create() {
+        return CachedNodeGen.create();
+    }
+
+    public static CallFixedArityBuiltinNode getUncached() {
+        return Uncached.INSTANCE;
+    }
+
+    /**
+     * @param callable - either a {@link PBuiltinFunction} or a {@link PBuiltinMethod} whose function
+     *            is a {@link PBuiltinFunction}.
+     * @param arguments - the positional user arguments (without a bound {@code self})
+     */
+    public abstract Object execute(VirtualFrame frame, Object callable, Object[] arguments);
+
+    /**
+     * Whether {@code func} accepts exactly {@code nargs} positional arguments, including a
+     * prepended {@code self} if it is called as method, and nothing else.
+     */
+    public static boolean isFixedArity(PBuiltinFunction func, int nargs) {
+        Signature signature = func.getSignature();
+        return nargs <= MAX_ARITY && signature.takesPositionalOnly() && signature.getMaxNumOfPositionalArgs() == nargs;
+    }
+
+    PythonBuiltinBaseNode getFixedArity(VirtualFrame frame, PBuiltinFunction func, int nargs) {
+        if (!isFixedArity(func, nargs)) {
+            return null;
+        }
+        switch (nargs) {
+            case 1:
+                return getUnary(frame, func);
+            case 2:
+                return getBinary(frame, func);
+            case 3:
+                return getTernary(frame, func);
+            default:
+                return null;
+        }
+    }
+
+    PythonBuiltinBaseNode getFixedArityMethod(VirtualFrame frame, PBuiltinMethod method, int nargs) {
+        // the argument creation always prepends 'self', so the signature must account for it
+        if (!(method.getFunction() instanceof PBuiltinFunction) || !isFixedArity((PBuiltinFunction) method.getFunction(), nargs + 1)) {
+            return null;
+        }
+        return getFixedArity(frame, (PBuiltinFunction) method.getFunction(), takesSelfArg(method) ? nargs + 1 : nargs);
+    }
+
+    static Object invoke(VirtualFrame frame, PythonBuiltinBaseNode builtinNode, Object[] arguments) {
+        if (builtinNode instanceof PythonUnaryBuiltinNode) {
+            return ((PythonUnaryBuiltinNode) builtinNode).execute(frame, arguments[0]);
+        } else if (builtinNode instanceof PythonBinaryBuiltinNode) {
+            return ((PythonBinaryBuiltinNode) builtinNode).execute(frame, arguments[0], arguments[1]);
+        } else {
+            return ((PythonTernaryBuiltinNode) builtinNode).execute(frame, arguments[0], arguments[1], arguments[2]);
+        }
+    }
+
+    static Object invokeWithSelf(VirtualFrame frame, PythonBuiltinBaseNode builtinNode, Object self, Object[] arguments) {
+        if (builtinNode instanceof PythonUnaryBuiltinNode) {
+            return ((PythonUnaryBuiltinNode) builtinNode).execute(frame, self);
+        } else if (builtinNode instanceof PythonBinaryBuiltinNode) {
+            return ((PythonBinaryBuiltinNode) builtinNode).execute(frame, self, arguments[0]);
+        } else {
+            return ((PythonTernaryBuiltinNode) builtinNode).execute(frame, self, arguments[0], arguments[1]);
+        }
+    }
+
+    abstract static class CachedNode extends CallFixedArityBuiltinNode {
+
+        @Specialization(guards = {"func == cachedFunc", "arguments.length == cachedArgc", "builtinNode != null",
+                        "unusedFrame"}, limit = "getCallSiteInlineCacheMaxDepth()", assumptions = "singleContextAssumption()")
+        Object callSingleContext(VirtualFrame frame, @SuppressWarnings("unused") PBuiltinFunction func, Object[] arguments,
+                        @SuppressWarnings("unused") @Cached("func") PBuiltinFunction cachedFunc,
+                        @SuppressWarnings("unused") @Cached("arguments.length") int cachedArgc,
+                        @Cached("getFixedArity(frame, func, cachedArgc)") PythonBuiltinBaseNode builtinNode,
+                        @SuppressWarnings("unused") @Cached("frameIsUnused(builtinNode)") boolean unusedFrame) {
+            return invoke(frame, builtinNode, arguments);
+        }
+
+        @Specialization(guards = {"func.getCallTarget() == ct", "arguments.length == cachedArgc", "builtinNode != null",
+                        "unusedFrame"}, limit = "getCallSiteInlineCacheMaxDepth()")
+        Object call(VirtualFrame frame, @SuppressWarnings("unused") PBuiltinFunction func, Object[] arguments,
+                        @SuppressWarnings("unused") @Cached("func.getCallTarget()") RootCallTarget ct,
+                        @SuppressWarnings("unused") @Cached("arguments.length") int cachedArgc,
+                        @Cached("getFixedArity(frame, func, cachedArgc)") PythonBuiltinBaseNode builtinNode,
+                        @SuppressWarnings("unused") @Cached("frameIsUnused(builtinNode)") boolean unusedFrame) {
+            return invoke(frame, builtinNode, arguments);
+        }
+
+        @Specialization(guards = {"func == cachedFunc", "arguments.length == cachedArgc", "builtinNode != null",
+                        "unusedFrame"}, limit = "getCallSiteInlineCacheMaxDepth()", assumptions = "singleContextAssumption()")
+        Object callMethodSingleContext(VirtualFrame frame, @SuppressWarnings("unused") PBuiltinMethod func, Object[] arguments,
+                        @SuppressWarnings("unused") @Cached("func") PBuiltinMethod cachedFunc,
+                        @SuppressWarnings("unused") @Cached("arguments.length") int cachedArgc,
+                        @Cached("takesSelfArg(func)") boolean takesSelfArg,
+                        @Cached("getFixedArityMethod(frame, func, cachedArgc)") PythonBuiltinBaseNode builtinNode,
+                        @SuppressWarnings("unused") @Cached("frameIsUnused(builtinNode)") boolean unusedFrame) {
+            if (takesSelfArg) {
+                return invokeWithSelf(frame, builtinNode, func.getSelf(), arguments);
+            }
+            return invoke(frame, builtinNode, arguments);
+        }
+
+        @Specialization(guards = {"getCallTarget(func) == ct", "arguments.length == cachedArgc", "builtinNode != null",
+                        "unusedFrame"}, limit = "getCallSiteInlineCacheMaxDepth()")
+        Object callMethod(VirtualFrame frame, PBuiltinMethod func, Object[] arguments,
+                        @SuppressWarnings("unused") @Cached("getCallTarget(func)") RootCallTarget ct,
+                        @SuppressWarnings("unused") @Cached("arguments.length") int cachedArgc,
+                        @Cached("takesSelfArg(func)") boolean takesSelfArg,
+                        @Cached("getFixedArityMethod(frame, func, cachedArgc)") PythonBuiltinBaseNode builtinNode,
+                        @SuppressWarnings("unused") @Cached("frameIsUnused(builtinNode)") boolean unusedFrame) {
+            if (takesSelfArg) {
+                return invokeWithSelf(frame, builtinNode, func.getSelf(), arguments);
+            }
+            return invoke(frame, builtinNode, arguments);
+        }
+
+        @Specialization
+        static Object callGeneric(VirtualFrame frame, Object callable, Object[] arguments,
+                        @Cached CallDispatchNode dispatch,
+                        @Cached CreateArgumentsNode createArgs) {
+            if (callable instanceof PBuiltinMethod) {
+                PBuiltinMethod method = (PBuiltinMethod) callable;
+                return dispatch.executeCall(frame, (PBuiltinFunction) method.getFunction(), createArgs.execute(method, arguments, PKeyword.EMPTY_KEYWORDS));
+            }
+            PBuiltinFunction func = (PBuiltinFunction) callable;
+            return dispatch.executeCall(frame, func, createArgs.execute(func, arguments, PKeyword.EMPTY_KEYWORDS));
+        }
+    }
+
+    private static final class Uncached extends CallFixedArityBuiltinNode {
+        private static final Uncached INSTANCE = new Uncached();
+
+        @Override
+        public Object execute(VirtualFrame frame, Object callable, Object[] arguments) {
+            return CachedNode.callGeneric(frame, callable, arguments, CallDispatchNode.getUncached(), CreateArgumentsNode.getUncached());
+        }
+
+        @Override
+        public NodeCost getCost() {
+            return NodeCost.MEGAMORPHIC;
+        }
+
+        @Override
+        public boolean isAdoptable() {
+            return false;
+        }
+    }
+}
@@ -26,6 +26,8 @@
 package com.oracle.graal.python.nodes.control;
 
 import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.iterator.IteratorNodes.GetNextOrSentinelNode;
 import com.oracle.graal.python.builtins.objects.iterator.PDoubleIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PIntegerIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PLongIterator;
@@ -34,11 +36,9 @@ import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.expression.ExpressionNode;
 import com.oracle.graal.python.nodes.frame.WriteNode;
-import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.statement.StatementNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonOptions;
-import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
@@ -142,15 +142,13 @@ abstract class ForNextElementNode extends PNodeWithContext {
 
     @Specialization
     protected boolean doIterator(VirtualFrame frame, Object object,
-                    @Cached("create()") GetNextNode next,
-                    @Cached("create()") IsBuiltinClassProfile errorProfile) {
-        try {
-            ((WriteNode) target).doWrite(frame, next.execute(frame, object));
-            return true;
-        } catch (PException e) {
-            e.expectStopIteration(errorProfile);
+                    @Cached GetNextOrSentinelNode next) {
+        Object value = next.execute(frame, object);
+        if (value == PNone.NO_VALUE) {
             return false;
         }
+        ((WriteNode) target).doWrite(frame, value);
+        return true;
     }
 }
 
@@ -128,6 +128,7 @@ public class TopLevelExceptionHandler extends RootNode {
             return null;
         } else {
             assert getContext().getCurrentException() == null;
+            boolean acquiredGil = getContext().acquireGil();
             try {
                 return run(frame);
             } catch (PException e) {
@@ -152,6 +153,10 @@ public class TopLevelExceptionHandler extends RootNode {
                     }
                 }
                 throw e;
+            } finally {
+                if (acquiredGil) {
+                    getContext().releaseGil();
+                }
             }
         }
     }
@@ -107,8 +107,13 @@ public abstract class DestructuringAssignmentNode extends StatementNode implemen
                     @Cached SequenceStorageNodes.LenNode lenNode,
                     @Cached SequenceStorageNodes.GetItemNode getItemNode,
                     @SuppressWarnings("unused") @Cached IsBuiltinClassProfile isBuiltinClass) {
-        SequenceStorage sequenceStorage = rhsVal.getSequenceStorage();
-        writeSequenceStorage(frame, sequenceStorage, lenNode, getItemNode);
+        boolean locked = rhsVal.lock();
+        try {
+            SequenceStorage sequenceStorage = rhsVal.getSequenceStorage();
+            writeSequenceStorage(frame, sequenceStorage, lenNode, getItemNode);
+        } finally {
+            rhsVal.unlock(locked);
+        }
         performAssignments(frame);
     }
 
@@ -142,8 +147,13 @@ public abstract class DestructuringAssignmentNode extends StatementNode implemen
     void writeListStarred(VirtualFrame frame, PList rhsVal,
                     @Shared("writeStarred") @Cached WriteSequenceStorageStarredNode writeSequenceStorageStarredNode,
                     @SuppressWarnings("unused") @Cached IsBuiltinClassProfile isBuiltinClass) {
-        SequenceStorage sequenceStorage = rhsVal.getSequenceStorage();
-        writeSequenceStorageStarredNode.execute(frame, sequenceStorage, slots, starredIndex);
+        boolean locked = rhsVal.lock();
+        try {
+            SequenceStorage sequenceStorage = rhsVal.getSequenceStorage();
+            writeSequenceStorageStarredNode.execute(frame, sequenceStorage, slots, starredIndex);
+        } finally {
+            rhsVal.unlock(locked);
+        }
         performAssignments(frame);
     }
 
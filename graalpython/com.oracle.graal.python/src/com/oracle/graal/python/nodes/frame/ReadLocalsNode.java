@@ -76,7 +76,7 @@ public abstract class ReadLocalsNode extends Node {
     @Specialization(guards = {"isGeneratorFrame(frame)"})
     static Object doGeneratorFrame(@SuppressWarnings("unused") VirtualFrame callingFrame, PFrame frame) {
         PDict localsDict = PArguments.getGeneratorFrameLocals(frame.getArguments());
-        assert localsDict != null : "generator locals dict was not eagerly created";
+        assert localsDict != null : "generator locals dict was not created when the frame was materialized";
         return localsDict;
     }
 
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.function;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.modules.BuiltinFunctions;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.nodes.BuiltinNames;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.builtins.ListNodes;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.call.CallTargetInvokeNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
+import com.oracle.graal.python.nodes.expression.BinaryArithmetic;
+import com.oracle.graal.python.nodes.expression.ExpressionNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.frame.FrameUtil;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.RepeatingNode;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * A call like {@code sum(x * x for x in xs)}, where the only argument is a generator expression
+ * and the callee is expected to be a builtin consumer. If the callee is that builtin at runtime,
+ * this node runs the generator expression's call targets itself and always inlines them. No
+ * {@code PGenerator} is created, so the generator frame and control data do not escape and the
+ * compiler can keep them virtual. Otherwise, the generator is created and the callee is called
+ * normally.
+ * <p>
+ * The generator frame itself is still created for every call, since the generator expression's
+ * body reads its variables from it. It only stays virtual as long as nothing in the body
+ * materializes it, e.g. through {@code locals()} or a traceback, and the loop is not compiled on
+ * its own through on-stack replacement.
+ */
+public final class GeneratorExpressionConsumerNode extends ExpressionNode {
+
+    public enum Consumer {
+        SUM,
+        LIST,
+        TUPLE
+    }
+
+    @Child private ExpressionNode callee;
+    @Child private GeneratorExpressionNode generator;
+    @Child private LoopNode loopNode;
+    @Child private CallNode callNode;
+    @Child private PythonObjectFactory factory;
+
+    private final Consumer consumer;
+    private final ConditionProfile isConsumerProfile = ConditionProfile.createBinaryProfile();
+
+    @CompilationFinal private RootCallTarget sumCallTarget;
+
+    private GeneratorExpressionConsumerNode(Consumer consumer, ExpressionNode callee, GeneratorExpressionNode generator) {
+        this.consumer = consumer;
+        this.callee = callee;
+        this.generator = generator;
+    }
+
+    public static GeneratorExpressionConsumerNode create(Consumer consumer, ExpressionNode callee, GeneratorExpressionNode generator) {
+        return new GeneratorExpressionConsumerNode(consumer, callee, generator);
+    }
+
+    /**
+     * Returns the consumer for the builtin with the given name, or {@code null} if calls of that
+     * builtin are not handled by this node.
+     */
+    public static Consumer getConsumer(String name) {
+        switch (name) {
+            case BuiltinNames.SUM:
+                return Consumer.SUM;
+            case BuiltinNames.LIST:
+                return Consumer.LIST;
+            case BuiltinNames.TUPLE:
+                return Consumer.TUPLE;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Object execute(VirtualFrame frame) {
+        Object function = callee.execute(frame);
+        if (isConsumerProfile.profile(isExpectedConsumer(function))) {
+            return consume(frame, generator.createInlinedArguments(frame));
+        }
+        if (callNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            callNode = insert(CallNode.create());
+        }
+        return callNode.execute(frame, function, new Object[]{generator.execute(frame)}, PKeyword.EMPTY_KEYWORDS);
+    }
+
+    private boolean isExpectedConsumer(Object function) {
+        switch (consumer) {
+            case SUM:
+                return function instanceof PBuiltinFunction && ((PBuiltinFunction) function).getCallTarget() == getSumCallTarget();
+            case LIST:
+                return function instanceof PythonBuiltinClass && ((PythonBuiltinClass) function).getType() == PythonBuiltinClassType.PList;
+            case TUPLE:
+                return function instanceof PythonBuiltinClass && ((PythonBuiltinClass) function).getType() == PythonBuiltinClassType.PTuple;
+            default:
+                throw new IllegalStateException("unknown consumer " + consumer);
+        }
+    }
+
+    private RootCallTarget getSumCallTarget() {
+        if (sumCallTarget == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            // builtin call targets are shared by all contexts of the language
+            sumCallTarget = PythonLanguage.getCurrent().builtinCallTargetCache.get(BuiltinFunctions.SumFunctionNode.class);
+        }
+        return sumCallTarget;
+    }
+
+    private Object consume(VirtualFrame frame, Object[] arguments) {
+        if (loopNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            getLock().lock();
+            try {
+                if (loopNode == null) {
+                    FrameDescriptor descriptor = frame.getFrameDescriptor();
+                    ConsumeRepeatingNode repeatingNode = new ConsumeRepeatingNode(consumer, generator.getCallTargets());
+                    repeatingNode.argumentsSlot = descriptor.addFrameSlot(new Object(), FrameSlotKind.Object);
+                    repeatingNode.resultSlot = descriptor.addFrameSlot(new Object(), FrameSlotKind.Object);
+                    loopNode = insert(Truffle.getRuntime().createLoopNode(repeatingNode));
+                }
+            } finally {
+                getLock().unlock();
+            }
+        }
+        ConsumeRepeatingNode repeatingNode = (ConsumeRepeatingNode) loopNode.getRepeatingNode();
+        frame.setObject(repeatingNode.argumentsSlot, arguments);
+        frame.setObject(repeatingNode.resultSlot, consumer == Consumer.SUM ? (Object) 0 : getFactory().createList());
+        try {
+            loopNode.execute(frame);
+            Object result = FrameUtil.getObjectSafe(frame, repeatingNode.resultSlot);
+            if (consumer == Consumer.TUPLE) {
+                return getFactory().createTuple(((PList) result).getSequenceStorage());
+            }
+            return result;
+        } finally {
+            frame.setObject(repeatingNode.argumentsSlot, null);
+            frame.setObject(repeatingNode.resultSlot, null);
+        }
+    }
+
+    /**
+     * Pulls one element from the generator per iteration and adds it to the result, until the
+     * generator raises {@code StopIteration}. The generator arguments and the result are kept in
+     * frame slots, like the iterator of a {@code for} loop, so that the loop can be compiled on
+     * its own.
+     */
+    static final class ConsumeRepeatingNode extends PNodeWithContext implements RepeatingNode {
+
+        @CompilationFinal FrameSlot argumentsSlot;
+        @CompilationFinal FrameSlot resultSlot;
+        @CompilationFinal private ContextReference<PythonContext> contextRef;
+
+        @Children private final CallTargetInvokeNode[] invokeNodes;
+        @Child private LookupAndCallBinaryNode addNode;
+        @Child private ListNodes.AppendNode appendNode;
+
+        private final Consumer consumer;
+        private final IsBuiltinClassProfile stopIterationProfile = IsBuiltinClassProfile.create();
+
+        ConsumeRepeatingNode(Consumer consumer, RootCallTarget[] callTargets) {
+            this.consumer = consumer;
+            this.invokeNodes = new CallTargetInvokeNode[callTargets.length];
+            for (int i = 0; i < callTargets.length; i++) {
+                CallTargetInvokeNode invoke = CallTargetInvokeNode.create(callTargets[i], false, true);
+                invoke.forceInlining();
+                invokeNodes[i] = invoke;
+            }
+            if (consumer == Consumer.SUM) {
+                addNode = BinaryArithmetic.Add.create();
+            } else {
+                appendNode = ListNodes.AppendNode.create();
+            }
+        }
+
+        @Override
+        public boolean executeRepeating(VirtualFrame frame) {
+            Object[] arguments = (Object[]) FrameUtil.getObjectSafe(frame, argumentsSlot);
+            Object item;
+            try {
+                item = next(frame, arguments);
+            } catch (PException e) {
+                e.expectStopIteration(stopIterationProfile);
+                return false;
+            }
+            if (consumer == Consumer.SUM) {
+                frame.setObject(resultSlot, addNode.executeObject(frame, FrameUtil.getObjectSafe(frame, resultSlot), item));
+            } else {
+                appendNode.execute((PList) FrameUtil.getObjectSafe(frame, resultSlot), item);
+            }
+            if (contextRef == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                contextRef = lookupContextReference(PythonLanguage.class);
+            }
+            contextRef.get().triggerAsyncActions(frame, this);
+            return true;
+        }
+
+        /**
+         * Resumes the generator from its last yield, like {@code PGenerator#getCurrentCallTarget}
+         * does, but through an inlined call node per entry point.
+         */
+        @ExplodeLoop
+        private Object next(VirtualFrame frame, Object[] arguments) {
+            CallTargetInvokeNode[] invokes = invokeNodes;
+            int index = invokes.length == 1 ? 0 : PArguments.getControlDataFromGeneratorArguments(arguments).getLastYieldIndex();
+            for (int i = 0; i < invokes.length; i++) {
+                if (i == index) {
+                    return invokes[i].execute(frame, null, null, arguments);
+                }
+            }
+            throw new IllegalStateException("invalid generator entry point " + index);
+        }
+    }
+
+    private PythonObjectFactory getFactory() {
+        if (factory == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            factory = insert(PythonObjectFactory.create());
+        }
+        return factory;
+    }
+}
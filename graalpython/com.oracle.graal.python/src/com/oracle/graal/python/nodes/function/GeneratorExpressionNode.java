@@ -27,6 +27,7 @@ package com.oracle.graal.python.nodes.function;
 
 import com.oracle.graal.python.builtins.objects.cell.PCell;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.generator.PGenerator;
 import com.oracle.graal.python.nodes.expression.ExpressionNode;
 import com.oracle.graal.python.nodes.generator.GeneratorFunctionRootNode;
 import com.oracle.graal.python.parser.DefinitionCellSlots;
@@ -125,27 +126,45 @@ public final class GeneratorExpressionNode extends ExpressionDefinitionNode {
 
     @Override
     public Object execute(VirtualFrame frame) {
+        Object[] arguments = createArguments(frame);
+        Object iterator = getIterator == null ? null : PArguments.getArgument(arguments, 0);
+        PCell[] closure = getClosureFromGeneratorOrFunctionLocals(frame);
+        return factory.createGenerator(name, getCallTargets(), frameDescriptor, arguments, closure, executionCellSlots,
+                        numOfActiveFlags, numOfGeneratorBlockNode, numOfGeneratorForNode, iterator);
+    }
+
+    /**
+     * Prepares the arguments to run this generator expression's call targets directly, without
+     * creating a generator object. The arguments do not escape when the consumer driving the
+     * generator inlines its call targets.
+     */
+    public Object[] createInlinedArguments(VirtualFrame frame) {
+        Object[] arguments = createArguments(frame);
+        PCell[] closure = getClosureFromGeneratorOrFunctionLocals(frame);
+        PGenerator.initializeArguments(arguments, frameDescriptor, closure, executionCellSlots, numOfActiveFlags, numOfGeneratorBlockNode, numOfGeneratorForNode);
+        return arguments;
+    }
+
+    private Object[] createArguments(VirtualFrame frame) {
         Object[] arguments;
-        Object iterator = null;
         if (getIterator == null) {
             arguments = PArguments.create(0);
         } else {
             arguments = PArguments.create(1);
-            iterator = getIterator.execute(frame);
-            PArguments.setArgument(arguments, 0, iterator);
+            PArguments.setArgument(arguments, 0, getIterator.execute(frame));
         }
         PArguments.setGlobals(arguments, PArguments.getGlobals(frame));
 
         // The generator doesn't capture the currently handled exception at creation time.
         PArguments.setException(arguments, PException.NO_EXCEPTION);
+        return arguments;
+    }
 
+    public RootCallTarget[] getCallTargets() {
         if (callTargets == null) {
             callTargets = GeneratorFunctionRootNode.createYieldTargets(callTarget);
         }
-
-        PCell[] closure = getClosureFromGeneratorOrFunctionLocals(frame);
-        return factory.createGenerator(name, callTargets, frameDescriptor, arguments, closure, executionCellSlots,
-                        numOfActiveFlags, numOfGeneratorBlockNode, numOfGeneratorForNode, iterator);
+        return callTargets;
     }
 
     @Override
@@ -30,6 +30,7 @@ import java.util.Arrays;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.generator.GeneratorControlData;
 import com.oracle.graal.python.nodes.util.ExceptionStateNodes.ExceptionState;
+import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -48,11 +49,21 @@ final class GeneratorAccessNode extends Node {
 
     @CompilationFinal(dimensions = 1) private byte[] active = new byte[0];
     @CompilationFinal(dimensions = 1) private int[] indices = new int[0];
+    @CompilationFinal private boolean speculate = true;
 
     private GeneratorAccessNode() {
         // private constructor
     }
 
+    /**
+     * Used when all entry points of a generator share one AST. In this case, the active flags and
+     * block indices differ between entries, so they are always read from the control data.
+     */
+    void disableSpeculation() {
+        CompilerAsserts.neverPartOfCompilation();
+        speculate = false;
+    }
+
     @Override
     public NodeCost getCost() {
         return NodeCost.NONE;
@@ -63,6 +74,9 @@ final class GeneratorAccessNode extends Node {
     }
 
     public boolean isActive(VirtualFrame frame, int flagSlot) {
+        if (!speculate) {
+            return getControlData(frame).getActive(flagSlot);
+        }
         if (active.length <= flagSlot) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             synchronized (this) {
@@ -96,6 +110,9 @@ final class GeneratorAccessNode extends Node {
     }
 
     public int getIndex(VirtualFrame frame, int blockIndexSlot) {
+        if (!speculate) {
+            return getControlData(frame).getBlockIndexAt(blockIndexSlot);
+        }
         if (indices.length <= blockIndexSlot) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             synchronized (this) {
@@ -26,14 +26,13 @@
 package com.oracle.graal.python.nodes.generator;
 
 import com.oracle.graal.python.PythonLanguage;
-import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.iterator.IteratorNodes.GetNextOrSentinelNode;
 import com.oracle.graal.python.nodes.control.LoopNode;
 import com.oracle.graal.python.nodes.expression.ExpressionNode;
 import com.oracle.graal.python.nodes.frame.WriteNode;
-import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.statement.StatementNode;
 import com.oracle.graal.python.runtime.PythonContext;
-import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.YieldException;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
@@ -47,10 +46,9 @@ public final class GeneratorForNode extends LoopNode implements GeneratorControl
     @Child protected StatementNode body;
     @Child protected WriteNode target;
     @Child protected ExpressionNode getIterator;
-    @Child protected GetNextNode getNext = GetNextNode.create();
+    @Child protected GetNextOrSentinelNode getNext = GetNextOrSentinelNode.create();
     @Child protected GeneratorAccessNode gen = GeneratorAccessNode.create();
 
-    private final IsBuiltinClassProfile errorProfile = IsBuiltinClassProfile.create();
     private final ConditionProfile executesHeadProfile = ConditionProfile.createBinaryProfile();
     private final ConditionProfile needsUpdateProfile = ConditionProfile.createBinaryProfile();
     private final BranchProfile seenYield = BranchProfile.create();
@@ -85,11 +83,8 @@ public final class GeneratorForNode extends LoopNode implements GeneratorControl
         Object iterator;
         if (executesHeadProfile.profile(startIterator == null)) {
             iterator = getIterator.execute(frame);
-            Object value;
-            try {
-                value = getNext.execute(frame, iterator);
-            } catch (PException e) {
-                e.expectStopIteration(errorProfile);
+            Object value = getNext.execute(frame, iterator);
+            if (value == PNone.NO_VALUE) {
                 return;
             }
             target.doWrite(frame, value);
@@ -107,11 +102,8 @@ public final class GeneratorForNode extends LoopNode implements GeneratorControl
         try {
             while (true) {
                 body.executeVoid(frame);
-                Object value;
-                try {
-                    value = getNext.execute(frame, iterator);
-                } catch (PException e) {
-                    e.expectStopIteration(errorProfile);
+                Object value = getNext.execute(frame, iterator);
+                if (value == PNone.NO_VALUE) {
                     break;
                 }
                 target.doWrite(frame, value);
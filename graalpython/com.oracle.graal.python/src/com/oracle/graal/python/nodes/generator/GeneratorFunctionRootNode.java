@@ -47,6 +47,7 @@ import com.oracle.graal.python.nodes.PClosureFunctionRootNode;
 import com.oracle.graal.python.nodes.PRootNode;
 import com.oracle.graal.python.nodes.frame.MaterializeFrameNode;
 import com.oracle.graal.python.parser.ExecutionCellSlots;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -95,6 +96,17 @@ public class GeneratorFunctionRootNode extends PClosureFunctionRootNode {
 
     public static RootCallTarget[] createYieldTargets(RootCallTarget callTarget) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
+        if (PythonLanguage.getContext().getOption(PythonOptions.SharedGeneratorAST)) {
+            // a single AST for all entry points: the generator access nodes must not speculate on
+            // the resume state, since it is different for each entry
+            callTarget.getRootNode().accept(node -> {
+                if (node instanceof GeneratorAccessNode) {
+                    ((GeneratorAccessNode) node).disableSpeculation();
+                }
+                return true;
+            });
+            return new RootCallTarget[]{callTarget};
+        }
         int numYields = NodeUtil.countNodes(callTarget.getRootNode(), (node) -> node instanceof AbstractYieldNode);
         RootCallTarget[] callTargets = new RootCallTarget[numYields + 1];
         callTargets[0] = callTarget;
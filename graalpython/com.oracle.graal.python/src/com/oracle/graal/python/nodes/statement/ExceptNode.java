@@ -30,7 +30,6 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
-import com.oracle.graal.python.builtins.objects.frame.PFrame;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
@@ -89,9 +88,8 @@ public class ExceptNode extends PNodeWithContext implements InstrumentableNode {
             SetCaughtExceptionNode.execute(frame, pE);
             if (exceptName != null) {
                 PBaseException exceptionObject = pE.getExceptionObject();
-                PFrame.Reference info = PArguments.getCurrentFrameInfo(frame);
-                info.markAsEscaped();
-                exceptionObject.reifyException(info, this);
+                // the frame only needs to escape if the traceback is actually requested
+                exceptionObject.reifyExceptionLazily(PArguments.getCurrentFrameInfo(frame), this, PArguments.getGlobals(frame));
                 exceptName.doWrite(frame, exceptionObject);
             }
         } else if (exceptName != null) {
@@ -72,7 +72,12 @@ public abstract class GetItemNode extends BinaryOpNode implements ReadNode {
     Object doBuiltinList(VirtualFrame frame, PList primary, Object index,
                     @Cached("createGetItemNodeForList()") SequenceStorageNodes.GetItemNode getItemNode,
                     @SuppressWarnings("unused") @Cached IsBuiltinClassProfile isBuiltinList) {
-        return getItemNode.execute(frame, primary.getSequenceStorage(), index);
+        boolean locked = primary.lock();
+        try {
+            return getItemNode.execute(frame, primary.getSequenceStorage(), index);
+        } finally {
+            primary.unlock(locked);
+        }
     }
 
     @Specialization(guards = "isBuiltinTuple.profileIsAnyBuiltinObject(primary)")
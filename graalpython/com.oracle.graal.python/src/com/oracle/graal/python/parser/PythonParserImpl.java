@@ -25,6 +25,12 @@
  */
 package com.oracle.graal.python.parser;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
 import org.antlr.v4.runtime.CharStreams;
@@ -33,7 +39,9 @@ import org.antlr.v4.runtime.CommonTokenStream;
 import com.oracle.graal.python.parser.antlr.DescriptiveBailErrorListener;
 import com.oracle.graal.python.parser.antlr.Python3Lexer;
 import com.oracle.graal.python.parser.antlr.Python3Parser;
+import com.oracle.graal.python.parser.sst.SSTDeserializer;
 import com.oracle.graal.python.parser.sst.SSTNode;
+import com.oracle.graal.python.parser.sst.SSTSerializerVisitor;
 import com.oracle.graal.python.parser.sst.StringUtils;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonOptions;
@@ -45,6 +53,7 @@ import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.SourceSection;
 import org.antlr.v4.runtime.Token;
@@ -65,6 +74,7 @@ public final class PythonParserImpl implements PythonParser {
 
     private static Python3Parser getPython3Parser(Source source, ParserErrorCallback errors) {
         Python3Lexer lexer = new Python3Lexer(CharStreams.fromString(source.getCharacters().toString()));
+        lexer.setTokenFactory(InterningTokenFactory.INSTANCE);
         lexer.removeErrorListeners();
         lexer.addErrorListener(ERROR_LISTENER);
         Python3Parser parser = new Python3Parser(new CommonTokenStream(lexer));
@@ -167,6 +177,59 @@ public final class PythonParserImpl implements PythonParser {
         }
     }
 
+    @Override
+    @TruffleBoundary
+    public byte[] serialize(ParserErrorCallback errors, Source source) {
+        Python3Parser parser = getPython3Parser(source, errors);
+        PythonSSTNodeFactory sstFactory = new PythonSSTNodeFactory(errors, source);
+        parser.setFactory(sstFactory);
+        SSTNode parserSSTResult;
+        try {
+            parserSSTResult = parser.file_input().result;
+        } catch (Exception e) {
+            throw handleParserError(errors, source, e, true);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            // keep the full path, the deserialized source is not backed by a file anymore
+            String sourceName = source.getPath() != null ? source.getPath() : source.getName();
+            SSTSerializerVisitor.serialize(out, sourceName, source.getCharacters(), sstFactory.getScopeEnvironment().getGlobalScope(), parserSSTResult);
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot serialize " + source.getName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    @TruffleBoundary
+    public RootNode deserialize(ParserErrorCallback errors, byte[] data) {
+        Source source;
+        SSTNode parserSSTResult;
+        PythonSSTNodeFactory sstFactory;
+        try {
+            SSTDeserializer deserializer = new SSTDeserializer(data);
+            deserializer.readSource();
+            source = Source.newBuilder(PythonLanguage.ID, deserializer.getSourceText(), deserializer.getSourceName()).build();
+            sstFactory = new PythonSSTNodeFactory(errors, source);
+            parserSSTResult = deserializer.readTree(sstFactory.getScopeEnvironment());
+        } catch (IOException | RuntimeException e) {
+            throw errors.raise(PythonBuiltinClassType.ValueError, "bad serialized code: %s", e.getMessage());
+        }
+        if (logFiles) {
+            System.out.println("Deserialized: " + source.getName());
+        }
+        try {
+            return (RootNode) sstFactory.createParserResult(parserSSTResult, ParserMode.File, null);
+        } catch (Exception e) {
+            throw handleParserError(errors, source, e, true);
+        }
+    }
+
+    @Override
+    public boolean isSerialized(byte[] data) {
+        return SSTSerializerVisitor.isSerialized(data);
+    }
+
     @Override
     @TruffleBoundary
     public boolean isIdentifier(PythonCore core, String snippet) {
@@ -209,6 +209,18 @@ public final class ScopeInfo {
         return explicitNonlocalVariables;
     }
 
+    public Set<String> getExplicitGlobalVariables() {
+        return explicitGlobalVariables;
+    }
+
+    public Set<String> getCellVars() {
+        return cellVars;
+    }
+
+    public Set<String> getFreeVars() {
+        return freeVars;
+    }
+
     public void addCellVar(String identifier) {
         addCellVar(identifier, false);
     }
@@ -57,7 +57,7 @@ public final class ArgDefListBuilder {
 
     private static final String SPLAT_MARKER_NAME = "*";
 
-    private class Parameter {
+    static class Parameter {
 
         protected final String name;
 
@@ -71,7 +71,7 @@ public final class ArgDefListBuilder {
 
     }
 
-    private class ParameterWithDefValue extends Parameter {
+    static final class ParameterWithDefValue extends Parameter {
 
         protected final SSTNode value;
 
@@ -162,6 +162,22 @@ public final class ArgDefListBuilder {
         kwarIndex = kwargs.size() - 1;
     }
 
+    List<Parameter> getArgs() {
+        return args;
+    }
+
+    List<Parameter> getKwargs() {
+        return kwargs;
+    }
+
+    int getSplatIndex() {
+        return splatIndex;
+    }
+
+    int getKwargIndex() {
+        return kwarIndex;
+    }
+
     public boolean hasDefaultParameter() {
         return argsWithDefValue != null;
     }
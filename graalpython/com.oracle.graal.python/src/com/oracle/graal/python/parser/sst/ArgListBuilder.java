@@ -109,6 +109,22 @@ public final class ArgListBuilder {
         return result;
     }
 
+    List<SSTNode> getNameArgNodes() {
+        return nameArgNodes;
+    }
+
+    List<String> getNameArgNames() {
+        return nameArgNames;
+    }
+
+    List<SSTNode> getStarArgs() {
+        return starArg;
+    }
+
+    List<SSTNode> getKwArgs() {
+        return kwArg;
+    }
+
     public boolean hasNameArg() {
         return !(nameArgNodes == null || nameArgNodes.isEmpty());
     }
@@ -89,6 +89,8 @@ import com.oracle.graal.python.nodes.function.ClassBodyRootNode;
 import com.oracle.graal.python.nodes.function.FunctionBodyNode;
 import com.oracle.graal.python.nodes.function.FunctionDefinitionNode;
 import com.oracle.graal.python.nodes.function.FunctionRootNode;
+import com.oracle.graal.python.nodes.function.GeneratorExpressionConsumerNode;
+import com.oracle.graal.python.nodes.function.GeneratorExpressionNode;
 import com.oracle.graal.python.nodes.function.GeneratorFunctionDefinitionNode;
 import com.oracle.graal.python.nodes.generator.GeneratorBlockNode;
 import com.oracle.graal.python.nodes.generator.GeneratorReturnTargetNode;
@@ -312,6 +314,19 @@ public class FactorySSTVisitor implements SSTreeVisitor<PNode> {
         ExpressionNode target = (ExpressionNode) node.target.accept(this);
 
         ArgListBuilder argBuilder = node.parameters;
+        SSTNode[] args = argBuilder.getArgs();
+        if (node.target instanceof VarLookupSSTNode && args.length == 1 && args[0] instanceof ForComprehensionSSTNode &&
+                        ((ForComprehensionSSTNode) args[0]).resultType == PythonBuiltinClassType.PGenerator &&
+                        !argBuilder.hasNameArg() && argBuilder.getStarArgs() == null && !argBuilder.hasKwArg()) {
+            // e.g. sum(x for x in xs): the consumer may drive the generator expression directly
+            GeneratorExpressionConsumerNode.Consumer consumer = GeneratorExpressionConsumerNode.getConsumer(((VarLookupSSTNode) node.target).name);
+            if (consumer != null) {
+                GeneratorExpressionNode generator = (GeneratorExpressionNode) args[0].accept(this);
+                ExpressionNode callNode = GeneratorExpressionConsumerNode.create(consumer, target, generator);
+                callNode.assignSourceSection(createSourceSection(node.startOffset, node.endOffset));
+                return callNode;
+            }
+        }
         ExpressionNode callNode = PythonCallNode.create(target, argBuilder.getArgs(this), argBuilder.getNameArgs(this), argBuilder.getStarArgs(this), argBuilder.getKwArgs(this));
         callNode.assignSourceSection(createSourceSection(node.startOffset, node.endOffset));
         return callNode;
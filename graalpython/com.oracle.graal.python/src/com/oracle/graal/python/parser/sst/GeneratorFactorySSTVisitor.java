@@ -58,6 +58,7 @@ import com.oracle.graal.python.nodes.expression.ExpressionNode;
 import com.oracle.graal.python.nodes.frame.ReadNode;
 import com.oracle.graal.python.nodes.frame.WriteNode;
 import com.oracle.graal.python.nodes.function.FunctionRootNode;
+import com.oracle.graal.python.nodes.function.GeneratorExpressionConsumerNode;
 import com.oracle.graal.python.nodes.function.GeneratorExpressionNode;
 import com.oracle.graal.python.nodes.generator.GeneratorBlockNode;
 import com.oracle.graal.python.nodes.generator.GeneratorForNode;
@@ -224,7 +225,7 @@ public class GeneratorFactorySSTVisitor extends FactorySSTVisitor {
         PNode result;
         switch (node.resultType) {
             case PList:
-                result = nodeFactory.callBuiltin(BuiltinNames.LIST, genExprDef);
+                result = GeneratorExpressionConsumerNode.create(GeneratorExpressionConsumerNode.Consumer.LIST, nodeFactory.getBuiltin(BuiltinNames.LIST), genExprDef);
                 result.assignSourceSection(createSourceSection(node.target.startOffset, node.endOffset));
                 break;
             case PSet:
@@ -0,0 +1,555 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.oracle.graal.python.parser.sst;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.nodes.expression.BinaryArithmetic;
+import com.oracle.graal.python.nodes.expression.UnaryArithmetic;
+import com.oracle.graal.python.parser.ScopeEnvironment;
+import com.oracle.graal.python.parser.ScopeInfo;
+import com.oracle.graal.python.parser.ScopeInfo.ScopeKind;
+
+/**
+ * Reads back the data written by {@link SSTSerializerVisitor}. The scope tree is rebuilt in the
+ * given {@link ScopeEnvironment}, so that a {@link FactorySSTVisitor} working on that environment
+ * can translate the returned tree as if it had just been parsed.
+ */
+public final class SSTDeserializer {
+
+    private static final PythonBuiltinClassType[] BUILTIN_TYPES = PythonBuiltinClassType.values();
+    private static final BinaryArithmetic[] BINARY_ARITHMETICS = BinaryArithmetic.values();
+    private static final UnaryArithmetic[] UNARY_ARITHMETICS = UnaryArithmetic.values();
+    private static final ScopeKind[] SCOPE_KINDS = ScopeKind.values();
+    private static final SimpleSSTNode.Type[] SIMPLE_TYPES = SimpleSSTNode.Type.values();
+
+    private final DataInputStream in;
+    private final List<ScopeInfo> scopes = new ArrayList<>();
+    private ScopeEnvironment scopeEnvironment;
+
+    private String sourceName;
+    private String sourceText;
+
+    public SSTDeserializer(byte[] data) {
+        this.in = new DataInputStream(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * Reads the header and the source text. Must be called before
+     * {@link #readTree(ScopeEnvironment)}.
+     */
+    public void readSource() throws IOException {
+        byte[] magic = new byte[SSTSerializerVisitor.MAGIC.length];
+        in.readFully(magic);
+        for (int i = 0; i < magic.length; i++) {
+            if (magic[i] != SSTSerializerVisitor.MAGIC[i]) {
+                throw new IOException("not a serialized syntax tree");
+            }
+        }
+        byte version = in.readByte();
+        if (version != SSTSerializerVisitor.FORMAT_VERSION) {
+            throw new IOException("unsupported serialized syntax tree version " + version);
+        }
+        // file names of code objects are interned by marshal, keep the source name consistent
+        sourceName = readString().intern();
+        sourceText = readString();
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public String getSourceText() {
+        return sourceText;
+    }
+
+    /**
+     * Rebuilds the scope tree in the given, fresh, scope environment and returns the root of the
+     * syntax tree.
+     */
+    public SSTNode readTree(ScopeEnvironment environment) throws IOException {
+        assert environment.getGlobalScope() == null : "scope environment must be fresh";
+        this.scopeEnvironment = environment;
+        readScope();
+        scopeEnvironment.setCurrentScope(scopeEnvironment.getGlobalScope());
+        return readNode();
+    }
+
+    private void readScope() throws IOException {
+        String scopeId = readString();
+        ScopeKind kind = SCOPE_KINDS[in.readByte()];
+        ScopeInfo scope = scopeEnvironment.pushScope(scopeId, kind, null);
+        scopes.add(scope);
+        scope.setHasAnnotations(in.readBoolean());
+        int identifiers = in.readInt();
+        for (int i = 0; i < identifiers; i++) {
+            scope.createSlotIfNotPresent(readName());
+        }
+        String[] cellVars = readStringArray();
+        if (cellVars != null) {
+            for (String cellVar : cellVars) {
+                scope.addCellVar(cellVar);
+            }
+        }
+        String[] freeVars = readStringArray();
+        if (freeVars != null) {
+            for (String freeVar : freeVars) {
+                scope.addFreeVar(freeVar, false);
+            }
+        }
+        String[] globals = readStringArray();
+        if (globals != null) {
+            for (String global : globals) {
+                scope.addExplicitGlobalVariable(global);
+            }
+        }
+        String[] nonlocals = readStringArray();
+        if (nonlocals != null) {
+            for (String nonlocal : nonlocals) {
+                scope.addExplicitNonlocalVariable(nonlocal);
+            }
+        }
+        int children = in.readInt();
+        for (int i = 0; i < children; i++) {
+            readScope();
+        }
+        scopeEnvironment.setCurrentScope(scope.getParent());
+    }
+
+    private ScopeInfo readScopeRef() throws IOException {
+        int index = in.readInt();
+        return index == -1 ? null : scopes.get(index);
+    }
+
+    private String readString() throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = in.readChar();
+        }
+        return new String(chars);
+    }
+
+    private String readName() throws IOException {
+        String name = readString();
+        return name == null ? null : name.intern();
+    }
+
+    private String[] readStringArray() throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        String[] result = new String[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = readName();
+        }
+        return result;
+    }
+
+    private SSTNode[] readNodes() throws IOException {
+        return readNodes(SSTNode.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends SSTNode> T[] readNodes(Class<T> type) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        T[] result = (T[]) Array.newInstance(type, length);
+        for (int i = 0; i < length; i++) {
+            result[i] = type.cast(readNode());
+        }
+        return result;
+    }
+
+    private ArgListBuilder readArgList() throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        ArgListBuilder args = new ArgListBuilder();
+        SSTNode[] positional = readNodes();
+        for (SSTNode arg : positional) {
+            args.addArg(arg);
+        }
+        SSTNode[] namedValues = readNodes();
+        String[] names = readStringArray();
+        if (namedValues != null) {
+            for (int i = 0; i < namedValues.length; i++) {
+                args.addNamedArg(names[i], namedValues[i]);
+            }
+        }
+        SSTNode[] starArgs = readNodes();
+        if (starArgs != null) {
+            for (SSTNode starArg : starArgs) {
+                args.addStarArg(starArg);
+            }
+        }
+        SSTNode[] kwArgs = readNodes();
+        if (kwArgs != null) {
+            for (SSTNode kwArg : kwArgs) {
+                args.addKwArg(kwArg);
+            }
+        }
+        return args;
+    }
+
+    /**
+     * Replays the parameters through the same {@link ArgDefListBuilder} API the parser uses, so
+     * that the builder ends up in the same state.
+     */
+    private ArgDefListBuilder readArgDefList() throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        ArgDefListBuilder args = new ArgDefListBuilder(scopeEnvironment);
+        int splatIndex = in.readInt();
+        int kwargIndex = in.readInt();
+        int positionalOnlyIndex = in.readInt();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            if (i == positionalOnlyIndex) {
+                args.markPositionalOnlyIndex();
+            }
+            String name = readName();
+            SSTNode type = readNode();
+            SSTNode defValue = readNode();
+            if (i == splatIndex) {
+                args.addSplat(name, type);
+            } else {
+                args.addParam(name, type, defValue);
+            }
+        }
+        if (count > 0 && count == positionalOnlyIndex) {
+            args.markPositionalOnlyIndex();
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String name = readName();
+            SSTNode type = readNode();
+            SSTNode defValue = readNode();
+            if (i == kwargIndex) {
+                args.addKwargs(name, type);
+            } else {
+                args.addParam(name, type, defValue);
+            }
+        }
+        return args;
+    }
+
+    private SSTNode readNode() throws IOException {
+        byte kind = in.readByte();
+        if (kind == SSTSerializerVisitor.NULL_NODE) {
+            return null;
+        }
+        int startOffset = in.readInt();
+        int endOffset = in.readInt();
+        SSTNode result;
+        switch (kind) {
+            case SSTSerializerVisitor.AND:
+                result = new AndSSTNode(readNodes(), startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.ANN_ASSIGNMENT: {
+                SSTNode lhs = readNode();
+                SSTNode type = readNode();
+                result = new AnnAssignmentSSTNode(lhs, type, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.ASSERT: {
+                SSTNode test = readNode();
+                result = new AssertSSTNode(test, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.ASSIGNMENT: {
+                SSTNode[] lhs = readNodes();
+                result = new AssignmentSSTNode(lhs, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.AUG_ASSIGNMENT: {
+                SSTNode lhs = readNode();
+                String operation = readString();
+                result = new AugAssignmentSSTNode(lhs, operation, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.BINARY_ARITHMETIC: {
+                BinaryArithmetic operation = BINARY_ARITHMETICS[in.readByte()];
+                SSTNode left = readNode();
+                result = new BinaryArithmeticSSTNode(operation, left, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.BLOCK:
+                result = new BlockSSTNode(readNodes(), startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.BOOLEAN_LITERAL:
+                result = new BooleanLiteralSSTNode(in.readBoolean(), startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.CALL: {
+                SSTNode target = readNode();
+                result = new CallSSTNode(target, readArgList(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.CLASS: {
+                ScopeInfo scope = readScopeRef();
+                String name = readName();
+                ArgListBuilder baseClasses = readArgList();
+                result = new ClassSSTNode(scope, name, baseClasses, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.COLLECTION: {
+                SSTNode[] values = readNodes();
+                int type = in.readInt();
+                result = new CollectionSSTNode(values, type == -1 ? null : BUILTIN_TYPES[type], startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.COMPARISON: {
+                SSTNode firstValue = readNode();
+                String[] operations = readStringArray();
+                result = new ComparisonSSTNode(firstValue, operations, readNodes(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.DECORATED: {
+                DecoratorSSTNode[] decorators = readNodes(DecoratorSSTNode.class);
+                result = new DecoratedSSTNode(decorators, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.DECORATOR: {
+                String name = readName();
+                result = new DecoratorSSTNode(name, readArgList(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.DEL:
+                result = new DelSSTNode(readNodes(), startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.EXCEPT: {
+                SSTNode test = readNode();
+                String asName = readName();
+                result = new ExceptSSTNode(test, asName, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.EXPRESSION_STATEMENT:
+                result = new ExpressionStatementSSTNode(readNode());
+                break;
+            case SSTSerializerVisitor.FLOAT_LITERAL: {
+                String value = readString();
+                result = new FloatLiteralSSTNode(value, in.readBoolean(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.FOR_COMPREHENSION: {
+                ScopeInfo scope = readScopeRef();
+                boolean async = in.readBoolean();
+                SSTNode target = readNode();
+                SSTNode name = readNode();
+                SSTNode[] variables = readNodes();
+                SSTNode iterator = readNode();
+                SSTNode[] conditions = readNodes();
+                int resultType = in.readInt();
+                int line = in.readInt();
+                int level = in.readInt();
+                result = new ForComprehensionSSTNode(scope, async, target, name, variables, iterator, conditions, resultType == -1 ? null : BUILTIN_TYPES[resultType], line, level, startOffset,
+                                endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.FOR: {
+                SSTNode[] targets = readNodes();
+                SSTNode iterator = readNode();
+                SSTNode body = readNode();
+                SSTNode elseStatement = readNode();
+                ForSSTNode forNode = new ForSSTNode(targets, iterator, body, in.readBoolean(), startOffset, endOffset);
+                forNode.setElse(elseStatement);
+                forNode.setContainsBreak(in.readBoolean());
+                result = forNode;
+                break;
+            }
+            case SSTSerializerVisitor.FUNCTION_DEF: {
+                ScopeInfo scope = readScopeRef();
+                String name = readName();
+                String enclosingClassName = readName();
+                ArgDefListBuilder argBuilder = readArgDefList();
+                result = new FunctionDefSSTNode(scope, name, enclosingClassName, argBuilder, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.GET_ATTRIBUTE: {
+                SSTNode receiver = readNode();
+                result = new GetAttributeSSTNode(receiver, readName(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.IF: {
+                SSTNode test = readNode();
+                SSTNode thenStatement = readNode();
+                result = new IfSSTNode(test, thenStatement, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.IMPORT_FROM: {
+                ScopeInfo scope = readScopeRef();
+                String from = readString();
+                int length = in.readInt();
+                String[][] asNames = null;
+                if (length != -1) {
+                    asNames = new String[length][];
+                    for (int i = 0; i < length; i++) {
+                        asNames[i] = readStringArray();
+                    }
+                }
+                result = new ImportFromSSTNode(scope, from, asNames, startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.IMPORT: {
+                ScopeInfo scope = readScopeRef();
+                String name = readName();
+                result = new ImportSSTNode(scope, name, readName(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.LAMBDA: {
+                ScopeInfo scope = readScopeRef();
+                ArgDefListBuilder args = readArgDefList();
+                result = new LambdaSSTNode(scope, args, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.NOT:
+                result = new NotSSTNode(readNode(), startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.NUMBER_LITERAL: {
+                String value = readString();
+                int start = in.readInt();
+                int base = in.readInt();
+                NumberLiteralSSTNode number = new NumberLiteralSSTNode(value, start, base, startOffset, endOffset);
+                number.setIsNegative(in.readBoolean());
+                result = number;
+                break;
+            }
+            case SSTSerializerVisitor.OR:
+                result = new OrSSTNode(readNodes(), startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.RAISE: {
+                SSTNode value = readNode();
+                result = new RaiseSSTNode(value, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.RETURN:
+                result = new ReturnSSTNode(readNode(), startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.SIMPLE:
+                result = new SimpleSSTNode(SIMPLE_TYPES[in.readByte()], startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.SLICE: {
+                SSTNode start = readNode();
+                SSTNode stop = readNode();
+                result = new SliceSSTNode(start, stop, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.STAR:
+                result = new StarSSTNode(readNode(), startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.STRING_LITERAL:
+                result = new StringLiteralSSTNode(readStringArray(), startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.SUBSCRIPT: {
+                SSTNode receiver = readNode();
+                result = new SubscriptSSTNode(receiver, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.TERNARY_ARITHMETIC: {
+                SSTNode left = readNode();
+                result = new TernaryArithmeticSSTNode(left, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.TERNARY_IF: {
+                SSTNode test = readNode();
+                SSTNode thenStatement = readNode();
+                result = new TernaryIfSSTNode(test, thenStatement, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.TRY: {
+                SSTNode body = readNode();
+                ExceptSSTNode[] exceptNodes = readNodes(ExceptSSTNode.class);
+                SSTNode elseStatement = readNode();
+                result = new TrySSTNode(body, exceptNodes, elseStatement, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.UNARY: {
+                UnaryArithmetic arithmetic = UNARY_ARITHMETICS[in.readByte()];
+                result = new UnarySSTNode(arithmetic, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.VAR_LOOKUP:
+                result = new VarLookupSSTNode(readName(), startOffset, endOffset);
+                break;
+            case SSTSerializerVisitor.WHILE: {
+                SSTNode test = readNode();
+                SSTNode body = readNode();
+                SSTNode elseStatement = readNode();
+                boolean containsContinue = in.readBoolean();
+                WhileSSTNode whileNode = new WhileSSTNode(test, body, containsContinue, in.readBoolean(), startOffset, endOffset);
+                whileNode.setElse(elseStatement);
+                result = whileNode;
+                break;
+            }
+            case SSTSerializerVisitor.WITH: {
+                SSTNode expression = readNode();
+                SSTNode target = readNode();
+                result = new WithSSTNode(expression, target, readNode(), startOffset, endOffset);
+                break;
+            }
+            case SSTSerializerVisitor.YIELD_EXPRESSION: {
+                SSTNode value = readNode();
+                result = new YieldExpressionSSTNode(value, in.readBoolean(), startOffset, endOffset);
+                break;
+            }
+            default:
+                throw new IOException("unknown serialized syntax tree node kind " + kind);
+        }
+        // some nodes derive their offsets from their children, restore the recorded ones
+        result.setStartOffset(startOffset);
+        result.setEndOffset(endOffset);
+        return result;
+    }
+}
@@ -0,0 +1,861 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.oracle.graal.python.parser.sst;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.graal.python.parser.ScopeInfo;
+
+/**
+ * Writes a simple syntax tree together with the scope tree computed for it by the parser, so that
+ * {@link SSTDeserializer} can rebuild both and hand them to the {@link FactorySSTVisitor} without
+ * running the ANTLR parser again. The format is private to this package and versioned through
+ * {@link #FORMAT_VERSION}; scopes are written first and referenced by their index from the nodes.
+ */
+public final class SSTSerializerVisitor implements SSTreeVisitor<Boolean> {
+
+    /** Marks the start of serialized code so it can be told apart from a source codestring. */
+    public static final byte[] MAGIC = new byte[]{0, 'S', 'S', 'T'};
+    public static final byte FORMAT_VERSION = 1;
+
+    static final byte NULL_NODE = 0;
+    static final byte AND = 1;
+    static final byte ANN_ASSIGNMENT = 2;
+    static final byte ASSERT = 3;
+    static final byte ASSIGNMENT = 4;
+    static final byte AUG_ASSIGNMENT = 5;
+    static final byte BINARY_ARITHMETIC = 6;
+    static final byte BLOCK = 7;
+    static final byte BOOLEAN_LITERAL = 8;
+    static final byte CALL = 9;
+    static final byte CLASS = 10;
+    static final byte COLLECTION = 11;
+    static final byte COMPARISON = 12;
+    static final byte DECORATED = 13;
+    static final byte DECORATOR = 14;
+    static final byte DEL = 15;
+    static final byte EXCEPT = 16;
+    static final byte EXPRESSION_STATEMENT = 17;
+    static final byte FLOAT_LITERAL = 18;
+    static final byte FOR_COMPREHENSION = 19;
+    static final byte FOR = 20;
+    static final byte FUNCTION_DEF = 21;
+    static final byte GET_ATTRIBUTE = 22;
+    static final byte IF = 23;
+    static final byte IMPORT_FROM = 24;
+    static final byte IMPORT = 25;
+    static final byte LAMBDA = 26;
+    static final byte NOT = 27;
+    static final byte NUMBER_LITERAL = 28;
+    static final byte OR = 29;
+    static final byte RAISE = 30;
+    static final byte RETURN = 31;
+    static final byte SIMPLE = 32;
+    static final byte SLICE = 33;
+    static final byte STAR = 34;
+    static final byte STRING_LITERAL = 35;
+    static final byte SUBSCRIPT = 36;
+    static final byte TERNARY_ARITHMETIC = 37;
+    static final byte TERNARY_IF = 38;
+    static final byte TRY = 39;
+    static final byte UNARY = 40;
+    static final byte VAR_LOOKUP = 41;
+    static final byte WHILE = 42;
+    static final byte WITH = 43;
+    static final byte YIELD_EXPRESSION = 44;
+
+    private final DataOutputStream out;
+    private final Map<ScopeInfo, Integer> scopeIndices = new HashMap<>();
+
+    private SSTSerializerVisitor(DataOutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Serializes the module source text, the scope tree rooted at {@code globalScope} and the
+     * simple syntax tree {@code root} into {@code out}.
+     */
+    public static void serialize(DataOutputStream out, String sourceName, CharSequence sourceText, ScopeInfo globalScope, SSTNode root) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        SSTSerializerVisitor visitor = new SSTSerializerVisitor(out);
+        visitor.writeString(sourceName);
+        visitor.writeString(sourceText.toString());
+        visitor.writeScope(globalScope);
+        try {
+            root.accept(visitor);
+        } catch (SerializationError e) {
+            throw (IOException) e.getCause();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the given bytes were produced by
+     * {@link #serialize(DataOutputStream, String, CharSequence, ScopeInfo, SSTNode)}.
+     */
+    public static boolean isSerialized(byte[] data) {
+        if (data == null || data.length <= MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return data[MAGIC.length] == FORMAT_VERSION;
+    }
+
+    /**
+     * The {@link SSTreeVisitor} methods cannot throw checked exceptions, so I/O errors are tunneled
+     * through this wrapper and unwrapped again in {@link #serialize}.
+     */
+    private static final class SerializationError extends RuntimeException {
+        private static final long serialVersionUID = 5213298146358014178L;
+
+        SerializationError(IOException cause) {
+            super(cause);
+        }
+    }
+
+    private void writeScope(ScopeInfo scope) throws IOException {
+        scopeIndices.put(scope, scopeIndices.size());
+        writeString(scope.getScopeId());
+        out.writeByte(scope.getScopeKind().ordinal());
+        out.writeBoolean(scope.hasAnnotations());
+        Collection<Object> identifiers = scope.getFrameDescriptor().getIdentifiers();
+        out.writeInt(identifiers.size());
+        for (Object identifier : identifiers) {
+            writeString((String) identifier);
+        }
+        writeStrings(scope.getCellVars());
+        writeStrings(scope.getFreeVars());
+        writeStrings(scope.getExplicitGlobalVariables());
+        writeStrings(scope.getExplicitNonlocalVariables());
+        // children are linked in reverse order of creation, restore the creation order so that the
+        // deserialized scope links up the same way
+        List<ScopeInfo> children = new ArrayList<>();
+        for (ScopeInfo child = scope.getFirstChildScope(); child != null; child = child.getNextChildScope()) {
+            children.add(0, child);
+        }
+        out.writeInt(children.size());
+        for (ScopeInfo child : children) {
+            writeScope(child);
+        }
+    }
+
+    private void writeStrings(Collection<String> strings) throws IOException {
+        if (strings == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(strings.size());
+            for (String s : strings) {
+                writeString(s);
+            }
+        }
+    }
+
+    private void writeStringArray(String[] strings) throws IOException {
+        if (strings == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(strings.length);
+            for (String s : strings) {
+                writeString(s);
+            }
+        }
+    }
+
+    /**
+     * Strings are written char by char rather than with {@link DataOutputStream#writeUTF}, which
+     * is limited to 64k and cannot represent lone surrogates.
+     */
+    private void writeString(String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(s.length());
+            out.writeChars(s);
+        }
+    }
+
+    private void writeScopeRef(ScopeInfo scope) throws IOException {
+        if (scope == null) {
+            out.writeInt(-1);
+        } else {
+            Integer index = scopeIndices.get(scope);
+            if (index == null) {
+                throw new IOException("scope " + scope + " is not part of the serialized scope tree");
+            }
+            out.writeInt(index);
+        }
+    }
+
+    private void writeHeader(byte kind, SSTNode node) throws IOException {
+        out.writeByte(kind);
+        out.writeInt(node.startOffset);
+        out.writeInt(node.endOffset);
+    }
+
+    private void writeNode(SSTNode node) throws IOException {
+        if (node == null) {
+            out.writeByte(NULL_NODE);
+        } else {
+            node.accept(this);
+        }
+    }
+
+    private void writeNodes(SSTNode[] nodes) throws IOException {
+        if (nodes == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(nodes.length);
+            for (SSTNode node : nodes) {
+                writeNode(node);
+            }
+        }
+    }
+
+    private void writeNodes(List<SSTNode> nodes) throws IOException {
+        writeNodes(nodes == null ? null : nodes.toArray(new SSTNode[nodes.size()]));
+    }
+
+    private void writeArgList(ArgListBuilder args) throws IOException {
+        out.writeBoolean(args != null);
+        if (args != null) {
+            writeNodes(args.getArgs());
+            writeNodes(args.getNameArgNodes());
+            List<String> names = args.getNameArgNames();
+            writeStringArray(names == null ? null : names.toArray(new String[names.size()]));
+            writeNodes(args.getStarArgs());
+            writeNodes(args.getKwArgs());
+        }
+    }
+
+    private void writeParameters(List<ArgDefListBuilder.Parameter> params) throws IOException {
+        if (params == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(params.size());
+            for (ArgDefListBuilder.Parameter param : params) {
+                writeString(param.name);
+                writeNode(param.type);
+                writeNode(param instanceof ArgDefListBuilder.ParameterWithDefValue ? ((ArgDefListBuilder.ParameterWithDefValue) param).value : null);
+            }
+        }
+    }
+
+    private void writeArgDefList(ArgDefListBuilder args) throws IOException {
+        out.writeBoolean(args != null);
+        if (args != null) {
+            out.writeInt(args.getSplatIndex());
+            out.writeInt(args.getKwargIndex());
+            out.writeInt(args.getPositionalOnlyIndex());
+            writeParameters(args.getArgs());
+            writeParameters(args.getKwargs());
+        }
+    }
+
+    @Override
+    public Boolean visit(AndSSTNode node) {
+        try {
+            writeHeader(AND, node);
+            writeNodes(node.values);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(AnnAssignmentSSTNode node) {
+        try {
+            writeHeader(ANN_ASSIGNMENT, node);
+            writeNode(node.lhs[0]);
+            writeNode(node.type);
+            writeNode(node.rhs);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(AssertSSTNode node) {
+        try {
+            writeHeader(ASSERT, node);
+            writeNode(node.test);
+            writeNode(node.message);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(AssignmentSSTNode node) {
+        try {
+            writeHeader(ASSIGNMENT, node);
+            writeNodes(node.lhs);
+            writeNode(node.rhs);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(AugAssignmentSSTNode node) {
+        try {
+            writeHeader(AUG_ASSIGNMENT, node);
+            writeNode(node.lhs);
+            writeString(node.operation);
+            writeNode(node.rhs);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(BinaryArithmeticSSTNode node) {
+        try {
+            writeHeader(BINARY_ARITHMETIC, node);
+            out.writeByte(node.operation.ordinal());
+            writeNode(node.left);
+            writeNode(node.right);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(BlockSSTNode node) {
+        try {
+            writeHeader(BLOCK, node);
+            writeNodes(node.statements);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(BooleanLiteralSSTNode node) {
+        try {
+            writeHeader(BOOLEAN_LITERAL, node);
+            out.writeBoolean(node.value);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(CallSSTNode node) {
+        try {
+            writeHeader(CALL, node);
+            writeNode(node.target);
+            writeArgList(node.parameters);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(ClassSSTNode node) {
+        try {
+            writeHeader(CLASS, node);
+            writeScopeRef(node.classScope);
+            writeString(node.name);
+            writeArgList(node.baseClasses);
+            writeNode(node.body);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(CollectionSSTNode node) {
+        try {
+            writeHeader(COLLECTION, node);
+            writeNodes(node.values);
+            out.writeInt(node.type == null ? -1 : node.type.ordinal());
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(ComparisonSSTNode node) {
+        try {
+            writeHeader(COMPARISON, node);
+            writeNode(node.firstValue);
+            writeStringArray(node.operations);
+            writeNodes(node.otherValues);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(DecoratedSSTNode node) {
+        try {
+            writeHeader(DECORATED, node);
+            writeNodes(node.decorators);
+            writeNode(node.decorated);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(DecoratorSSTNode node) {
+        try {
+            writeHeader(DECORATOR, node);
+            writeString(node.name);
+            writeArgList(node.arg);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(DelSSTNode node) {
+        try {
+            writeHeader(DEL, node);
+            writeNodes(node.expressions);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(ExceptSSTNode node) {
+        try {
+            writeHeader(EXCEPT, node);
+            writeNode(node.test);
+            writeString(node.asName);
+            writeNode(node.body);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(ExpressionStatementSSTNode node) {
+        try {
+            writeHeader(EXPRESSION_STATEMENT, node);
+            writeNode(node.expression);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(FloatLiteralSSTNode node) {
+        try {
+            writeHeader(FLOAT_LITERAL, node);
+            writeString(node.value);
+            out.writeBoolean(node.imaginary);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(ForComprehensionSSTNode node) {
+        try {
+            writeHeader(FOR_COMPREHENSION, node);
+            writeScopeRef(node.scope);
+            out.writeBoolean(node.async);
+            writeNode(node.target);
+            writeNode(node.name);
+            writeNodes(node.variables);
+            writeNode(node.iterator);
+            writeNodes(node.conditions);
+            out.writeInt(node.resultType == null ? -1 : node.resultType.ordinal());
+            out.writeInt(node.line);
+            out.writeInt(node.level);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(ForSSTNode node) {
+        try {
+            writeHeader(FOR, node);
+            writeNodes(node.targets);
+            writeNode(node.iterator);
+            writeNode(node.body);
+            writeNode(node.elseStatement);
+            out.writeBoolean(node.containsContinue);
+            out.writeBoolean(node.containsBreak);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(FunctionDefSSTNode node) {
+        try {
+            writeHeader(FUNCTION_DEF, node);
+            writeScopeRef(node.functionScope);
+            writeString(node.name);
+            writeString(node.enclosingClassName);
+            writeArgDefList(node.argBuilder);
+            writeNode(node.body);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(GetAttributeSSTNode node) {
+        try {
+            writeHeader(GET_ATTRIBUTE, node);
+            writeNode(node.receiver);
+            writeString(node.name);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(IfSSTNode node) {
+        try {
+            writeHeader(IF, node);
+            writeNode(node.test);
+            writeNode(node.thenStatement);
+            writeNode(node.elseStatement);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(ImportFromSSTNode node) {
+        try {
+            writeHeader(IMPORT_FROM, node);
+            writeScopeRef(node.scope);
+            writeString(node.from);
+            if (node.asNames == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(node.asNames.length);
+                for (String[] asName : node.asNames) {
+                    writeStringArray(asName);
+                }
+            }
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(ImportSSTNode node) {
+        try {
+            writeHeader(IMPORT, node);
+            writeScopeRef(node.scope);
+            writeString(node.name);
+            writeString(node.asName);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(LambdaSSTNode node) {
+        try {
+            writeHeader(LAMBDA, node);
+            writeScopeRef(node.functionScope);
+            writeArgDefList(node.args);
+            writeNode(node.body);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(NotSSTNode node) {
+        try {
+            writeHeader(NOT, node);
+            writeNode(node.value);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(NumberLiteralSSTNode node) {
+        try {
+            writeHeader(NUMBER_LITERAL, node);
+            writeString(node.value);
+            out.writeInt(node.start);
+            out.writeInt(node.base);
+            out.writeBoolean(node.negative);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(OrSSTNode node) {
+        try {
+            writeHeader(OR, node);
+            writeNodes(node.values);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(RaiseSSTNode node) {
+        try {
+            writeHeader(RAISE, node);
+            writeNode(node.value);
+            writeNode(node.from);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(ReturnSSTNode node) {
+        try {
+            writeHeader(RETURN, node);
+            writeNode(node.value);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(SimpleSSTNode node) {
+        try {
+            writeHeader(SIMPLE, node);
+            out.writeByte(node.type.ordinal());
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(SliceSSTNode node) {
+        try {
+            writeHeader(SLICE, node);
+            writeNode(node.start);
+            writeNode(node.stop);
+            writeNode(node.step);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(StarSSTNode node) {
+        try {
+            writeHeader(STAR, node);
+            writeNode(node.value);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(StringLiteralSSTNode node) {
+        try {
+            writeHeader(STRING_LITERAL, node);
+            writeStringArray(node.values);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(SubscriptSSTNode node) {
+        try {
+            writeHeader(SUBSCRIPT, node);
+            writeNode(node.receiver);
+            writeNode(node.subscript);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(TernaryArithmeticSSTNode node) {
+        try {
+            writeHeader(TERNARY_ARITHMETIC, node);
+            writeNode(node.left);
+            writeNode(node.right);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(TernaryIfSSTNode node) {
+        try {
+            writeHeader(TERNARY_IF, node);
+            writeNode(node.test);
+            writeNode(node.thenStatement);
+            writeNode(node.elseStatement);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(TrySSTNode node) {
+        try {
+            writeHeader(TRY, node);
+            writeNode(node.body);
+            writeNodes(node.exceptNodes);
+            writeNode(node.elseStatement);
+            writeNode(node.finallyStatement);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(UnarySSTNode node) {
+        try {
+            writeHeader(UNARY, node);
+            out.writeByte(node.arithmetic.ordinal());
+            writeNode(node.value);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(VarLookupSSTNode node) {
+        try {
+            writeHeader(VAR_LOOKUP, node);
+            writeString(node.name);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(WhileSSTNode node) {
+        try {
+            writeHeader(WHILE, node);
+            writeNode(node.test);
+            writeNode(node.body);
+            writeNode(node.elseStatement);
+            out.writeBoolean(node.containsContinue);
+            out.writeBoolean(node.containsBreak);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(WithSSTNode node) {
+        try {
+            writeHeader(WITH, node);
+            writeNode(node.expression);
+            writeNode(node.target);
+            writeNode(node.body);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visit(YieldExpressionSSTNode node) {
+        try {
+            writeHeader(YIELD_EXPRESSION, node);
+            writeNode(node.value);
+            out.writeBoolean(node.isFrom);
+        } catch (IOException e) {
+            throw new SerializationError(e);
+        }
+        return true;
+    }
+}
@@ -41,6 +41,8 @@
 package com.oracle.graal.python.runtime;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -60,6 +62,7 @@ import com.oracle.graal.python.nodes.frame.MaterializeFrameNode;
 import com.oracle.graal.python.nodes.frame.MaterializeFrameNodeGen;
 import com.oracle.graal.python.nodes.frame.ReadCallerFrameNode;
 import com.oracle.graal.python.runtime.ExecutionContext.CalleeContext;
+import com.oracle.graal.python.runtime.exception.PythonThreadKillException;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
@@ -110,6 +113,9 @@ public class AsyncHandler {
     private final Lock executingScheduledActions = new ReentrantLock();
     private static final int ASYNC_ACTION_DELAY = 15; // chosen by a fair D20 dice roll
 
+    /** The threads that must stop at their next poll point, see {@link #cancel(Set)}. */
+    private volatile Set<Thread> cancelledThreads = Collections.emptySet();
+
     private class AsyncRunnable implements Runnable {
         private final Supplier<AsyncAction> actionSupplier;
 
@@ -197,10 +203,26 @@ public class AsyncHandler {
         // need the ordering guarantees.
         if (hasScheduledAction) {
             CompilerDirectives.transferToInterpreter();
+            if (cancelledThreads.contains(Thread.currentThread())) {
+                throw PythonThreadKillException.INSTANCE;
+            }
             processAsyncActions(frame, location);
         }
     }
 
+    boolean hasPendingActions() {
+        return hasScheduledAction;
+    }
+
+    /**
+     * Makes the given threads throw {@link PythonThreadKillException} at their next poll point. The
+     * set is not copied, so threads that have already ended can be removed from it.
+     */
+    void cancel(Set<Thread> threads) {
+        cancelledThreads = threads;
+        hasScheduledAction = true;
+    }
+
     /**
      * It's fine that there is a race between checking the hasScheduledAction flag and processing
      * actions, we use the executingScheduledActions lock to ensure that only one thread is
@@ -236,6 +258,10 @@ public class AsyncHandler {
     private void processAsyncActions(VirtualFrame frame, Node location) {
         if (executingScheduledActions.tryLock()) {
             hasScheduledAction = false;
+            if (!cancelledThreads.isEmpty()) {
+                // the cancelled threads still have to see the flag
+                hasScheduledAction = true;
+            }
             try {
                 ConcurrentLinkedQueue<AsyncAction> actions = scheduledActions;
                 AsyncAction action;
@@ -252,6 +278,8 @@ public class AsyncHandler {
 
                         try {
                             GenericInvokeNode.getUncached().execute(frame, callTarget, args);
+                        } catch (PythonThreadKillException e) {
+                            throw e;
                         } catch (RuntimeException e) {
                             // we cannot raise the exception here (well, we could, but CPython
                             // doesn't), so we do what they do and just print it
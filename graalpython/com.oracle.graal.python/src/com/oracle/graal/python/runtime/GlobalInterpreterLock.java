@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * An optional global interpreter lock for code that relies on the atomicity CPython's GIL gives.
+ * Python threads hold it while they run and release it around blocking operations. A thread that
+ * waits longer than the switch interval requests the holder to drop the lock, which the holder
+ * does at the next poll point (loop back-edges and function entries, see
+ * {@link PythonContext#triggerAsyncActions}). The lock is fair, so the waiting thread gets it
+ * next.
+ */
+public final class GlobalInterpreterLock {
+
+    /** The default switch interval of CPython, 5ms. */
+    private static final long DEFAULT_SWITCH_INTERVAL_NANOS = 5_000_000L;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private volatile boolean dropRequested;
+    private volatile long switchIntervalNanos = DEFAULT_SWITCH_INTERVAL_NANOS;
+
+    /** Only written by the thread holding the lock. */
+    private long acquiredAt;
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong switches = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong holdNanos = new AtomicLong();
+
+    public double getSwitchInterval() {
+        return switchIntervalNanos / 1e9;
+    }
+
+    public void setSwitchInterval(double seconds) {
+        switchIntervalNanos = Math.max(1L, (long) (seconds * 1e9));
+    }
+
+    /**
+     * Acquires the lock unless the current thread already holds it.
+     *
+     * @return {@code true} if the lock was acquired and must be released by the caller
+     */
+    @TruffleBoundary
+    public boolean acquire() {
+        if (lock.isHeldByCurrentThread()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                // unlike 'tryLock()', this respects the fairness of the lock
+                if (lock.tryLock(switchIntervalNanos, TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                dropRequested = true;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        long now = System.nanoTime();
+        acquiredAt = now;
+        acquisitions.incrementAndGet();
+        waitNanos.addAndGet(now - start);
+        return true;
+    }
+
+    /**
+     * Releases the lock if the current thread holds it.
+     *
+     * @return {@code true} if the lock was released and must be reacquired by the caller
+     */
+    @TruffleBoundary
+    public boolean release() {
+        if (!lock.isHeldByCurrentThread()) {
+            return false;
+        }
+        holdNanos.addAndGet(System.nanoTime() - acquiredAt);
+        lock.unlock();
+        return true;
+    }
+
+    /**
+     * Gives other threads a chance to run if one of them asked for the lock. This is called at
+     * every poll point, so the fast path is a single volatile read.
+     */
+    public void yieldIfRequested() {
+        if (dropRequested) {
+            yieldLock();
+        }
+    }
+
+    @TruffleBoundary
+    private void yieldLock() {
+        dropRequested = false;
+        if (lock.isHeldByCurrentThread() && lock.hasQueuedThreads()) {
+            switches.incrementAndGet();
+            release();
+            acquire();
+        }
+    }
+
+    /**
+     * Returns the number of acquisitions and forced switches, and the accumulated wait and hold
+     * times in nanoseconds.
+     */
+    public long[] getStatistics() {
+        return new long[]{acquisitions.get(), switches.get(), waitNanos.get(), holdNanos.get()};
+    }
+}
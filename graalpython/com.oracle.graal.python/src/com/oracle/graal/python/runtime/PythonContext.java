@@ -45,6 +45,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
@@ -71,6 +73,7 @@ import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
+import com.oracle.graal.python.builtins.objects.type.TypeAttributeCache;
 import com.oracle.graal.python.nodes.SpecialAttributeNames;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
@@ -78,6 +81,7 @@ import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.runtime.AsyncHandler.AsyncAction;
 import com.oracle.graal.python.runtime.exception.ExceptionUtils;
 import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.exception.PythonThreadKillException;
 import com.oracle.graal.python.util.ShutdownHook;
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
@@ -178,6 +182,13 @@ public final class PythonContext {
     private final AtomicLong globalId = new AtomicLong(Integer.MAX_VALUE * 2L + 4L);
     private final ThreadGroup threadGroup = new ThreadGroup(GRAALPYTHON_THREADS);
 
+    /*
+     * virtual threads are not created by Truffle and do not belong to 'threadGroup', so we track
+     * them ourselves to count and cancel them
+     */
+    private final Set<Thread> virtualThreads = ConcurrentHashMap.newKeySet();
+    private static final long VIRTUAL_THREAD_JOIN_TIMEOUT_MILLIS = 1000;
+
     // if set to 0 the VM will set it to whatever it likes
     private final AtomicLong pythonThreadStackSize = new AtomicLong(0);
     private final Assumption nativeObjectsAllManagedAssumption = Truffle.getRuntime().createAssumption("all C API objects are managed");
@@ -204,6 +215,7 @@ public final class PythonContext {
     private InputStream in;
     @CompilationFinal private CApiContext cApiContext;
     private final Assumption singleThreaded = Truffle.getRuntime().createAssumption("single Threaded");
+    private final Assumption noThreadSafeCollections = Truffle.getRuntime().createAssumption("no thread-safe collections needed");
 
     private static final Assumption singleNativeContext = Truffle.getRuntime().createAssumption("single native context assumption");
 
@@ -220,12 +232,21 @@ public final class PythonContext {
     private final PosixResources resources;
     private final AsyncHandler handler;
 
+    // The global cache for attribute lookups in types' MROs
+    private final TypeAttributeCache typeAttributeCache = new TypeAttributeCache();
+
     // A thread-local to store the full path to the currently active import statement, for Jython
     // compat
     private final ThreadLocal<ArrayDeque<String>> currentImport = new ThreadLocal<>();
 
     @CompilationFinal(dimensions = 1) private Object[] optionValues;
 
+    /** The global interpreter lock or {@code null} if threads run in parallel. */
+    private final GlobalInterpreterLock gil;
+
+    /** The value of {@code sys.getswitchinterval()}, 5ms by default like in CPython. */
+    private volatile double switchInterval = 0.005;
+
     public PythonContext(PythonLanguage language, TruffleLanguage.Env env, PythonCore core) {
         this.language = language;
         this.core = core;
@@ -233,6 +254,7 @@ public final class PythonContext {
         this.resources = new PosixResources();
         this.handler = new AsyncHandler(language);
         this.optionValues = PythonOptions.createOptionValuesStorage(env);
+        this.gil = env.getOptions().get(PythonOptions.WithGIL) ? new GlobalInterpreterLock() : null;
         this.resources.setEnv(env);
         this.in = env.in();
         this.out = env.out();
@@ -243,6 +265,40 @@ public final class PythonContext {
         return threadGroup;
     }
 
+    /**
+     * Creates an unstarted thread for a Python thread that runs {@code runnable}. This is a virtual
+     * thread if the {@link PythonOptions#VirtualThreads} option is set and the host JDK supports
+     * them, and a platform thread in {@link #getThreadGroup()} otherwise.
+     */
+    @TruffleBoundary
+    public Thread createPythonThread(Runnable runnable) {
+        if (getOption(PythonOptions.VirtualThreads)) {
+            Thread thread = VirtualThreads.create(env.getContext(), () -> {
+                try {
+                    runnable.run();
+                } catch (PythonThreadKillException e) {
+                    // the thread was cancelled, see 'cancelVirtualThreads'
+                } finally {
+                    virtualThreads.remove(Thread.currentThread());
+                }
+            });
+            if (thread != null) {
+                // register before the thread starts, so it is counted and joined right away
+                virtualThreads.add(thread);
+                return thread;
+            }
+        }
+        return env.createThread(runnable, env.getContext(), threadGroup);
+    }
+
+    /**
+     * Returns the number of Python threads that are alive, not counting the main thread.
+     */
+    @TruffleBoundary
+    public int getActiveThreadCount() {
+        return threadGroup.activeCount() + virtualThreads.size();
+    }
+
     @TruffleBoundary(allowInlining = true)
     public long getPythonThreadStackSize() {
         return pythonThreadStackSize.get();
@@ -673,6 +729,7 @@ public final class PythonContext {
                 LOGGER.fine("threading module has no member " + SpecialMethodNames.SHUTDOWN);
                 return;
             }
+            acquireGil();
             try {
                 CallNode.getUncached().execute(null, attrShutdown);
             } catch (Exception | StackOverflowError e) {
@@ -684,6 +741,9 @@ public final class PythonContext {
                     }
                 }
                 throw e;
+            } finally {
+                // the remaining threads are joined below and need the lock to finish
+                releaseGil();
             }
         } else {
             // threading was not imported; this is
@@ -718,6 +778,44 @@ public final class PythonContext {
         }
     }
 
+    /**
+     * Stops the virtual threads that are still alive when the context is finalized or disposed.
+     * Unlike the threads created by Truffle, the polyglot context does not know about them and
+     * would neither wait for nor cancel them. Python code in these threads sees the cancellation at
+     * its next poll point (see {@link #triggerAsyncActions}), blocking operations see it as an
+     * interrupt. Threads that do not end within {@value #VIRTUAL_THREAD_JOIN_TIMEOUT_MILLIS}ms are
+     * abandoned. The GIL is left released, since the cancelled threads may need it to reach a poll
+     * point.
+     */
+    @TruffleBoundary
+    public void cancelVirtualThreads() {
+        Thread[] threads = virtualThreads.toArray(new Thread[0]);
+        if (threads.length == 0) {
+            return;
+        }
+        handler.cancel(virtualThreads);
+        for (Thread thread : threads) {
+            LOGGER.finest("cancelling virtual thread " + thread);
+            thread.interrupt();
+        }
+        releaseGil();
+        long deadline = System.currentTimeMillis() + VIRTUAL_THREAD_JOIN_TIMEOUT_MILLIS;
+        try {
+            for (Thread thread : threads) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining > 0) {
+                    thread.join(remaining);
+                }
+                if (thread.isAlive()) {
+                    LOGGER.warning("abandoning virtual thread " + thread + " that did not stop after it was cancelled");
+                }
+            }
+        } catch (InterruptedException e) {
+            LOGGER.finest("got interrupt while cancelling virtual threads");
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @TruffleBoundary
     public PThreadState getCustomThreadState() {
         if (customThreadState == null) {
@@ -742,6 +840,14 @@ public final class PythonContext {
         return singleThreaded;
     }
 
+    /**
+     * Valid until a second thread enters this context with
+     * {@link PythonOptions#ThreadSafeCollections} enabled.
+     */
+    public Assumption getNoThreadSafeCollectionsAssumption() {
+        return noThreadSafeCollections;
+    }
+
     public Assumption getNativeObjectsAllManagedAssumption() {
         return nativeObjectsAllManagedAssumption;
     }
@@ -754,11 +860,72 @@ public final class PythonContext {
         return resources;
     }
 
+    public TypeAttributeCache getTypeAttributeCache() {
+        return typeAttributeCache;
+    }
+
     /**
      * Trigger any pending asynchronous actions
      */
     public void triggerAsyncActions(VirtualFrame frame, Node location) {
         handler.triggerAsyncActions(frame, location);
+        if (gil != null) {
+            gil.yieldIfRequested();
+        }
+    }
+
+    /**
+     * Whether there are asynchronous actions that the next poll point would run. Blocking
+     * operations use this to decide if an interrupt is worth waiting again for.
+     */
+    public boolean hasPendingAsyncActions() {
+        return handler.hasPendingActions();
+    }
+
+    public GlobalInterpreterLock getGil() {
+        return gil;
+    }
+
+    public double getSwitchInterval() {
+        return switchInterval;
+    }
+
+    public void setSwitchInterval(double seconds) {
+        switchInterval = seconds;
+        if (gil != null) {
+            gil.setSwitchInterval(seconds);
+        }
+    }
+
+    /**
+     * Acquires the global interpreter lock if there is one and the current thread does not hold
+     * it yet.
+     *
+     * @return {@code true} if the caller needs to {@link #releaseGil() release} it again
+     */
+    public boolean acquireGil() {
+        return gil != null && gil.acquire();
+    }
+
+    /**
+     * Releases the global interpreter lock if the current thread holds it. Call this before
+     * operations that may block for a long time, like this:
+     *
+     * <pre>
+     * boolean released = context.releaseGil();
+     * try {
+     *     // blocking operation
+     * } finally {
+     *     if (released) {
+     *         context.acquireGil();
+     *     }
+     * }
+     * </pre>
+     *
+     * @return {@code true} if the caller needs to {@link #acquireGil() reacquire} it afterwards
+     */
+    public boolean releaseGil() {
+        return gil != null && gil.release();
     }
 
     public void registerAsyncAction(Supplier<AsyncAction> actionSupplier) {
@@ -921,6 +1088,9 @@ public final class PythonContext {
     public void initializeMultiThreading() {
         interopLock = new ReentrantLock();
         singleThreaded.invalidate();
+        if (getOption(PythonOptions.ThreadSafeCollections)) {
+            noThreadSafeCollections.invalidate();
+        }
         threadState = new ThreadLocal<>();
         synchronized (this) {
             threadStateMapping = new HashMap<>();
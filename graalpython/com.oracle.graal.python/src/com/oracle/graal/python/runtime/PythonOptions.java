@@ -96,6 +96,12 @@ public final class PythonOptions {
     @Option(category = OptionCategory.USER, help = "Equivalent to the Python -v flag. Turn on verbose mode.", stability = OptionStability.STABLE) //
     public static final OptionKey<Boolean> VerboseFlag = new OptionKey<>(false);
 
+    // The caches hold serialized syntax trees of whole modules including their source text, so
+    // they are larger than the sources, and the standard library lives in the usually read-only
+    // language home. Writing them therefore stays opt-in.
+    @Option(category = OptionCategory.USER, help = "Equivalent to the Python -B flag. Don't write bytecode caches on import. Default true, set it to false to cache the parsed syntax trees of imported modules.") //
+    public static final OptionKey<Boolean> DontWriteBytecodeFlag = new OptionKey<>(true);
+
     @Option(category = OptionCategory.USER, help = "Equivalent to the Python -u flag. Force stdout and stderr to be unbuffered.", stability = OptionStability.STABLE) //
     public static final OptionKey<Boolean> UnbufferedIO = new OptionKey<>(false);
 
@@ -138,6 +144,10 @@ public final class PythonOptions {
     @EngineOption @Option(category = OptionCategory.EXPERT, help = "") //
     public static final OptionKey<Boolean> ForceInlineGeneratorCalls = new OptionKey<>(false);
 
+    @EngineOption @Option(category = OptionCategory.EXPERT, help = "Execute generators from a single AST that dispatches to the resume point through the stored block indices, " +
+                    "instead of creating one AST copy per yield. Reduces footprint and compilation work for generators with many yields.") //
+    public static final OptionKey<Boolean> SharedGeneratorAST = new OptionKey<>(false);
+
     @Option(category = OptionCategory.EXPERT, help = "Minimal size of string, when lazy strings are used. Default 20") //
     public static final OptionKey<Integer> MinLazyStringLength = new OptionKey<>(20);
 
@@ -147,6 +157,16 @@ public final class PythonOptions {
     @EngineOption @Option(category = OptionCategory.EXPERT, help = "This option control builtin _thread module support") //
     public static final OptionKey<Boolean> WithThread = new OptionKey<>(false);
 
+    @EngineOption @Option(category = OptionCategory.EXPERT, help = "Guard dicts, sets and lists with a lock as soon as a second thread runs in the context. " +
+                    "Only relevant together with WithThread, since Python threads then run in parallel.") //
+    public static final OptionKey<Boolean> ThreadSafeCollections = new OptionKey<>(false);
+
+    @Option(category = OptionCategory.EXPERT, help = "Run Python threads under a global interpreter lock like CPython does. Only relevant together with WithThread.") //
+    public static final OptionKey<Boolean> WithGIL = new OptionKey<>(false);
+
+    @Option(category = OptionCategory.EXPERT, help = "Run Python threads on virtual threads if the host JDK supports them (JDK 21+), otherwise on platform threads. Only relevant together with WithThread.") //
+    public static final OptionKey<Boolean> VirtualThreads = new OptionKey<>(false);
+
     // disabling TRegex has an effect on the _sre Python functions that are
     // dynamically created, so we cannot change that option again.
     @EngineOption @Option(category = OptionCategory.EXPERT, help = "Use the optimized TRegex engine and call the CPython sre engine only as a fallback. Default true") //
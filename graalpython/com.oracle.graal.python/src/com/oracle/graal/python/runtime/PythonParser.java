@@ -90,6 +90,22 @@ public interface PythonParser {
      */
     Node parse(ParserMode mode, ParserErrorCallback errors, Source source, Frame currentFrame);
 
+    /**
+     * Parses the given {@link Source} as a file and serializes the resulting syntax tree, so that
+     * {@link #deserialize} can create the module {@link RootNode} without parsing the source again.
+     */
+    byte[] serialize(ParserErrorCallback errors, Source source);
+
+    /**
+     * Creates a module {@link RootNode} from data produced by {@link #serialize}.
+     */
+    RootNode deserialize(ParserErrorCallback errors, byte[] data);
+
+    /**
+     * Check if the given code string was produced by {@link #serialize}
+     */
+    boolean isSerialized(byte[] data);
+
     /**
      * Check if an expression can be parsed as an identifier
      */
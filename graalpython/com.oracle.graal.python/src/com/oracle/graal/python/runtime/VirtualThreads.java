@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.lang.reflect.Method;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleContext;
+
+/**
+ * Creates Python threads as virtual threads if the host JDK has them (JDK 21 and later). We are
+ * compiled against Java 8, so the builder API is looked up reflectively once. Truffle only knows
+ * how to create platform threads, so a virtual thread enters the context itself before running
+ * its body.
+ *
+ * Blocking operations of Python threads use {@code java.util.concurrent} locks, {@code Thread.sleep}
+ * and NIO channels, which all park a virtual thread instead of pinning its carrier.
+ */
+public final class VirtualThreads {
+
+    private static final Object BUILDER;
+    private static final Method UNSTARTED;
+
+    static {
+        Object builder = null;
+        Method unstarted = null;
+        try {
+            builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            unstarted = Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException | LinkageError | SecurityException e) {
+            // an older JDK; Python threads stay platform threads
+            builder = null;
+            unstarted = null;
+        }
+        BUILDER = builder;
+        UNSTARTED = unstarted;
+    }
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return UNSTARTED != null;
+    }
+
+    /**
+     * Returns an unstarted virtual thread that runs {@code body} entered in {@code context}, or
+     * {@code null} if virtual threads are not supported.
+     */
+    @TruffleBoundary
+    public static Thread create(TruffleContext context, Runnable body) {
+        if (!isSupported()) {
+            return null;
+        }
+        Runnable entered = () -> {
+            Object prev = context.enter();
+            try {
+                body.run();
+            } finally {
+                context.leave(prev);
+            }
+        };
+        try {
+            return (Thread) UNSTARTED.invoke(BUILDER, entered);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
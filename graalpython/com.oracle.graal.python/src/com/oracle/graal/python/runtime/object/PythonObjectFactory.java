@@ -29,9 +29,12 @@ import java.io.ByteArrayOutputStream;
 import java.lang.ref.ReferenceQueue;
 import java.math.BigInteger;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.Selector;
 import java.nio.file.DirectoryStream;
 import java.util.Iterator;
 import java.util.concurrent.Semaphore;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.graalvm.collections.EconomicMap;
 import org.tukaani.xz.FinishableOutputStream;
@@ -99,11 +102,13 @@ import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.posix.PDirEntry;
 import com.oracle.graal.python.builtins.objects.posix.PScandirIterator;
+import com.oracle.graal.python.builtins.objects.queue.PSimpleQueue;
 import com.oracle.graal.python.builtins.objects.random.PRandom;
 import com.oracle.graal.python.builtins.objects.range.PRange;
 import com.oracle.graal.python.builtins.objects.referencetype.PReferenceType;
 import com.oracle.graal.python.builtins.objects.reversed.PSequenceReverseIterator;
 import com.oracle.graal.python.builtins.objects.reversed.PStringReverseIterator;
+import com.oracle.graal.python.builtins.objects.select.PEpoll;
 import com.oracle.graal.python.builtins.objects.set.PBaseSet;
 import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
 import com.oracle.graal.python.builtins.objects.set.PSet;
@@ -121,6 +126,8 @@ import com.oracle.graal.python.builtins.objects.type.LazyPythonClass;
 import com.oracle.graal.python.builtins.objects.type.PythonAbstractClass;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.builtins.objects.zipimporter.PZipImporter;
+import com.oracle.graal.python.builtins.objects.zlib.PZLibCompress;
+import com.oracle.graal.python.builtins.objects.zlib.PZLibDecompress;
 import com.oracle.graal.python.nodes.attributes.WriteAttributeToDynamicObjectNode;
 import com.oracle.graal.python.nodes.literal.ListLiteralNode;
 import com.oracle.graal.python.parser.ExecutionCellSlots;
@@ -534,7 +541,7 @@ public abstract class PythonObjectFactory extends Node {
     public PGenerator createGenerator(String name, RootCallTarget[] callTargets, FrameDescriptor frameDescriptor, Object[] arguments, PCell[] closure, ExecutionCellSlots cellSlots,
                     int numOfActiveFlags, int numOfGeneratorBlockNode, int numOfGeneratorForNode, Object iterator) {
         return trace(PGenerator.create(PythonBuiltinClassType.PGenerator, name, callTargets, frameDescriptor, arguments, closure, cellSlots, numOfActiveFlags, numOfGeneratorBlockNode,
-                        numOfGeneratorForNode, this, iterator));
+                        numOfGeneratorForNode, iterator));
     }
 
     public PGeneratorFunction createGeneratorFunction(String name, String enclosingClassName, PCode code, PythonObject globals, PCell[] closure, Object[] defaultValues,
@@ -806,6 +813,14 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PLock(cls));
     }
 
+    public PSimpleQueue createSimpleQueue(LazyPythonClass cls) {
+        return trace(new PSimpleQueue(cls));
+    }
+
+    public PEpoll createEpoll(LazyPythonClass cls, Selector selector) {
+        return trace(new PEpoll(cls, selector));
+    }
+
     public PRLock createRLock() {
         return trace(new PRLock(PythonBuiltinClassType.PRLock));
     }
@@ -853,4 +868,12 @@ public abstract class PythonObjectFactory extends Node {
     public PLZMADecompressor createLZMADecompressor(LazyPythonClass clazz, int format, int memlimit) {
         return trace(new PLZMADecompressor(clazz, format, memlimit));
     }
+
+    public PZLibCompress createZLibCompress(Deflater deflater, int level, int wbits, int strategy, byte[] zdict) {
+        return trace(new PZLibCompress(PythonBuiltinClassType.PZLibCompress, deflater, level, wbits, strategy, zdict));
+    }
+
+    public PZLibDecompress createZLibDecompress(Inflater inflater, byte[] zdict) {
+        return trace(new PZLibDecompress(PythonBuiltinClassType.PZLibDecompress, inflater, zdict));
+    }
 }
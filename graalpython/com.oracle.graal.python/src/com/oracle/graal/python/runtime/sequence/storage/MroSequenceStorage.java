@@ -47,6 +47,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.oracle.graal.python.builtins.objects.type.PythonAbstractClass;
+import com.oracle.graal.python.builtins.objects.type.TypeAttributeCache;
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
@@ -69,6 +70,11 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
      */
     private final Map<String, List<Assumption>> attributesInMROFinalAssumptions = new HashMap<>();
 
+    /**
+     * Version tag for the {@link TypeAttributeCache}, or {@code 0} if there is none.
+     */
+    private volatile long versionTag;
+
     @CompilationFinal(dimensions = 1) private PythonAbstractClass[] values;
 
     public MroSequenceStorage(String className, PythonAbstractClass[] elements) {
@@ -150,6 +156,7 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
 
         // range is the whole sequence?
         if (sameLengthProfile.profile(start == 0 && stop == length && step == 1)) {
+            TypeAttributeCache.invalidate(this);
             values = Arrays.copyOf(sequence.values, otherLength);
             length = otherLength;
             minimizeCapacity();
@@ -202,6 +209,7 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
     }
 
     public Object popObject() {
+        TypeAttributeCache.invalidate(this);
         Object pop = values[length - 1];
         length--;
         return pop;
@@ -247,6 +255,7 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
     @Override
     public void setInternalArrayObject(Object arrayObject) {
         PythonAbstractClass[] classArray = (PythonAbstractClass[]) arrayObject;
+        TypeAttributeCache.invalidate(this);
         this.values = classArray;
         this.length = classArray.length;
         this.capacity = classArray.length;
@@ -257,6 +266,14 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
         return ListStorageType.Generic;
     }
 
+    public long getVersionTag() {
+        return versionTag;
+    }
+
+    public void setVersionTag(long versionTag) {
+        this.versionTag = versionTag;
+    }
+
     public Assumption getLookupStableAssumption() {
         return lookupStableAssumption.getAssumption();
     }
@@ -287,6 +304,7 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
 
     @TruffleBoundary
     public void invalidateAttributeInMROFinalAssumptions(String name) {
+        TypeAttributeCache.invalidate(this);
         List<Assumption> assumptions = attributesInMROFinalAssumptions.getOrDefault(name, new ArrayList<>());
         if (!assumptions.isEmpty()) {
             String message = getClassName() + "." + name;
@@ -297,6 +315,7 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
     }
 
     public void lookupChanged() {
+        TypeAttributeCache.invalidate(this);
         for (List<Assumption> list : attributesInMROFinalAssumptions.values()) {
             for (Assumption assumption : list) {
                 assumption.invalidate();
@@ -306,6 +325,7 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
     }
 
     public void lookupChanged(String msg) {
+        TypeAttributeCache.invalidate(this);
         for (List<Assumption> list : attributesInMROFinalAssumptions.values()) {
             for (Assumption assumption : list) {
                 assumption.invalidate();
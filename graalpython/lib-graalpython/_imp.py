@@ -43,7 +43,7 @@ _py_package_context = None
 
 @__graalpython__.builtin
 def get_magic():
-    return b'\x0c\xaf\xaf\xe1'
+    return b'\x0d\xaf\xaf\xe1'
 
 
 @__graalpython__.builtin
@@ -51,6 +51,7 @@ AI_DEFAULT = (AI_V4MAPPED_CFG | AI_ADDRCONFIG)
 SOL_SOCKET = 0
 SOL_TCP = 6
 SO_REUSEADDR = 0
+SO_ERROR = 4
 
 # Socket types
 SOCK_DGRAM = 2
@@ -55,6 +55,7 @@ MICRO_BENCHMARKS = {
     'attribute-access': ITER_10 + ['5000'],
     'attribute-access-super': ITER_10 + ['5_000'],
     'attribute-bool': ITER_10 + ['3000'],
+    'bigint-conversion-sized': ITER_10 + ['5'],
     'boolean-logic-sized': ITER_10 + ['5_000'],
     'builtin-len-tuple-sized': ITER_10 + ['1_000_000_000'],
     'builtin-len': ITER_10 + [],
@@ -88,6 +89,7 @@ MICRO_BENCHMARKS = {
     'call-classmethod-sized': ITER_10 + ['500_000_000'],
     'mmap-anonymous-sized': ITER_10 + ['20_000'],
     'mmap-file': ITER_10 + ['1000'],
+    'asyncio-echo': ITER_10 + ['10000'],
     'generate-functions-sized': ITER_15 + ['500_000_000'],
     'try-except-sized': ITER_10 + ['100_000_000'],
     'try-except-store-sized': ITER_10 + ['100_000_000'],
@@ -181,6 +183,9 @@ INTEROP_JAVA_BENCHMARKS = {
     'euler11': [_INTEROP_JAVA_PACKAGE + 'PyEuler11'] + MESO_BENCHMARKS['euler11'],
     'nbody3': [_INTEROP_JAVA_PACKAGE + 'PyNbody'] + MESO_BENCHMARKS['nbody3'],
     'fannkuchredux3': [_INTEROP_JAVA_PACKAGE + 'PyFannkuchredux'] + MESO_BENCHMARKS['fannkuchredux3'],
+    'collections-contention': [_INTEROP_JAVA_PACKAGE + 'PyCollectionsContention'] + ITER_10 + ['200000', '4', 'true'],
+    'threadring-threads': [_INTEROP_JAVA_PACKAGE + 'PyThreadRing'] + ITER_10 + ['10000', '200000', 'false'],
+    'threadring-virtual': [_INTEROP_JAVA_PACKAGE + 'PyThreadRing'] + ITER_10 + ['10000', '200000', 'true'],
 }
 
 